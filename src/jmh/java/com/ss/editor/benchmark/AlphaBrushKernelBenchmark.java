@@ -0,0 +1,152 @@
+package com.ss.editor.benchmark;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.texture.Image;
+import com.jme3.texture.image.ColorSpace;
+import com.jme3.util.BufferUtils;
+import com.ss.editor.control.painting.terrain.AlphaBrushKernel;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of painting a brush step into an alpha map by the brush kernel against the previous per-pixel loop.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlphaBrushKernelBenchmark {
+
+    private static final int SIZE = 1024;
+
+    /**
+     * The brush radius in percents of the image, large brushes are painted by parallel tasks.
+     */
+    @Param({"0.01", "0.05", "0.2"})
+    private float radius;
+
+    @Param({"RGBA8", "ABGR8"})
+    private Image.Format format;
+
+    private AlphaBrushKernel kernel;
+    private Image image;
+
+    /**
+     * The brush power, its sign is changed after each step to not saturate the channel.
+     */
+    private float power;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+
+        final byte[] content = new byte[SIZE * SIZE * 4];
+        new Random(1).nextBytes(content);
+
+        final ByteBuffer data = BufferUtils.createByteBuffer(content.length);
+        data.put(content).flip();
+
+        image = new Image(format, SIZE, SIZE, data, ColorSpace.Linear);
+        kernel = new AlphaBrushKernel();
+        power = 0.1F;
+    }
+
+    @Benchmark
+    public Image paintByKernel() {
+
+        final float u = 0.5F, v = 0.5F;
+        final int minX = (int) Math.max(0, (u * SIZE - radius * SIZE));
+        final int maxX = (int) Math.min(SIZE, (u * SIZE + radius * SIZE));
+        final int minY = (int) Math.max(0, (v * SIZE - radius * SIZE));
+        final int maxY = (int) Math.min(SIZE, (v * SIZE + radius * SIZE));
+
+        power = -power;
+        kernel.paint(image, 1, u, v, radius, power, minX, minY, maxX, maxY);
+
+        return image;
+    }
+
+    @Benchmark
+    public Image paintPerPixel() {
+        power = -power;
+        paintPerPixel(image, 1, 0.5F, 0.5F, radius, power);
+        return image;
+    }
+
+    /**
+     * The previous implementation of the brush step which visits each pixel and reads and writes all channels.
+     */
+    private static void paintPerPixel(@NotNull final Image image, final int channel, final float u, final float v,
+                                      final float radius, final float power) {
+
+        final ByteBuffer buffer = image.getData(0);
+        final ColorRGBA color = new ColorRGBA();
+
+        final int width = image.getWidth();
+        final float height = image.getHeight();
+
+        final int minX = (int) Math.max(0, (u * width - radius * width));
+        final int maxX = (int) Math.min(width, (u * width + radius * width));
+        final int minY = (int) Math.max(0, (v * height - radius * height));
+        final int maxY = (int) Math.min(height, (v * height + radius * height));
+
+        final float radiusSquared = radius * radius;
+
+        for (int y = minY; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+
+                final float dx = (float) x / width - u;
+                final float dy = (float) y / height - v;
+                final float dist = dx * dx + dy * dy;
+
+                if (dist >= radiusSquared) {
+                    continue;
+                }
+
+                final int position = (y * width + x) * 4;
+                final boolean abgr = image.getFormat() == Image.Format.ABGR8;
+
+                final float first = (buffer.get(position) & 0xFF) / 255F;
+                final float second = (buffer.get(position + 1) & 0xFF) / 255F;
+                final float third = (buffer.get(position + 2) & 0xFF) / 255F;
+                final float fourth = (buffer.get(position + 3) & 0xFF) / 255F;
+
+                if (abgr) {
+                    color.set(fourth, third, second, first);
+                } else {
+                    color.set(first, second, third, fourth);
+                }
+
+                final float intensity = (1.0F - (dist / radiusSquared)) * power;
+
+                switch (channel) {
+                    case 0: color.r += intensity; break;
+                    case 1: color.g += intensity; break;
+                    case 2: color.b += intensity; break;
+                    default: color.a += intensity;
+                }
+
+                color.clamp();
+
+                if (abgr) {
+                    buffer.put(position, (byte) (color.a * 255F));
+                    buffer.put(position + 1, (byte) (color.b * 255F));
+                    buffer.put(position + 2, (byte) (color.g * 255F));
+                    buffer.put(position + 3, (byte) (color.r * 255F));
+                } else {
+                    buffer.put(position, (byte) (color.r * 255F));
+                    buffer.put(position + 1, (byte) (color.g * 255F));
+                    buffer.put(position + 2, (byte) (color.b * 255F));
+                    buffer.put(position + 3, (byte) (color.a * 255F));
+                }
+            }
+        }
+    }
+}
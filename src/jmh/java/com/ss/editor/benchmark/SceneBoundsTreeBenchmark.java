@@ -0,0 +1,100 @@
+package com.ss.editor.benchmark;
+
+import com.jme3.collision.CollisionResult;
+import com.jme3.collision.CollisionResults;
+import com.jme3.math.Ray;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.shape.Box;
+import com.ss.editor.model.scene.SceneBoundsTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of picking by the scene bounds tree against picking by colliding with the whole scene.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SceneBoundsTreeBenchmark {
+
+    private static final int RAYS = 1000;
+
+    /**
+     * The size of the grid of geometries.
+     */
+    @Param({"50", "150"})
+    private int gridSize;
+
+    private Node scene;
+    private SceneBoundsTree tree;
+    private Ray[] rays;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        final Box box = new Box(0.4F, 0.4F, 0.4F);
+
+        scene = new Node("scene");
+
+        for (int x = 0; x < gridSize; x++) {
+            for (int z = 0; z < gridSize; z++) {
+                final Geometry geometry = new Geometry("box_" + x + "_" + z, box);
+                geometry.setLocalTranslation(x, (x * 31 + z * 17) % 5, z);
+                scene.attachChild(geometry);
+            }
+        }
+
+        scene.updateGeometricState();
+
+        final Random random = new Random(1);
+
+        rays = new Ray[RAYS];
+
+        for (int i = 0; i < RAYS; i++) {
+
+            final Vector3f origin = new Vector3f(random.nextFloat() * gridSize, 30, random.nextFloat() * gridSize);
+            final Vector3f target = new Vector3f(random.nextFloat() * gridSize, 0, random.nextFloat() * gridSize);
+
+            rays[i] = new Ray(origin, target.subtractLocal(origin).normalizeLocal());
+        }
+
+        tree = new SceneBoundsTree(scene);
+        tree.pick(rays[0], null);
+    }
+
+    @Benchmark
+    public CollisionResult collideWithScene() {
+        final CollisionResults results = new CollisionResults();
+        scene.collideWith(nextRay(), results);
+        return results.size() < 1 ? null : results.getClosestCollision();
+    }
+
+    @Benchmark
+    public CollisionResult pickByTree() {
+        return tree.pick(nextRay(), null);
+    }
+
+    /**
+     * Pick by the tree which is invalidated before each pick as the editor does it once per frame.
+     */
+    @Benchmark
+    public CollisionResult pickByInvalidatedTree() {
+        tree.invalidate();
+        return tree.pick(nextRay(), null);
+    }
+
+    private Ray nextRay() {
+        index = (index + 1) % RAYS;
+        return rays[index];
+    }
+}
@@ -0,0 +1,189 @@
+package com.jme3.terrain.geomipmap;
+
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Spatial;
+import com.jme3.terrain.geomipmap.TerrainQuad.LocationHeight;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The writer to change many heights of a terrain quad by one update of its patches. The public API of the terrain
+ * quad needs a vector and a boxed float for each point and re-creates vertex buffers of patches for each call, so
+ * this writer reuses location objects between calls and passes all points to the quad at once. Bounds are updated
+ * only for patches which contain changed points.
+ *
+ * @author JavaSaBr
+ */
+public class TerrainHeightWriter {
+
+    /**
+     * Get the heightmap height of the point of the terrain.
+     *
+     * @param quad the terrain quad.
+     * @param x    the x coordinate in the heightmap.
+     * @param z    the z coordinate in the heightmap.
+     * @return the height or {@link Float#NaN} if the point is outside of the terrain.
+     */
+    public static float getHeight(final TerrainQuad quad, final int x, final int z) {
+
+        final int totalSize = quad.getTerrainSize();
+
+        if (x < 0 || z < 0 || x > totalSize || z > totalSize) {
+            return Float.NaN;
+        }
+
+        return quad.getHeightmapHeight(x, z);
+    }
+
+    /**
+     * The pool of locations.
+     */
+    private final List<LocationHeight> pool;
+
+    /**
+     * The locations to write.
+     */
+    private final List<LocationHeight> locations;
+
+    /**
+     * The corners of the changed area.
+     */
+    private final Vector2f min;
+    private final Vector2f max;
+
+    /**
+     * The current terrain quad.
+     */
+    private TerrainQuad quad;
+
+    public TerrainHeightWriter() {
+        this.pool = new ArrayList<>();
+        this.locations = new ArrayList<>();
+        this.min = new Vector2f();
+        this.max = new Vector2f();
+    }
+
+    /**
+     * Start writing heights to the terrain quad.
+     *
+     * @param quad the terrain quad.
+     */
+    public void begin(final TerrainQuad quad) {
+        this.quad = quad;
+        this.locations.clear();
+        this.min.set(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        this.max.set(Integer.MIN_VALUE, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Add a height to write.
+     *
+     * @param x      the x coordinate in the heightmap.
+     * @param z      the z coordinate in the heightmap.
+     * @param height the new height.
+     */
+    public void add(final int x, final int z, final float height) {
+
+        final int totalSize = quad.getTerrainSize();
+
+        if (x < 0 || z < 0 || x > totalSize || z > totalSize) {
+            return;
+        }
+
+        final int count = locations.size();
+        final LocationHeight location;
+
+        if (count < pool.size()) {
+            location = pool.get(count);
+        } else {
+            location = quad.new LocationHeight();
+            pool.add(location);
+        }
+
+        location.x = x;
+        location.z = z;
+        location.h = height;
+
+        locations.add(location);
+
+        min.set(Math.min(min.x, x), Math.min(min.y, z));
+        max.set(Math.max(max.x, x), Math.max(max.y, z));
+    }
+
+    /**
+     * Write all added heights to the terrain quad and mark normals of the changed area to recalculate.
+     */
+    public void commit() {
+
+        if (locations.isEmpty()) {
+            quad = null;
+            return;
+        }
+
+        quad.setHeight(locations, true);
+
+        // the quad doesn't update bounds of changed patches, so we update only them instead of the whole model
+        updateBounds(quad, (int) min.x, (int) min.y, (int) max.x, (int) max.y);
+
+        final Vector3f scale = quad.getWorldScale();
+        final float halfSize = quad.getTerrainSize() / 2;
+
+        min.set((min.x - halfSize) * scale.x, (min.y - halfSize) * scale.z);
+        max.set((max.x - halfSize) * scale.x, (max.y - halfSize) * scale.z);
+
+        quad.setNormalRecalcNeeded(min);
+        quad.setNormalRecalcNeeded(max);
+
+        locations.clear();
+        quad = null;
+    }
+
+    /**
+     * Update bounds of patches of the quad which contain points of the area.
+     *
+     * @param quad the terrain quad.
+     * @param minX the min x of the area in the heightmap of the quad.
+     * @param minZ the min z of the area in the heightmap of the quad.
+     * @param maxX the max x of the area in the heightmap of the quad.
+     * @param maxZ the max z of the area in the heightmap of the quad.
+     */
+    private static void updateBounds(final TerrainQuad quad, final int minX, final int minZ, final int maxX,
+                                     final int maxZ) {
+
+        // the same split of the heightmap as in TerrainQuad.setHeight, children share the middle row and column
+        final int split = (quad.size + 1) >> 1;
+
+        for (final Spatial child : quad.getChildren()) {
+
+            final int quadrant;
+
+            if (child instanceof TerrainQuad) {
+                quadrant = ((TerrainQuad) child).getQuadrant();
+            } else if (child instanceof TerrainPatch) {
+                quadrant = ((TerrainPatch) child).getQuadrant();
+            } else {
+                continue;
+            }
+
+            final int offsetX = quadrant == 3 || quadrant == 4 ? split - 1 : 0;
+            final int offsetZ = quadrant == 2 || quadrant == 4 ? split - 1 : 0;
+
+            final int childMinX = Math.max(minX - offsetX, 0);
+            final int childMinZ = Math.max(minZ - offsetZ, 0);
+            final int childMaxX = Math.min(maxX - offsetX, split - 1);
+            final int childMaxZ = Math.min(maxZ - offsetZ, split - 1);
+
+            if (childMinX > childMaxX || childMinZ > childMaxZ) {
+                continue;
+            }
+
+            if (child instanceof TerrainQuad) {
+                updateBounds((TerrainQuad) child, childMinX, childMinZ, childMaxX, childMaxZ);
+            } else {
+                child.updateModelBound();
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.ss.editor.config.CommandLineConfig;
 import com.ss.editor.config.Config;
 import com.ss.editor.config.EditorConfig;
 import com.ss.editor.executor.impl.JmeThreadExecutor;
+import com.ss.editor.file.cache.PreviewCache;
 import com.ss.editor.file.converter.FileConverterRegistry;
 import com.ss.editor.manager.*;
 import com.ss.editor.plugin.api.settings.SettingsProviderRegistry;
@@ -41,7 +42,6 @@ import com.ss.editor.util.OpenGLVersion;
 import com.ss.editor.util.svg.SvgImageLoaderFactory;
 import com.ss.rlib.logging.Logger;
 import com.ss.rlib.logging.LoggerManager;
-import com.ss.rlib.manager.InitializeManager;
 import com.ss.rlib.util.ArrayUtils;
 import com.ss.rlib.util.array.Array;
 import com.ss.rlib.util.array.ArrayFactory;
@@ -141,14 +141,16 @@ public class JfxApplication extends Application {
             return;
         }
 
-        InitializeManager.register(ClasspathManager.class);
-        InitializeManager.register(ResourceManager.class);
-        InitializeManager.register(JavaFxImageManager.class);
-        InitializeManager.register(FileIconManager.class);
-        InitializeManager.register(WorkspaceManager.class);
-        InitializeManager.register(PluginManager.class);
-        InitializeManager.register(RemoteControlManager.class);
-        InitializeManager.initialize();
+        StartupManager.register(ClasspathManager.class);
+        StartupManager.register(ResourceManager.class, ClasspathManager.class);
+        StartupManager.register(JavaFxImageManager.class);
+        StartupManager.register(WorkspaceManager.class);
+        // the plugin manager should add its initialization actions after the resource manager
+        StartupManager.register(PluginManager.class, ResourceManager.class);
+        // stored icons are valid only for the same loaded plugins
+        StartupManager.register(FileIconManager.class, ClasspathManager.class, PluginManager.class);
+        StartupManager.register(RemoteControlManager.class, ClasspathManager.class);
+        StartupManager.initialize();
 
         new EditorThread(new ThreadGroup("LWJGL"),
                 () -> startJmeApplication(application), "LWJGL Render").start();
@@ -383,6 +385,12 @@ public class JfxApplication extends Application {
         final EditorConfig config = EditorConfig.getInstance();
         config.save();
 
+        final PreviewCache previewCache = PreviewCache.getInstance();
+        previewCache.close();
+
+        final FileIconManager iconManager = FileIconManager.getInstance();
+        iconManager.flush();
+
         final JmeThreadExecutor executor = JmeThreadExecutor.getInstance();
         executor.addToExecute(() -> {
             final JmeApplication jmeApplication = JmeApplication.getInstance();
@@ -415,6 +423,12 @@ public class JfxApplication extends Application {
             editorPlugin.register(SettingsProviderRegistry.getInstance());
         });
 
+        final FileIconManager iconManager = FileIconManager.getInstance();
+        iconManager.applyStoredExtensions();
+
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+        executorManager.addBackgroundTask(iconManager::warm);
+
         final EditorFxScene scene = getScene();
 
         final JmeApplication jmeApplication = JmeApplication.getInstance();
@@ -426,7 +440,6 @@ public class JfxApplication extends Application {
         GAnalytics.forceSendEvent(GAEvent.Category.APPLICATION,
                 GAEvent.Action.APPLICATION_LAUNCHED, GAEvent.Label.THE_EDITOR_APP_WAS_LAUNCHED);
 
-        final ExecutorManager executorManager = ExecutorManager.getInstance();
         executorManager.addBackgroundTask(new CheckNewVersionTask());
 
         final EditorConfig editorConfig = EditorConfig.getInstance();
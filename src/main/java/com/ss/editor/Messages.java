@@ -71,6 +71,7 @@ public class Messages {
 
     public static final String ASSET_EDITOR_DIALOG_TITLE;
     public static final String ASSET_EDITOR_DIALOG_WARNING_SELECT_FILE;
+    public static final String ASSET_EDITOR_DIALOG_FILTER_PROMPT;
 
     public static final String SAVE_AS_EDITOR_DIALOG_TITLE;
     public static final String SAVE_AS_EDITOR_DIALOG_FIELD_FILENAME;
@@ -142,6 +143,7 @@ public class Messages {
     public static final String SETTINGS_PROPERTY_TANGENT_GENERATION;
     public static final String SETTINGS_PROPERTY_FLIPPED_TEXTURE;
     public static final String SETTINGS_PROPERTY_EDITOR_CAMERA_LAMP;
+    public static final String SETTINGS_PROPERTY_UNDO_MEMORY_BUDGET;
     public static final String SETTINGS_PROPERTY_USER_LIBRARIES_FOLDER;
     public static final String SETTINGS_PROPERTY_USER_CLASSES_FOLDER;
     public static final String SETTINGS_PROPERTY_THEME;
@@ -763,6 +765,7 @@ public class Messages {
 
         ASSET_EDITOR_DIALOG_TITLE = bundle.getString("AssetEditorDialogTitle");
         ASSET_EDITOR_DIALOG_WARNING_SELECT_FILE = bundle.getString("AssetEditorDialogWarningSelectFile");
+        ASSET_EDITOR_DIALOG_FILTER_PROMPT = bundle.getString("AssetEditorDialogFilterPrompt");
         SAVE_AS_EDITOR_DIALOG_TITLE = bundle.getString("SaveAsEditorDialogTitle");
         SAVE_AS_EDITOR_DIALOG_FIELD_FILENAME = bundle.getString("SaveAsEditorDialogFieldFilename");
 
@@ -836,6 +839,7 @@ public class Messages {
         SETTINGS_PROPERTY_TANGENT_GENERATION = bundle.getString("SettingsPropertyTangentGeneration");
         SETTINGS_PROPERTY_FLIPPED_TEXTURE = bundle.getString("SettingsPropertyFlippedTexture");
         SETTINGS_PROPERTY_EDITOR_CAMERA_LAMP = bundle.getString("SettingsPropertyEditorCameraLamp");
+        SETTINGS_PROPERTY_UNDO_MEMORY_BUDGET = bundle.getString("SettingsPropertyUndoMemoryBudget");
         SETTINGS_PROPERTY_USER_LIBRARIES_FOLDER = bundle.getString("SettingsPropertyUserLibrariesFolder");
         SETTINGS_PROPERTY_USER_CLASSES_FOLDER = bundle.getString("SettingsPropertyUserClassesFolder");
         SETTINGS_PROPERTY_THEME = bundle.getString("SettingsPropertyTheme");
@@ -59,6 +59,7 @@ public class DefaultSettingsProvider implements SettingsProvider {
         @NotNull String PREF_TANGENT_GENERATION = "core.editor.tangent.generation";
         @NotNull String PREF_FLIPPED_TEXTURES = "core.editor.texture.flipped";
         @NotNull String PREF_CAMERA_LAMP = "core.editor.camera.lamp";
+        @NotNull String PREF_UNDO_MEMORY_BUDGET = "core.editor.undo.memory.budget";
     }
 
     public interface Defaults {
@@ -71,6 +72,7 @@ public class DefaultSettingsProvider implements SettingsProvider {
         int PREF_DEFAULT_ANISOTROPY = 16;
         int PREF_DEFAULT_FRAME_RATE = 60;
         int PREF_DEFAULT_CAMERA_ANGLE = 75;
+        int PREF_DEFAULT_UNDO_MEMORY_BUDGET = 256;
 
         boolean PREF_DEFAULT_TONEMAP_FILTER = true;
         boolean PREF_DEFAULT_GAMMA_CORRECTION = true;
@@ -141,11 +143,13 @@ public class DefaultSettingsProvider implements SettingsProvider {
         final boolean flippedTextures = editorConfig.getBoolean(PREF_FLIPPED_TEXTURES, PREF_DEFAULT_FLIPPED_TEXTURES);
         final boolean cameraLight = editorConfig.getBoolean(PREF_CAMERA_LAMP, PREF_DEFAULT_CAMERA_LIGHT);
         final Path fastSkyFolder = editorConfig.getFile(PREF_FAST_SKY_FOLDER);
+        final int undoMemoryBudget = editorConfig.getInteger(PREF_UNDO_MEMORY_BUDGET, PREF_DEFAULT_UNDO_MEMORY_BUDGET);
 
         result.add(new SettingsPropertyDefinition(EXTERNAL_FILE, Messages.SETTINGS_PROPERTY_FAST_SKY_FOLDER, PREF_FAST_SKY_FOLDER, EDITOR, fastSkyFolder));
         result.add(new SettingsPropertyDefinition(BOOLEAN, Messages.SETTINGS_PROPERTY_TANGENT_GENERATION, PREF_TANGENT_GENERATION, EDITOR, tangentGeneration));
         result.add(new SettingsPropertyDefinition(BOOLEAN, Messages.SETTINGS_PROPERTY_FLIPPED_TEXTURE, PREF_FLIPPED_TEXTURES, EDITOR, flippedTextures));
         result.add(new SettingsPropertyDefinition(BOOLEAN, Messages.SETTINGS_PROPERTY_EDITOR_CAMERA_LAMP, PREF_CAMERA_LAMP, EDITOR, cameraLight));
+        result.add(new SettingsPropertyDefinition(INTEGER, Messages.SETTINGS_PROPERTY_UNDO_MEMORY_BUDGET, PREF_UNDO_MEMORY_BUDGET, EDITOR, undoMemoryBudget, 16, 4096));
 
         final CssColorTheme theme = editorConfig.getEnum(PREF_UI_THEME, PREF_DEFAULT_THEME);
         final Path libraryFolder = editorConfig.getFile(PREF_USER_LIBRARY_FOLDER);
@@ -0,0 +1,249 @@
+package com.ss.editor.control.painting.terrain;
+
+import com.jme3.texture.Image;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The kernel to paint a brush into a channel of an alpha map. The falloff of the brush is separable, so the column
+ * terms of it are calculated once per brush step and each row calculates only its own term. Rows of large brushes
+ * are painted in parallel in the common fork-join pool, each row works with own bytes of the image buffer, so the
+ * rows don't need any synchronization.
+ *
+ * @author JavaSaBr
+ */
+public class AlphaBrushKernel {
+
+    /**
+     * The max count of pixels to paint by one task.
+     */
+    private static final int PIXELS_PER_TASK = 64 * 64;
+
+    /**
+     * The task to paint rows of the brush.
+     */
+    private static final class PaintRowsTask extends RecursiveAction {
+
+        /**
+         * The kernel.
+         */
+        @NotNull
+        private final AlphaBrushKernel kernel;
+
+        /**
+         * The rows to paint.
+         */
+        private final int fromY;
+        private final int toY;
+
+        private PaintRowsTask(@NotNull final AlphaBrushKernel kernel, final int fromY, final int toY) {
+            this.kernel = kernel;
+            this.fromY = fromY;
+            this.toY = toY;
+        }
+
+        @Override
+        protected void compute() {
+
+            final int rows = toY - fromY;
+
+            if (rows < 2 || rows * (kernel.maxX - kernel.minX) <= PIXELS_PER_TASK) {
+                kernel.paintRows(fromY, toY);
+                return;
+            }
+
+            final int middle = fromY + rows / 2;
+
+            invokeAll(new PaintRowsTask(kernel, fromY, middle), new PaintRowsTask(kernel, middle, toY));
+        }
+    }
+
+    /**
+     * The falloff of the brush.
+     */
+    @NotNull
+    private BrushFalloff falloff;
+
+    /**
+     * The column terms of the falloff.
+     */
+    @NotNull
+    private float[] columnTerms;
+
+    /**
+     * The buffer of the current image.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * The size of the current image.
+     */
+    private int width;
+    private int height;
+
+    /**
+     * The offset of the painted channel in a pixel.
+     */
+    private int channelOffset;
+
+    /**
+     * The area of the current brush step.
+     */
+    private int minX;
+    private int maxX;
+
+    /**
+     * The brush center in percents of the image.
+     */
+    private float centerY;
+
+    /**
+     * The brush radius in percents of the image.
+     */
+    private float radius;
+
+    /**
+     * The brush power, it's negative to remove paint.
+     */
+    private float power;
+
+    public AlphaBrushKernel() {
+        this.falloff = BrushFalloff.ROUND;
+        this.columnTerms = new float[0];
+    }
+
+    /**
+     * Get the falloff of the brush.
+     *
+     * @return the falloff of the brush.
+     */
+    public @NotNull BrushFalloff getFalloff() {
+        return falloff;
+    }
+
+    /**
+     * Set the falloff of the brush.
+     *
+     * @param falloff the falloff of the brush.
+     */
+    public void setFalloff(@NotNull final BrushFalloff falloff) {
+        this.falloff = falloff;
+    }
+
+    /**
+     * Get the offset of the channel in a pixel of the image.
+     *
+     * @param image   the image.
+     * @param channel the channel (0 - red, 1 - green, 2 - blue, 3 - alpha).
+     * @return the offset of the channel.
+     */
+    public static int getChannelOffset(@NotNull final Image image, final int channel) {
+        switch (image.getFormat()) {
+            case RGBA8:
+                return channel;
+            case ABGR8:
+                return 3 - channel;
+            default:
+                throw new UnsupportedOperationException("Image format: " + image.getFormat());
+        }
+    }
+
+    /**
+     * Paint the brush step into the channel of the image.
+     *
+     * @param image   the image.
+     * @param channel the channel (0 - red, 1 - green, 2 - blue, 3 - alpha).
+     * @param u       the x of the brush center in percents of the image.
+     * @param v       the y of the brush center in percents of the image.
+     * @param radius  the brush radius in percents of the image.
+     * @param power   the brush power, it's negative to remove paint.
+     * @param minX    the min x of the brush area (inclusive).
+     * @param minY    the min y of the brush area (inclusive).
+     * @param maxX    the max x of the brush area (exclusive).
+     * @param maxY    the max y of the brush area (exclusive).
+     */
+    public void paint(@NotNull final Image image, final int channel, final float u, final float v,
+                      final float radius, final float power, final int minX, final int minY, final int maxX,
+                      final int maxY) {
+
+        if (minX >= maxX || minY >= maxY) {
+            return;
+        }
+
+        this.buffer = image.getData(0);
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.channelOffset = getChannelOffset(image, channel);
+        this.minX = minX;
+        this.maxX = maxX;
+        this.centerY = v;
+        this.radius = radius;
+        this.power = power;
+
+        if (columnTerms.length < maxX - minX) {
+            columnTerms = new float[maxX - minX];
+        }
+
+        for (int x = minX; x < maxX; x++) {
+            columnTerms[x - minX] = falloff.getTerm(((float) x / width - u) / radius);
+        }
+
+        try {
+
+            if ((maxY - minY) * (maxX - minX) <= PIXELS_PER_TASK) {
+                paintRows(minY, maxY);
+            } else {
+                ForkJoinPool.commonPool().invoke(new PaintRowsTask(this, minY, maxY));
+            }
+
+        } finally {
+            this.buffer = null;
+        }
+    }
+
+    private void paintRows(final int fromY, final int toY) {
+
+        final ByteBuffer buffer = this.buffer;
+        final BrushFalloff falloff = this.falloff;
+        final float[] columnTerms = this.columnTerms;
+        final int width = this.width;
+        final int minX = this.minX;
+        final int maxX = this.maxX;
+        final float power = this.power;
+        final float centerTerm = falloff.getTerm(0F);
+
+        for (int y = fromY; y < toY; y++) {
+
+            final float rowTerm = falloff.getTerm(((float) y / height - centerY) / radius);
+
+            // the row is out of the brush if even its pixel in the center column isn't changed
+            if (falloff.getWeight(rowTerm, centerTerm) <= 0F) {
+                continue;
+            }
+
+            int position = (y * width + minX) * 4 + channelOffset;
+
+            for (int x = minX; x < maxX; x++, position += 4) {
+
+                final float weight = falloff.getWeight(rowTerm, columnTerms[x - minX]);
+
+                if (weight <= 0F) {
+                    continue;
+                }
+
+                float value = (buffer.get(position) & 0xFF) / 255F + weight * power;
+
+                if (value < 0F) {
+                    value = 0F;
+                } else if (value > 1F) {
+                    value = 1F;
+                }
+
+                buffer.put(position, (byte) (value * 255F));
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ss.editor.control.painting.terrain;
+
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement a separable falloff of brush power. The weight of a pixel is combined from the term of
+ * its column and the term of its row, so a brush kernel calculates each term once per brush step. The weight should
+ * be max in the column of the brush center.
+ *
+ * @author JavaSaBr
+ */
+public interface BrushFalloff {
+
+    /**
+     * The round brush which power falls off linearly by the squared distance to the center.
+     */
+    @NotNull
+    BrushFalloff ROUND = new BrushFalloff() {
+
+        @Override
+        public float getTerm(final float offset) {
+            return offset * offset;
+        }
+
+        @Override
+        public float getWeight(final float rowTerm, final float columnTerm) {
+            return 1F - (rowTerm + columnTerm);
+        }
+    };
+
+    /**
+     * The round brush which power falls off smoothly to the edge.
+     */
+    @NotNull
+    BrushFalloff SMOOTH = new BrushFalloff() {
+
+        @Override
+        public float getTerm(final float offset) {
+            return offset * offset;
+        }
+
+        @Override
+        public float getWeight(final float rowTerm, final float columnTerm) {
+            final float weight = 1F - (rowTerm + columnTerm);
+            return weight <= 0F ? 0F : weight * weight * (3F - 2F * weight);
+        }
+    };
+
+    /**
+     * The square brush which power falls off linearly to the edges along each axis.
+     */
+    @NotNull
+    BrushFalloff SQUARE = new BrushFalloff() {
+
+        @Override
+        public float getTerm(final float offset) {
+            return Math.max(0F, 1F - Math.abs(offset));
+        }
+
+        @Override
+        public float getWeight(final float rowTerm, final float columnTerm) {
+            return rowTerm * columnTerm;
+        }
+    };
+
+    /**
+     * Calculate the term of a row or a column.
+     *
+     * @param offset the offset of the row or the column from the brush center relative to the brush radius.
+     * @return the term.
+     */
+    @FromAnyThread
+    float getTerm(float offset);
+
+    /**
+     * Combine the terms of a pixel to the weight of brush power.
+     *
+     * @param rowTerm    the term of the row of the pixel.
+     * @param columnTerm the term of the column of the pixel.
+     * @return the weight from 0 to 1, the pixel isn't changed if the weight isn't positive.
+     */
+    @FromAnyThread
+    float getWeight(float rowTerm, float columnTerm);
+}
@@ -6,7 +6,8 @@ import com.jme3.math.Vector3f;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.jme3.terrain.Terrain;
-import com.ss.editor.annotation.FromAnyThread;
+import com.jme3.terrain.geomipmap.TerrainHeightWriter;
+import com.jme3.terrain.geomipmap.TerrainQuad;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
@@ -15,14 +16,12 @@ import com.ss.editor.ui.control.property.operation.PropertyOperation;
 import com.ss.editor.util.NodeUtils;
 import com.ss.rlib.util.array.Array;
 import com.ss.rlib.util.array.ArrayFactory;
-import com.ss.rlib.util.dictionary.Dictionary;
 import com.ss.rlib.util.dictionary.DictionaryFactory;
 import com.ss.rlib.util.dictionary.ObjectDictionary;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Supplier;
 
 /**
  * The base implementation of tool control to change height of terrain.
@@ -31,54 +30,117 @@ import java.util.function.Supplier;
  */
 public class ChangeHeightTerrainToolControl extends TerrainToolControl {
 
+    /**
+     * The writer of heights to terrain quads.
+     */
     @NotNull
-    private static final Supplier<ObjectDictionary<HeightPoint, Float>> DICTIONARY_FACTORY = () ->
-            DictionaryFactory.newObjectDictionary(0.2F, 10000);
+    private static final ThreadLocal<TerrainHeightWriter> HEIGHT_WRITER =
+            ThreadLocal.withInitial(TerrainHeightWriter::new);
 
-    private static class HeightPoint {
-
-        private final float x;
-        private final float y;
+    /**
+     * Convert the point of the terrain to the packed index of the heightmap point.
+     *
+     * @param terrain the terrain.
+     * @param x       the x coordinate of the point in the terrain's space.
+     * @param z       the z coordinate of the point in the terrain's space.
+     * @return the packed index or -1 if the point is outside of the terrain.
+     */
+    @JmeThread
+    protected static int toIndex(@NotNull final Terrain terrain, final float x, final float z) {
 
-        private final int xIndex;
-        private final int yIndex;
+        final Vector3f scale = ((Node) terrain).getWorldScale();
 
-        private final int hash;
+        final int totalSize = terrain.getTerrainSize();
+        final int halfSize = totalSize / 2;
+        final int heightmapX = Math.round((x / scale.x) + halfSize);
+        final int heightmapZ = Math.round((z / scale.z) + halfSize);
 
-        public HeightPoint(final float x, final float y, final int xIndex, final int yIndex) {
-            this.x = x;
-            this.y = y;
-            this.xIndex = xIndex;
-            this.yIndex = yIndex;
-            this.hash = xIndex | (yIndex << 15);
+        if (heightmapX < 0 || heightmapZ < 0 || heightmapX > totalSize || heightmapZ > totalSize) {
+            return -1;
         }
 
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            final HeightPoint that = (HeightPoint) o;
-            if (xIndex != that.xIndex) return false;
-            return yIndex == that.yIndex;
+        return HeightBuffer.pack(heightmapX, heightmapZ);
+    }
+
+    /**
+     * Get the heightmap height of the terrain point.
+     *
+     * @param terrain the terrain.
+     * @param index   the packed index of the heightmap point.
+     * @return the height or {@link Float#NaN} if the point is outside of the terrain.
+     */
+    @JmeThread
+    protected static float getHeight(@NotNull final Terrain terrain, final int index) {
+
+        if (index < 0) {
+            return Float.NaN;
         }
 
-        @Override
-        public int hashCode() {
-            return hash;
+        final int x = HeightBuffer.unpackX(index);
+        final int z = HeightBuffer.unpackZ(index);
+
+        if (terrain instanceof TerrainQuad) {
+            return TerrainHeightWriter.getHeight((TerrainQuad) terrain, x, z);
         }
+
+        final Vector3f scale = ((Node) terrain).getWorldScale();
+        final int halfSize = terrain.getTerrainSize() / 2;
+
+        return terrain.getHeightmapHeight(new Vector2f((x - halfSize) * scale.x, (z - halfSize) * scale.z));
     }
 
     /**
-     * The table of original heights.
+     * Set the heights to the terrain by one update, bounds of the changed parts of the terrain are updated too.
+     *
+     * @param terrain the terrain.
+     * @param heights the heights.
      */
-    @NotNull
-    private final ObjectDictionary<Terrain, ObjectDictionary<HeightPoint, Float>> originalHeight;
+    @JmeThread
+    protected static void setHeights(@NotNull final Terrain terrain, @NotNull final HeightBuffer heights) {
+
+        if (heights.isEmpty()) {
+            return;
+        }
+
+        if (terrain instanceof TerrainQuad) {
+
+            final TerrainHeightWriter writer = HEIGHT_WRITER.get();
+            writer.begin((TerrainQuad) terrain);
+
+            for (int i = 0, length = heights.size(); i < length; i++) {
+                final int index = heights.indexAt(i);
+                writer.add(HeightBuffer.unpackX(index), HeightBuffer.unpackZ(index), heights.heightAt(i));
+            }
+
+            writer.commit();
+            return;
+        }
+
+        final Vector3f scale = ((Node) terrain).getWorldScale();
+        final int halfSize = terrain.getTerrainSize() / 2;
+
+        final List<Vector2f> points = new ArrayList<>(heights.size());
+        final List<Float> values = new ArrayList<>(heights.size());
+
+        for (int i = 0, length = heights.size(); i < length; i++) {
+            final int index = heights.indexAt(i);
+            final int x = HeightBuffer.unpackX(index);
+            final int z = HeightBuffer.unpackZ(index);
+            points.add(new Vector2f((x - halfSize) * scale.x, (z - halfSize) * scale.z));
+            values.add(heights.heightAt(i));
+        }
+
+        terrain.setHeight(points, values);
+
+        ((Spatial) terrain).updateModelBound();
+    }
 
     /**
-     * The table with copied of original terrains.
+     * The table of original heights of changed points, it's the copy-on-write snapshot of terrains at the start of
+     * the current stroke: a height is copied only before the first change of the point.
      */
     @NotNull
-    private final ObjectDictionary<Terrain, Spatial> copiedTerrains;
+    private final ObjectDictionary<Terrain, HeightBuffer> originalHeight;
 
     /**
      * The current terrains.
@@ -86,11 +148,17 @@ public class ChangeHeightTerrainToolControl extends TerrainToolControl {
     @NotNull
     private final Array<Terrain> terrains;
 
+    /**
+     * The buffer of new heights of the current brush step.
+     */
+    @NotNull
+    private final HeightBuffer newHeights;
+
     public ChangeHeightTerrainToolControl(@NotNull final TerrainPaintingComponent component) {
         super(component);
         this.originalHeight = DictionaryFactory.newObjectDictionary();
-        this.copiedTerrains = DictionaryFactory.newObjectDictionary();
         this.terrains = ArrayFactory.newArray(Terrain.class);
+        this.newHeights = new HeightBuffer(1024);
     }
 
     /**
@@ -99,28 +167,29 @@ public class ChangeHeightTerrainToolControl extends TerrainToolControl {
      * @return the table of original heights.
      */
     @JmeThread
-    private @NotNull ObjectDictionary<Terrain, ObjectDictionary<HeightPoint, Float>> getOriginalHeight() {
+    private @NotNull ObjectDictionary<Terrain, HeightBuffer> getOriginalHeight() {
         return originalHeight;
     }
 
     /**
-     * Get the table with copied of original terrains.
+     * Get the current terrains.
      *
-     * @return the table with copied of original terrains.
+     * @return the current terrains.
      */
     @JmeThread
-    private @NotNull ObjectDictionary<Terrain, Spatial> getCopiedTerrains() {
-        return copiedTerrains;
+    protected @NotNull Array<Terrain> getTerrains() {
+        return terrains;
     }
 
     /**
-     * Get the current terrains.
+     * Get the cleared buffer to collect new heights of the current brush step.
      *
-     * @return the current terrains.
+     * @return the cleared buffer of new heights.
      */
     @JmeThread
-    protected @NotNull Array<Terrain> getTerrains() {
-        return terrains;
+    protected @NotNull HeightBuffer getNewHeights() {
+        newHeights.clear();
+        return newHeights;
     }
 
     /**
@@ -129,8 +198,7 @@ public class ChangeHeightTerrainToolControl extends TerrainToolControl {
     @JmeThread
     protected void startChange() {
 
-        final ObjectDictionary<Terrain, ObjectDictionary<HeightPoint, Float>> originalHeight = getOriginalHeight();
-        originalHeight.forEach(Dictionary::clear);
+        final ObjectDictionary<Terrain, HeightBuffer> originalHeight = getOriginalHeight();
         originalHeight.clear();
 
         final Array<Terrain> terrains = getTerrains();
@@ -143,12 +211,25 @@ public class ChangeHeightTerrainToolControl extends TerrainToolControl {
             }
             return true;
         });
+    }
 
-        final ObjectDictionary<Terrain, Spatial> copiedTerrains = getCopiedTerrains();
-        copiedTerrains.clear();
+    /**
+     * Get the height of the terrain point at the start of the current stroke.
+     *
+     * @param terrain the terrain.
+     * @param index   the packed index of the heightmap point.
+     * @return the original height or {@link Float#NaN} if the point is outside of the terrain.
+     */
+    @JmeThread
+    protected float getOriginalHeight(@NotNull final Terrain terrain, final int index) {
+
+        final HeightBuffer terrainHeights = getOriginalHeight().get(terrain);
+
+        if (terrainHeights != null && index >= 0 && terrainHeights.contains(index)) {
+            return terrainHeights.get(index);
+        }
 
-        terrains.forEach(copiedTerrains, (terrain, toStore) ->
-                toStore.put(terrain, ((Spatial) terrain).clone()));
+        return getHeight(terrain, index);
     }
 
     /**
@@ -159,90 +240,111 @@ public class ChangeHeightTerrainToolControl extends TerrainToolControl {
      */
     @JmeThread
     protected void change(@NotNull final Terrain terrain, @NotNull final Vector2f point) {
+        change(terrain, toIndex(terrain, point.getX(), point.getY()));
+    }
 
-        final Node terrainNode = (Node) terrain;
-        final Vector3f scale = terrainNode.getWorldScale();
+    /**
+     * Notify about changing height by the point in the terrain.
+     *
+     * @param terrain the terrain.
+     * @param index   the packed index of the heightmap point.
+     */
+    @JmeThread
+    protected void change(@NotNull final Terrain terrain, final int index) {
 
-        final int halfSize = terrain.getTerrainSize() / 2;
-        final int x = Math.round((point.x / scale.x) + halfSize);
-        final int z = Math.round((point.y / scale.z) + halfSize);
+        if (index < 0) {
+            return;
+        }
 
-        final HeightPoint heightPoint = new HeightPoint(point.getX(), point.getY(), x, z);
+        final HeightBuffer terrainHeights = getOriginalHeights(terrain);
 
-        final ObjectDictionary<Terrain, ObjectDictionary<HeightPoint, Float>> originalHeight = getOriginalHeight();
-        final ObjectDictionary<HeightPoint, Float> terrainHeights = originalHeight.get(terrain, DICTIONARY_FACTORY);
-        if (terrainHeights.containsKey(heightPoint)) {
-            return;
+        if (!terrainHeights.contains(index)) {
+            terrainHeights.put(index, getHeight(terrain, index));
         }
+    }
 
-        final float height = terrain.getHeightmapHeight(point);
-        terrainHeights.put(heightPoint, height);
+    /**
+     * Apply the new heights to the terrain and remember original heights of changed points.
+     *
+     * @param terrain    the terrain.
+     * @param newHeights the new heights.
+     */
+    @JmeThread
+    protected void applyHeights(@NotNull final Terrain terrain, @NotNull final HeightBuffer newHeights) {
+
+        final HeightBuffer terrainHeights = getOriginalHeights(terrain);
+
+        for (int i = 0, length = newHeights.size(); i < length; i++) {
+
+            final int index = newHeights.indexAt(i);
+
+            if (!terrainHeights.contains(index)) {
+                terrainHeights.put(index, getHeight(terrain, index));
+            }
+        }
+
+        setHeights(terrain, newHeights);
+    }
+
+    /**
+     * Get the buffer of original heights of the terrain.
+     *
+     * @param terrain the terrain.
+     * @return the buffer of original heights.
+     */
+    @JmeThread
+    private @NotNull HeightBuffer getOriginalHeights(@NotNull final Terrain terrain) {
+        return getOriginalHeight().get(terrain, () -> new HeightBuffer(1024));
     }
 
     /**
      * Commit all changes.
      */
+    @JmeThread
     protected void commitChanges() {
 
         final Spatial paintedModel = getPaintedModel();
-        final ObjectDictionary<Terrain, ObjectDictionary<Vector2f, Float>> oldValues = DictionaryFactory.newObjectDictionary();
-        final ObjectDictionary<Terrain, ObjectDictionary<Vector2f, Float>> newValues = DictionaryFactory.newObjectDictionary();
+        final ObjectDictionary<Terrain, HeightBuffer> oldValues = DictionaryFactory.newObjectDictionary();
+        final ObjectDictionary<Terrain, HeightBuffer> newValues = DictionaryFactory.newObjectDictionary();
 
-        final ObjectDictionary<Terrain, ObjectDictionary<HeightPoint, Float>> originalHeight = getOriginalHeight();
-        originalHeight.forEach((terrain, floats) -> {
-            final ObjectDictionary<Vector2f, Float> values = oldValues.get(terrain, () -> createValuesDictionary(floats));
-            floats.forEach((heightPoint, height) -> values.put(new Vector2f(heightPoint.x, heightPoint.y), height));
-        });
+        final ObjectDictionary<Terrain, HeightBuffer> originalHeight = getOriginalHeight();
+        originalHeight.forEach((terrain, heights) -> {
+
+            final HeightBuffer currentHeights = new HeightBuffer(heights.size());
+
+            for (int i = 0, length = heights.size(); i < length; i++) {
+                final int index = heights.indexAt(i);
+                currentHeights.put(index, getHeight(terrain, index));
+            }
 
-        originalHeight.forEach((terrain, floats) -> {
-            final ObjectDictionary<Vector2f, Float> values = newValues.get(terrain, () -> createValuesDictionary(floats));
-            floats.forEach((heightPoint, height) -> {
-                final Vector2f point = new Vector2f(heightPoint.x, heightPoint.y);
-                values.put(point, terrain.getHeightmapHeight(point));
-            });
+            oldValues.put(terrain, heights.copy());
+            newValues.put(terrain, currentHeights);
         });
 
         final Array<Terrain> toApply = ArrayFactory.newArray(Terrain.class);
         toApply.addAll(getTerrains());
 
-        final PropertyOperation<ChangeConsumer, Spatial, ObjectDictionary<Terrain, ObjectDictionary<Vector2f, Float>>> operation =
+        final PropertyOperation<ChangeConsumer, Spatial, ObjectDictionary<Terrain, HeightBuffer>> operation =
                 new PropertyOperation<>(paintedModel, "Heightmap", newValues, oldValues);
 
         operation.setApplyHandler((node, heightMaps) -> {
 
             for (final Terrain terrain : toApply) {
 
-                final ObjectDictionary<Vector2f, Float> heightData = heightMaps.get(terrain);
+                final HeightBuffer heightData = heightMaps.get(terrain);
                 if (heightData == null || heightData.isEmpty()) {
                     continue;
                 }
 
-                final List<Vector2f> points = new ArrayList<>(heightMaps.size());
-                final List<Float> heights = new ArrayList<>(heightMaps.size());
-
-                heightData.forEach((point, height) -> {
-                    points.add(point);
-                    heights.add(height);
-                });
-
-                terrain.setHeight(points, heights);
+                setHeights(terrain, heightData);
             }
-
-            node.updateModelBound();
         });
 
-        originalHeight.forEach(Dictionary::clear);
         originalHeight.clear();
 
         final ModelChangeConsumer changeConsumer = getChangeConsumer();
         changeConsumer.execute(operation);
 
         getTerrains().clear();
-        getCopiedTerrains().clear();
-    }
-
-    @FromAnyThread
-    private @NotNull ObjectDictionary<Vector2f, Float> createValuesDictionary(@NotNull final ObjectDictionary<HeightPoint, Float> floats) {
-        return DictionaryFactory.newObjectDictionary(0.2F, floats.size());
     }
 }
@@ -0,0 +1,328 @@
+package com.ss.editor.control.painting.terrain;
+
+import com.ss.editor.model.undo.SpillableData;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The sparse buffer of heights of terrain points. A point is packed into one int index by {@link #pack(int, int)},
+ * heights are kept in primitive arrays in order of adding, so the buffer doesn't create any objects on adding
+ * and reading of heights.
+ *
+ * @author JavaSaBr
+ */
+public class HeightBuffer implements SpillableData {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The empty slot in the hash table.
+     */
+    private static final int EMPTY = -1;
+
+    @NotNull
+    private static final int[] EMPTY_INTS = new int[0];
+
+    @NotNull
+    private static final float[] EMPTY_FLOATS = new float[0];
+
+    /**
+     * Pack the coordinates of a terrain point to an index.
+     *
+     * @param x the x coordinate in the heightmap.
+     * @param z the z coordinate in the heightmap.
+     * @return the packed index.
+     */
+    public static int pack(final int x, final int z) {
+        return (z << 16) | (x & 0xFFFF);
+    }
+
+    /**
+     * Get the x coordinate of the packed index.
+     *
+     * @param index the packed index.
+     * @return the x coordinate in the heightmap.
+     */
+    public static int unpackX(final int index) {
+        return index & 0xFFFF;
+    }
+
+    /**
+     * Get the z coordinate of the packed index.
+     *
+     * @param index the packed index.
+     * @return the z coordinate in the heightmap.
+     */
+    public static int unpackZ(final int index) {
+        return index >>> 16;
+    }
+
+    /**
+     * The indexes of points in order of adding.
+     */
+    @NotNull
+    private int[] indexes;
+
+    /**
+     * The heights of points in order of adding.
+     */
+    @NotNull
+    private float[] heights;
+
+    /**
+     * The hash table of positions of points in the dense arrays.
+     */
+    @NotNull
+    private int[] table;
+
+    /**
+     * The count of points.
+     */
+    private int size;
+
+    public HeightBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HeightBuffer(final int capacity) {
+        final int length = Math.max(capacity, 4);
+        this.indexes = new int[length];
+        this.heights = new float[length];
+        this.table = newTable(tableSizeFor(length));
+    }
+
+    private HeightBuffer(@NotNull final int[] indexes, @NotNull final float[] heights, final int size) {
+        this.indexes = indexes;
+        this.heights = heights;
+        this.size = size;
+        this.table = newTable(tableSizeFor(Math.max(size, 4)));
+        rehash();
+    }
+
+    /**
+     * Get the count of points.
+     *
+     * @return the count of points.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return true if this buffer has no points.
+     *
+     * @return true if this buffer has no points.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the packed index of the point by the position in order of adding.
+     *
+     * @param position the position.
+     * @return the packed index.
+     */
+    public int indexAt(final int position) {
+        return indexes[position];
+    }
+
+    /**
+     * Get the height of the point by the position in order of adding.
+     *
+     * @param position the position.
+     * @return the height.
+     */
+    public float heightAt(final int position) {
+        return heights[position];
+    }
+
+    /**
+     * Return true if this buffer contains the point.
+     *
+     * @param index the packed index of the point.
+     * @return true if this buffer contains the point.
+     */
+    public boolean contains(final int index) {
+        return table[findSlot(index)] != EMPTY;
+    }
+
+    /**
+     * Get the height of the point.
+     *
+     * @param index the packed index of the point.
+     * @return the height or {@link Float#NaN} if this buffer doesn't contain the point.
+     */
+    public float get(final int index) {
+        final int position = table[findSlot(index)];
+        return position == EMPTY ? Float.NaN : heights[position];
+    }
+
+    /**
+     * Put the height of the point.
+     *
+     * @param index  the packed index of the point.
+     * @param height the height.
+     */
+    public void put(final int index, final float height) {
+
+        final int slot = findSlot(index);
+        final int position = table[slot];
+
+        if (position != EMPTY) {
+            heights[position] = height;
+        } else {
+            add(slot, index, height);
+        }
+    }
+
+    /**
+     * Put the height of the point if this buffer doesn't contain the point yet.
+     *
+     * @param index  the packed index of the point.
+     * @param height the height.
+     * @return true if the height was added.
+     */
+    public boolean putIfAbsent(final int index, final float height) {
+
+        final int slot = findSlot(index);
+
+        if (table[slot] != EMPTY) {
+            return false;
+        }
+
+        add(slot, index, height);
+        return true;
+    }
+
+    /**
+     * Remove all points from this buffer.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(table, EMPTY);
+            size = 0;
+        }
+    }
+
+    /**
+     * Create a compact copy of this buffer.
+     *
+     * @return the compact copy.
+     */
+    public @NotNull HeightBuffer copy() {
+        return new HeightBuffer(Arrays.copyOf(indexes, Math.max(size, 1)), Arrays.copyOf(heights, Math.max(size, 1)), size);
+    }
+
+    @Override
+    public long getDataSize() {
+        return 32 + 4L * (indexes.length + heights.length + table.length);
+    }
+
+    @Override
+    public void spill(@NotNull final DataOutput out) throws IOException {
+
+        out.writeInt(size);
+
+        for (int i = 0; i < size; i++) {
+            out.writeInt(indexes[i]);
+            out.writeFloat(heights[i]);
+        }
+
+        indexes = EMPTY_INTS;
+        heights = EMPTY_FLOATS;
+        table = EMPTY_INTS;
+    }
+
+    @Override
+    public void restore(@NotNull final DataInput in) throws IOException {
+
+        final int size = in.readInt();
+        final int length = Math.max(size, 1);
+
+        indexes = new int[length];
+        heights = new float[length];
+
+        for (int i = 0; i < size; i++) {
+            indexes[i] = in.readInt();
+            heights[i] = in.readFloat();
+        }
+
+        this.size = size;
+        this.table = newTable(tableSizeFor(Math.max(size, 4)));
+
+        rehash();
+    }
+
+    private void add(final int slot, final int index, final float height) {
+
+        if (size == indexes.length) {
+            indexes = Arrays.copyOf(indexes, size * 2);
+            heights = Arrays.copyOf(heights, size * 2);
+        }
+
+        indexes[size] = index;
+        heights[size] = height;
+        table[slot] = size++;
+
+        // keep the load factor of the table under 0.5
+        if (size * 2 > table.length) {
+            table = newTable(table.length * 2);
+            rehash();
+        }
+    }
+
+    private void rehash() {
+
+        final int mask = table.length - 1;
+
+        for (int i = 0; i < size; i++) {
+
+            int slot = mix(indexes[i]) & mask;
+
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+
+            table[slot] = i;
+        }
+    }
+
+    private int findSlot(final int index) {
+
+        final int[] table = this.table;
+        final int mask = table.length - 1;
+
+        int slot = mix(index) & mask;
+
+        for (int position = table[slot]; position != EMPTY; position = table[slot]) {
+
+            if (indexes[position] == index) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private static int mix(final int index) {
+        final int hash = index * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int tableSizeFor(final int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static @NotNull int[] newTable(final int length) {
+        final int[] table = new int[length];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
@@ -0,0 +1,189 @@
+package com.ss.editor.control.painting.terrain;
+
+import com.jme3.texture.Image;
+import com.ss.editor.model.undo.SpillableData;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * The compressed difference of changed tiles of an image. Each tile keeps the deflated XOR of its bytes before and
+ * after the change, so the same data is used to revert and to re-apply the change.
+ *
+ * @author JavaSaBr
+ */
+public class ImageDelta implements SpillableData {
+
+    /**
+     * The width of the image.
+     */
+    private final int width;
+
+    /**
+     * The height of the image.
+     */
+    private final int height;
+
+    /**
+     * The size of a tile in pixels.
+     */
+    private final int tileSize;
+
+    /**
+     * The count of tiles in a row.
+     */
+    private final int tilesX;
+
+    /**
+     * The indexes of changed tiles.
+     */
+    @NotNull
+    private final int[] tiles;
+
+    /**
+     * The compressed XOR of bytes of each changed tile.
+     */
+    @NotNull
+    private byte[][] deltas;
+
+    /**
+     * True if the change is applied to the image.
+     */
+    private boolean applied;
+
+    ImageDelta(final int width, final int height, final int tileSize, @NotNull final int[] tiles,
+               @NotNull final byte[][] deltas) {
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.tilesX = (width + tileSize - 1) / tileSize;
+        this.tiles = tiles;
+        this.deltas = deltas;
+        this.applied = true;
+    }
+
+    /**
+     * Return true if this delta has no changed tiles.
+     *
+     * @return true if this delta has no changed tiles.
+     */
+    public boolean isEmpty() {
+        return tiles.length == 0;
+    }
+
+    /**
+     * Get the size of compressed data.
+     *
+     * @return the size of compressed data in bytes.
+     */
+    public long getCompressedSize() {
+
+        long size = 0;
+
+        for (final byte[] delta : deltas) {
+            size += delta.length;
+        }
+
+        return size;
+    }
+
+    @Override
+    public long getDataSize() {
+        return 64 + 4L * tiles.length + 16L * deltas.length + getCompressedSize();
+    }
+
+    @Override
+    public void spill(@NotNull final DataOutput out) throws IOException {
+
+        out.writeInt(deltas.length);
+
+        for (final byte[] delta : deltas) {
+            out.writeInt(delta.length);
+            out.write(delta);
+        }
+
+        deltas = new byte[0][];
+    }
+
+    @Override
+    public void restore(@NotNull final DataInput in) throws IOException {
+
+        final byte[][] deltas = new byte[in.readInt()][];
+
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = new byte[in.readInt()];
+            in.readFully(deltas[i]);
+        }
+
+        this.deltas = deltas;
+    }
+
+    /**
+     * Apply or revert the change in the image.
+     *
+     * @param image   the image.
+     * @param applied true to apply the change, false to revert it.
+     */
+    public void setApplied(@NotNull final Image image, final boolean applied) {
+
+        if (this.applied == applied) {
+            return;
+        }
+
+        if (image.getWidth() != width || image.getHeight() != height) {
+            throw new IllegalArgumentException("The image was resized.");
+        }
+
+        final ByteBuffer buffer = image.getData(0);
+        final Inflater inflater = new Inflater();
+        final byte[] tileData = new byte[tileSize * tileSize * TiledImageChanges.BYTES_PER_PIXEL];
+
+        try {
+
+            for (int i = 0; i < tiles.length; i++) {
+
+                inflater.reset();
+                inflater.setInput(deltas[i]);
+
+                int length = 0;
+
+                while (!inflater.finished() && length < tileData.length) {
+                    length += inflater.inflate(tileData, length, tileData.length - length);
+                }
+
+                xorTile(buffer, tiles[i], tileData);
+            }
+
+        } catch (final DataFormatException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            inflater.end();
+        }
+
+        buffer.rewind();
+
+        this.applied = applied;
+    }
+
+    private void xorTile(@NotNull final ByteBuffer buffer, final int tile, @NotNull final byte[] tileData) {
+
+        final int startX = (tile % tilesX) * tileSize;
+        final int startY = (tile / tilesX) * tileSize;
+        final int rowLength = Math.min(tileSize, width - startX) * TiledImageChanges.BYTES_PER_PIXEL;
+        final int rows = Math.min(tileSize, height - startY);
+
+        for (int row = 0, offset = 0; row < rows; row++, offset += rowLength) {
+
+            final int position = ((startY + row) * width + startX) * TiledImageChanges.BYTES_PER_PIXEL;
+
+            for (int i = 0; i < rowLength; i++) {
+                buffer.put(position + i, (byte) (buffer.get(position + i) ^ tileData[offset + i]));
+            }
+        }
+    }
+}
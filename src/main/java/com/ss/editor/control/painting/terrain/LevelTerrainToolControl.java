@@ -17,8 +17,6 @@ import com.ss.editor.ui.component.painting.terrain.TerrainPaintingComponent;
 import com.ss.editor.util.LocalObjects;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * The implementation of terrain tool to change height by level.
@@ -158,25 +156,21 @@ public class LevelTerrainToolControl extends ChangeHeightTerrainToolControl {
     private void modifyHeight(@NotNull final Vector3f contactPoint) {
 
         final LocalObjects local = getLocalObjects();
-        final Spatial paintedModel = notNull(getPaintedModel());
         final Geometry brush = getBrush();
         final Geometry levelMarker = getLevelMarker();
 
         final float brushSize = getBrushSize();
         final float brushPower = getBrushPower();
 
-        final List<Vector2f> locs = new ArrayList<>();
-        final List<Float> heights = new ArrayList<>();
-
         for (final Terrain terrain : getTerrains()) {
 
             final Node terrainNode = (Node) terrain;
+            final HeightBuffer heights = getNewHeights();
 
             final Vector3f markerTranslation = levelMarker.getLocalTranslation();
             final Vector3f worldTranslation = terrainNode.getWorldTranslation();
             final Vector3f localScale = terrainNode.getLocalScale();
             final Vector3f localPoint = contactPoint.subtract(worldTranslation, local.nextVector());
-            final Vector2f terrainLoc = local.nextVector2f();
             final Vector2f effectPoint = local.nextVector2f();
 
             final float markerHeight = markerTranslation.getY() - worldTranslation.getY();
@@ -188,9 +182,6 @@ public class LevelTerrainToolControl extends ChangeHeightTerrainToolControl {
             final float xStepAmount = localScale.getX();
             final float zStepAmount = localScale.getZ();
 
-            locs.clear();
-            heights.clear();
-
             for (int z = -radiusStepsZ; z < radiusStepsZ; z++) {
                 for (int x = -radiusStepsX; x < radiusStepsX; x++) {
 
@@ -203,14 +194,17 @@ public class LevelTerrainToolControl extends ChangeHeightTerrainToolControl {
                         continue;
                     }
 
-                    terrainLoc.set(locX, locZ);
+                    final int index = toIndex(terrain, locX, locZ);
+
+                    if (index < 0) {
+                        continue;
+                    }
 
                     // adjust height based on radius of the tool
-                    final float currentHeight = terrain.getHeightmapHeight(terrainLoc) * localScale.getY();
+                    final float currentHeight = getHeight(terrain, index) * localScale.getY();
 
                     if (isPrecision()) {
-                        locs.add(terrainLoc.clone());
-                        heights.add(desiredHeight / localScale.getY());
+                        heights.put(index, desiredHeight / localScale.getY());
                     } else {
 
                         float epsilon = 0.0001f * brushPower; // rounding error for snapping
@@ -230,21 +224,15 @@ public class LevelTerrainToolControl extends ChangeHeightTerrainToolControl {
                         }
 
                         if (!floatEquals(adj, 0, 0.001f)) {
-                            locs.add(terrainLoc.clone());
-                            heights.add(currentHeight + adj);
+                            heights.put(index, currentHeight + adj);
                         }
                     }
                 }
             }
 
-            locs.forEach(location -> change(terrain, location));
-
             // do the actual height adjustment
-            terrain.setHeight(locs, heights);
+            applyHeights(terrain, heights);
         }
-
-        // or else we won't collide with it where we just edited
-        paintedModel.updateModelBound();
     }
 
     /**
@@ -0,0 +1,151 @@
+package com.ss.editor.control.painting.terrain;
+
+import com.jme3.terrain.noise.Basis;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.FloatBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The cache of noise tiles of the rough tool. A tile is the noise buffer of a brush, it depends only on parameters of
+ * the noise and the size of the brush, so the expensive noise generator is used only when some parameter is changed
+ * and all brush steps with the same parameters reuse the same tile.
+ *
+ * @author JavaSaBr
+ */
+public class NoiseTileCache {
+
+    /**
+     * The max count of cached tiles.
+     */
+    private static final int MAX_TILES = 8;
+
+    /**
+     * The parameters of a noise tile.
+     */
+    private static final class Key {
+
+        private float roughness;
+        private float frequency;
+        private float lacunarity;
+        private float octaves;
+        private float scale;
+        private float amplitude;
+        private int size;
+
+        private @NotNull Key copy() {
+            final Key copy = new Key();
+            copy.roughness = roughness;
+            copy.frequency = frequency;
+            copy.lacunarity = lacunarity;
+            copy.octaves = octaves;
+            copy.scale = scale;
+            copy.amplitude = amplitude;
+            copy.size = size;
+            return copy;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+
+            if (this == object) return true;
+            if (!(object instanceof Key)) return false;
+
+            final Key key = (Key) object;
+
+            return Float.compare(key.roughness, roughness) == 0 &&
+                    Float.compare(key.frequency, frequency) == 0 &&
+                    Float.compare(key.lacunarity, lacunarity) == 0 &&
+                    Float.compare(key.octaves, octaves) == 0 &&
+                    Float.compare(key.scale, scale) == 0 &&
+                    Float.compare(key.amplitude, amplitude) == 0 &&
+                    key.size == size;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(roughness);
+            result = 31 * result + Float.floatToIntBits(frequency);
+            result = 31 * result + Float.floatToIntBits(lacunarity);
+            result = 31 * result + Float.floatToIntBits(octaves);
+            result = 31 * result + Float.floatToIntBits(scale);
+            result = 31 * result + Float.floatToIntBits(amplitude);
+            result = 31 * result + size;
+            return result;
+        }
+    }
+
+    /**
+     * The cached tiles in order of access.
+     */
+    @NotNull
+    private final Map<Key, float[]> tiles;
+
+    /**
+     * The key to search tiles.
+     */
+    @NotNull
+    private final Key lookup;
+
+    public NoiseTileCache() {
+        this.lookup = new Key();
+        this.tiles = new LinkedHashMap<Key, float[]>(MAX_TILES * 2, 0.75F, true) {
+
+            @Override
+            protected boolean removeEldestEntry(@NotNull final Map.Entry<Key, float[]> eldest) {
+                return size() > MAX_TILES;
+            }
+        };
+    }
+
+    /**
+     * Get the noise tile with the parameters, the tile is generated if it isn't cached.
+     *
+     * @param roughness  the roughness.
+     * @param frequency  the frequency.
+     * @param lacunarity the lacunarity.
+     * @param octaves    the octaves.
+     * @param scale      the scale.
+     * @param amplitude  the amplitude.
+     * @param size       the size of the square tile.
+     * @param generator  the factory of the noise generator with the parameters.
+     * @return the tile of size * size noise values by rows.
+     */
+    public @NotNull float[] getTile(final float roughness, final float frequency, final float lacunarity,
+                                    final float octaves, final float scale, final float amplitude, final int size,
+                                    @NotNull final Supplier<Basis> generator) {
+
+        final Key key = this.lookup;
+        key.roughness = roughness;
+        key.frequency = frequency;
+        key.lacunarity = lacunarity;
+        key.octaves = octaves;
+        key.scale = scale;
+        key.amplitude = amplitude;
+        key.size = size;
+
+        float[] tile = tiles.get(key);
+
+        if (tile == null) {
+
+            final FloatBuffer buffer = generator.get().getBuffer(0, 0, 0, size);
+
+            tile = new float[size * size];
+            buffer.rewind();
+            buffer.get(tile, 0, Math.min(tile.length, buffer.remaining()));
+
+            tiles.put(key.copy(), tile);
+        }
+
+        return tile;
+    }
+
+    /**
+     * Remove all cached tiles.
+     */
+    public void clear() {
+        tiles.clear();
+    }
+}
@@ -4,11 +4,11 @@ import static com.ss.rlib.util.ObjectUtils.notNull;
 import com.jme3.math.ColorRGBA;
 import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
+import com.jme3.renderer.Renderer;
 import com.jme3.scene.Spatial;
 import com.jme3.terrain.Terrain;
 import com.jme3.texture.Image;
 import com.jme3.texture.Texture;
-import com.jme3.util.BufferUtils;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.control.painting.PaintingInput;
@@ -16,15 +16,11 @@ import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.ui.component.painting.terrain.TerrainPaintingComponent;
 import com.ss.editor.ui.control.property.operation.PropertyOperation;
+import com.ss.editor.util.EditorUtil;
 import com.ss.editor.util.LocalObjects;
-import com.ss.rlib.function.ObjectFloatObjectConsumer;
-import com.ss.rlib.util.array.Array;
-import com.ss.rlib.util.array.ArrayFactory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.nio.ByteBuffer;
-
 /**
  * The implementation of terrain tool to paint textures.
  *
@@ -32,82 +28,17 @@ import java.nio.ByteBuffer;
  */
 public class PaintTerrainToolControl extends TerrainToolControl {
 
-    private static class ColorPoint {
-
-        private final int index;
-
-        private float red;
-        private float green;
-        private float blue;
-        private float alpha;
-
-        public ColorPoint(final int index, final float red, final float green, final float blue, final float alpha) {
-            this.index = index;
-            this.red = red;
-            this.green = green;
-            this.blue = blue;
-            this.alpha = alpha;
-        }
-
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            final ColorPoint that = (ColorPoint) o;
-            return index == that.index;
-        }
-
-        @Override
-        public int hashCode() {
-            return index;
-        }
-    }
-
-    @NotNull
-    private static final ObjectFloatObjectConsumer<ColorRGBA, Boolean> RED_FUNCTION = (color, value, erase) -> {
-        if (erase) {
-            color.r -= value;
-        } else {
-            color.r += value;
-        }
-    };
-
-    @NotNull
-    private static final ObjectFloatObjectConsumer<ColorRGBA, Boolean> GREEN_FUNCTION = (color, value, erase) -> {
-        if (erase) {
-            color.g -= value;
-        } else {
-            color.g += value;
-        }
-    };
-
-    @NotNull
-    private static final ObjectFloatObjectConsumer<ColorRGBA, Boolean> BLUE_FUNCTION = (color, value, erase) -> {
-        if (erase) {
-            color.b -= value;
-        } else {
-            color.b += value;
-        }
-    };
-
-    @NotNull
-    private static final ObjectFloatObjectConsumer<ColorRGBA, Boolean> ALPHA_FUNCTION = (color, value, erase) -> {
-        if (erase) {
-            color.a -= value;
-        } else {
-            color.a += value;
-        }
-    };
-
+    /**
+     * The tracker of changes of the alpha texture in the current stroke.
+     */
     @NotNull
-    private static final ObjectFloatObjectConsumer<ColorRGBA, Boolean>[] COLOR_FUNCTIONS =
-            ArrayFactory.toArray(RED_FUNCTION, GREEN_FUNCTION, BLUE_FUNCTION, ALPHA_FUNCTION);
+    private final TiledImageChanges imageChanges;
 
     /**
-     * The list of color points.
+     * The kernel to paint the brush.
      */
     @NotNull
-    private final Array<ColorPoint> colorPoints;
+    private final AlphaBrushKernel brushKernel;
 
     /**
      * The alpha texture to paint.
@@ -115,12 +46,6 @@ public class PaintTerrainToolControl extends TerrainToolControl {
     @Nullable
     private Texture alphaTexture;
 
-    /**
-     * Previous image buffer.
-     */
-    @Nullable
-    private ByteBuffer prevBuffer;
-
     /**
      * The edited layer.
      */
@@ -128,7 +53,8 @@ public class PaintTerrainToolControl extends TerrainToolControl {
 
     public PaintTerrainToolControl(@NotNull final TerrainPaintingComponent component) {
         super(component);
-        this.colorPoints = ArrayFactory.newArray(ColorPoint.class);
+        this.imageChanges = new TiledImageChanges();
+        this.brushKernel = new AlphaBrushKernel();
     }
 
     @Override
@@ -192,74 +118,32 @@ public class PaintTerrainToolControl extends TerrainToolControl {
     }
 
     /**
-     * Get the list of color points.
+     * Get the tracker of changes of the alpha texture.
      *
-     * @return the list of color points.
+     * @return the tracker of changes of the alpha texture.
      */
     @JmeThread
-    private @NotNull Array<ColorPoint> getColorPoints() {
-        return colorPoints;
+    private @NotNull TiledImageChanges getImageChanges() {
+        return imageChanges;
     }
 
     /**
-     * Start making changes.
-     */
-    @JmeThread
-    private void startChange() {
-
-        final Array<ColorPoint> colorPoints = getColorPoints();
-        colorPoints.clear();
-
-        final Texture alphaTexture = notNull(getAlphaTexture());
-        final Image image = alphaTexture.getImage();
-        final ByteBuffer data = image.getData(0);
-
-        if (prevBuffer == null) {
-            prevBuffer = BufferUtils.createByteBuffer(data.capacity());
-        } else if (prevBuffer.capacity() < data.capacity()) {
-            BufferUtils.destroyDirectBuffer(prevBuffer);
-            prevBuffer = BufferUtils.createByteBuffer(data.capacity());
-        }
-
-        final int position = data.position();
-        data.position(0);
-        prevBuffer.clear();
-        prevBuffer.put(data);
-        prevBuffer.flip();
-        data.position(position);
-    }
-
-    /**
-     * Notify about wanting to change color of a point.
+     * Get the kernel to paint the brush.
      *
-     * @param index the index
-     * @param color the color
+     * @return the kernel to paint the brush.
      */
     @JmeThread
-    protected void change(final int index, @NotNull final ColorRGBA color) {
-
-        final Array<ColorPoint> colorPoints = getColorPoints();
-        final ColorPoint search = colorPoints.search(index, (point, toCheck) -> point.index == toCheck);
-
-        if (search != null) {
-            search.red = color.r;
-            search.green = color.g;
-            search.blue = color.b;
-            search.alpha = color.a;
-            return;
-        }
-
-        colorPoints.add(new ColorPoint(index, color.r, color.g, color.b, color.a));
+    private @NotNull AlphaBrushKernel getBrushKernel() {
+        return brushKernel;
     }
 
     /**
-     * Get the previous image buffer.
-     *
-     * @return the previous image buffer.
+     * Start making changes.
      */
     @JmeThread
-    private @NotNull ByteBuffer getPrevBuffer() {
-        return notNull(prevBuffer);
+    private void startChange() {
+        final Texture alphaTexture = notNull(getAlphaTexture());
+        getImageChanges().begin(alphaTexture.getImage());
     }
 
     /**
@@ -268,107 +152,33 @@ public class PaintTerrainToolControl extends TerrainToolControl {
     @JmeThread
     private void commitChanges() {
 
-        final ByteBuffer prevBuffer = getPrevBuffer();
         final Texture alphaTexture = notNull(getAlphaTexture());
         final Image image = alphaTexture.getImage();
+        final ImageDelta delta = getImageChanges().commit();
 
-        final Array<ColorPoint> colorPoints = getColorPoints();
-        final Array<ColorPoint> prevColorPoints = ArrayFactory.newArray(ColorPoint.class, colorPoints.size());
-        final Array<ColorPoint> newColorPoints = ArrayFactory.newArray(ColorPoint.class, colorPoints.size());
-        newColorPoints.addAll(colorPoints);
-
-        fillPrevColorPoints(prevBuffer, image, colorPoints, prevColorPoints);
+        if (delta.isEmpty()) {
+            return;
+        }
 
-        final PropertyOperation<ChangeConsumer, Image, Array<ColorPoint>> operation =
-                new PropertyOperation<>(image, "AlphaMap", newColorPoints, prevColorPoints);
-        operation.setApplyHandler((img, toApply) -> applyColorPoints(img, toApply, toApply == newColorPoints));
+        final PropertyOperation<ChangeConsumer, Image, Boolean> operation =
+                new PropertyOperation<>(image, "AlphaMap", Boolean.TRUE, Boolean.FALSE);
 
-        colorPoints.clear();
+        operation.setApplyHandler((img, applied) -> {
 
-        final ModelChangeConsumer changeConsumer = getChangeConsumer();
-        changeConsumer.execute(operation);
-    }
+            delta.setApplied(img, applied);
 
-    /**
-     * Apply color points to an image.
-     */
-    @JmeThread
-    private static void applyColorPoints(@NotNull final Image image, @NotNull final Array<ColorPoint> colorPoints,
-                                         final boolean isRedo) {
-
-        final ByteBuffer buffer = image.getData(0);
-
-        switch (image.getFormat()) {
-            case RGBA8: {
-                for (final ColorPoint targetPoint : colorPoints) {
-                    buffer.position(targetPoint.index);
-                    buffer.put(float2byte(targetPoint.red));
-                    buffer.put(float2byte(targetPoint.green));
-                    buffer.put(float2byte(targetPoint.blue));
-                    buffer.put(float2byte(targetPoint.alpha));
-                }
-                break;
-            }
-            case ABGR8: {
-                for (final ColorPoint targetPoint : colorPoints) {
-                    buffer.position(targetPoint.index);
-                    buffer.put(float2byte(targetPoint.alpha));
-                    buffer.put(float2byte(targetPoint.blue));
-                    buffer.put(float2byte(targetPoint.green));
-                    buffer.put(float2byte(targetPoint.red));
-                }
-                break;
+            if (applied) {
+                img.incrementChange();
+            } else {
+                img.decrementChanges();
             }
-        }
-
-        buffer.rewind();
 
-        if (isRedo) {
-            image.incrementChange();
-        } else {
-            image.decrementChanges();
-        }
-
-        image.setUpdateNeeded();
-    }
+            img.setUpdateNeeded();
+        });
+        operation.addData(delta);
 
-    /**
-     * Fill previous color points.
-     *
-     * @param prevBuffer      the buffer of previous image.
-     * @param image           the current image.
-     * @param colorPoints     the list of changes color points.
-     * @param prevColorPoints the list to fill original color points.
-     */
-    @JmeThread
-    private void fillPrevColorPoints(@NotNull final ByteBuffer prevBuffer, @NotNull final Image image,
-                                     @NotNull final Array<ColorPoint> colorPoints,
-                                     @NotNull final Array<ColorPoint> prevColorPoints) {
-
-        switch (image.getFormat()) {
-            case RGBA8: {
-                for (final ColorPoint colorPoint : colorPoints) {
-                    prevBuffer.position(colorPoint.index);
-                    final float r = byte2float(prevBuffer.get());
-                    final float g = byte2float(prevBuffer.get());
-                    final float b = byte2float(prevBuffer.get());
-                    final float a = byte2float(prevBuffer.get());
-                    prevColorPoints.add(new ColorPoint(colorPoint.index, r, g, b, a));
-                }
-                break;
-            }
-            case ABGR8: {
-                for (final ColorPoint colorPoint : colorPoints) {
-                    prevBuffer.position(colorPoint.index);
-                    float a = byte2float(prevBuffer.get());
-                    float b = byte2float(prevBuffer.get());
-                    float g = byte2float(prevBuffer.get());
-                    float r = byte2float(prevBuffer.get());
-                    prevColorPoints.add(new ColorPoint(colorPoint.index, r, g, b, a));
-                }
-                break;
-            }
-        }
+        final ModelChangeConsumer changeConsumer = getChangeConsumer();
+        changeConsumer.execute(operation);
     }
 
     /**
@@ -434,8 +244,6 @@ public class PaintTerrainToolControl extends TerrainToolControl {
         final Vector3f localPoint = contactPoint.subtract(worldTranslation, local.nextVector());
         final Vector3f localScale = terrainNode.getLocalScale();
         final Vector2f uv = getPointPercentagePosition(terrain, localPoint, localScale, local.nextVector2f());
-        final Vector2f temp = local.nextVector2f();
-        final ColorRGBA color = local.nextColor();
 
         final int layer = getLayer();
 
@@ -448,11 +256,41 @@ public class PaintTerrainToolControl extends TerrainToolControl {
         }
 
         // selectedTextureIndex/4 is an int floor, do not simplify the equation
-        final ObjectFloatObjectConsumer<ColorRGBA, Boolean> colorFunction = COLOR_FUNCTIONS[layer - ((layer / 4) * 4)];
+        final int channel = layer - ((layer / 4) * 4);
+
+        doPaintAction(image, channel, uv, brushSize, brushPower);
+        uploadChanges(alphaTexture);
+    }
+
+    /**
+     * Upload the area changed by the last brush step to GPU. The whole image is re-uploaded if the texture isn't
+     * uploaded yet or it uses mip maps, because a sub-image update doesn't update mip map levels.
+     *
+     * @param alphaTexture the alpha texture.
+     */
+    @JmeThread
+    private void uploadChanges(@NotNull final Texture alphaTexture) {
+
+        final TiledImageChanges imageChanges = getImageChanges();
+
+        if (!imageChanges.hasStepChanges()) {
+            return;
+        }
+
+        final Image image = alphaTexture.getImage();
 
-        doPaintAction(colorFunction, image, uv, temp, color, brushSize, false, brushPower);
+        final boolean canUpdateArea = image.getId() != -1 && !image.isUpdateNeeded() && !image.hasMipmaps() &&
+                !alphaTexture.getMinFilter().usesMipMapLevels();
 
-        image.setUpdateNeeded();
+        if (canUpdateArea) {
+            final Renderer renderer = EditorUtil.getRenderer();
+            renderer.modifyTexture(alphaTexture, imageChanges.getStepImage(), imageChanges.getStepX(),
+                    imageChanges.getStepY());
+        } else {
+            image.setUpdateNeeded();
+        }
+
+        imageChanges.resetStep();
     }
 
     @JmeThread
@@ -473,31 +311,20 @@ public class PaintTerrainToolControl extends TerrainToolControl {
     }
 
     /**
-     * Goes through each pixel in the image. At each pixel it looks to see if the UV mouse coordinate is within the
-     * of the brush. If it is in the brush radius, it gets the existing color from that pixel so it can add/subtract to/from it.
-     * Essentially it does a radius check and adds in a fade value. It does this to the color value returned by the
-     * first pixel color query.
-     * Next it sets the color of that pixel. If it was within the radius, the color will change. If it was outside
-     * the radius, then nothing will change, the color will be the same; but it will set it nonetheless. Not efficient.
-     * <p>
-     * If the mouse is being dragged with the button down, then the dragged value should be set to true. This will reduce
-     * the intensity of the brush to 10% of what it should be per spray. Otherwise it goes to 100% opacity within a few pixels.
-     * This makes it work a little more realistically.
+     * Paints the brush step into the channel of the image. The kernel works with the bytes of the painted channel
+     * directly and paints rows of large brushes in parallel. Each pixel inside the brush radius gets the value
+     * scaled by the falloff of the kernel, the round falloff gives full power in the brush center and zero power at
+     * the brush edge.
      *
-     * @param colorFunction the color function.
-     * @param image         to manipulate
-     * @param uv            the world x,z coordinate
-     * @param radius        in percentage so it can be translated to the image dimensions
-     * @param erase         true if the tool should remove the paint instead of add it
-     * @param fadeFalloff   the percentage of the radius when the paint begins to start fading
+     * @param image       to manipulate
+     * @param channel     the painted channel (0 - red, 1 - green, 2 - blue, 3 - alpha).
+     * @param uv          the world x,z coordinate
+     * @param radius      in percentage so it can be translated to the image dimensions
+     * @param fadeFalloff the power of the brush, it's negative to remove paint
      */
     @JmeThread
-    private void doPaintAction(@NotNull final ObjectFloatObjectConsumer<ColorRGBA, Boolean> colorFunction,
-                               @NotNull final Image image, @NotNull final Vector2f uv, @NotNull final Vector2f temp,
-                               @NotNull final ColorRGBA color, final float radius, final boolean erase,
-                               final float fadeFalloff) {
-
-        final ByteBuffer buffer = image.getData(0);
+    private void doPaintAction(@NotNull final Image image, final int channel, @NotNull final Vector2f uv,
+                               final float radius, final float fadeFalloff) {
 
         final int width = image.getWidth();
         final float height = image.getHeight();
@@ -508,114 +335,8 @@ public class PaintTerrainToolControl extends TerrainToolControl {
         final int minY = (int) Math.max(0, (uv.getY() * height - radius * height));
         final int maxY = (int) Math.min(height, (uv.getY() * height + radius * height));
 
-        final float radiusSquared = radius * radius;
-
-        // go through each pixel, in the radius of the tool, in the image
-        for (int y = minY; y < maxY; y++) {
-            for (int x = minX; x < maxX; x++) {
-
-                // gets the position in percentage so it can compare with the mouse UV coordinate
-                temp.set((float) x / width, (float) y / height);
-
-                float dist = temp.distanceSquared(uv);
-
-                // if the pixel is within the distance of the radius, set a color (distance times intensity)
-                if (dist < radiusSquared) {
-
-                    final int position = (y * width + x) * 4;
-                    if (position > buffer.capacity() - 1 || position < 0) {
-                        continue;
-                    }
-
-                    // gets the color at that location (false means don't write to the buffer)
-                    manipulatePixel(image, buffer, color, position, false);
-
-                    // calculate the fade falloff intensity
-                    final float intensity = (1.0f - (dist / radiusSquared)) * fadeFalloff;
-
-                    colorFunction.accept(color, intensity, erase);
-                    color.clamp();
-
-                    change(position, color);
-
-                    // set the new color
-                    manipulatePixel(image, buffer, color, position, true);
-                }
-            }
-        }
-
-        image.getData(0).rewind();
-    }
-
-    /**
-     * We are only using RGBA8 images for alpha textures right now.
-     *
-     * @param image    to get/set the color on
-     * @param buffer   the buffer of the image.
-     * @param color    color to get/set
-     * @param position position in the buffer.
-     * @param write    to write the color or not
-     */
-    @JmeThread
-    private void manipulatePixel(@NotNull final Image image, @NotNull final ByteBuffer buffer,
-                                 @NotNull final ColorRGBA color, final int position, final boolean write) {
-
-        if (write) {
-            switch (image.getFormat()) {
-                case RGBA8: {
-                    buffer.position(position);
-                    buffer.put(float2byte(color.r));
-                    buffer.put(float2byte(color.g));
-                    buffer.put(float2byte(color.b));
-                    buffer.put(float2byte(color.a));
-                    return;
-                }
-                case ABGR8: {
-                    buffer.position(position);
-                    buffer.put(float2byte(color.a));
-                    buffer.put(float2byte(color.b));
-                    buffer.put(float2byte(color.g));
-                    buffer.put(float2byte(color.r));
-                    return;
-                }
-                default: {
-                    throw new UnsupportedOperationException("Image format: " + image.getFormat());
-                }
-            }
-        } else {
-            switch (image.getFormat()) {
-                case RGBA8: {
-                    buffer.position(position);
-                    final float r = byte2float(buffer.get());
-                    final float g = byte2float(buffer.get());
-                    final float b = byte2float(buffer.get());
-                    final float a = byte2float(buffer.get());
-                    color.set(r, g, b, a);
-                    return;
-                }
-                case ABGR8: {
-                    buffer.position(position);
-                    float a = byte2float(buffer.get());
-                    float b = byte2float(buffer.get());
-                    float g = byte2float(buffer.get());
-                    float r = byte2float(buffer.get());
-                    color.set(r, g, b, a);
-                    return;
-                }
-                default: {
-                    throw new UnsupportedOperationException("Image format: " + image.getFormat());
-                }
-            }
-        }
-    }
-
-    @FromAnyThread
-    private static float byte2float(byte b) {
-        return ((float) (b & 0xFF)) / 255f;
-    }
+        getImageChanges().touch(minX, minY, maxX, maxY);
 
-    @FromAnyThread
-    private static byte float2byte(float f) {
-        return (byte) (f * 255f);
+        getBrushKernel().paint(image, channel, uv.getX(), uv.getY(), radius, fadeFalloff, minX, minY, maxX, maxY);
     }
 }
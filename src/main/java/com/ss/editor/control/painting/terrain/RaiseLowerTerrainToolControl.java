@@ -8,7 +8,6 @@ import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
-import com.jme3.scene.Spatial;
 import com.jme3.terrain.Terrain;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.JmeThread;
@@ -17,9 +16,6 @@ import com.ss.editor.ui.component.painting.terrain.TerrainPaintingComponent;
 import com.ss.editor.util.LocalObjects;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * The implementation of terrain tool to raise/lowe heights.
  *
@@ -91,26 +87,19 @@ public class RaiseLowerTerrainToolControl extends ChangeHeightTerrainToolControl
     private void modifyHeight(@NotNull final PaintingInput input, @NotNull final Vector3f contactPoint) {
 
         final LocalObjects local = getLocalObjects();
-        final Spatial paintedModel = notNull(getPaintedModel());
         final Geometry brush = getBrush();
 
         final float brushSize = getBrushSize();
         final float brushPower = input == PaintingInput.MOUSE_PRIMARY ? getBrushPower() : getBrushPower() * -1F;
 
-        final List<Vector2f> locs = new ArrayList<>();
-        final List<Float> heights = new ArrayList<>();
-
         for (final Terrain terrain : getTerrains()) {
 
             final Node terrainNode = (Node) terrain;
-
-            locs.clear();
-            heights.clear();
+            final HeightBuffer heights = getNewHeights();
 
             final Vector3f worldTranslation = terrainNode.getWorldTranslation();
             final Vector3f localScale = terrainNode.getLocalScale();
             final Vector3f localPoint = contactPoint.subtract(worldTranslation, local.nextVector());
-            final Vector2f terrainLoc = local.nextVector2f();
             final Vector2f effectPoint = local.nextVector2f();
 
             final int radiusStepsX = (int) (brushSize / localScale.getX());
@@ -131,9 +120,9 @@ public class RaiseLowerTerrainToolControl extends ChangeHeightTerrainToolControl
                         continue;
                     }
 
-                    terrainLoc.set(locX, locZ);
+                    final int index = toIndex(terrain, locX, locZ);
 
-                    final float heightmapHeight = terrain.getHeightmapHeight(terrainLoc);
+                    final float heightmapHeight = getHeight(terrain, index);
                     if (Float.isNaN(heightmapHeight)) {
                         continue;
                     }
@@ -143,17 +132,12 @@ public class RaiseLowerTerrainToolControl extends ChangeHeightTerrainToolControl
                     final float newHeight = calculateHeight(brushSize, brushPower, effectPoint.getX(), effectPoint.getY());
 
                     // increase the height
-                    locs.add(terrainLoc.clone());
-                    heights.add(currentHeight + newHeight);
+                    heights.put(index, currentHeight + newHeight);
                 }
             }
 
-            locs.forEach(location -> change(terrain, location));
             // do the actual height adjustment
-            terrain.setHeight(locs, heights);
+            applyHeights(terrain, heights);
         }
-
-        // or else we won't collide with it where we just edited
-        paintedModel.updateModelBound();
     }
 }
@@ -9,7 +9,6 @@ import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
-import com.jme3.scene.Spatial;
 import com.jme3.terrain.Terrain;
 import com.jme3.terrain.noise.Basis;
 import com.jme3.terrain.noise.ShaderUtils;
@@ -27,10 +26,6 @@ import com.ss.editor.ui.component.painting.terrain.TerrainPaintingComponent;
 import com.ss.editor.util.LocalObjects;
 import org.jetbrains.annotations.NotNull;
 
-import java.nio.FloatBuffer;
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * The implementation of terrain tool to make rough heights.
  *
@@ -38,6 +33,12 @@ import java.util.List;
  */
 public class RoughTerrainToolControl extends ChangeHeightTerrainToolControl {
 
+    /**
+     * The cache of noise tiles.
+     */
+    @NotNull
+    private final NoiseTileCache noiseTiles;
+
     private float roughness;
     private float frequency;
     private float lacunarity;
@@ -46,6 +47,7 @@ public class RoughTerrainToolControl extends ChangeHeightTerrainToolControl {
 
     public RoughTerrainToolControl(@NotNull final TerrainPaintingComponent component) {
         super(component);
+        this.noiseTiles = new NoiseTileCache();
     }
 
     @Override
@@ -104,31 +106,25 @@ public class RoughTerrainToolControl extends ChangeHeightTerrainToolControl {
     private void modifyHeight(@NotNull final Vector3f contactPoint) {
 
         final LocalObjects local = getLocalObjects();
-        final Spatial paintedModel = notNull(getPaintedModel());
         final Geometry brush = getBrush();
 
         final float brushSize = getBrushSize();
         final int twoBrushSize = (int) (brushSize * 2);
 
-        final Basis fractalFilter = createFractalGenerator();
-        final List<Vector2f> locs = new ArrayList<>();
-        final List<Float> heights = new ArrayList<>();
+        // the noise is sampled in the space of the brush, so all steps with the same parameters use the same tile
+        final float[] noise = noiseTiles.getTile(getRoughness(), getFrequency(), getLacunarity(), getOctaves(),
+                getScale(), getBrushPower(), twoBrushSize, this::createFractalGenerator);
 
         for (final Terrain terrain : getTerrains()) {
 
             final Node terrainNode = (Node) terrain;
-
-            locs.clear();
-            heights.clear();
+            final HeightBuffer heights = getNewHeights();
 
             final Vector3f worldTranslation = terrainNode.getWorldTranslation();
             final Vector3f localScale = terrainNode.getLocalScale();
             final Vector3f localPoint = contactPoint.subtract(worldTranslation, local.nextVector());
-            final Vector2f terrainLoc = local.nextVector2f();
             final Vector2f effectPoint = local.nextVector2f();
 
-            final FloatBuffer buffer = fractalFilter.getBuffer(terrainLoc.getX(), terrainLoc.getY(), 0, twoBrushSize);
-
             final int radiusStepsX = (int) (brushSize / localScale.getX());
             final int radiusStepsZ = (int) (brushSize / localScale.getY());
 
@@ -147,11 +143,17 @@ public class RoughTerrainToolControl extends ChangeHeightTerrainToolControl {
                         continue;
                     }
 
-                    final float height = buffer.get(yfb * twoBrushSize + xfb);
+                    final int noiseIndex = yfb * twoBrushSize + xfb;
 
-                    terrainLoc.set(locX, locZ);
+                    if (xfb >= twoBrushSize || noiseIndex >= noise.length) {
+                        continue;
+                    }
+
+                    final float height = noise[noiseIndex];
 
-                    final float heightmapHeight = terrain.getHeightmapHeight(terrainLoc);
+                    final int index = toIndex(terrain, locX, locZ);
+
+                    final float heightmapHeight = getHeight(terrain, index);
                     if (Float.isNaN(heightmapHeight)) {
                         continue;
                     }
@@ -160,19 +162,13 @@ public class RoughTerrainToolControl extends ChangeHeightTerrainToolControl {
                     // see if it is in the radius of the tool
                     final float newHeight = calculateHeight(brushSize, height, effectPoint);
 
-                    locs.add(terrainLoc.clone());
-                    heights.add(currentHeight + newHeight);
+                    heights.put(index, currentHeight + newHeight);
                 }
             }
 
-            locs.forEach(location -> change(terrain, location));
-
-            // do the actual height adjustment
-            terrain.setHeight(locs, heights);
+            // do the actual height adjustment, it refreshes bounds of changed patches
+            applyHeights(terrain, heights);
         }
-
-        // or else we won't collide with it where we just edited
-        paintedModel.updateModelBound();
     }
 
     @JmeThread
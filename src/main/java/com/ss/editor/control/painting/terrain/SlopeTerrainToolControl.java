@@ -20,8 +20,6 @@ import com.ss.editor.ui.component.painting.terrain.TerrainPaintingComponent;
 import com.ss.editor.util.LocalObjects;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * The implementation of terrain tool to make slopes.
@@ -202,7 +200,6 @@ public class SlopeTerrainToolControl extends ChangeHeightTerrainToolControl {
     private void modifyHeight(@NotNull final Vector3f contactPoint) {
 
         final LocalObjects local = getLocalObjects();
-        final Spatial paintedModel = notNull(getPaintedModel());
 
         final Geometry brush = getBrush();
         final Geometry baseMarker = getBaseMarker();
@@ -211,15 +208,10 @@ public class SlopeTerrainToolControl extends ChangeHeightTerrainToolControl {
         final float brushSize = getBrushSize();
         final float brushPower = getBrushPower();
 
-        final List<Vector2f> locs = new ArrayList<>();
-        final List<Float> heights = new ArrayList<>();
-
         for (final Terrain terrain : getTerrains()) {
 
             final Node terrainNode = (Node) terrain;
-
-            locs.clear();
-            heights.clear();
+            final HeightBuffer heights = getNewHeights();
 
             final Vector3f worldTranslation = terrainNode.getWorldTranslation();
             final Vector3f localScale = terrainNode.getLocalScale();
@@ -243,7 +235,6 @@ public class SlopeTerrainToolControl extends ChangeHeightTerrainToolControl {
             final Vector3f firstSide = local.nextVector();
             final Vector3f secondSide = local.nextVector();
             final Vector3f targetPoint = local.nextVector();
-            final Vector2f terrainLoc = local.nextVector2f();
             final Vector2f effectPoint = local.nextVector2f();
 
             final int radiusStepsX = (int) (brushSize / localScale.getX());
@@ -270,10 +261,10 @@ public class SlopeTerrainToolControl extends ChangeHeightTerrainToolControl {
                         continue;
                     }
 
-                    terrainLoc.set(locX, locZ);
+                    final int index = toIndex(terrain, locX, locZ);
 
                     // adjust height based on radius of the tool
-                    final float heightmapHeight = terrain.getHeightmapHeight(terrainLoc);
+                    final float heightmapHeight = getHeight(terrain, index);
                     if (Float.isNaN(heightmapHeight)) {
                         continue;
                     }
@@ -326,25 +317,18 @@ public class SlopeTerrainToolControl extends ChangeHeightTerrainToolControl {
                         }
 
                         if (!floatEquals(adj, 0, 0.001f)) {
-                            locs.add(terrainLoc.clone());
-                            heights.add(currentHeight + adj);
+                            heights.put(index, currentHeight + adj);
                         }
 
                     } else {
-                        locs.add(terrainLoc.clone());
-                        heights.add(desiredHeight / localScale.getY());
+                        heights.put(index, desiredHeight / localScale.getY());
                     }
                 }
             }
 
-            locs.forEach(location -> change(terrain, location));
-
             // do the actual height adjustment
-            terrain.setHeight(locs, heights);
+            applyHeights(terrain, heights);
         }
-
-        // or else we won't collide with it where we just edited
-        paintedModel.updateModelBound();
     }
 
     /**
@@ -9,7 +9,6 @@ import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
-import com.jme3.scene.Spatial;
 import com.jme3.terrain.Terrain;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.JmeThread;
@@ -18,9 +17,6 @@ import com.ss.editor.ui.component.painting.terrain.TerrainPaintingComponent;
 import com.ss.editor.util.LocalObjects;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * The implementation of terrain tool to smooth heights.
  *
@@ -88,26 +84,19 @@ public class SmoothTerrainToolControl extends ChangeHeightTerrainToolControl {
     private void modifyHeight(@NotNull final Vector3f contactPoint) {
 
         final LocalObjects local = getLocalObjects();
-        final Spatial paintedModel = notNull(getPaintedModel());
         final Geometry brush = getBrush();
 
         final float brushSize = getBrushSize();
         final float brushPower = getBrushPower();
 
-        final List<Vector2f> locs = new ArrayList<>();
-
         for (final Terrain terrain : getTerrains()) {
 
             final Node terrainNode = (Node) terrain;
+            final HeightBuffer heights = getNewHeights();
 
             final Vector3f localScale = terrainNode.getLocalScale();
             final Vector3f worldTranslation = terrainNode.getWorldTranslation();
             final Vector3f localPoint = contactPoint.subtract(worldTranslation, local.nextVector());
-            final Vector2f terrainLoc = local.nextVector2f();
-            final Vector2f terrainLocLeft = local.nextVector2f();
-            final Vector2f terrainLocRight = local.nextVector2f();
-            final Vector2f terrainLocUp = local.nextVector2f();
-            final Vector2f terrainLocDown = local.nextVector2f();
             final Vector2f effectPoint = local.nextVector2f();
 
             final int radiusStepsX = (int) (brushSize / localScale.getX());
@@ -116,8 +105,6 @@ public class SmoothTerrainToolControl extends ChangeHeightTerrainToolControl {
             final float xStepAmount = localScale.getX();
             final float zStepAmount = localScale.getZ();
 
-            locs.clear();
-
             for (int z = -radiusStepsZ; z < radiusStepsZ; z++) {
                 for (int x = -radiusStepsX; x < radiusStepsX; x++) {
 
@@ -130,18 +117,18 @@ public class SmoothTerrainToolControl extends ChangeHeightTerrainToolControl {
                         continue;
                     }
 
-                    terrainLoc.set(locX, locZ);
-                    terrainLocLeft.set(terrainLoc.getX() - 1, terrainLoc.getY());
-                    terrainLocRight.set(terrainLoc.getX() + 1, terrainLoc.getY());
-                    terrainLocUp.set(terrainLoc.getX(), terrainLoc.getY() + 1);
-                    terrainLocDown.set(terrainLoc.getX(), terrainLoc.getY() - 1);
+                    final int index = toIndex(terrain, locX, locZ);
+
+                    if (index < 0) {
+                        continue;
+                    }
 
                     // adjust height based on radius of the tool
-                    final float center = terrain.getHeightmapHeight(terrainLoc);
-                    final float left = terrain.getHeightmapHeight(terrainLocLeft);
-                    final float right = terrain.getHeightmapHeight(terrainLocRight);
-                    final float up = terrain.getHeightmapHeight(terrainLocUp);
-                    final float down = terrain.getHeightmapHeight(terrainLocDown);
+                    final float center = getHeight(terrain, heights, index);
+                    final float left = getHeight(terrain, heights, toIndex(terrain, locX - 1, locZ));
+                    final float right = getHeight(terrain, heights, toIndex(terrain, locX + 1, locZ));
+                    final float up = getHeight(terrain, heights, toIndex(terrain, locX, locZ + 1));
+                    final float down = getHeight(terrain, heights, toIndex(terrain, locX, locZ - 1));
 
                     int count = 1;
 
@@ -171,15 +158,25 @@ public class SmoothTerrainToolControl extends ChangeHeightTerrainToolControl {
                     float diff = amount - center;
                     diff *= min(brushPower, 2F);
 
-                    terrain.setHeight(terrainLoc, center + diff);
-                    locs.add(terrainLoc.clone());
+                    heights.put(index, center + diff);
                 }
             }
 
-            locs.forEach(location -> change(terrain, location));
+            applyHeights(terrain, heights);
         }
+    }
 
-        // or else we won't collide with it where we just edited
-        paintedModel.updateModelBound();
+    /**
+     * Get the height of the point which is already smoothed in the current step or the height from the terrain.
+     *
+     * @param terrain the terrain.
+     * @param heights the smoothed heights.
+     * @param index   the packed index of the point.
+     * @return the height.
+     */
+    @JmeThread
+    private float getHeight(@NotNull final Terrain terrain, @NotNull final HeightBuffer heights, final int index) {
+        final float height = index < 0 ? Float.NaN : heights.get(index);
+        return Float.isNaN(height) ? getHeight(terrain, index) : height;
     }
 }
@@ -0,0 +1,343 @@
+package com.ss.editor.control.painting.terrain;
+
+import static com.ss.rlib.util.ObjectUtils.notNull;
+import com.jme3.texture.Image;
+import com.jme3.util.BufferUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * The tracker of changes of an image during a painting stroke. The image is split to square tiles, the original
+ * bytes of a tile are copied only before the first change in the tile, so a stroke costs memory only for touched
+ * tiles. The tracker also keeps the area changed by the current brush step to upload only this area to GPU.
+ *
+ * @author JavaSaBr
+ */
+public class TiledImageChanges {
+
+    /**
+     * The size of a tile in pixels.
+     */
+    public static final int TILE_SIZE = 64;
+
+    /**
+     * The count of bytes per pixel of supported formats.
+     */
+    static final int BYTES_PER_PIXEL = 4;
+
+    private static final int TILE_SHIFT = Integer.numberOfTrailingZeros(TILE_SIZE);
+
+    /**
+     * The original bytes of touched tiles.
+     */
+    @NotNull
+    private byte[][] originals;
+
+    /**
+     * The indexes of touched tiles in order of touching.
+     */
+    @NotNull
+    private int[] touched;
+
+    /**
+     * The count of touched tiles.
+     */
+    private int touchedCount;
+
+    /**
+     * The current image.
+     */
+    @Nullable
+    private Image image;
+
+    /**
+     * The size of the current image.
+     */
+    private int width;
+    private int height;
+
+    /**
+     * The count of tiles in a row.
+     */
+    private int tilesX;
+
+    /**
+     * The area changed by the current step.
+     */
+    private int stepMinX;
+    private int stepMinY;
+    private int stepMaxX;
+    private int stepMaxY;
+
+    /**
+     * The image of the area changed by the current step.
+     */
+    @Nullable
+    private Image stepImage;
+
+    /**
+     * The buffer of the image of the changed area.
+     */
+    @Nullable
+    private ByteBuffer stepBuffer;
+
+    public TiledImageChanges() {
+        this.originals = new byte[0][];
+        this.touched = new int[16];
+        resetStep();
+    }
+
+    /**
+     * Start tracking changes of the image.
+     *
+     * @param image the image.
+     */
+    public void begin(@NotNull final Image image) {
+
+        reset();
+
+        this.image = image;
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+
+        final int tiles = tilesX * ((height + TILE_SIZE - 1) / TILE_SIZE);
+
+        if (originals.length < tiles) {
+            originals = new byte[tiles][];
+        }
+    }
+
+    /**
+     * Notify about wanting to change pixels in the area, the area is clamped by the image.
+     *
+     * @param minX the min x of the area (inclusive).
+     * @param minY the min y of the area (inclusive).
+     * @param maxX the max x of the area (exclusive).
+     * @param maxY the max y of the area (exclusive).
+     */
+    public void touch(int minX, int minY, int maxX, int maxY) {
+
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        maxX = Math.min(maxX, width);
+        maxY = Math.min(maxY, height);
+
+        if (minX >= maxX || minY >= maxY) {
+            return;
+        }
+
+        final int lastTileX = (maxX - 1) >> TILE_SHIFT;
+        final int lastTileY = (maxY - 1) >> TILE_SHIFT;
+
+        for (int tileY = minY >> TILE_SHIFT; tileY <= lastTileY; tileY++) {
+            for (int tileX = minX >> TILE_SHIFT; tileX <= lastTileX; tileX++) {
+                captureTile(tileY * tilesX + tileX);
+            }
+        }
+
+        stepMinX = Math.min(stepMinX, minX);
+        stepMinY = Math.min(stepMinY, minY);
+        stepMaxX = Math.max(stepMaxX, maxX);
+        stepMaxY = Math.max(stepMaxY, maxY);
+    }
+
+    private void captureTile(final int tile) {
+
+        if (originals[tile] != null) {
+            return;
+        }
+
+        final byte[] tileData = new byte[TILE_SIZE * TILE_SIZE * BYTES_PER_PIXEL];
+        readTile(tile, tileData);
+
+        originals[tile] = tileData;
+
+        if (touchedCount == touched.length) {
+            touched = Arrays.copyOf(touched, touchedCount * 2);
+        }
+
+        touched[touchedCount++] = tile;
+    }
+
+    private int readTile(final int tile, @NotNull final byte[] tileData) {
+
+        final ByteBuffer source = notNull(image).getData(0).duplicate();
+
+        final int startX = (tile % tilesX) * TILE_SIZE;
+        final int startY = (tile / tilesX) * TILE_SIZE;
+        final int rowLength = Math.min(TILE_SIZE, width - startX) * BYTES_PER_PIXEL;
+        final int rows = Math.min(TILE_SIZE, height - startY);
+
+        for (int row = 0, offset = 0; row < rows; row++, offset += rowLength) {
+            source.position(((startY + row) * width + startX) * BYTES_PER_PIXEL);
+            source.get(tileData, offset, rowLength);
+        }
+
+        return rowLength * rows;
+    }
+
+    /**
+     * Return true if the current step has changed some area.
+     *
+     * @return true if the current step has changed some area.
+     */
+    public boolean hasStepChanges() {
+        return stepMinX < stepMaxX && stepMinY < stepMaxY;
+    }
+
+    /**
+     * Get the x of the area changed by the current step.
+     *
+     * @return the x of the changed area.
+     */
+    public int getStepX() {
+        return stepMinX;
+    }
+
+    /**
+     * Get the y of the area changed by the current step.
+     *
+     * @return the y of the changed area.
+     */
+    public int getStepY() {
+        return stepMinY;
+    }
+
+    /**
+     * Copy the area changed by the current step to the separated image.
+     *
+     * @return the image of the changed area.
+     */
+    public @NotNull Image getStepImage() {
+
+        final Image image = notNull(this.image);
+
+        final int stepWidth = stepMaxX - stepMinX;
+        final int stepHeight = stepMaxY - stepMinY;
+        final int rowLength = stepWidth * BYTES_PER_PIXEL;
+        final int size = rowLength * stepHeight;
+
+        if (stepBuffer == null || stepBuffer.capacity() < size) {
+            if (stepBuffer != null) {
+                BufferUtils.destroyDirectBuffer(stepBuffer);
+            }
+            stepBuffer = BufferUtils.createByteBuffer(Math.max(size, TILE_SIZE * TILE_SIZE * BYTES_PER_PIXEL));
+        }
+
+        final ByteBuffer source = image.getData(0).duplicate();
+        final ByteBuffer target = stepBuffer;
+        target.clear();
+
+        for (int y = stepMinY; y < stepMaxY; y++) {
+            final int position = (y * width + stepMinX) * BYTES_PER_PIXEL;
+            source.limit(position + rowLength);
+            source.position(position);
+            target.put(source);
+        }
+
+        target.flip();
+
+        if (stepImage == null) {
+            stepImage = new Image(image.getFormat(), stepWidth, stepHeight, target, image.getColorSpace());
+        } else {
+            stepImage.setFormat(image.getFormat());
+            stepImage.setWidth(stepWidth);
+            stepImage.setHeight(stepHeight);
+            stepImage.setData(0, target);
+            stepImage.setColorSpace(image.getColorSpace());
+        }
+
+        return stepImage;
+    }
+
+    /**
+     * Reset the area changed by the current step.
+     */
+    public void resetStep() {
+        stepMinX = Integer.MAX_VALUE;
+        stepMinY = Integer.MAX_VALUE;
+        stepMaxX = Integer.MIN_VALUE;
+        stepMaxY = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Finish tracking and build the compressed delta of all changed tiles.
+     *
+     * @return the delta of the image.
+     */
+    public @NotNull ImageDelta commit() {
+
+        final int[] tiles = new int[touchedCount];
+        final byte[][] deltas = new byte[touchedCount][];
+        final byte[] current = new byte[TILE_SIZE * TILE_SIZE * BYTES_PER_PIXEL];
+        final byte[] compressed = new byte[current.length + 64];
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        int count = 0;
+
+        try {
+
+            for (int i = 0; i < touchedCount; i++) {
+
+                final int tile = touched[i];
+                final byte[] original = originals[tile];
+
+                final int tileLength = readTile(tile, current);
+
+                boolean changed = false;
+
+                for (int j = 0; j < tileLength; j++) {
+                    current[j] ^= original[j];
+                    changed |= current[j] != 0;
+                }
+
+                if (!changed) {
+                    continue;
+                }
+
+                deflater.reset();
+                deflater.setInput(current, 0, tileLength);
+                deflater.finish();
+
+                int length = 0;
+
+                while (!deflater.finished()) {
+                    length += deflater.deflate(compressed, length, compressed.length - length);
+                }
+
+                tiles[count] = tile;
+                deltas[count++] = Arrays.copyOf(compressed, length);
+            }
+
+        } finally {
+            deflater.end();
+        }
+
+        final ImageDelta delta = new ImageDelta(width, height, TILE_SIZE, Arrays.copyOf(tiles, count),
+                Arrays.copyOf(deltas, count));
+
+        reset();
+
+        return delta;
+    }
+
+    /**
+     * Stop tracking changes without building a delta.
+     */
+    public void reset() {
+
+        for (int i = 0; i < touchedCount; i++) {
+            originals[touched[i]] = null;
+        }
+
+        touchedCount = 0;
+        image = null;
+
+        resetStep();
+    }
+}
@@ -0,0 +1,32 @@
+package com.ss.editor.executor;
+
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The interface to implement an engine to execute background tasks.
+ *
+ * @author JavaSaBr
+ */
+public interface BackgroundTaskEngine {
+
+    /**
+     * Submit the new background task.
+     *
+     * @param task     the task.
+     * @param priority the priority of the task.
+     * @return the future of the task, canceling the future prevents executing the task if it wasn't started yet.
+     */
+    @FromAnyThread
+    @NotNull CompletableFuture<Void> submit(@NotNull Runnable task, @NotNull TaskPriority priority);
+
+    /**
+     * Get the count of waiting tasks.
+     *
+     * @return the count of waiting tasks.
+     */
+    @FromAnyThread
+    int getWaitingTaskCount();
+}
@@ -0,0 +1,30 @@
+package com.ss.editor.executor;
+
+/**
+ * The list of priorities of background tasks and tasks of the editor thread.
+ *
+ * @author JavaSaBr
+ */
+public enum TaskPriority {
+
+    /**
+     * The priority of tasks which are waited by an user, e.g. previews, opening a file or updating a camera. Such
+     * tasks of the editor thread are executed before earlier added tasks, so they must not change a scene.
+     */
+    INTERACTIVE,
+
+    /**
+     * The default priority of tasks.
+     */
+    NORMAL,
+
+    /**
+     * The priority of bulk tasks like indexing, generating thumbnails or bulk scene changes.
+     */
+    BULK;
+
+    /**
+     * The list of all priorities from the highest to the lowest.
+     */
+    public static final TaskPriority[] VALUES = values();
+}
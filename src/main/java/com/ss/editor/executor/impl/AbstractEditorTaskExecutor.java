@@ -8,6 +8,7 @@ import com.ss.rlib.concurrent.lock.Lockable;
 import com.ss.rlib.concurrent.util.ConcurrentUtils;
 import com.ss.rlib.logging.Logger;
 import com.ss.rlib.logging.LoggerManager;
+import com.ss.rlib.util.ArrayUtils;
 import com.ss.rlib.util.array.Array;
 import com.ss.rlib.util.array.ArrayFactory;
 import org.jetbrains.annotations.NotNull;
@@ -34,12 +35,6 @@ public abstract class AbstractEditorTaskExecutor extends EditorThread implements
     @NotNull
     protected final Array<Runnable> execute;
 
-    /**
-     * The array of executed task of the iteration.
-     */
-    @NotNull
-    final Array<Runnable> executed;
-
     /**
      * The array of task to execute.
      */
@@ -60,7 +55,6 @@ public abstract class AbstractEditorTaskExecutor extends EditorThread implements
 
     public AbstractEditorTaskExecutor() {
         this.execute = createExecuteArray();
-        this.executed = createExecuteArray();
         this.waitTasks = createExecuteArray();
         this.lock = LockFactory.newAtomicLock();
         this.wait = new AtomicBoolean(false);
@@ -101,16 +95,14 @@ public abstract class AbstractEditorTaskExecutor extends EditorThread implements
     /**
      * Execute the array of tasks.
      *
-     * @param execute  the execute
-     * @param executed the executed
+     * @param execute the execute
      */
-    protected abstract void doExecute(@NotNull final Array<Runnable> execute, @NotNull final Array<Runnable> executed);
+    protected abstract void doExecute(@NotNull final Array<Runnable> execute);
 
     @Override
     public void run() {
         while (true) {
 
-            executed.clear();
             execute.clear();
 
             lock();
@@ -119,7 +111,7 @@ public abstract class AbstractEditorTaskExecutor extends EditorThread implements
                 if (waitTasks.isEmpty()) {
                     wait.getAndSet(true);
                 } else {
-                    execute.addAll(waitTasks);
+                    ArrayUtils.move(waitTasks, execute);
                 }
 
             } finally {
@@ -138,18 +130,7 @@ public abstract class AbstractEditorTaskExecutor extends EditorThread implements
                 continue;
             }
 
-            doExecute(execute, executed);
-
-            if (executed.isEmpty()) {
-                continue;
-            }
-
-            lock();
-            try {
-                waitTasks.removeAll(executed);
-            } finally {
-                unlock();
-            }
+            doExecute(execute);
         }
     }
 
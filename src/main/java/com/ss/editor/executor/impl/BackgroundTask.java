@@ -0,0 +1,88 @@
+package com.ss.editor.executor.impl;
+
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.util.EditorUtil;
+import com.ss.rlib.logging.Logger;
+import com.ss.rlib.logging.LoggerManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The wrapper of a background task with its priority and future.
+ *
+ * @author JavaSaBr
+ */
+public class BackgroundTask implements Runnable {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(BackgroundTask.class);
+
+    /**
+     * The task.
+     */
+    @NotNull
+    private final Runnable task;
+
+    /**
+     * The priority of the task.
+     */
+    @NotNull
+    private final TaskPriority priority;
+
+    /**
+     * The future of the task.
+     */
+    @NotNull
+    private final CompletableFuture<Void> future;
+
+    public BackgroundTask(@NotNull final Runnable task, @NotNull final TaskPriority priority) {
+        this.task = task;
+        this.priority = priority;
+        this.future = new CompletableFuture<>();
+    }
+
+    /**
+     * Get the priority of the task.
+     *
+     * @return the priority of the task.
+     */
+    @FromAnyThread
+    public @NotNull TaskPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Get the future of the task.
+     *
+     * @return the future of the task.
+     */
+    @FromAnyThread
+    public @NotNull CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    @Override
+    @BackgroundThread
+    public void run() {
+
+        // the task was canceled or completed outside
+        if (future.isDone()) {
+            return;
+        }
+
+        try {
+            task.run();
+            future.complete(null);
+        } catch (final Exception e) {
+            future.completeExceptionally(e);
+            EditorUtil.handleException(LOGGER, task, e);
+        } catch (final Throwable e) {
+            // dependent tasks shouldn't wait forever, but errors are still thrown to the worker thread
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
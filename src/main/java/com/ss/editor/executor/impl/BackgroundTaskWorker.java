@@ -0,0 +1,156 @@
+package com.ss.editor.executor.impl;
+
+import com.ss.editor.EditorThread;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.TaskPriority;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The worker of the {@link WorkStealingBackgroundTaskEngine}, it executes tasks from own queues first and steals
+ * tasks from other workers when own queues are empty.
+ *
+ * @author JavaSaBr
+ */
+public class BackgroundTaskWorker extends EditorThread {
+
+    /**
+     * The owner engine.
+     */
+    @NotNull
+    private final WorkStealingBackgroundTaskEngine engine;
+
+    /**
+     * The queues of tasks per priority.
+     */
+    @NotNull
+    private final ConcurrentLinkedDeque<BackgroundTask>[] queues;
+
+    /**
+     * The flag of waiting new tasks.
+     */
+    private volatile boolean idle;
+
+    @SuppressWarnings("unchecked")
+    BackgroundTaskWorker(@NotNull final WorkStealingBackgroundTaskEngine engine, final int order) {
+        this.engine = engine;
+        this.queues = new ConcurrentLinkedDeque[TaskPriority.VALUES.length];
+
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ConcurrentLinkedDeque<>();
+        }
+
+        setName(BackgroundTaskWorker.class.getSimpleName() + "_" + order);
+        setPriority(NORM_PRIORITY - 2);
+    }
+
+    /**
+     * Push the task to the own queue of this worker.
+     *
+     * @param task the task.
+     */
+    @FromAnyThread
+    void push(@NotNull final BackgroundTask task) {
+        queues[task.getPriority().ordinal()].offerLast(task);
+    }
+
+    /**
+     * Take the next own task with the priority in the FIFO order.
+     *
+     * @param priority the priority.
+     * @return the task or null.
+     */
+    @BackgroundThread
+    @Nullable BackgroundTask poll(@NotNull final TaskPriority priority) {
+        return queues[priority.ordinal()].pollFirst();
+    }
+
+    /**
+     * Steal a task with the priority from the tail of the queue of this worker.
+     *
+     * @param priority the priority.
+     * @return the stolen task or null.
+     */
+    @FromAnyThread
+    @Nullable BackgroundTask steal(@NotNull final TaskPriority priority) {
+        return queues[priority.ordinal()].pollLast();
+    }
+
+    /**
+     * Return true if this worker has no own tasks.
+     *
+     * @return true if this worker has no own tasks.
+     */
+    @FromAnyThread
+    boolean isEmpty() {
+        for (final ConcurrentLinkedDeque<BackgroundTask> queue : queues) {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the count of own waiting tasks.
+     *
+     * @return the count of own waiting tasks.
+     */
+    @FromAnyThread
+    int size() {
+
+        int result = 0;
+
+        for (final ConcurrentLinkedDeque<BackgroundTask> queue : queues) {
+            result += queue.size();
+        }
+
+        return result;
+    }
+
+    /**
+     * Wake up this worker if it's waiting for new tasks.
+     *
+     * @return true if this worker was waiting.
+     */
+    @FromAnyThread
+    boolean wakeUp() {
+
+        if (!idle) {
+            return false;
+        }
+
+        LockSupport.unpark(this);
+        return true;
+    }
+
+    @Override
+    @BackgroundThread
+    public void run() {
+        while (true) {
+
+            final BackgroundTask task = engine.nextTask(this);
+
+            if (task != null) {
+                task.run();
+                continue;
+            }
+
+            idle = true;
+            try {
+
+                // re-check after publishing the idle state to not miss a wake up
+                if (!engine.hasTasks()) {
+                    LockSupport.park(this);
+                }
+
+            } finally {
+                idle = false;
+            }
+        }
+    }
+}
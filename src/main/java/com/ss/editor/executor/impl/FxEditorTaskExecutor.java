@@ -9,6 +9,7 @@ import org.jetbrains.annotations.NotNull;
 
 import com.ss.rlib.concurrent.util.ConcurrentUtils;
 import com.ss.rlib.concurrent.util.ThreadUtils;
+import com.ss.rlib.util.ArrayUtils;
 import com.ss.rlib.util.array.Array;
 
 /**
@@ -24,7 +25,7 @@ public class FxEditorTaskExecutor extends AbstractEditorTaskExecutor {
      * The task for executing editor tasks in the FX UI Thread.
      */
     @NotNull
-    private final Runnable fxTask = () -> doExecute(execute, executed);
+    private final Runnable fxTask = () -> doExecute(execute);
 
     public FxEditorTaskExecutor() {
         setName(FxEditorTaskExecutor.class.getSimpleName());
@@ -34,7 +35,7 @@ public class FxEditorTaskExecutor extends AbstractEditorTaskExecutor {
 
     @Override
     @FxThread
-    protected void doExecute(@NotNull final Array<Runnable> execute, @NotNull final Array<Runnable> executed) {
+    protected void doExecute(@NotNull final Array<Runnable> execute) {
 
         final Runnable[] array = execute.array();
 
@@ -49,8 +50,6 @@ public class FxEditorTaskExecutor extends AbstractEditorTaskExecutor {
                     } catch (final Exception e) {
                         EditorUtil.handleException(LOGGER, this, e);
                     }
-
-                    executed.add(task);
                 }
 
             } catch (final Exception e) {
@@ -64,7 +63,6 @@ public class FxEditorTaskExecutor extends AbstractEditorTaskExecutor {
     public void run() {
         while (true) {
 
-            executed.clear();
             execute.clear();
 
             lock();
@@ -73,7 +71,7 @@ public class FxEditorTaskExecutor extends AbstractEditorTaskExecutor {
                 if (waitTasks.isEmpty()) {
                     wait.getAndSet(true);
                 } else {
-                    execute.addAll(waitTasks);
+                    ArrayUtils.move(waitTasks, execute);
                 }
 
             } finally {
@@ -93,17 +91,6 @@ public class FxEditorTaskExecutor extends AbstractEditorTaskExecutor {
             }
 
             executeInFxUiThread();
-
-            if (executed.isEmpty()) {
-                continue;
-            }
-
-            lock();
-            try {
-                waitTasks.removeAll(executed);
-            } finally {
-                unlock();
-            }
         }
     }
 
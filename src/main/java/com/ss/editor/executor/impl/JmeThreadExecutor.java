@@ -2,6 +2,7 @@ package com.ss.editor.executor.impl;
 
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.TaskPriority;
 import com.ss.editor.util.EditorUtil;
 
 import org.jetbrains.annotations.NotNull;
@@ -13,8 +14,21 @@ import com.ss.rlib.util.array.Array;
 import com.ss.rlib.util.array.ArrayFactory;
 import com.ss.rlib.util.array.ConcurrentArray;
 
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * The executor to execute tasks in the editor thread.
+ * The executor to execute tasks in the editor thread. Tasks are executed by priorities, {@link TaskPriority#INTERACTIVE}
+ * tasks are executed in the current frame always, other tasks are executed while the frame budget isn't exceeded and
+ * the rest of them is moved to the next frame. Tasks added with the same key are coalesced while they are waiting, so
+ * only the last one of them is executed.
+ * <p>
+ * Changes of a scene must be applied in the order of adding, so a {@link TaskPriority#NORMAL} task which is added
+ * while {@link TaskPriority#BULK} tasks are waiting is queued after them. {@link TaskPriority#INTERACTIVE} tasks
+ * overtake all waited tasks, so they must only update the view state like the selection or the camera and must not
+ * depend on waited changes of the scene.
  *
  * @author JavaSaBr
  */
@@ -26,36 +40,253 @@ public class JmeThreadExecutor {
     @NotNull
     private static final JmeThreadExecutor INSTANCE = new JmeThreadExecutor();
 
+    /**
+     * The default budget of executing tasks in a frame.
+     */
+    private static final long DEFAULT_FRAME_BUDGET = TimeUnit.MILLISECONDS.toNanos(8);
+
     @FromAnyThread
     public static @NotNull JmeThreadExecutor getInstance() {
         return INSTANCE;
     }
 
     /**
-     * The list of waited tasks.
+     * The task which can be replaced by a newer task with the same key while it is waiting.
+     */
+    private final class CoalescedTask implements Runnable {
+
+        /**
+         * The key of the task.
+         */
+        @NotNull
+        private final Object key;
+
+        /**
+         * The last added task.
+         */
+        @NotNull
+        private volatile Runnable task;
+
+        private CoalescedTask(@NotNull final Object key, @NotNull final Runnable task) {
+            this.key = key;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            coalescedTasks.remove(key, this);
+            task.run();
+        }
+    }
+
+    /**
+     * The lists of waited tasks by priorities.
+     */
+    @NotNull
+    private final ConcurrentArray<Runnable>[] waitTasks;
+
+    /**
+     * The queues of tasks to execute by priorities, they keep tasks which weren't executed in the previous frames.
+     */
+    @NotNull
+    private final ArrayDeque<Runnable>[] execute;
+
+    /**
+     * The list to move waited tasks.
+     */
+    @NotNull
+    private final Array<Runnable> toMove;
+
+    /**
+     * The table of waited tasks with keys.
+     */
+    @NotNull
+    private final ConcurrentHashMap<Object, CoalescedTask> coalescedTasks;
+
+    /**
+     * The count of waited tasks.
      */
     @NotNull
-    private final ConcurrentArray<Runnable> waitTasks;
+    private final AtomicInteger queueDepth;
 
     /**
-     * The list with tasks to execute.
+     * The counts of waited tasks by priorities.
      */
     @NotNull
-    private final Array<Runnable> execute;
+    private final AtomicInteger[] waitCounts;
 
+    /**
+     * The budget of executing tasks in a frame in nanos.
+     */
+    private volatile long frameBudget;
+
+    /**
+     * The time of executing tasks in the last frame in nanos.
+     */
+    private volatile long lastFrameTime;
+
+    /**
+     * The max time of executing tasks in a frame since the last reading in nanos.
+     */
+    private volatile long peakFrameTime;
+
+    /**
+     * The count of executed tasks in the last frame.
+     */
+    private volatile int lastFrameTasks;
+
+    @SuppressWarnings("unchecked")
     private JmeThreadExecutor() {
-        this.waitTasks = ArrayFactory.newConcurrentAtomicARSWLockArray(Runnable.class);
-        this.execute = ArrayFactory.newArray(Runnable.class);
+
+        final TaskPriority[] priorities = TaskPriority.VALUES;
+
+        this.waitTasks = new ConcurrentArray[priorities.length];
+        this.execute = new ArrayDeque[priorities.length];
+        this.waitCounts = new AtomicInteger[priorities.length];
+
+        for (int i = 0; i < priorities.length; i++) {
+            this.waitTasks[i] = ArrayFactory.newConcurrentAtomicARSWLockArray(Runnable.class);
+            this.execute[i] = new ArrayDeque<>();
+            this.waitCounts[i] = new AtomicInteger();
+        }
+
+        this.toMove = ArrayFactory.newArray(Runnable.class);
+        this.coalescedTasks = new ConcurrentHashMap<>();
+        this.queueDepth = new AtomicInteger();
+        this.frameBudget = DEFAULT_FRAME_BUDGET;
     }
 
     /**
-     * Add a task to execute.
+     * Add a task to execute with {@link TaskPriority#NORMAL} priority.
      *
      * @param task the task.
      */
     @FromAnyThread
     public void addToExecute(@NotNull final Runnable task) {
-        ArrayUtils.runInWriteLock(waitTasks, task, (tasks, toAdd) -> tasks.add(task));
+        addToExecute(task, TaskPriority.NORMAL);
+    }
+
+    /**
+     * Add a task to execute. The task is queued after waited tasks of lower priorities if it isn't an interactive
+     * task.
+     *
+     * @param task     the task.
+     * @param priority the priority of the task.
+     */
+    @FromAnyThread
+    public void addToExecute(@NotNull final Runnable task, @NotNull final TaskPriority priority) {
+
+        final int index = getQueueIndex(priority);
+
+        queueDepth.incrementAndGet();
+        waitCounts[index].incrementAndGet();
+
+        ArrayUtils.runInWriteLock(waitTasks[index], task, Array::add);
+    }
+
+    /**
+     * Get the index of the queue to add a task with the priority, it's the queue of the lowest priority which has
+     * waited tasks to keep the order of changes.
+     *
+     * @param priority the priority of the task.
+     * @return the index of the queue.
+     */
+    @FromAnyThread
+    private int getQueueIndex(@NotNull final TaskPriority priority) {
+
+        if (priority == TaskPriority.INTERACTIVE) {
+            return priority.ordinal();
+        }
+
+        for (int i = waitCounts.length - 1; i > priority.ordinal(); i--) {
+            if (waitCounts[i].get() > 0) {
+                return i;
+            }
+        }
+
+        return priority.ordinal();
+    }
+
+    /**
+     * Add a task to execute which replaces a waited task with the same key. The replaced task keeps its place in the
+     * queue, so the new task is executed not later than the replaced task would be.
+     *
+     * @param key      the key of the task.
+     * @param task     the task.
+     * @param priority the priority of the task, it is used only if there isn't a waited task with the same key.
+     */
+    @FromAnyThread
+    public void addToExecute(@NotNull final Object key, @NotNull final Runnable task,
+                             @NotNull final TaskPriority priority) {
+
+        final CoalescedTask[] added = new CoalescedTask[1];
+
+        coalescedTasks.compute(key, (toCheck, waited) -> {
+
+            if (waited != null) {
+                waited.task = task;
+                return waited;
+            }
+
+            added[0] = new CoalescedTask(toCheck, task);
+            return added[0];
+        });
+
+        if (added[0] != null) {
+            addToExecute(added[0], priority);
+        }
+    }
+
+    /**
+     * Set the budget of executing tasks in a frame.
+     *
+     * @param frameBudget the budget in milliseconds.
+     */
+    @FromAnyThread
+    public void setFrameBudget(final long frameBudget) {
+        this.frameBudget = TimeUnit.MILLISECONDS.toNanos(frameBudget);
+    }
+
+    /**
+     * Get the count of tasks which wait for executing.
+     *
+     * @return the count of waited tasks.
+     */
+    @FromAnyThread
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Get the count of executed tasks in the last frame.
+     *
+     * @return the count of executed tasks.
+     */
+    @FromAnyThread
+    public int getLastFrameTasks() {
+        return lastFrameTasks;
+    }
+
+    /**
+     * Get the time of executing tasks in the last frame.
+     *
+     * @return the time in nanos.
+     */
+    @FromAnyThread
+    public long getLastFrameTime() {
+        return lastFrameTime;
+    }
+
+    /**
+     * Get the max time of executing tasks in a frame since the last call of this method.
+     *
+     * @return the max time in nanos.
+     */
+    @FromAnyThread
+    public long takePeakFrameTime() {
+        final long result = peakFrameTime;
+        peakFrameTime = 0;
+        return result;
     }
 
     /**
@@ -64,15 +295,50 @@ public class JmeThreadExecutor {
     @JmeThread
     public void execute() {
 
-        if (waitTasks.isEmpty()) {
+        if (queueDepth.get() == 0) {
+            lastFrameTime = 0;
+            lastFrameTasks = 0;
             return;
         }
 
-        ArrayUtils.runInWriteLock(waitTasks, execute, ArrayUtils::move);
-        try {
-            execute.forEach(JmeThreadExecutor::execute);
-        } finally {
-            execute.clear();
+        final long startTime = System.nanoTime();
+        final long deadline = startTime + frameBudget;
+
+        int executed = 0;
+
+        for (int i = 0; i < waitTasks.length; i++) {
+
+            final ArrayDeque<Runnable> queue = execute[i];
+
+            if (!waitTasks[i].isEmpty()) {
+                ArrayUtils.runInWriteLock(waitTasks[i], toMove, ArrayUtils::move);
+                try {
+                    for (final Runnable task : toMove) {
+                        queue.add(task);
+                    }
+                } finally {
+                    toMove.clear();
+                }
+            }
+
+            final boolean interactive = i == TaskPriority.INTERACTIVE.ordinal();
+
+            // execute at least one task per frame to be sure that all tasks will be executed
+            while (!queue.isEmpty() && (interactive || executed == 0 || System.nanoTime() < deadline)) {
+                queueDepth.decrementAndGet();
+                waitCounts[i].decrementAndGet();
+                execute(queue.poll());
+                executed++;
+            }
+        }
+
+        final long frameTime = System.nanoTime() - startTime;
+
+        lastFrameTime = frameTime;
+        lastFrameTasks = executed;
+
+        if (frameTime > peakFrameTime) {
+            peakFrameTime = frameTime;
         }
     }
 
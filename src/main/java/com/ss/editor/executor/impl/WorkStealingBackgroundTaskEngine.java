@@ -0,0 +1,171 @@
+package com.ss.editor.executor.impl;
+
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.BackgroundTaskEngine;
+import com.ss.editor.executor.TaskPriority;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The implementation of the {@link BackgroundTaskEngine} where each worker has own queues of tasks and steals tasks
+ * from other workers when it has nothing to do, so a long task doesn't block tasks which were submitted after it.
+ *
+ * @author JavaSaBr
+ */
+public class WorkStealingBackgroundTaskEngine implements BackgroundTaskEngine {
+
+    /**
+     * The list of workers.
+     */
+    @NotNull
+    private final BackgroundTaskWorker[] workers;
+
+    /**
+     * The index of a next worker to submit a task.
+     */
+    @NotNull
+    private final AtomicInteger nextWorker;
+
+    public WorkStealingBackgroundTaskEngine(final int parallelism) {
+        this.workers = new BackgroundTaskWorker[Math.max(parallelism, 1)];
+        this.nextWorker = new AtomicInteger(0);
+
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new BackgroundTaskWorker(this, i + 1);
+        }
+
+        for (final BackgroundTaskWorker worker : workers) {
+            worker.start();
+        }
+    }
+
+    @Override
+    @FromAnyThread
+    public @NotNull CompletableFuture<Void> submit(@NotNull final Runnable task, @NotNull final TaskPriority priority) {
+
+        final BackgroundTask backgroundTask = new BackgroundTask(task, priority);
+        final Thread currentThread = Thread.currentThread();
+
+        // sub tasks of a background task are kept by the same worker while other workers can steal them
+        final BackgroundTaskWorker target;
+
+        if (currentThread instanceof BackgroundTaskWorker && isOwnWorker((BackgroundTaskWorker) currentThread)) {
+            target = (BackgroundTaskWorker) currentThread;
+        } else {
+            target = workers[Math.floorMod(nextWorker.getAndIncrement(), workers.length)];
+        }
+
+        target.push(backgroundTask);
+
+        if (!target.wakeUp()) {
+            wakeUpAnyIdle();
+        }
+
+        return backgroundTask.getFuture();
+    }
+
+    @Override
+    @FromAnyThread
+    public int getWaitingTaskCount() {
+
+        int result = 0;
+
+        for (final BackgroundTaskWorker worker : workers) {
+            result += worker.size();
+        }
+
+        return result;
+    }
+
+    /**
+     * Take the next task to execute by the worker, own tasks are preferred but a task with higher priority of other
+     * worker is preferred over own tasks with lower priority.
+     *
+     * @param worker the worker.
+     * @return the next task or null.
+     */
+    @BackgroundThread
+    @Nullable BackgroundTask nextTask(@NotNull final BackgroundTaskWorker worker) {
+
+        final BackgroundTaskWorker[] workers = this.workers;
+        final int offset = ThreadLocalRandom.current().nextInt(workers.length);
+
+        for (final TaskPriority priority : TaskPriority.VALUES) {
+
+            BackgroundTask task = worker.poll(priority);
+
+            if (task != null) {
+                return task;
+            }
+
+            for (int i = 0; i < workers.length; i++) {
+
+                final BackgroundTaskWorker victim = workers[(offset + i) % workers.length];
+
+                if (victim == worker) {
+                    continue;
+                }
+
+                task = victim.steal(priority);
+
+                if (task != null) {
+                    return task;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Return true if any worker has waiting tasks.
+     *
+     * @return true if any worker has waiting tasks.
+     */
+    @FromAnyThread
+    boolean hasTasks() {
+
+        for (final BackgroundTaskWorker worker : workers) {
+            if (!worker.isEmpty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Wake up any idle worker to steal new tasks.
+     */
+    @FromAnyThread
+    private void wakeUpAnyIdle() {
+        for (final BackgroundTaskWorker worker : workers) {
+            if (worker.wakeUp()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Return true if the worker is owned by this engine.
+     *
+     * @param worker the worker.
+     * @return true if the worker is owned by this engine.
+     */
+    @FromAnyThread
+    private boolean isOwnWorker(@NotNull final BackgroundTaskWorker worker) {
+
+        for (final BackgroundTaskWorker ownWorker : workers) {
+            if (ownWorker == worker) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,295 @@
+package com.ss.editor.file.cache;
+
+import static com.ss.rlib.util.ClassUtils.unsafeCast;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.rlib.classpath.ClassPathScanner;
+import com.ss.rlib.logging.Logger;
+import com.ss.rlib.logging.LoggerManager;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * The index of a scanned classpath which can be stored on the disk. The index keeps names of all resources and for
+ * each interface names of its implementations, so searching implementations loads only found classes instead of
+ * loading all classes of the classpath. The stored index is used only with the same key, the key is built from the
+ * scanned libraries by {@link #buildKey(Array)}.
+ *
+ * @author JavaSaBr
+ */
+public class ClasspathIndex {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(ClasspathIndex.class);
+
+    private static final int MAGIC = 0x4A4D4349;
+    private static final int VERSION = 1;
+
+    @NotNull
+    private static final String[] EMPTY_NAMES = new String[0];
+
+    /**
+     * Build the index using the result of the scanner.
+     *
+     * @param scanner the scanner which has scanned the classpath.
+     * @return the index.
+     */
+    @FromAnyThread
+    public static @NotNull ClasspathIndex of(@NotNull final ClassPathScanner scanner) {
+
+        final Array<Class<?>> classes = ArrayFactory.newArray(Class.class);
+        final Array<String> resources = ArrayFactory.newArray(String.class);
+
+        scanner.getAll(classes);
+        scanner.getAllResources(resources);
+
+        final Map<String, List<String>> implementations = new LinkedHashMap<>();
+        final Set<Class<?>> interfaces = new LinkedHashSet<>();
+
+        for (final Class<?> type : classes) {
+
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                continue;
+            }
+
+            interfaces.clear();
+            collectInterfaces(type, interfaces);
+
+            for (final Class<?> anInterface : interfaces) {
+                implementations.computeIfAbsent(anInterface.getName(), name -> new ArrayList<>())
+                        .add(type.getName());
+            }
+        }
+
+        return new ClasspathIndex(toNames(implementations), resources.toArray(String.class));
+    }
+
+    private static void collectInterfaces(@Nullable final Class<?> type, @NotNull final Set<Class<?>> container) {
+
+        if (type == null) {
+            return;
+        }
+
+        for (final Class<?> anInterface : type.getInterfaces()) {
+            if (container.add(anInterface)) {
+                collectInterfaces(anInterface, container);
+            }
+        }
+
+        collectInterfaces(type.getSuperclass(), container);
+    }
+
+    private static @NotNull Map<String, String[]> toNames(@NotNull final Map<String, List<String>> implementations) {
+        final Map<String, String[]> result = new HashMap<>(implementations.size());
+        implementations.forEach((name, types) -> result.put(name, types.toArray(EMPTY_NAMES)));
+        return result;
+    }
+
+    /**
+     * Build the key of the index of the libraries. The key is a checksum of paths, sizes and last modified times of
+     * the libraries, so an updated library changes the key without reading the content of libraries.
+     *
+     * @param libraries the scanned libraries.
+     * @return the key or null if some library is a folder and can't be checked so.
+     */
+    @FromAnyThread
+    public static @Nullable String buildKey(@NotNull final Array<Path> libraries) {
+
+        final StringBuilder builder = new StringBuilder();
+
+        for (final Path library : libraries) {
+            try {
+
+                if (Files.isDirectory(library)) {
+                    return null;
+                }
+
+                builder.append(library)
+                        .append(':').append(Files.size(library))
+                        .append(':').append(Files.getLastModifiedTime(library).toMillis())
+                        .append(';');
+
+            } catch (final NoSuchFileException e) {
+                builder.append(library).append(":-;");
+            } catch (final IOException e) {
+                LOGGER.warning(e);
+                return null;
+            }
+        }
+
+        final CRC32 checksum = new CRC32();
+        checksum.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+
+        return libraries.size() + "-" + Long.toHexString(checksum.getValue());
+    }
+
+    /**
+     * Load the stored index with the key.
+     *
+     * @param file the file of the index.
+     * @param key  the key of the index.
+     * @return the index or null if there is no stored index with the key.
+     */
+    @FromAnyThread
+    public static @Nullable ClasspathIndex load(@NotNull final Path file, @NotNull final String key) {
+
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+
+            final String[] resources = readNames(in);
+            final int count = in.readInt();
+            final Map<String, String[]> implementations = new HashMap<>(count);
+
+            for (int i = 0; i < count; i++) {
+                implementations.put(in.readUTF(), readNames(in));
+            }
+
+            return new ClasspathIndex(implementations, resources);
+
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+            return null;
+        }
+    }
+
+    private static @NotNull String[] readNames(@NotNull final DataInputStream in) throws IOException {
+
+        final String[] names = new String[in.readInt()];
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+
+        return names;
+    }
+
+    private static void writeNames(@NotNull final DataOutputStream out, @NotNull final String[] names)
+            throws IOException {
+
+        out.writeInt(names.length);
+
+        for (final String name : names) {
+            out.writeUTF(name);
+        }
+    }
+
+    /**
+     * The table of interface names to names of their implementations.
+     */
+    @NotNull
+    private final Map<String, String[]> implementations;
+
+    /**
+     * All resources of the classpath.
+     */
+    @NotNull
+    private final String[] resources;
+
+    private ClasspathIndex(@NotNull final Map<String, String[]> implementations, @NotNull final String[] resources) {
+        this.implementations = implementations;
+        this.resources = resources;
+    }
+
+    /**
+     * Store this index with the key.
+     *
+     * @param file the file of the index.
+     * @param key  the key of the index.
+     */
+    @BackgroundThread
+    public void save(@NotNull final Path file, @NotNull final String key) {
+
+        final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try {
+
+            Files.createDirectories(file.getParent());
+
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(key);
+
+                writeNames(out, resources);
+
+                out.writeInt(implementations.size());
+
+                for (final Map.Entry<String, String[]> entry : implementations.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    writeNames(out, entry.getValue());
+                }
+            }
+
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
+    }
+
+    /**
+     * Get all resources of the classpath.
+     *
+     * @param container the container of resources.
+     */
+    @FromAnyThread
+    public void getAllResources(@NotNull final Array<String> container) {
+        container.addAll(resources);
+    }
+
+    /**
+     * Find all implementations of the interface, only found classes are loaded.
+     *
+     * @param <T>            the type of the interface.
+     * @param <R>            the type of implementations.
+     * @param container      the container of found implementations.
+     * @param interfaceClass the interface class.
+     * @param classLoader    the class loader to load found classes.
+     */
+    @FromAnyThread
+    public <T, R extends T> void findImplements(@NotNull final Array<Class<R>> container,
+                                                @NotNull final Class<T> interfaceClass,
+                                                @NotNull final ClassLoader classLoader) {
+
+        if (!interfaceClass.isInterface()) {
+            throw new IllegalArgumentException("The class " + interfaceClass + " isn't an interface.");
+        }
+
+        final String[] names = implementations.getOrDefault(interfaceClass.getName(), EMPTY_NAMES);
+
+        for (final String name : names) {
+            try {
+
+                final Class<?> type = Class.forName(name, false, classLoader);
+
+                // the class can be loaded by another class loader
+                if (interfaceClass.isAssignableFrom(type)) {
+                    container.add(unsafeCast(type));
+                }
+
+            } catch (final ClassNotFoundException | LinkageError e) {
+                LOGGER.warning("Can't load the indexed class " + name + ": " + e);
+            }
+        }
+    }
+}
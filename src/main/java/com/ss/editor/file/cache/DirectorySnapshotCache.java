@@ -0,0 +1,477 @@
+package com.ss.editor.file.cache;
+
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.rlib.logging.Logger;
+import com.ss.rlib.logging.LoggerManager;
+import com.ss.rlib.util.FileUtils;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * The in-memory cache of directory listings. Each directory is read once by one pass of {@link Files#walkFileTree}
+ * which gives the attributes of entries together with their names, so the type of an entry doesn't need a separated
+ * request to the file system. Only watched directories inside the root (the current asset folder) are kept in the
+ * cache, the cached listing of a directory is used until the folder watcher invalidates it.
+ *
+ * @author JavaSaBr
+ */
+public class DirectorySnapshotCache {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(DirectorySnapshotCache.class);
+
+    @NotNull
+    private static final DirectorySnapshotCache INSTANCE = new DirectorySnapshotCache();
+
+    @NotNull
+    private static final Set<FileVisitOption> VISIT_OPTIONS = EnumSet.of(FileVisitOption.FOLLOW_LINKS);
+
+    @FromAnyThread
+    public static @NotNull DirectorySnapshotCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The listing of a directory.
+     */
+    public static final class Snapshot {
+
+        /**
+         * The entries of the directory.
+         */
+        @NotNull
+        private final Path[] files;
+
+        /**
+         * The extensions of the entries, they are empty for directories.
+         */
+        @NotNull
+        private final String[] extensions;
+
+        /**
+         * The flags of directories.
+         */
+        @NotNull
+        private final boolean[] directories;
+
+        private Snapshot(@NotNull final Path[] files, @NotNull final String[] extensions,
+                         @NotNull final boolean[] directories) {
+            this.files = files;
+            this.extensions = extensions;
+            this.directories = directories;
+        }
+
+        /**
+         * Get the count of entries.
+         *
+         * @return the count of entries.
+         */
+        @FromAnyThread
+        public int size() {
+            return files.length;
+        }
+
+        /**
+         * Get the entry.
+         *
+         * @param index the index of the entry.
+         * @return the entry.
+         */
+        @FromAnyThread
+        public @NotNull Path getFile(final int index) {
+            return files[index];
+        }
+
+        /**
+         * Return true if the entry is a directory.
+         *
+         * @param index the index of the entry.
+         * @return true if the entry is a directory.
+         */
+        @FromAnyThread
+        public boolean isDirectory(final int index) {
+            return directories[index];
+        }
+
+        /**
+         * Return true if the entry is accepted by the filter. Directories are accepted always.
+         *
+         * @param index           the index of the entry.
+         * @param extensionFilter the extension filter.
+         * @param onlyFolders     true if need to accept only folders.
+         * @return true if the entry is accepted.
+         */
+        @FromAnyThread
+        public boolean isAccepted(final int index, @NotNull final Array<String> extensionFilter,
+                                  final boolean onlyFolders) {
+
+            if (directories[index]) {
+                return true;
+            } else if (onlyFolders) {
+                return false;
+            }
+
+            return extensionFilter.isEmpty() || extensionFilter.contains(extensions[index]);
+        }
+
+        /**
+         * Return true if the directory has entries which are accepted by the filter.
+         *
+         * @param extensionFilter the extension filter.
+         * @param onlyFolders     true if need to accept only folders.
+         * @return true if there are accepted entries.
+         */
+        @FromAnyThread
+        public boolean hasAccepted(@NotNull final Array<String> extensionFilter, final boolean onlyFolders) {
+
+            for (int i = 0; i < files.length; i++) {
+                if (isAccepted(i, extensionFilter, onlyFolders)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * The visitor to read a listing of a directory.
+     */
+    private static final class SnapshotReader implements FileVisitor<Path> {
+
+        /**
+         * The reading directory.
+         */
+        @NotNull
+        private final Path folder;
+
+        /**
+         * The read directories.
+         */
+        @NotNull
+        private final Array<Path> directories;
+
+        /**
+         * The read files.
+         */
+        @NotNull
+        private final Array<Path> files;
+
+        /**
+         * True if the reading file is a directory.
+         */
+        private boolean directory;
+
+        private SnapshotReader(@NotNull final Path folder) {
+            this.folder = folder;
+            this.directories = ArrayFactory.newArray(Path.class);
+            this.files = ArrayFactory.newArray(Path.class);
+        }
+
+        @Override
+        public @NotNull FileVisitResult preVisitDirectory(@NotNull final Path dir,
+                                                          @NotNull final BasicFileAttributes attrs) {
+            directory = true;
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public @NotNull FileVisitResult visitFile(@NotNull final Path file,
+                                                  @NotNull final BasicFileAttributes attrs) {
+
+            if (file.equals(folder)) {
+                return FileVisitResult.CONTINUE;
+            } else if (file.getFileName().toString().startsWith(".")) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            if (attrs.isDirectory()) {
+                directories.add(file);
+            } else {
+                files.add(file);
+            }
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public @NotNull FileVisitResult visitFileFailed(@NotNull final Path file, @NotNull final IOException exc) {
+
+            if (!file.equals(folder)) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            // a directory which can't be opened is presented as an empty directory
+            if (exc instanceof AccessDeniedException) {
+                directory = true;
+            } else if (!(exc instanceof NoSuchFileException)) {
+                directory = Files.isDirectory(file);
+                LOGGER.warning(exc);
+            }
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public @NotNull FileVisitResult postVisitDirectory(@NotNull final Path dir, @Nullable final IOException exc) {
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * Build the snapshot of the read entries.
+         *
+         * @return the snapshot or null if the file isn't a directory.
+         */
+        private @Nullable Snapshot build() {
+
+            if (!directory) {
+                return null;
+            }
+
+            final int folders = directories.size();
+            final int size = folders + files.size();
+            final Path[] paths = new Path[size];
+            final String[] extensions = new String[size];
+            final boolean[] flags = new boolean[size];
+
+            for (int i = 0; i < folders; i++) {
+                paths[i] = directories.get(i);
+                extensions[i] = "";
+                flags[i] = true;
+            }
+
+            for (int i = folders; i < size; i++) {
+                paths[i] = files.get(i - folders);
+                extensions[i] = FileUtils.getExtension(paths[i]);
+            }
+
+            return new Snapshot(paths, extensions, flags);
+        }
+    }
+
+    /**
+     * The task to read a subtree of directories in parallel.
+     */
+    private static final class PreloadTask extends RecursiveAction {
+
+        /**
+         * The cache.
+         */
+        @NotNull
+        private final DirectorySnapshotCache cache;
+
+        /**
+         * The root of the subtree.
+         */
+        @NotNull
+        private final Path folder;
+
+        private PreloadTask(@NotNull final DirectorySnapshotCache cache, @NotNull final Path folder) {
+            this.cache = cache;
+            this.folder = folder;
+        }
+
+        @Override
+        protected void compute() {
+
+            final Snapshot snapshot = cache.get(folder);
+
+            if (snapshot == null) {
+                return;
+            }
+
+            final Array<PreloadTask> subtasks = ArrayFactory.newArray(PreloadTask.class);
+
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (snapshot.isDirectory(i)) {
+                    subtasks.add(new PreloadTask(cache, snapshot.getFile(i)));
+                }
+            }
+
+            if (!subtasks.isEmpty()) {
+                invokeAll(subtasks);
+            }
+        }
+    }
+
+    /**
+     * The table of cached snapshots.
+     */
+    @NotNull
+    private final ConcurrentHashMap<Path, Snapshot> snapshots;
+
+    /**
+     * The version of the cache, it's changed on each invalidation to not cache snapshots read before it.
+     */
+    @NotNull
+    private final AtomicLong version;
+
+    /**
+     * The root of cached directories.
+     */
+    @Nullable
+    private volatile Path root;
+
+    /**
+     * The checker that a directory is watched by the folder watcher.
+     */
+    @NotNull
+    private volatile Predicate<Path> watched;
+
+    private DirectorySnapshotCache() {
+        this.snapshots = new ConcurrentHashMap<>();
+        this.version = new AtomicLong();
+        this.watched = folder -> false;
+    }
+
+    /**
+     * Change the root of cached directories, all cached snapshots are dropped. Listings of directories which aren't
+     * watched can't be invalidated, so they are read every time.
+     *
+     * @param root    the new root or null to disable caching.
+     * @param watched the checker that a directory is watched.
+     */
+    @FromAnyThread
+    public void setRoot(@Nullable final Path root, @NotNull final Predicate<Path> watched) {
+        this.root = root;
+        this.watched = watched;
+        invalidateAll();
+    }
+
+    /**
+     * Get the snapshot of the directory, the directory is read if its snapshot isn't cached.
+     *
+     * @param folder the directory.
+     * @return the snapshot or null if the file isn't a directory.
+     */
+    @FromAnyThread
+    public @Nullable Snapshot get(@NotNull final Path folder) {
+
+        final Snapshot snapshot = snapshots.get(folder);
+
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        // the folder should be already watched before reading to get all changes after reading
+        final boolean cacheable = isCacheable(folder);
+        final long current = version.get();
+        final Snapshot result = read(folder);
+
+        if (result != null && cacheable) {
+            synchronized (version) {
+                if (version.get() == current) {
+                    snapshots.putIfAbsent(folder, result);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Read snapshots of all directories of the subtree in the common fork-join pool, sibling subtrees are read in
+     * parallel.
+     *
+     * @param folder the root of the subtree.
+     */
+    @BackgroundThread
+    public void preload(@NotNull final Path folder) {
+        if (isInRoot(folder)) {
+            ForkJoinPool.commonPool().invoke(new PreloadTask(this, folder));
+        }
+    }
+
+    /**
+     * Invalidate snapshots which depend on the changed file: the snapshot of its parent and snapshots of the file
+     * itself and its subtree if it was a directory.
+     *
+     * @param file      the created or deleted file.
+     * @param directory true if the file is a directory.
+     */
+    @FromAnyThread
+    public void invalidate(@NotNull final Path file, final boolean directory) {
+        synchronized (version) {
+
+            version.incrementAndGet();
+
+            final Path parent = file.getParent();
+
+            if (parent != null) {
+                snapshots.remove(parent);
+            }
+
+            if (directory) {
+                snapshots.keySet().removeIf(folder -> folder.startsWith(file));
+            }
+        }
+    }
+
+    /**
+     * Invalidate all cached snapshots.
+     */
+    @FromAnyThread
+    public void invalidateAll() {
+        synchronized (version) {
+            version.incrementAndGet();
+            snapshots.clear();
+        }
+    }
+
+    /**
+     * Return true if the directory is inside the root of cached directories.
+     *
+     * @param folder the directory.
+     * @return true if the directory is inside the root.
+     */
+    @FromAnyThread
+    private boolean isInRoot(@NotNull final Path folder) {
+        final Path root = this.root;
+        return root != null && folder.startsWith(root);
+    }
+
+    /**
+     * Return true if snapshots of the directory can be cached.
+     *
+     * @param folder the directory.
+     * @return true if the snapshots can be cached.
+     */
+    @FromAnyThread
+    private boolean isCacheable(@NotNull final Path folder) {
+        return isInRoot(folder) && watched.test(folder);
+    }
+
+    /**
+     * Read the snapshot of the directory.
+     *
+     * @param folder the directory.
+     * @return the snapshot or null if the file isn't a directory.
+     */
+    @FromAnyThread
+    private static @Nullable Snapshot read(@NotNull final Path folder) {
+
+        final SnapshotReader reader = new SnapshotReader(folder);
+
+        try {
+            Files.walkFileTree(folder, VISIT_OPTIONS, 1, reader);
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
+
+        return reader.build();
+    }
+}
@@ -0,0 +1,512 @@
+package com.ss.editor.file.cache;
+
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.config.Config;
+import com.ss.editor.manager.ExecutorManager;
+import com.ss.rlib.logging.Logger;
+import com.ss.rlib.logging.LoggerManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The on-disk cache of rasterized icons of one theme. Icons of each size are packed to one atlas file, the atlas is a
+ * grid of square cells of ARGB pixels and its index maps URLs of icons to cells of their colored and original
+ * versions. The resolved table of file extensions to icon URLs is stored alongside the atlases. All stored data is
+ * dropped when the app version or the key of the cache is changed, because icons are loaded from resources of the app
+ * and its plugins.
+ *
+ * @author JavaSaBr
+ */
+public class IconAtlasCache {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(IconAtlasCache.class);
+
+    /**
+     * The name of the cache folder in the app folder.
+     */
+    @NotNull
+    public static final String ICON_CACHE_FOLDER = "icon-cache";
+
+    @NotNull
+    private static final String ATLAS_EXTENSION = ".atlas";
+
+    @NotNull
+    private static final String FILE_EXTENSIONS = "extensions.index";
+
+    private static final int MAGIC = 0x4A4D4941;
+    private static final int VERSION = 2;
+
+    /**
+     * The count of cells in a row of an atlas.
+     */
+    private static final int ATLAS_COLUMNS = 16;
+
+    /**
+     * The delay of writing new icons to the disk.
+     */
+    private static final long FLUSH_DELAY = 2000;
+
+    /**
+     * The rasterized icon.
+     */
+    public static final class Icon {
+
+        /**
+         * The pixels of the icon in ARGB format by rows.
+         */
+        @NotNull
+        private final int[] pixels;
+
+        /**
+         * The pixels of the original version of the icon or null if the icon isn't colored.
+         */
+        @Nullable
+        private final int[] originalPixels;
+
+        public Icon(@NotNull final int[] pixels, @Nullable final int[] originalPixels) {
+            this.pixels = pixels;
+            this.originalPixels = originalPixels;
+        }
+
+        /**
+         * Get the pixels of the icon.
+         *
+         * @return the pixels of the icon in ARGB format by rows.
+         */
+        @FromAnyThread
+        public @NotNull int[] getPixels() {
+            return pixels;
+        }
+
+        /**
+         * Get the pixels of the original version of the icon.
+         *
+         * @return the pixels of the original version or null if the icon isn't colored.
+         */
+        @FromAnyThread
+        public @Nullable int[] getOriginalPixels() {
+            return originalPixels;
+        }
+    }
+
+    /**
+     * The cache folder.
+     */
+    @NotNull
+    private final Path folder;
+
+    /**
+     * The name of the theme.
+     */
+    @NotNull
+    private final String theme;
+
+    /**
+     * The key of stored atlases, it describes loaded plugins.
+     */
+    @NotNull
+    private final String key;
+
+    /**
+     * The table of icons by sizes and URLs.
+     */
+    @NotNull
+    private final Map<Integer, Map<String, Icon>> icons;
+
+    /**
+     * The table of icon URLs by file extensions.
+     */
+    @NotNull
+    private final Map<String, String> extensions;
+
+    /**
+     * The sizes of icons which were changed since the last saving.
+     */
+    @NotNull
+    private final Set<Integer> changedSizes;
+
+    /**
+     * The flag of scheduled flushing.
+     */
+    @NotNull
+    private final AtomicBoolean flushScheduled;
+
+    /**
+     * The key of the stored table of extensions.
+     */
+    @NotNull
+    private volatile String extensionsKey;
+
+    /**
+     * True if the table of extensions was changed since the last saving.
+     */
+    private volatile boolean extensionsChanged;
+
+    public IconAtlasCache(@NotNull final Path folder, @NotNull final String theme, @NotNull final String key) {
+        this.folder = folder;
+        this.theme = theme;
+        this.key = key;
+        this.icons = new ConcurrentHashMap<>();
+        this.extensions = new ConcurrentHashMap<>();
+        this.changedSizes = ConcurrentHashMap.newKeySet();
+        this.flushScheduled = new AtomicBoolean(false);
+        this.extensionsKey = "";
+    }
+
+    /**
+     * Load all stored atlases of the theme and the stored table of extensions.
+     */
+    @BackgroundThread
+    public void load() {
+
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+
+        final String prefix = theme + "-";
+
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(folder, prefix + "*" + ATLAS_EXTENSION)) {
+            for (final Path file : stream) {
+                try {
+                    readAtlas(file);
+                } catch (final IOException e) {
+                    LOGGER.warning(this, "can't read the icon atlas " + file + ", it will be rebuilt.");
+                }
+            }
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+
+        final Path extensionsFile = folder.resolve(FILE_EXTENSIONS);
+
+        if (Files.exists(extensionsFile)) {
+            try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(extensionsFile)))) {
+                readExtensions(in);
+            } catch (final IOException e) {
+                LOGGER.warning(this, "can't read the stored icon extensions " + extensionsFile + ", they will be resolved again.");
+                extensions.clear();
+            }
+        }
+    }
+
+    /**
+     * Get a stored icon.
+     *
+     * @param url  the URL of the icon.
+     * @param size the size of the icon.
+     * @return the icon or null.
+     */
+    @FromAnyThread
+    public @Nullable Icon get(@NotNull final String url, final int size) {
+        final Map<String, Icon> sized = icons.get(size);
+        return sized == null ? null : sized.get(url);
+    }
+
+    /**
+     * Put an icon to this cache, the icon will be written to the disk with the next batch.
+     *
+     * @param url  the URL of the icon.
+     * @param size the size of the icon.
+     * @param icon the icon.
+     */
+    @FromAnyThread
+    public void put(@NotNull final String url, final int size, @NotNull final Icon icon) {
+        icons.computeIfAbsent(size, key -> new ConcurrentHashMap<>()).put(url, icon);
+        changedSizes.add(size);
+        scheduleFlush();
+    }
+
+    /**
+     * Get sizes of stored icons.
+     *
+     * @return the sizes of stored icons.
+     */
+    @FromAnyThread
+    public @NotNull Set<Integer> getSizes() {
+        return new HashSet<>(icons.keySet());
+    }
+
+    /**
+     * Get URLs of stored icons with the size.
+     *
+     * @param size the size of icons.
+     * @return the URLs of stored icons.
+     */
+    @FromAnyThread
+    public @NotNull Set<String> getUrls(final int size) {
+        final Map<String, Icon> sized = icons.get(size);
+        return sized == null ? new HashSet<>() : new HashSet<>(sized.keySet());
+    }
+
+    /**
+     * Get the stored table of icon URLs by file extensions. The table is actual only for the same key, the key
+     * should describe everything else which affects resolving icons, like registered icon finders.
+     *
+     * @param key the key of the table.
+     * @return the table or an empty table if the table was stored with other key.
+     */
+    @FromAnyThread
+    public @NotNull Map<String, String> getExtensions(@NotNull final String key) {
+
+        if (!extensionsKey.equals(key)) {
+            extensions.clear();
+            extensionsKey = key;
+            extensionsChanged = true;
+            scheduleFlush();
+        }
+
+        return new HashMap<>(extensions);
+    }
+
+    /**
+     * Put the resolved URL of an icon of the file extension.
+     *
+     * @param extension the file extension.
+     * @param url       the URL of the icon.
+     */
+    @FromAnyThread
+    public void putExtension(@NotNull final String extension, @NotNull final String url) {
+        if (!url.equals(extensions.put(extension, url))) {
+            extensionsChanged = true;
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Write changed atlases and the table of extensions to the disk.
+     */
+    @FromAnyThread
+    public synchronized void flush() {
+
+        flushScheduled.set(false);
+
+        try {
+
+            Files.createDirectories(folder);
+
+            for (final Integer size : new ArrayList<>(changedSizes)) {
+                changedSizes.remove(size);
+                writeAtlas(size, icons.getOrDefault(size, Collections.emptyMap()));
+            }
+
+            if (extensionsChanged) {
+                extensionsChanged = false;
+                writeExtensions();
+            }
+
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    /**
+     * Schedule writing new icons to the disk.
+     */
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            final ExecutorManager executorManager = ExecutorManager.getInstance();
+            executorManager.schedule(this::flush, FLUSH_DELAY);
+        }
+    }
+
+    /**
+     * Pack icons to the atlas grid and write it with its index by one file.
+     */
+    private void writeAtlas(final int size, @NotNull final Map<String, Icon> sized) throws IOException {
+
+        final Map<String, Icon> snapshot = new LinkedHashMap<>(sized);
+
+        int cells = 0;
+
+        for (final Icon icon : snapshot.values()) {
+            cells += icon.originalPixels == null ? 1 : 2;
+        }
+
+        final int rows = (cells + ATLAS_COLUMNS - 1) / ATLAS_COLUMNS;
+        final int width = ATLAS_COLUMNS * size;
+
+        final ByteBuffer atlas = ByteBuffer.allocate(rows * size * width * 4);
+        final IntBuffer pixels = atlas.asIntBuffer();
+
+        final Path file = folder.resolve(theme + "-" + size + ATLAS_EXTENSION);
+        final Path tempFile = folder.resolve(file.getFileName() + ".tmp");
+
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(Config.STRING_VERSION);
+            out.writeUTF(key);
+            out.writeInt(size);
+            out.writeInt(rows);
+            out.writeInt(snapshot.size());
+
+            int cell = 0;
+
+            for (final Map.Entry<String, Icon> entry : snapshot.entrySet()) {
+
+                final Icon icon = entry.getValue();
+                final int[] originalPixels = icon.originalPixels;
+
+                out.writeUTF(entry.getKey());
+                out.writeInt(cell);
+                putCell(pixels, cell++, size, width, icon.pixels);
+
+                if (originalPixels == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(cell);
+                    putCell(pixels, cell++, size, width, originalPixels);
+                }
+            }
+
+            out.write(atlas.array());
+        }
+
+        move(tempFile, file);
+    }
+
+    private void readAtlas(@NotNull final Path file) throws IOException {
+
+        final byte[] content = Files.readAllBytes(file);
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("The icon atlas is outdated.");
+        } else if (!Config.STRING_VERSION.equals(in.readUTF()) || !key.equals(in.readUTF())) {
+            Files.delete(file);
+            return;
+        }
+
+        final int size = in.readInt();
+        final int rows = in.readInt();
+        final int count = in.readInt();
+        final int width = ATLAS_COLUMNS * size;
+
+        final String[] urls = new String[count];
+        final int[] cells = new int[count];
+        final int[] originalCells = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            urls[i] = in.readUTF();
+            cells[i] = in.readInt();
+            originalCells[i] = in.readInt();
+        }
+
+        final int offset = content.length - in.available();
+        final int length = rows * size * width * 4;
+
+        if (size < 1 || content.length - offset != length) {
+            throw new IOException("The icon atlas is broken.");
+        }
+
+        final IntBuffer pixels = ByteBuffer.wrap(content, offset, length).slice().asIntBuffer();
+        final Map<String, Icon> sized = icons.computeIfAbsent(size, key -> new ConcurrentHashMap<>());
+
+        for (int i = 0; i < count; i++) {
+
+            final int[] iconPixels = getCell(pixels, cells[i], size, width);
+            final int[] originalPixels = originalCells[i] < 0 ? null : getCell(pixels, originalCells[i], size, width);
+
+            sized.put(urls[i], new Icon(iconPixels, originalPixels));
+        }
+    }
+
+    private void writeExtensions() throws IOException {
+
+        final Path file = folder.resolve(FILE_EXTENSIONS);
+        final Path tempFile = folder.resolve(FILE_EXTENSIONS + ".tmp");
+        final Map<String, String> snapshot = new HashMap<>(extensions);
+
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(Config.STRING_VERSION);
+            out.writeUTF(theme);
+            out.writeUTF(extensionsKey);
+            out.writeInt(snapshot.size());
+
+            for (final Map.Entry<String, String> entry : snapshot.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+        }
+
+        move(tempFile, file);
+    }
+
+    private void readExtensions(@NotNull final DataInputStream in) throws IOException {
+
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("The stored icon extensions are outdated.");
+        } else if (!Config.STRING_VERSION.equals(in.readUTF()) || !theme.equals(in.readUTF())) {
+            return;
+        }
+
+        final String key = in.readUTF();
+        final int count = in.readInt();
+
+        for (int i = 0; i < count; i++) {
+            extensions.put(in.readUTF(), in.readUTF());
+        }
+
+        extensionsKey = key;
+    }
+
+    /**
+     * Copy pixels of the icon to the cell of the atlas.
+     */
+    private static void putCell(@NotNull final IntBuffer atlas, final int cell, final int size, final int width,
+                                @NotNull final int[] pixels) {
+
+        final int startX = (cell % ATLAS_COLUMNS) * size;
+        final int startY = (cell / ATLAS_COLUMNS) * size;
+
+        for (int y = 0; y < size; y++) {
+            atlas.position((startY + y) * width + startX);
+            atlas.put(pixels, y * size, size);
+        }
+    }
+
+    /**
+     * Copy pixels of the cell of the atlas.
+     */
+    private static @NotNull int[] getCell(@NotNull final IntBuffer atlas, final int cell, final int size,
+                                          final int width) throws IOException {
+
+        final int startX = (cell % ATLAS_COLUMNS) * size;
+        final int startY = (cell / ATLAS_COLUMNS) * size;
+
+        if (cell < 0 || (startY + size) * width > atlas.limit()) {
+            throw new IOException("The icon atlas is broken.");
+        }
+
+        final int[] pixels = new int[size * size];
+
+        for (int y = 0; y < size; y++) {
+            atlas.position((startY + y) * width + startX);
+            atlas.get(pixels, y * size, size);
+        }
+
+        return pixels;
+    }
+
+    private static void move(@NotNull final Path source, @NotNull final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
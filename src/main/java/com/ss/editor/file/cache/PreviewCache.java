@@ -0,0 +1,772 @@
+package com.ss.editor.file.cache;
+
+import static com.ss.rlib.util.ObjectUtils.notNull;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.config.Config;
+import com.ss.editor.manager.ExecutorManager;
+import com.ss.rlib.logging.Logger;
+import com.ss.rlib.logging.LoggerManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The packed on-disk cache of previews. All previews are stored in one data file which is read by positional reads,
+ * the index file keeps offsets of previews in the data file and source path, last modified time and size of the
+ * source file of each preview, so a changed source file just misses the cache.
+ * <p>
+ * New previews are collected in memory and appended to the data file by batches. When the total size of previews
+ * exceeds the limit, the least recently used previews are evicted, the space of evicted and outdated previews is
+ * reclaimed by the compaction pass when the data file has too much garbage. Access times of previews are kept in
+ * memory and are written only with other changes of the index or when the cache is closed.
+ * <p>
+ * The cache must be opened by {@link #open()} in a background thread, it misses all previews until it's opened.
+ *
+ * @author JavaSaBr
+ */
+public class PreviewCache {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(PreviewCache.class);
+
+    /**
+     * The name of the cache folder in the app folder.
+     */
+    @NotNull
+    public static final String PREVIEW_CACHE_FOLDER = "preview-cache";
+
+    /**
+     * The last modified time and the size of sources which can't be changed, such as classpath resources, previews of
+     * such sources aren't checked for modification.
+     */
+    public static final long UNCHECKED = -1;
+
+    @NotNull
+    private static final String FILE_DATA = "previews.data";
+
+    @NotNull
+    private static final String FILE_INDEX = "previews.index";
+
+    private static final int MAGIC = 0x4A4D4250;
+    private static final int VERSION = 1;
+
+    /**
+     * The default max total size of previews.
+     */
+    private static final long DEFAULT_MAX_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * The delay of writing collected previews to the disk.
+     */
+    private static final long FLUSH_DELAY = 1000;
+
+    /**
+     * The min size of garbage in the data file to compact it.
+     */
+    private static final long MIN_GARBAGE_TO_COMPACT = 1024 * 1024;
+
+    /**
+     * The pattern of folder names of the old layout of the cache: preview-cache/width/height/hash.
+     */
+    @NotNull
+    private static final Pattern LEGACY_FOLDER_NAME = Pattern.compile("\\d+");
+
+    /**
+     * The cached preview.
+     */
+    private static final class Entry {
+
+        /**
+         * The key of the preview.
+         */
+        @NotNull
+        private final String key;
+
+        /**
+         * The last modified time of the source file.
+         */
+        private final long lastModified;
+
+        /**
+         * The size of the source file.
+         */
+        private final long size;
+
+        /**
+         * The length of the preview data.
+         */
+        private final int length;
+
+        /**
+         * The offset of the preview data in the data file.
+         */
+        private long offset;
+
+        /**
+         * The last access time.
+         */
+        private long lastAccess;
+
+        /**
+         * The preview data which isn't written to the data file yet.
+         */
+        @Nullable
+        private byte[] data;
+
+        private Entry(@NotNull final String key, final long lastModified, final long size, final int length) {
+            this.key = key;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.length = length;
+        }
+    }
+
+    @Nullable
+    private static volatile PreviewCache instance;
+
+    @FromAnyThread
+    public static @NotNull PreviewCache getInstance() {
+        if (instance == null) {
+            synchronized (PreviewCache.class) {
+                if (instance == null) {
+                    final Path folder = Config.getAppFolderInUserHome().resolve(PREVIEW_CACHE_FOLDER);
+                    instance = new PreviewCache(folder, DEFAULT_MAX_SIZE);
+                }
+            }
+        }
+        return notNull(instance);
+    }
+
+    /**
+     * The cache folder.
+     */
+    @NotNull
+    private final Path folder;
+
+    /**
+     * The table of stored previews by keys.
+     */
+    @NotNull
+    private final Map<String, Entry> entries;
+
+    /**
+     * The table of previews which are waiting to be written by keys.
+     */
+    @NotNull
+    private final Map<String, Entry> pending;
+
+    /**
+     * The flag of scheduled flushing.
+     */
+    @NotNull
+    private final AtomicBoolean flushScheduled;
+
+    /**
+     * The max total size of previews.
+     */
+    private final long maxSize;
+
+    /**
+     * The channel of the data file.
+     */
+    @Nullable
+    private FileChannel channel;
+
+    /**
+     * The size of the data file.
+     */
+    private long dataSize;
+
+    /**
+     * The total size of stored previews.
+     */
+    private long liveSize;
+
+    /**
+     * True if the index was changed since the last saving.
+     */
+    private boolean indexChanged;
+
+    /**
+     * True if access times of previews were changed since the last saving of the index.
+     */
+    private boolean accessChanged;
+
+    /**
+     * True if this cache was opened.
+     */
+    private boolean opened;
+
+    /**
+     * True if this cache is opened and can be used.
+     */
+    private volatile boolean ready;
+
+    public PreviewCache(@NotNull final Path folder, final long maxSize) {
+        this.folder = folder;
+        this.maxSize = maxSize;
+        this.entries = new HashMap<>();
+        this.pending = new LinkedHashMap<>();
+        this.flushScheduled = new AtomicBoolean(false);
+    }
+
+    /**
+     * Open this cache: load the index, drop previews of removed or changed files, evict previews over the limit and
+     * compact the data file if it has too much garbage. It should be called once in a background thread on startup.
+     */
+    @BackgroundThread
+    public synchronized void open() {
+
+        if (opened) {
+            return;
+        }
+
+        opened = true;
+
+        final Path dataFile = folder.resolve(FILE_DATA);
+        final Path indexFile = folder.resolve(FILE_INDEX);
+
+        try {
+
+            Files.createDirectories(folder);
+            deleteLegacyFolders();
+
+            if (Files.exists(indexFile) && Files.exists(dataFile)) {
+                try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+                    readIndex(in, Files.size(dataFile));
+                } catch (final IOException e) {
+                    LOGGER.warning(this, "can't read the preview index " + indexFile + ", the cache will be cleared.");
+                    entries.clear();
+                }
+            }
+
+            removeOutdated();
+            evictToLimit();
+
+            if (isNeedToCompact(Files.exists(dataFile) ? Files.size(dataFile) : 0)) {
+                compact(dataFile);
+            } else if (entries.isEmpty()) {
+                Files.deleteIfExists(dataFile);
+            }
+
+            channel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            dataSize = channel.size();
+
+            if (indexChanged) {
+                saveIndex();
+            }
+
+            ready = true;
+
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+            entries.clear();
+            liveSize = 0;
+        }
+    }
+
+    /**
+     * Get a preview.
+     *
+     * @param source       the source path of the preview.
+     * @param lastModified the last modified time of the source file or {@link #UNCHECKED}.
+     * @param size         the size of the source file or {@link #UNCHECKED}.
+     * @param width        the width of the preview.
+     * @param height       the height of the preview.
+     * @return the preview data or null if there is no actual preview.
+     */
+    @FromAnyThread
+    public @Nullable byte[] get(@NotNull final String source, final long lastModified, final long size,
+                                final int width, final int height) {
+
+        if (!ready) {
+            return null;
+        }
+
+        synchronized (this) {
+            return getImpl(source, lastModified, size, width, height);
+        }
+    }
+
+    private @Nullable byte[] getImpl(@NotNull final String source, final long lastModified, final long size,
+                                     final int width, final int height) {
+
+        final String key = toKey(source, width, height);
+        final Entry waiting = pending.get(key);
+
+        if (waiting != null) {
+            return waiting.lastModified == lastModified && waiting.size == size ? waiting.data : null;
+        }
+
+        final Entry entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        } else if (entry.lastModified != lastModified || entry.size != size) {
+            removeEntry(entry);
+            return null;
+        }
+
+        final byte[] data;
+        try {
+            data = read(entry);
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+            removeEntry(entry);
+            return null;
+        }
+
+        entry.lastAccess = System.currentTimeMillis();
+        accessChanged = true;
+
+        return data;
+    }
+
+    /**
+     * Put a preview to this cache, the preview will be written to the disk with the next batch. The preview is
+     * skipped if this cache isn't opened yet.
+     *
+     * @param source       the source path of the preview.
+     * @param lastModified the last modified time of the source file or {@link #UNCHECKED}.
+     * @param size         the size of the source file or {@link #UNCHECKED}.
+     * @param width        the width of the preview.
+     * @param height       the height of the preview.
+     * @param data         the preview data.
+     */
+    @FromAnyThread
+    public void put(@NotNull final String source, final long lastModified, final long size, final int width,
+                    final int height, @NotNull final byte[] data) {
+
+        if (!ready) {
+            return;
+        }
+
+        synchronized (this) {
+            putImpl(source, lastModified, size, width, height, data);
+        }
+    }
+
+    private void putImpl(@NotNull final String source, final long lastModified, final long size, final int width,
+                         final int height, @NotNull final byte[] data) {
+
+        final String key = toKey(source, width, height);
+        final Entry prev = entries.get(key);
+
+        if (prev != null) {
+            removeEntry(prev);
+        }
+
+        final Entry entry = new Entry(key, lastModified, size, data.length);
+        entry.lastAccess = System.currentTimeMillis();
+        entry.data = data;
+
+        pending.put(key, entry);
+        scheduleFlush();
+    }
+
+    /**
+     * Write collected previews to the data file, compact the data file if it has too much garbage and save the index.
+     */
+    @BackgroundThread
+    public synchronized void flush() {
+
+        flushScheduled.set(false);
+
+        final FileChannel channel = this.channel;
+
+        if (channel == null) {
+            pending.clear();
+            return;
+        }
+
+        try {
+
+            if (!pending.isEmpty()) {
+                writePending(channel);
+                evictToLimit();
+            }
+
+            if (isNeedToCompact(dataSize)) {
+                compactOpened();
+            }
+
+            if (indexChanged) {
+                saveIndex();
+            }
+
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    /**
+     * Write collected previews and access times of previews to the disk and close this cache.
+     */
+    @FromAnyThread
+    public synchronized void close() {
+
+        ready = false;
+        flushScheduled.set(false);
+
+        final FileChannel channel = this.channel;
+
+        if (channel == null) {
+            pending.clear();
+            return;
+        }
+
+        this.channel = null;
+
+        try {
+
+            if (!pending.isEmpty()) {
+                writePending(channel);
+            }
+
+            if (indexChanged || accessChanged) {
+                saveIndex();
+            }
+
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        } finally {
+            closeChannel(channel);
+        }
+    }
+
+    /**
+     * Compact the opened data file and reopen it.
+     */
+    private void compactOpened() throws IOException {
+
+        final Path dataFile = folder.resolve(FILE_DATA);
+
+        closeChannel(notNull(channel));
+        try {
+            compact(dataFile);
+        } finally {
+            channel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            dataSize = channel.size();
+        }
+    }
+
+    /**
+     * Return true if the data file has too much garbage.
+     *
+     * @param dataFileSize the size of the data file.
+     * @return true if the data file should be compacted.
+     */
+    private boolean isNeedToCompact(final long dataFileSize) {
+        final long garbage = dataFileSize - liveSize;
+        return garbage > MIN_GARBAGE_TO_COMPACT && garbage > liveSize / 2;
+    }
+
+    private void closeChannel(@NotNull final FileChannel channel) {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    /**
+     * Append all waiting previews to the data file by one write operation.
+     */
+    private void writePending(@NotNull final FileChannel channel) throws IOException {
+
+        long total = 0;
+
+        for (final Entry entry : pending.values()) {
+            total += entry.length;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate((int) total);
+
+        for (final Entry entry : pending.values()) {
+            entry.offset = dataSize + buffer.position();
+            buffer.put(notNull(entry.data));
+        }
+
+        buffer.flip();
+
+        long position = dataSize;
+
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+
+        dataSize = position;
+
+        for (final Entry entry : pending.values()) {
+            entry.data = null;
+            entries.put(entry.key, entry);
+            liveSize += entry.length;
+        }
+
+        pending.clear();
+        indexChanged = true;
+    }
+
+    /**
+     * Read data of the preview from the data file.
+     */
+    private @NotNull byte[] read(@NotNull final Entry entry) throws IOException {
+
+        final FileChannel channel = notNull(this.channel);
+        final ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, entry.offset + buffer.position()) < 0) {
+                throw new EOFException("The preview data file is truncated.");
+            }
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Remove the stored preview, its space will be reclaimed by the next compaction.
+     */
+    private void removeEntry(@NotNull final Entry entry) {
+        entries.remove(entry.key);
+        liveSize -= entry.length;
+        indexChanged = true;
+    }
+
+    /**
+     * Remove the least recently used previews while the total size exceeds the limit.
+     */
+    private void evictToLimit() {
+
+        if (liveSize <= maxSize) {
+            return;
+        }
+
+        final List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparingLong(entry -> entry.lastAccess));
+
+        for (final Entry entry : sorted) {
+
+            if (liveSize <= maxSize * 3 / 4) {
+                break;
+            }
+
+            removeEntry(entry);
+        }
+    }
+
+    /**
+     * Remove previews of removed or changed local files.
+     */
+    private void removeOutdated() {
+
+        for (final Entry entry : new ArrayList<>(entries.values())) {
+
+            if (entry.lastModified == UNCHECKED && entry.size == UNCHECKED) {
+                continue;
+            }
+
+            final Path file = toLocalFile(entry.key);
+
+            if (file == null) {
+                continue;
+            }
+
+            try {
+
+                final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+                if (attributes.lastModifiedTime().toMillis() != entry.lastModified || attributes.size() != entry.size) {
+                    removeEntry(entry);
+                }
+
+            } catch (final IOException e) {
+                removeEntry(entry);
+            }
+        }
+    }
+
+    /**
+     * Rewrite the data file with only stored previews.
+     */
+    private void compact(@NotNull final Path dataFile) throws IOException {
+
+        final Path tempFile = folder.resolve(FILE_DATA + ".tmp");
+        final List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparingLong(entry -> entry.offset));
+
+        try (final FileChannel source = FileChannel.open(dataFile, StandardOpenOption.READ);
+             final FileChannel target = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            long position = 0;
+
+            for (final Entry entry : sorted) {
+
+                long transferred = 0;
+
+                while (transferred < entry.length) {
+                    transferred += source.transferTo(entry.offset + transferred, entry.length - transferred, target);
+                }
+
+                entry.offset = position;
+                position += entry.length;
+            }
+        }
+
+        move(tempFile, dataFile);
+
+        indexChanged = true;
+
+        LOGGER.debug(this, "compacted the preview cache, " + entries.size() + " previews, " + liveSize + " bytes.");
+    }
+
+    /**
+     * Delete folders of the old layout of the preview cache, they are named by widths of previews.
+     */
+    private void deleteLegacyFolders() throws IOException {
+
+        final List<Path> legacy = new ArrayList<>();
+
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(folder, this::isLegacyFolder)) {
+            stream.forEach(legacy::add);
+        }
+
+        for (final Path directory : legacy) {
+            try (final Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                    try {
+                        Files.delete(file);
+                    } catch (final IOException e) {
+                        LOGGER.warning(this, e);
+                    }
+                });
+            }
+        }
+    }
+
+    private boolean isLegacyFolder(@NotNull final Path path) {
+        return Files.isDirectory(path) && LEGACY_FOLDER_NAME.matcher(path.getFileName().toString()).matches();
+    }
+
+    /**
+     * Schedule writing collected previews to the disk.
+     */
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            final ExecutorManager executorManager = ExecutorManager.getInstance();
+            executorManager.schedule(this::flush, FLUSH_DELAY);
+        }
+    }
+
+    private void saveIndex() throws IOException {
+
+        final Path indexFile = folder.resolve(FILE_INDEX);
+        final Path tempFile = folder.resolve(FILE_INDEX + ".tmp");
+
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+
+            for (final Entry entry : entries.values()) {
+                out.writeUTF(entry.key);
+                out.writeLong(entry.lastModified);
+                out.writeLong(entry.size);
+                out.writeLong(entry.offset);
+                out.writeInt(entry.length);
+                out.writeLong(entry.lastAccess);
+            }
+        }
+
+        move(tempFile, indexFile);
+
+        indexChanged = false;
+        accessChanged = false;
+    }
+
+    private void readIndex(@NotNull final DataInputStream in, final long dataFileSize) throws IOException {
+
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("The preview index is outdated.");
+        }
+
+        final int count = in.readInt();
+
+        for (int i = 0; i < count; i++) {
+
+            final String key = in.readUTF();
+            final long lastModified = in.readLong();
+            final long size = in.readLong();
+            final long offset = in.readLong();
+            final int length = in.readInt();
+            final long lastAccess = in.readLong();
+
+            // the data of the preview wasn't written completely
+            if (offset < 0 || offset + length > dataFileSize) {
+                indexChanged = true;
+                continue;
+            }
+
+            final Entry entry = new Entry(key, lastModified, size, length);
+            entry.offset = offset;
+            entry.lastAccess = lastAccess;
+
+            entries.put(key, entry);
+            liveSize += length;
+        }
+    }
+
+    private static void move(@NotNull final Path source, @NotNull final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static @NotNull String toKey(@NotNull final String source, final int width, final int height) {
+        return width + "x" + height + "|" + source;
+    }
+
+    /**
+     * Get a local file of the source of the preview.
+     *
+     * @param key the key of the preview.
+     * @return the local file or null if the source isn't a local file.
+     */
+    private static @Nullable Path toLocalFile(@NotNull final String key) {
+
+        final String source = key.substring(key.indexOf('|') + 1);
+
+        if (source.startsWith("file:")) {
+            try {
+                return Paths.get(new URI(source));
+            } catch (final URISyntaxException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        try {
+            final Path file = Paths.get(source);
+            return file.isAbsolute() ? file : null;
+        } catch (final InvalidPathException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,828 @@
+package com.ss.editor.file.index;
+
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.manager.WorkspaceManager;
+import com.ss.editor.util.EditorUtil;
+import com.ss.rlib.logging.Logger;
+import com.ss.rlib.logging.LoggerManager;
+import com.ss.rlib.util.FileUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * The persistent index of files of an asset folder. It keeps path, extension, size and last modified time of each
+ * file and last modified time of each folder, so on the next opening of the asset folder only folders which were
+ * changed since the last time are scanned again.
+ * <p>
+ * The index isn't thread safe, the owner should synchronize access to it.
+ *
+ * @author JavaSaBr
+ */
+public class AssetIndex {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(AssetIndex.class);
+
+    /**
+     * The name of the index file in the editor folder of an asset folder.
+     */
+    @NotNull
+    public static final String FILE_INDEX = "asset-index";
+
+    private static final int MAGIC = 0x4A4D4249;
+    private static final int VERSION = 1;
+
+    /**
+     * The asset path of the root folder.
+     */
+    @NotNull
+    private static final String ROOT = "";
+
+    /**
+     * The listener of added and removed files.
+     */
+    public interface Listener {
+
+        /**
+         * Notify about the added file.
+         *
+         * @param entry the added file.
+         */
+        void notifyAdded(@NotNull FileEntry entry);
+
+        /**
+         * Notify about the removed file.
+         *
+         * @param entry the removed file.
+         */
+        void notifyRemoved(@NotNull FileEntry entry);
+    }
+
+    /**
+     * The indexed file.
+     */
+    public static class FileEntry {
+
+        /**
+         * The asset path of the file.
+         */
+        @NotNull
+        private final String assetPath;
+
+        /**
+         * The extension of the file.
+         */
+        @NotNull
+        private final String extension;
+
+        /**
+         * The size of the file.
+         */
+        private long size;
+
+        /**
+         * The last modified time of the file.
+         */
+        private long lastModified;
+
+        private FileEntry(@NotNull final String assetPath, @NotNull final String extension, final long size,
+                          final long lastModified) {
+            this.assetPath = assetPath;
+            this.extension = extension;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Get the asset path of the file.
+         *
+         * @return the asset path of the file.
+         */
+        public @NotNull String getAssetPath() {
+            return assetPath;
+        }
+
+        /**
+         * Get the extension of the file.
+         *
+         * @return the extension of the file.
+         */
+        public @NotNull String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Get the size of the file.
+         *
+         * @return the size of the file.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Get the last modified time of the file.
+         *
+         * @return the last modified time of the file.
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * The indexed folder.
+     */
+    private static class FolderEntry {
+
+        /**
+         * The asset paths of files in the folder.
+         */
+        @NotNull
+        private final Set<String> files;
+
+        /**
+         * The asset paths of sub folders.
+         */
+        @NotNull
+        private final Set<String> folders;
+
+        /**
+         * The last modified time of the folder.
+         */
+        private long lastModified;
+
+        private FolderEntry(final long lastModified) {
+            this.files = new HashSet<>();
+            this.folders = new HashSet<>();
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Load the index of the asset folder or create an empty index if it wasn't saved before.
+     *
+     * @param assetFolder the asset folder.
+     * @return the index.
+     */
+    @BackgroundThread
+    public static @NotNull AssetIndex load(@NotNull final Path assetFolder) {
+
+        final AssetIndex index = new AssetIndex(assetFolder);
+        final Path indexFile = index.getIndexFile();
+
+        if (!Files.exists(indexFile)) {
+            return index;
+        }
+
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            index.read(in);
+        } catch (final IOException e) {
+            LOGGER.warning(index, "can't read the index " + indexFile + ", it will be rebuilt.");
+            index.clear();
+        }
+
+        return index;
+    }
+
+    /**
+     * The asset folder.
+     */
+    @NotNull
+    private final Path assetFolder;
+
+    /**
+     * The table of indexed files by asset paths.
+     */
+    @NotNull
+    private final Map<String, FileEntry> files;
+
+    /**
+     * The table of indexed folders by asset paths.
+     */
+    @NotNull
+    private final Map<String, FolderEntry> folders;
+
+    /**
+     * The table of asset paths of files by extensions.
+     */
+    @NotNull
+    private final Map<String, Set<String>> extensions;
+
+    /**
+     * The listener of added and removed files.
+     */
+    @Nullable
+    private Listener listener;
+
+    /**
+     * True if the index was changed after the last saving.
+     */
+    private boolean changed;
+
+    private AssetIndex(@NotNull final Path assetFolder) {
+        this.assetFolder = assetFolder;
+        this.files = new HashMap<>();
+        this.folders = new HashMap<>();
+        this.extensions = new HashMap<>();
+    }
+
+    /**
+     * Get the asset folder.
+     *
+     * @return the asset folder.
+     */
+    @FromAnyThread
+    public @NotNull Path getAssetFolder() {
+        return assetFolder;
+    }
+
+    /**
+     * Get the file to store this index.
+     *
+     * @return the file to store this index.
+     */
+    @FromAnyThread
+    public @NotNull Path getIndexFile() {
+        return assetFolder.resolve(WorkspaceManager.FOLDER_EDITOR).resolve(FILE_INDEX);
+    }
+
+    /**
+     * Return true if the index was changed after the last saving.
+     *
+     * @return true if the index was changed after the last saving.
+     */
+    @FromAnyThread
+    public boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * Set the listener of added and removed files.
+     *
+     * @param listener the listener or null.
+     */
+    @FromAnyThread
+    public void setListener(@Nullable final Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Get all extensions of indexed files.
+     *
+     * @return the unmodifiable set of extensions.
+     */
+    @FromAnyThread
+    public @NotNull Set<String> getExtensions() {
+        return Collections.unmodifiableSet(extensions.keySet());
+    }
+
+    /**
+     * Get asset paths of files with the extension.
+     *
+     * @param extension the extension.
+     * @return the unmodifiable collection of asset paths.
+     */
+    @FromAnyThread
+    public @NotNull Collection<String> getFiles(@NotNull final String extension) {
+        final Set<String> result = extensions.get(extension);
+        return result == null ? Collections.emptySet() : Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Get the indexed file by the asset path.
+     *
+     * @param assetPath the asset path.
+     * @return the indexed file or null.
+     */
+    @FromAnyThread
+    public @Nullable FileEntry getFile(@NotNull final String assetPath) {
+        return files.get(assetPath);
+    }
+
+    /**
+     * Get real paths of all indexed folders.
+     *
+     * @return the list of real paths of all indexed folders.
+     */
+    @FromAnyThread
+    public @NotNull List<Path> getFolders() {
+
+        final List<Path> result = new ArrayList<>(folders.size());
+
+        for (final String folder : folders.keySet()) {
+            result.add(assetFolder.resolve(folder));
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the count of indexed files.
+     *
+     * @return the count of indexed files.
+     */
+    @FromAnyThread
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * Synchronize this index with the asset folder. If the index isn't empty and a full scan isn't required, only
+     * folders which were changed since the last synchronization are scanned, changes of content of files in not
+     * changed folders are tracked only by file events.
+     *
+     * @param fullScan true if need to scan the whole asset folder.
+     */
+    @BackgroundThread
+    public void synchronize(final boolean fullScan) {
+
+        if (fullScan || folders.isEmpty()) {
+            clear();
+            addTree(assetFolder);
+            return;
+        }
+
+        for (final String folder : new ArrayList<>(folders.keySet())) {
+
+            final FolderEntry entry = folders.get(folder);
+
+            // the folder was removed with its parent folder
+            if (entry == null) {
+                continue;
+            }
+
+            final BasicFileAttributes attrs = readAttributes(assetFolder.resolve(folder));
+
+            if (attrs == null || !attrs.isDirectory()) {
+                removeFolder(folder);
+            } else if (attrs.lastModifiedTime().toMillis() != entry.lastModified) {
+                rescanFolder(folder, entry, attrs);
+            }
+        }
+    }
+
+    /**
+     * Handle the created file or folder.
+     *
+     * @param file the created file or folder.
+     */
+    @FromAnyThread
+    public void notifyCreated(@NotNull final Path file) {
+
+        if (isIgnored(file)) {
+            return;
+        }
+
+        final BasicFileAttributes attrs = readAttributes(file);
+
+        if (attrs == null) {
+            return;
+        } else if (attrs.isDirectory()) {
+            addTree(file);
+        } else {
+            addFile(toAssetPath(file), attrs);
+        }
+
+        updateParent(file);
+    }
+
+    /**
+     * Handle the changed file.
+     *
+     * @param file the changed file.
+     */
+    @FromAnyThread
+    public void notifyChanged(@NotNull final Path file) {
+
+        if (isIgnored(file)) {
+            return;
+        }
+
+        final FileEntry entry = files.get(toAssetPath(file));
+        final BasicFileAttributes attrs = entry == null ? null : readAttributes(file);
+
+        if (attrs == null || attrs.isDirectory()) {
+            return;
+        }
+
+        entry.size = attrs.size();
+        entry.lastModified = attrs.lastModifiedTime().toMillis();
+        changed = true;
+    }
+
+    /**
+     * Handle the deleted file or folder.
+     *
+     * @param file the deleted file or folder.
+     */
+    @FromAnyThread
+    public void notifyDeleted(@NotNull final Path file) {
+
+        if (isIgnored(file)) {
+            return;
+        }
+
+        final String assetPath = toAssetPath(file);
+
+        if (folders.containsKey(assetPath)) {
+            removeFolder(assetPath);
+        } else {
+            removeFile(assetPath);
+        }
+
+        updateParent(file);
+    }
+
+    /**
+     * Save this index to the editor folder of the asset folder.
+     */
+    @BackgroundThread
+    public void save() {
+
+        final Path indexFile = getIndexFile();
+        final Path tempFile = indexFile.resolveSibling(FILE_INDEX + ".tmp");
+
+        try {
+
+            Files.createDirectories(indexFile.getParent());
+
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                write(out);
+            }
+
+            try {
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            changed = false;
+
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    /**
+     * Clear this index.
+     */
+    @FromAnyThread
+    public void clear() {
+        files.clear();
+        folders.clear();
+        extensions.clear();
+        changed = true;
+    }
+
+    /**
+     * Scan again the changed folder.
+     */
+    @BackgroundThread
+    private void rescanFolder(@NotNull final String folder, @NotNull final FolderEntry entry,
+                              @NotNull final BasicFileAttributes folderAttrs) {
+
+        final Set<String> oldFiles = new HashSet<>(entry.files);
+        final Set<String> oldFolders = new HashSet<>(entry.folders);
+
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(assetFolder.resolve(folder))) {
+            for (final Path child : stream) {
+
+                if (isIgnored(child)) {
+                    continue;
+                }
+
+                final BasicFileAttributes attrs = readAttributes(child);
+
+                if (attrs == null) {
+                    continue;
+                }
+
+                final String assetPath = toAssetPath(child);
+
+                if (attrs.isDirectory()) {
+                    if (!oldFolders.remove(assetPath)) {
+                        addTree(child);
+                    }
+                } else {
+                    oldFiles.remove(assetPath);
+                    addFile(assetPath, attrs);
+                }
+            }
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+
+        oldFiles.forEach(this::removeFile);
+        oldFolders.forEach(this::removeFolder);
+
+        entry.lastModified = folderAttrs.lastModifiedTime().toMillis();
+        changed = true;
+    }
+
+    /**
+     * Add the folder and all its content to this index.
+     */
+    @FromAnyThread
+    private void addTree(@NotNull final Path folder) {
+
+        final FileVisitor<Path> visitor = new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(@NotNull final Path dir, @NotNull final BasicFileAttributes attrs) {
+
+                if (isIgnored(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                addFolder(toAssetPath(dir), attrs);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(@NotNull final Path file, @NotNull final BasicFileAttributes attrs) {
+
+                if (!attrs.isDirectory()) {
+                    addFile(toAssetPath(file), attrs);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(@NotNull final Path file, @NotNull final IOException exc) {
+                LOGGER.warning(AssetIndex.this, exc);
+                return FileVisitResult.CONTINUE;
+            }
+        };
+
+        try {
+            Files.walkFileTree(folder, visitor);
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    /**
+     * Add or update the folder.
+     */
+    @FromAnyThread
+    private void addFolder(@NotNull final String assetPath, @NotNull final BasicFileAttributes attrs) {
+
+        final long lastModified = attrs.lastModifiedTime().toMillis();
+        final FolderEntry entry = folders.get(assetPath);
+
+        if (entry != null) {
+            entry.lastModified = lastModified;
+        } else {
+            folders.put(assetPath, new FolderEntry(lastModified));
+            linkToParent(assetPath, true);
+        }
+
+        changed = true;
+    }
+
+    /**
+     * Add or update the file.
+     */
+    @FromAnyThread
+    private void addFile(@NotNull final String assetPath, @NotNull final BasicFileAttributes attrs) {
+        addFile(assetPath, attrs.size(), attrs.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * Add or update the file.
+     */
+    @FromAnyThread
+    private void addFile(@NotNull final String assetPath, final long size, final long lastModified) {
+
+        final FileEntry entry = files.get(assetPath);
+
+        if (entry != null) {
+            entry.size = size;
+            entry.lastModified = lastModified;
+        } else {
+
+            final String extension = FileUtils.getExtension(assetPath);
+            final FileEntry newEntry = new FileEntry(assetPath, extension, size, lastModified);
+
+            files.put(assetPath, newEntry);
+            extensions.computeIfAbsent(extension, key -> new HashSet<>()).add(assetPath);
+            linkToParent(assetPath, false);
+
+            if (listener != null) {
+                listener.notifyAdded(newEntry);
+            }
+        }
+
+        changed = true;
+    }
+
+    /**
+     * Remove the file.
+     */
+    @FromAnyThread
+    private void removeFile(@NotNull final String assetPath) {
+
+        final FileEntry entry = files.remove(assetPath);
+
+        if (entry == null) {
+            return;
+        }
+
+        final Set<String> byExtension = extensions.get(entry.extension);
+
+        if (byExtension != null && byExtension.remove(assetPath) && byExtension.isEmpty()) {
+            extensions.remove(entry.extension);
+        }
+
+        final FolderEntry parent = folders.get(getParent(assetPath));
+
+        if (parent != null) {
+            parent.files.remove(assetPath);
+        }
+
+        if (listener != null) {
+            listener.notifyRemoved(entry);
+        }
+
+        changed = true;
+    }
+
+    /**
+     * Remove the folder and all its content.
+     */
+    @FromAnyThread
+    private void removeFolder(@NotNull final String assetPath) {
+
+        final FolderEntry entry = folders.remove(assetPath);
+
+        if (entry == null) {
+            return;
+        }
+
+        new ArrayList<>(entry.files).forEach(this::removeFile);
+        new ArrayList<>(entry.folders).forEach(this::removeFolder);
+
+        final FolderEntry parent = folders.get(getParent(assetPath));
+
+        if (parent != null) {
+            parent.folders.remove(assetPath);
+        }
+
+        changed = true;
+    }
+
+    /**
+     * Link the file or folder to its parent folder.
+     */
+    @FromAnyThread
+    private void linkToParent(@NotNull final String assetPath, final boolean folder) {
+
+        if (ROOT.equals(assetPath)) {
+            return;
+        }
+
+        final FolderEntry parent = folders.get(getParent(assetPath));
+
+        if (parent == null) {
+            return;
+        }
+
+        if (folder) {
+            parent.folders.add(assetPath);
+        } else {
+            parent.files.add(assetPath);
+        }
+    }
+
+    /**
+     * Update the last modified time of the parent folder of the file.
+     */
+    @FromAnyThread
+    private void updateParent(@NotNull final Path file) {
+
+        final Path parent = file.getParent();
+
+        if (parent == null || !parent.startsWith(assetFolder)) {
+            return;
+        }
+
+        final FolderEntry entry = folders.get(toAssetPath(parent));
+        final BasicFileAttributes attrs = entry == null ? null : readAttributes(parent);
+
+        if (attrs != null) {
+            entry.lastModified = attrs.lastModifiedTime().toMillis();
+            changed = true;
+        }
+    }
+
+    /**
+     * Return true if the file shouldn't be indexed.
+     */
+    @FromAnyThread
+    private boolean isIgnored(@NotNull final Path file) {
+
+        if (file.equals(assetFolder)) {
+            return false;
+        } else if (!file.startsWith(assetFolder)) {
+            return true;
+        }
+
+        // the editor folder contains this index, so changes in it shouldn't change the index
+        return assetFolder.relativize(file).getName(0).toString().equals(WorkspaceManager.FOLDER_EDITOR);
+    }
+
+    /**
+     * Convert the real path to the asset path.
+     */
+    @FromAnyThread
+    private @NotNull String toAssetPath(@NotNull final Path file) {
+        return EditorUtil.toAssetPath(assetFolder.relativize(file));
+    }
+
+    /**
+     * Get the asset path of the parent folder.
+     */
+    @FromAnyThread
+    private static @NotNull String getParent(@NotNull final String assetPath) {
+        final int index = assetPath.lastIndexOf('/');
+        return index < 0 ? ROOT : assetPath.substring(0, index);
+    }
+
+    /**
+     * Read attributes of the file.
+     *
+     * @return the attributes or null if the file doesn't exist.
+     */
+    @FromAnyThread
+    private static @Nullable BasicFileAttributes readAttributes(@NotNull final Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Write this index to the stream.
+     */
+    @BackgroundThread
+    private void write(@NotNull final DataOutputStream out) throws IOException {
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(assetFolder.toString());
+        out.writeInt(folders.size());
+
+        for (final Map.Entry<String, FolderEntry> entry : folders.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().lastModified);
+        }
+
+        out.writeInt(files.size());
+
+        for (final FileEntry entry : files.values()) {
+            out.writeUTF(entry.assetPath);
+            out.writeLong(entry.size);
+            out.writeLong(entry.lastModified);
+        }
+    }
+
+    /**
+     * Read this index from the stream.
+     */
+    @BackgroundThread
+    private void read(@NotNull final DataInputStream in) throws IOException {
+
+        if (in.readInt() != MAGIC || in.readInt() != VERSION || !assetFolder.toString().equals(in.readUTF())) {
+            throw new IOException("The index is outdated.");
+        }
+
+        // folders are written in any order, so they are linked to parents after reading all of them
+        for (int i = 0, count = in.readInt(); i < count; i++) {
+            folders.put(in.readUTF(), new FolderEntry(in.readLong()));
+        }
+
+        for (final String folder : folders.keySet()) {
+            linkToParent(folder, true);
+        }
+
+        for (int i = 0, count = in.readInt(); i < count; i++) {
+            addFile(in.readUTF(), in.readLong(), in.readLong());
+        }
+
+        changed = false;
+    }
+
+    @Override
+    public String toString() {
+        return "AssetIndex{" + "assetFolder=" + assetFolder + ", files=" + files.size() + '}';
+    }
+}
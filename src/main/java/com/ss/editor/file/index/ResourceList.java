@@ -0,0 +1,398 @@
+package com.ss.editor.file.index;
+
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.rlib.util.StringUtils;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The immutable sorted list of resource paths without duplicates. Resources are sorted ignoring case, every
+ * modification creates a new list, so a list can be shared between threads without any locks.
+ *
+ * @author JavaSaBr
+ */
+public final class ResourceList {
+
+    /**
+     * The order of resources, paths which are equal ignoring case are ordered by the natural order to keep the
+     * order total.
+     */
+    @NotNull
+    public static final Comparator<String> COMPARATOR = (first, second) -> {
+        final int result = StringUtils.compareIgnoreCase(first, second);
+        return result != 0 ? result : first.compareTo(second);
+    };
+
+    /**
+     * The empty list.
+     */
+    @NotNull
+    public static final ResourceList EMPTY = new ResourceList(new String[0]);
+
+    /**
+     * Create a list of the resources.
+     *
+     * @param resources the resources in any order.
+     * @return the sorted list without duplicates.
+     */
+    @FromAnyThread
+    public static @NotNull ResourceList of(@NotNull final Collection<String> resources) {
+
+        if (resources.isEmpty()) {
+            return EMPTY;
+        }
+
+        final String[] array = resources.toArray(new String[resources.size()]);
+        Arrays.sort(array, COMPARATOR);
+
+        int size = 1;
+
+        for (int i = 1; i < array.length; i++) {
+            if (!array[i].equals(array[size - 1])) {
+                array[size++] = array[i];
+            }
+        }
+
+        return new ResourceList(size == array.length ? array : Arrays.copyOf(array, size));
+    }
+
+    /**
+     * The sorted resources.
+     */
+    @NotNull
+    private final String[] resources;
+
+    private ResourceList(@NotNull final String[] resources) {
+        this.resources = resources;
+    }
+
+    /**
+     * Get the count of resources.
+     *
+     * @return the count of resources.
+     */
+    @FromAnyThread
+    public int size() {
+        return resources.length;
+    }
+
+    /**
+     * Return true if this list is empty.
+     *
+     * @return true if this list is empty.
+     */
+    @FromAnyThread
+    public boolean isEmpty() {
+        return resources.length == 0;
+    }
+
+    /**
+     * Get a resource by the index.
+     *
+     * @param index the index.
+     * @return the resource.
+     */
+    @FromAnyThread
+    public @NotNull String get(final int index) {
+        return resources[index];
+    }
+
+    /**
+     * Return true if this list contains the resource.
+     *
+     * @param resource the resource.
+     * @return true if this list contains the resource.
+     */
+    @FromAnyThread
+    public boolean contains(@NotNull final String resource) {
+        return Arrays.binarySearch(resources, resource, COMPARATOR) >= 0;
+    }
+
+    /**
+     * Create a new list with the added resource.
+     *
+     * @param resource the resource.
+     * @return the new list or this list if it already contains the resource.
+     */
+    @FromAnyThread
+    public @NotNull ResourceList with(@NotNull final String resource) {
+
+        final int index = Arrays.binarySearch(resources, resource, COMPARATOR);
+
+        if (index >= 0) {
+            return this;
+        }
+
+        final int position = -index - 1;
+        final String[] result = new String[resources.length + 1];
+
+        System.arraycopy(resources, 0, result, 0, position);
+        System.arraycopy(resources, position, result, position + 1, resources.length - position);
+        result[position] = resource;
+
+        return new ResourceList(result);
+    }
+
+    /**
+     * Create a new list without the resource.
+     *
+     * @param resource the resource.
+     * @return the new list or this list if it doesn't contain the resource.
+     */
+    @FromAnyThread
+    public @NotNull ResourceList without(@NotNull final String resource) {
+
+        final int index = Arrays.binarySearch(resources, resource, COMPARATOR);
+
+        if (index < 0) {
+            return this;
+        } else if (resources.length == 1) {
+            return EMPTY;
+        }
+
+        final String[] result = new String[resources.length - 1];
+
+        System.arraycopy(resources, 0, result, 0, index);
+        System.arraycopy(resources, index + 1, result, index, resources.length - index - 1);
+
+        return new ResourceList(result);
+    }
+
+    /**
+     * Create a new list without the resources.
+     *
+     * @param toRemove the resources to remove.
+     * @return the new list or this list if it doesn't contain any of the resources.
+     */
+    @FromAnyThread
+    public @NotNull ResourceList without(@NotNull final Set<String> toRemove) {
+
+        if (toRemove.isEmpty()) {
+            return this;
+        } else if (toRemove.size() == 1) {
+            return without(toRemove.iterator().next());
+        }
+
+        final String[] result = new String[resources.length];
+
+        int size = 0;
+
+        for (final String resource : resources) {
+            if (!toRemove.contains(resource)) {
+                result[size++] = resource;
+            }
+        }
+
+        if (size == resources.length) {
+            return this;
+        }
+
+        return size == 0 ? EMPTY : new ResourceList(Arrays.copyOf(result, size));
+    }
+
+    /**
+     * Create a new list which contains resources of this and the other lists.
+     *
+     * @param other the other list.
+     * @return the merged list.
+     */
+    @FromAnyThread
+    public @NotNull ResourceList merge(@NotNull final ResourceList other) {
+
+        if (other.isEmpty()) {
+            return this;
+        } else if (isEmpty()) {
+            return other;
+        }
+
+        final String[] first = resources;
+        final String[] second = other.resources;
+        final String[] result = new String[first.length + second.length];
+
+        int i = 0, j = 0, size = 0;
+
+        while (i < first.length && j < second.length) {
+
+            final int compare = COMPARATOR.compare(first[i], second[j]);
+
+            if (compare < 0) {
+                result[size++] = first[i++];
+            } else if (compare > 0) {
+                result[size++] = second[j++];
+            } else {
+                result[size++] = first[i++];
+                j++;
+            }
+        }
+
+        while (i < first.length) {
+            result[size++] = first[i++];
+        }
+
+        while (j < second.length) {
+            result[size++] = second[j++];
+        }
+
+        return new ResourceList(size == result.length ? result : Arrays.copyOf(result, size));
+    }
+
+    /**
+     * Find resources which start with the prefix ignoring case.
+     *
+     * @param prefix the prefix.
+     * @return the sorted list of found resources.
+     */
+    @FromAnyThread
+    public @NotNull ResourceList findByPrefix(@NotNull final String prefix) {
+
+        if (prefix.isEmpty()) {
+            return this;
+        }
+
+        final int from = lowerBound(prefix);
+
+        int to = from;
+
+        while (to < resources.length && resources[to].regionMatches(true, 0, prefix, 0, prefix.length())) {
+            to++;
+        }
+
+        return from == to ? EMPTY : new ResourceList(Arrays.copyOfRange(resources, from, to));
+    }
+
+    /**
+     * Find resources which contain the text ignoring case.
+     *
+     * @param text the text.
+     * @return the sorted list of found resources.
+     */
+    @FromAnyThread
+    public @NotNull ResourceList findContaining(@NotNull final String text) {
+
+        if (text.isEmpty()) {
+            return this;
+        }
+
+        final String lowerText = text.toLowerCase(Locale.ENGLISH);
+        final String[] result = new String[resources.length];
+
+        int size = 0;
+
+        for (final String resource : resources) {
+            if (resource.toLowerCase(Locale.ENGLISH).contains(lowerText)) {
+                result[size++] = resource;
+            }
+        }
+
+        return size == 0 ? EMPTY : new ResourceList(Arrays.copyOf(result, size));
+    }
+
+    /**
+     * Copy resources of this list to the array.
+     *
+     * @param container the array.
+     * @return the array.
+     */
+    @FromAnyThread
+    public @NotNull Array<String> copyTo(@NotNull final Array<String> container) {
+
+        for (final String resource : resources) {
+            container.add(resource);
+        }
+
+        return container;
+    }
+
+    /**
+     * Merge resources of this list into the array which is sorted by {@link #COMPARATOR} in one pass, resources
+     * which are already in the array aren't added again.
+     *
+     * @param container the sorted array.
+     * @return the array.
+     */
+    @FromAnyThread
+    public @NotNull Array<String> mergeTo(@NotNull final Array<String> container) {
+
+        if (isEmpty()) {
+            return container;
+        } else if (container.isEmpty()) {
+            return copyTo(container);
+        }
+
+        final String[] first = container.toArray(new String[container.size()]);
+        final String[] second = resources;
+
+        container.clear();
+
+        int i = 0, j = 0;
+
+        while (i < first.length && j < second.length) {
+
+            final int compare = COMPARATOR.compare(first[i], second[j]);
+
+            if (compare < 0) {
+                container.add(first[i++]);
+            } else if (compare > 0) {
+                container.add(second[j++]);
+            } else {
+                container.add(first[i++]);
+                j++;
+            }
+        }
+
+        while (i < first.length) {
+            container.add(first[i++]);
+        }
+
+        while (j < second.length) {
+            container.add(second[j++]);
+        }
+
+        return container;
+    }
+
+    /**
+     * Create a new array with resources of this list.
+     *
+     * @return the new array.
+     */
+    @FromAnyThread
+    public @NotNull Array<String> toArray() {
+        return copyTo(ArrayFactory.newArray(String.class, resources.length));
+    }
+
+    /**
+     * Find the index of the first resource which isn't less than the prefix ignoring case.
+     */
+    @FromAnyThread
+    private int lowerBound(@NotNull final String prefix) {
+
+        int low = 0;
+        int high = resources.length;
+
+        while (low < high) {
+
+            final int middle = (low + high) >>> 1;
+
+            if (StringUtils.compareIgnoreCase(resources[middle], prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceList{size=" + resources.length + '}';
+    }
+}
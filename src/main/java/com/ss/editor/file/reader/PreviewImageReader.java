@@ -0,0 +1,719 @@
+package com.ss.editor.file.reader;
+
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The reader of small previews of DDS and TGA images. The reader doesn't decode the whole image, it decodes only
+ * texels which are sampled by pixels of the preview. For DDS images the smallest mip level which isn't less than the
+ * preview is used, a DDS file is read by positional reads of the header and this mip level only. Rows of large
+ * previews are decoded in parallel in the common fork-join pool.
+ *
+ * @author JavaSaBr
+ */
+public final class PreviewImageReader {
+
+    /**
+     * The max count of pixels to decode by one task.
+     */
+    private static final int PIXELS_PER_TASK = 64 * 64;
+
+    /**
+     * The max count of samples per axis for one pixel of a preview.
+     */
+    private static final int MAX_SAMPLES = 4;
+
+    private static final int DDS_MAGIC = 0x20534444;
+    private static final int DDS_HEADER_SIZE = 128;
+    private static final int DDS_FLAG_FOUR_CC = 0x04;
+    private static final int DDS_FLAG_RGB = 0x40;
+    private static final int DDS_FLAG_ALPHA = 0x01;
+    private static final int DDS_FLAG_MIPMAP_COUNT = 0x20000;
+
+    private static final int DXT1 = 0x31545844;
+    private static final int DXT2 = 0x32545844;
+    private static final int DXT3 = 0x33545844;
+    private static final int DXT4 = 0x34545844;
+    private static final int DXT5 = 0x35545844;
+
+    private static final int TGA_HEADER_SIZE = 18;
+    private static final int TGA_TRUE_COLOR = 2;
+    private static final int TGA_GRAYSCALE = 3;
+    private static final int TGA_RLE_TRUE_COLOR = 10;
+    private static final int TGA_RLE_GRAYSCALE = 11;
+    private static final int TGA_TOP_LEFT = 0x20;
+
+    /**
+     * The source of texels of an image.
+     */
+    @FunctionalInterface
+    private interface TexelSource {
+
+        /**
+         * Get the texel in ARGB.
+         *
+         * @param x the x coordinate of the texel.
+         * @param y the y coordinate of the texel.
+         * @return the ARGB color.
+         */
+        int getTexel(int x, int y);
+    }
+
+    /**
+     * The reader of a range of the content of an image.
+     */
+    @FunctionalInterface
+    private interface RangeReader {
+
+        /**
+         * Read a range of the content.
+         *
+         * @param offset the offset of the range.
+         * @param length the length of the range.
+         * @return the buffer with the range from the position 0.
+         * @throws IOException if the range can't be read.
+         */
+        @NotNull ByteBuffer read(long offset, int length) throws IOException;
+    }
+
+    /**
+     * The task to decode rows of a preview.
+     */
+    private static final class DecodeRowsTask extends RecursiveAction {
+
+        /**
+         * The sampler of the preview.
+         */
+        @NotNull
+        private final Sampler sampler;
+
+        /**
+         * The rows to decode.
+         */
+        private final int fromY;
+        private final int toY;
+
+        private DecodeRowsTask(@NotNull final Sampler sampler, final int fromY, final int toY) {
+            this.sampler = sampler;
+            this.fromY = fromY;
+            this.toY = toY;
+        }
+
+        @Override
+        protected void compute() {
+
+            final int rows = toY - fromY;
+
+            if (rows < 2 || rows * sampler.targetWidth * sampler.samplesX * sampler.samplesY <= PIXELS_PER_TASK) {
+                sampler.sampleRows(fromY, toY);
+                return;
+            }
+
+            final int middle = fromY + rows / 2;
+
+            invokeAll(new DecodeRowsTask(sampler, fromY, middle), new DecodeRowsTask(sampler, middle, toY));
+        }
+    }
+
+    /**
+     * The box filter which samples a source image into pixels of a preview.
+     */
+    private static final class Sampler {
+
+        /**
+         * The source of texels.
+         */
+        @NotNull
+        private final TexelSource source;
+
+        /**
+         * The pixels of the preview.
+         */
+        @NotNull
+        private final int[] pixels;
+
+        /**
+         * The size of the source image.
+         */
+        private final int sourceWidth;
+        private final int sourceHeight;
+
+        /**
+         * The size of the preview.
+         */
+        private final int targetWidth;
+        private final int targetHeight;
+
+        /**
+         * The count of samples per axis for one pixel.
+         */
+        private final int samplesX;
+        private final int samplesY;
+
+        private Sampler(@NotNull final TexelSource source, @NotNull final int[] pixels, final int sourceWidth,
+                        final int sourceHeight, final int targetWidth, final int targetHeight) {
+            this.source = source;
+            this.pixels = pixels;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+            this.targetWidth = targetWidth;
+            this.targetHeight = targetHeight;
+            this.samplesX = getSampleCount(sourceWidth, targetWidth);
+            this.samplesY = getSampleCount(sourceHeight, targetHeight);
+        }
+
+        private void sampleRows(final int fromY, final int toY) {
+
+            final int samples = samplesX * samplesY;
+
+            for (int y = fromY; y < toY; y++) {
+                for (int x = 0; x < targetWidth; x++) {
+
+                    int alpha = 0, red = 0, green = 0, blue = 0;
+
+                    for (int sy = 0; sy < samplesY; sy++) {
+
+                        final int sourceY = getSamplePosition(y, sy, samplesY, sourceHeight, targetHeight);
+
+                        for (int sx = 0; sx < samplesX; sx++) {
+
+                            final int sourceX = getSamplePosition(x, sx, samplesX, sourceWidth, targetWidth);
+                            final int texel = source.getTexel(sourceX, sourceY);
+
+                            alpha += texel >>> 24;
+                            red += (texel >> 16) & 0xFF;
+                            green += (texel >> 8) & 0xFF;
+                            blue += texel & 0xFF;
+                        }
+                    }
+
+                    pixels[y * targetWidth + x] = (alpha / samples) << 24 | (red / samples) << 16 |
+                            (green / samples) << 8 | blue / samples;
+                }
+            }
+        }
+
+        /**
+         * Sample the source image into the preview.
+         */
+        private void sample() {
+            if (targetHeight * targetWidth * samplesX * samplesY <= PIXELS_PER_TASK) {
+                sampleRows(0, targetHeight);
+            } else {
+                ForkJoinPool.commonPool().invoke(new DecodeRowsTask(this, 0, targetHeight));
+            }
+        }
+    }
+
+    /**
+     * Read a preview of the DDS image. Supported DXT1-DXT5 and uncompressed RGB images.
+     *
+     * @param content   the content of the image.
+     * @param maxWidth  the max width of the preview.
+     * @param maxHeight the max height of the preview.
+     * @return the preview or null if the image isn't supported.
+     */
+    @BackgroundThread
+    public static @Nullable BufferedImage readDds(@NotNull final ByteBuffer content, final int maxWidth,
+                                                  final int maxHeight) {
+
+        final ByteBuffer buffer = content.duplicate();
+
+        try {
+            return readDds(buffer.limit(), (offset, length) -> slice(buffer, (int) offset, length), maxWidth,
+                    maxHeight);
+        } catch (final IOException e) {
+            // the content is already in the memory, so it can't be thrown
+            return null;
+        }
+    }
+
+    /**
+     * Read a preview of the DDS image from the file channel, only the header and the used mip level are read.
+     * Supported DXT1-DXT5 and uncompressed RGB images.
+     *
+     * @param channel   the channel of the image file.
+     * @param maxWidth  the max width of the preview.
+     * @param maxHeight the max height of the preview.
+     * @return the preview or null if the image isn't supported.
+     * @throws IOException if the file can't be read.
+     */
+    @BackgroundThread
+    public static @Nullable BufferedImage readDds(@NotNull final FileChannel channel, final int maxWidth,
+                                                  final int maxHeight) throws IOException {
+        return readDds(channel.size(), (offset, length) -> read(channel, offset, length), maxWidth, maxHeight);
+    }
+
+    @BackgroundThread
+    private static @Nullable BufferedImage readDds(final long size, @NotNull final RangeReader reader,
+                                                   final int maxWidth, final int maxHeight) throws IOException {
+
+        if (size < DDS_HEADER_SIZE) {
+            return null;
+        }
+
+        final ByteBuffer header = reader.read(0, DDS_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        if (header.getInt(0) != DDS_MAGIC) {
+            return null;
+        }
+
+        final int flags = header.getInt(8);
+        final int height = header.getInt(12);
+        final int width = header.getInt(16);
+        final int mipmaps = (flags & DDS_FLAG_MIPMAP_COUNT) == 0 ? 1 : Math.max(header.getInt(28), 1);
+        final int pixelFlags = header.getInt(80);
+        final int fourCC = header.getInt(84);
+        final int bitCount = header.getInt(88);
+
+        if (width < 1 || height < 1) {
+            return null;
+        }
+
+        final int blockSize;
+        final int pixelSize;
+
+        if ((pixelFlags & DDS_FLAG_FOUR_CC) != 0) {
+
+            if (fourCC == DXT1) {
+                blockSize = 8;
+            } else if (fourCC >= DXT2 && fourCC <= DXT5) {
+                blockSize = 16;
+            } else {
+                return null;
+            }
+
+            pixelSize = 0;
+
+        } else if ((pixelFlags & DDS_FLAG_RGB) != 0 && (bitCount == 16 || bitCount == 24 || bitCount == 32)) {
+            blockSize = 0;
+            pixelSize = bitCount / 8;
+        } else {
+            return null;
+        }
+
+        final int targetWidth = getTargetWidth(width, height, maxWidth, maxHeight);
+        final int targetHeight = getTargetHeight(width, height, maxWidth, maxHeight);
+
+        long offset = DDS_HEADER_SIZE;
+        int levelWidth = width;
+        int levelHeight = height;
+
+        // skip mip levels which are larger than the next level which still covers the preview
+        for (int level = 1; level < mipmaps; level++) {
+
+            final int nextWidth = Math.max(levelWidth / 2, 1);
+            final int nextHeight = Math.max(levelHeight / 2, 1);
+
+            if (nextWidth < targetWidth || nextHeight < targetHeight) {
+                break;
+            }
+
+            final long nextOffset = offset + getLevelSize(levelWidth, levelHeight, blockSize, pixelSize);
+
+            if (nextOffset + getLevelSize(nextWidth, nextHeight, blockSize, pixelSize) > size) {
+                break;
+            }
+
+            offset = nextOffset;
+            levelWidth = nextWidth;
+            levelHeight = nextHeight;
+        }
+
+        final long levelSize = getLevelSize(levelWidth, levelHeight, blockSize, pixelSize);
+
+        if (offset + levelSize > size || levelSize > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        final ByteBuffer buffer = reader.read(offset, (int) levelSize).order(ByteOrder.LITTLE_ENDIAN);
+        final int sourceWidth = levelWidth;
+        final TexelSource source;
+
+        if (blockSize != 0) {
+
+            final int blocksPerRow = (sourceWidth + 3) / 4;
+            final boolean dxt1 = fourCC == DXT1;
+            final boolean dxt3 = fourCC == DXT2 || fourCC == DXT3;
+
+            source = (x, y) -> {
+
+                final int block = ((y >> 2) * blocksPerRow + (x >> 2)) * blockSize;
+                final int index = (y & 3) * 4 + (x & 3);
+
+                if (dxt1) {
+                    return getDxtColor(buffer, block, index, 0xFF, true);
+                } else if (dxt3) {
+                    return getDxtColor(buffer, block + 8, index, getDxt3Alpha(buffer, block, index), false);
+                } else {
+                    return getDxtColor(buffer, block + 8, index, getDxt5Alpha(buffer, block, index), false);
+                }
+            };
+
+        } else {
+
+            final int alphaMask = (pixelFlags & DDS_FLAG_ALPHA) != 0 ? header.getInt(104) : 0;
+            final int redMask = header.getInt(92);
+            final int greenMask = header.getInt(96);
+            final int blueMask = header.getInt(100);
+
+            source = (x, y) -> {
+
+                final int position = (y * sourceWidth + x) * pixelSize;
+
+                int value = 0;
+
+                for (int i = 0; i < pixelSize; i++) {
+                    value |= (buffer.get(position + i) & 0xFF) << (i * 8);
+                }
+
+                final int alpha = alphaMask == 0 ? 0xFF : getChannel(value, alphaMask);
+
+                return alpha << 24 | getChannel(value, redMask) << 16 | getChannel(value, greenMask) << 8 |
+                        getChannel(value, blueMask);
+            };
+        }
+
+        return sample(source, sourceWidth, levelHeight, targetWidth, targetHeight);
+    }
+
+    /**
+     * Get a range of the content as a separated buffer.
+     */
+    @FromAnyThread
+    private static @NotNull ByteBuffer slice(@NotNull final ByteBuffer content, final int offset, final int length) {
+        final ByteBuffer buffer = content.duplicate();
+        buffer.limit(offset + length);
+        buffer.position(offset);
+        return buffer.slice();
+    }
+
+    /**
+     * Read a range of the file by positional reads, the position of the channel isn't changed.
+     */
+    @BackgroundThread
+    private static @NotNull ByteBuffer read(@NotNull final FileChannel channel, final long offset, final int length)
+            throws IOException {
+
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Read a preview of the TGA image. Supported true-color and grayscale images, uncompressed and RLE compressed.
+     *
+     * @param content   the content of the image.
+     * @param maxWidth  the max width of the preview.
+     * @param maxHeight the max height of the preview.
+     * @return the preview or null if the image isn't supported.
+     */
+    @BackgroundThread
+    public static @Nullable BufferedImage readTga(@NotNull final ByteBuffer content, final int maxWidth,
+                                                  final int maxHeight) {
+
+        final ByteBuffer buffer = content.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.limit() < TGA_HEADER_SIZE) {
+            return null;
+        }
+
+        final int idLength = buffer.get(0) & 0xFF;
+        final int colorMapType = buffer.get(1) & 0xFF;
+        final int imageType = buffer.get(2) & 0xFF;
+        final int colorMapLength = buffer.getShort(5) & 0xFFFF;
+        final int colorMapEntrySize = buffer.get(7) & 0xFF;
+        final int width = buffer.getShort(12) & 0xFFFF;
+        final int height = buffer.getShort(14) & 0xFFFF;
+        final int pixelSize = (buffer.get(16) & 0xFF) / 8;
+        final boolean topLeft = (buffer.get(17) & TGA_TOP_LEFT) != 0;
+
+        final boolean grayscale = imageType == TGA_GRAYSCALE || imageType == TGA_RLE_GRAYSCALE;
+        final boolean compressed = imageType == TGA_RLE_TRUE_COLOR || imageType == TGA_RLE_GRAYSCALE;
+
+        if (width < 1 || height < 1) {
+            return null;
+        } else if (imageType != TGA_TRUE_COLOR && imageType != TGA_RLE_TRUE_COLOR && !grayscale) {
+            return null;
+        } else if (grayscale ? pixelSize != 1 : pixelSize != 3 && pixelSize != 4) {
+            return null;
+        }
+
+        final int colorMapSize = colorMapType == 1 ? colorMapLength * ((colorMapEntrySize + 7) / 8) : 0;
+        final int offset = TGA_HEADER_SIZE + idLength + colorMapSize;
+
+        final int targetWidth = getTargetWidth(width, height, maxWidth, maxHeight);
+        final int targetHeight = getTargetHeight(width, height, maxWidth, maxHeight);
+
+        final TexelSource source;
+
+        if (!compressed) {
+
+            if (offset + (long) width * height * pixelSize > buffer.limit()) {
+                return null;
+            }
+
+            source = (x, y) -> {
+                final int row = topLeft ? y : height - 1 - y;
+                return getTgaColor(buffer, offset + (row * width + x) * pixelSize, pixelSize);
+            };
+
+        } else {
+
+            final int[][] rows = readTgaRows(buffer, offset, width, height, pixelSize, topLeft, targetHeight);
+
+            if (rows == null) {
+                return null;
+            }
+
+            source = (x, y) -> rows[y][x];
+        }
+
+        return sample(source, width, height, targetWidth, targetHeight);
+    }
+
+    /**
+     * Decode a RLE compressed TGA image and keep only rows which are sampled by the preview.
+     *
+     * @return the sampled rows by their y coordinate or null if the content is broken.
+     */
+    private static @Nullable int[][] readTgaRows(@NotNull final ByteBuffer buffer, final int offset, final int width,
+                                                 final int height, final int pixelSize, final boolean topLeft,
+                                                 final int targetHeight) {
+
+        final int samplesY = getSampleCount(height, targetHeight);
+        final int[][] rows = new int[height][];
+
+        for (int y = 0; y < targetHeight; y++) {
+            for (int sy = 0; sy < samplesY; sy++) {
+                final int row = getSamplePosition(y, sy, samplesY, height, targetHeight);
+                if (rows[row] == null) {
+                    rows[row] = new int[width];
+                }
+            }
+        }
+
+        final int limit = buffer.limit();
+        final int total = width * height;
+
+        int position = offset;
+        int index = 0;
+
+        while (index < total) {
+
+            if (position >= limit) {
+                return null;
+            }
+
+            final int header = buffer.get(position++) & 0xFF;
+            final int count = (header & 0x7F) + 1;
+            final boolean repeated = (header & 0x80) != 0;
+
+            if (position + (repeated ? 1 : count) * pixelSize > limit || index + count > total) {
+                return null;
+            }
+
+            final int color = repeated ? getTgaColor(buffer, position, pixelSize) : 0;
+
+            for (int i = 0; i < count; i++, index++) {
+
+                final int fileRow = index / width;
+                final int[] row = rows[topLeft ? fileRow : height - 1 - fileRow];
+
+                // pixels of not sampled rows are skipped without decoding
+                if (row != null) {
+                    row[index % width] = repeated ? color : getTgaColor(buffer, position + i * pixelSize, pixelSize);
+                }
+            }
+
+            position += (repeated ? 1 : count) * pixelSize;
+        }
+
+        return rows;
+    }
+
+    private static int getTgaColor(@NotNull final ByteBuffer buffer, final int position, final int pixelSize) {
+
+        final int blue = buffer.get(position) & 0xFF;
+
+        if (pixelSize == 1) {
+            return 0xFF000000 | blue << 16 | blue << 8 | blue;
+        }
+
+        final int green = buffer.get(position + 1) & 0xFF;
+        final int red = buffer.get(position + 2) & 0xFF;
+        final int alpha = pixelSize == 4 ? buffer.get(position + 3) & 0xFF : 0xFF;
+
+        return alpha << 24 | red << 16 | green << 8 | blue;
+    }
+
+    private static int getChannel(final int value, final int mask) {
+
+        if (mask == 0) {
+            return 0;
+        }
+
+        final int shift = Integer.numberOfTrailingZeros(mask);
+        final int max = mask >>> shift;
+
+        return ((value & mask) >>> shift) * 255 / max;
+    }
+
+    private static int getDxtColor(@NotNull final ByteBuffer buffer, final int block, final int index,
+                                   final int alpha, final boolean dxt1) {
+
+        final int color0 = buffer.getShort(block) & 0xFFFF;
+        final int color1 = buffer.getShort(block + 2) & 0xFFFF;
+        final int code = (buffer.get(block + 4 + (index >> 2)) >> ((index & 3) * 2)) & 0x03;
+
+        if (code == 0) {
+            return toArgb(alpha, color0, 1, color1, 0, 1);
+        } else if (code == 1) {
+            return toArgb(alpha, color0, 0, color1, 1, 1);
+        }
+
+        // DXT1 blocks with the first color not greater than the second one have the 1-bit alpha mode
+        if (!dxt1 || color0 > color1) {
+            return code == 2 ? toArgb(alpha, color0, 2, color1, 1, 3) : toArgb(alpha, color0, 1, color1, 2, 3);
+        }
+
+        return code == 2 ? toArgb(alpha, color0, 1, color1, 1, 2) : 0;
+    }
+
+    private static int toArgb(final int alpha, final int color0, final int weight0, final int color1,
+                              final int weight1, final int divider) {
+
+        final int red = (expand5(color0 >> 11) * weight0 + expand5(color1 >> 11) * weight1) / divider;
+        final int green = (expand6((color0 >> 5) & 0x3F) * weight0 + expand6((color1 >> 5) & 0x3F) * weight1) / divider;
+        final int blue = (expand5(color0 & 0x1F) * weight0 + expand5(color1 & 0x1F) * weight1) / divider;
+
+        return alpha << 24 | red << 16 | green << 8 | blue;
+    }
+
+    private static int expand5(final int value) {
+        return (value << 3) | (value >> 2);
+    }
+
+    private static int expand6(final int value) {
+        return (value << 2) | (value >> 4);
+    }
+
+    private static int getDxt3Alpha(@NotNull final ByteBuffer buffer, final int block, final int index) {
+        final int value = (buffer.get(block + (index >> 1)) >> ((index & 1) * 4)) & 0x0F;
+        return value * 17;
+    }
+
+    private static int getDxt5Alpha(@NotNull final ByteBuffer buffer, final int block, final int index) {
+
+        final int alpha0 = buffer.get(block) & 0xFF;
+        final int alpha1 = buffer.get(block + 1) & 0xFF;
+
+        final int bit = index * 3;
+        final int position = block + 2 + (bit >> 3);
+        final int shift = bit & 7;
+
+        int bits = buffer.get(position) & 0xFF;
+
+        if (shift > 5) {
+            bits |= (buffer.get(position + 1) & 0xFF) << 8;
+        }
+
+        final int code = (bits >> shift) & 0x07;
+
+        if (code == 0) {
+            return alpha0;
+        } else if (code == 1) {
+            return alpha1;
+        } else if (alpha0 > alpha1) {
+            return ((8 - code) * alpha0 + (code - 1) * alpha1) / 7;
+        } else if (code < 6) {
+            return ((6 - code) * alpha0 + (code - 1) * alpha1) / 5;
+        }
+
+        return code == 6 ? 0 : 0xFF;
+    }
+
+    private static long getLevelSize(final int width, final int height, final int blockSize, final int pixelSize) {
+
+        if (blockSize != 0) {
+            return (long) blockSize * ((width + 3) / 4) * ((height + 3) / 4);
+        }
+
+        return (long) pixelSize * width * height;
+    }
+
+    /**
+     * Get the width of the preview, the image is fitted into the max size with keeping its aspect ratio.
+     */
+    @FromAnyThread
+    private static int getTargetWidth(final int width, final int height, final int maxWidth, final int maxHeight) {
+
+        if (width <= maxWidth && height <= maxHeight) {
+            return width;
+        } else if (width < height) {
+            return Math.max((int) (maxWidth * (width * 1F / height)), 1);
+        }
+
+        return maxWidth;
+    }
+
+    /**
+     * Get the height of the preview, the image is fitted into the max size with keeping its aspect ratio.
+     */
+    @FromAnyThread
+    private static int getTargetHeight(final int width, final int height, final int maxWidth, final int maxHeight) {
+
+        if (width <= maxWidth && height <= maxHeight) {
+            return height;
+        } else if (width > height) {
+            return Math.max((int) (maxHeight * (height * 1F / width)), 1);
+        }
+
+        return maxHeight;
+    }
+
+    private static int getSampleCount(final int sourceSize, final int targetSize) {
+        return Math.min(Math.max((sourceSize + targetSize - 1) / targetSize, 1), MAX_SAMPLES);
+    }
+
+    private static int getSamplePosition(final int pixel, final int sample, final int samples, final int sourceSize,
+                                         final int targetSize) {
+        final long position = ((long) (pixel * samples + sample) * 2 + 1) * sourceSize / (2L * targetSize * samples);
+        return (int) Math.min(position, sourceSize - 1);
+    }
+
+    private static @NotNull BufferedImage sample(@NotNull final TexelSource source, final int sourceWidth,
+                                                 final int sourceHeight, final int targetWidth,
+                                                 final int targetHeight) {
+
+        final BufferedImage image = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
+        final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        new Sampler(source, pixels, sourceWidth, sourceHeight, targetWidth, targetHeight).sample();
+
+        return image;
+    }
+
+    private PreviewImageReader() {
+        throw new RuntimeException();
+    }
+}
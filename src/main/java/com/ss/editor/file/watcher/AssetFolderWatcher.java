@@ -0,0 +1,429 @@
+package com.ss.editor.file.watcher;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import com.ss.editor.EditorThread;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.file.cache.DirectorySnapshotCache;
+import com.ss.editor.ui.event.FxEventManager;
+import com.ss.editor.ui.event.impl.ChangedFilesEvent;
+import com.ss.editor.ui.event.impl.CreatedFileEvent;
+import com.ss.editor.ui.event.impl.DeletedFileEvent;
+import com.ss.editor.ui.event.impl.FileChangedEvent;
+import com.ss.editor.ui.event.impl.RequestedRefreshAssetEvent;
+import com.ss.editor.util.SimpleFolderVisitor;
+import com.ss.rlib.logging.Logger;
+import com.ss.rlib.logging.LoggerManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The thread to watch changes of folders in the asset folder. It waits for signalled watch keys, drains all of them,
+ * merges changes of the same file during a short window and notifies about them using one {@link ChangedFilesEvent}.
+ *
+ * @author JavaSaBr
+ */
+public class AssetFolderWatcher extends EditorThread {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(AssetFolderWatcher.class);
+
+    @NotNull
+    private static final FxEventManager FX_EVENT_MANAGER = FxEventManager.getInstance();
+
+    @NotNull
+    private static final DirectorySnapshotCache SNAPSHOT_CACHE = DirectorySnapshotCache.getInstance();
+
+    /**
+     * The time to wait for new changes to merge them to the current batch.
+     */
+    private static final long MERGE_WINDOW = 50;
+
+    /**
+     * The max time to collect changes to one batch.
+     */
+    private static final long MAX_BATCH_TIME = 1000;
+
+    /**
+     * The merged state of changes of a file.
+     */
+    private static class FileChange {
+
+        /**
+         * The first kind of changes.
+         */
+        @NotNull
+        private final WatchEvent.Kind<?> first;
+
+        /**
+         * The last kind of changes.
+         */
+        @NotNull
+        private WatchEvent.Kind<?> last;
+
+        /**
+         * True if the file was deleted at least once.
+         */
+        private boolean deleted;
+
+        private FileChange(@NotNull final WatchEvent.Kind<?> kind) {
+            this.first = kind;
+            this.last = kind;
+            this.deleted = kind == ENTRY_DELETE;
+        }
+
+        /**
+         * Merge the next change.
+         *
+         * @param kind the kind of the next change.
+         */
+        private void merge(@NotNull final WatchEvent.Kind<?> kind) {
+            this.last = kind;
+            this.deleted |= kind == ENTRY_DELETE;
+        }
+
+        /**
+         * @return true if the file existed before the changes.
+         */
+        private boolean isExistedBefore() {
+            return first != ENTRY_CREATE;
+        }
+
+        /**
+         * @return true if the file exists after the changes.
+         */
+        private boolean isExistsAfter() {
+            return last != ENTRY_DELETE;
+        }
+    }
+
+    /**
+     * The service to watch folders.
+     */
+    @NotNull
+    private final WatchService watchService;
+
+    /**
+     * The table of watch keys by watched folders.
+     */
+    @NotNull
+    private final Map<Path, WatchKey> watchKeys;
+
+    /**
+     * The folders which watch keys were invalidated, usually because they were deleted, so events about their deleting
+     * are still reported as events about folders.
+     */
+    @NotNull
+    private final Set<Path> invalidatedFolders;
+
+    /**
+     * The merged changes of the current batch.
+     */
+    @NotNull
+    private final Map<Path, FileChange> changes;
+
+    public AssetFolderWatcher() {
+
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+            throw new RuntimeException(e);
+        }
+
+        this.watchKeys = new ConcurrentHashMap<>();
+        this.invalidatedFolders = ConcurrentHashMap.newKeySet();
+        this.changes = new LinkedHashMap<>();
+
+        setName(AssetFolderWatcher.class.getSimpleName());
+        setDaemon(true);
+    }
+
+    /**
+     * Register the folder and all its sub folders to watch.
+     *
+     * @param folder the folder.
+     */
+    @FromAnyThread
+    public void registerTree(@NotNull final Path folder) {
+        try {
+            Files.walkFileTree(folder, (SimpleFolderVisitor) (file, attrs) -> register(file));
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
+    }
+
+    /**
+     * Register the folder to watch.
+     *
+     * @param folder the folder.
+     */
+    @FromAnyThread
+    public void register(@NotNull final Path folder) {
+
+        if (watchKeys.containsKey(folder)) {
+            return;
+        }
+
+        invalidatedFolders.remove(folder);
+
+        try {
+            watchKeys.put(folder, folder.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
+    }
+
+    /**
+     * Stop watching the folder and all its sub folders.
+     *
+     * @param folder the folder.
+     */
+    @FromAnyThread
+    public void unregisterTree(@NotNull final Path folder) {
+
+        // the key of the folder could be already invalidated while keys of sub folders are still registered
+        invalidatedFolders.removeIf(invalidated -> invalidated.startsWith(folder));
+        watchKeys.entrySet().removeIf(entry -> {
+
+            if (!entry.getKey().startsWith(folder)) {
+                return false;
+            }
+
+            entry.getValue().cancel();
+            return true;
+        });
+    }
+
+    /**
+     * Stop watching all folders.
+     */
+    @FromAnyThread
+    public void unregisterAll() {
+        watchKeys.values().forEach(WatchKey::cancel);
+        watchKeys.clear();
+        invalidatedFolders.clear();
+    }
+
+    /**
+     * Return true if the folder is watched.
+     *
+     * @param folder the folder.
+     * @return true if the folder is watched.
+     */
+    @FromAnyThread
+    public boolean isWatched(@NotNull final Path folder) {
+        return watchKeys.containsKey(folder);
+    }
+
+    @Override
+    @BackgroundThread
+    public void run() {
+        while (true) {
+            try {
+                collectBatch(watchService.take());
+            } catch (final InterruptedException e) {
+                LOGGER.warning(this, e);
+                return;
+            } catch (final ClosedWatchServiceException e) {
+                return;
+            } catch (final Exception e) {
+                LOGGER.warning(this, e);
+            }
+
+            try {
+                notifyChanges();
+            } catch (final Exception e) {
+                LOGGER.warning(this, e);
+            } finally {
+                changes.clear();
+            }
+        }
+    }
+
+    /**
+     * Collect changes of the signalled watch key and of all keys which will be signalled during the merge window.
+     *
+     * @param watchKey the first signalled watch key.
+     * @throws InterruptedException if this thread was interrupted.
+     */
+    @BackgroundThread
+    private void collectBatch(@NotNull final WatchKey watchKey) throws InterruptedException {
+
+        final long deadline = System.currentTimeMillis() + MAX_BATCH_TIME;
+
+        boolean overflow = handleKey(watchKey);
+
+        for (WatchKey nextKey = pollKey(); nextKey != null; nextKey = pollKey()) {
+
+            overflow |= handleKey(nextKey);
+
+            if (System.currentTimeMillis() > deadline) {
+                break;
+            }
+        }
+
+        if (overflow) {
+            changes.clear();
+            SNAPSHOT_CACHE.invalidateAll();
+            FX_EVENT_MANAGER.notify(new RequestedRefreshAssetEvent());
+        }
+    }
+
+    /**
+     * Wait for a next signalled watch key during the merge window.
+     *
+     * @return the signalled watch key or null.
+     * @throws InterruptedException if this thread was interrupted.
+     */
+    @BackgroundThread
+    private @Nullable WatchKey pollKey() throws InterruptedException {
+        return watchService.poll(MERGE_WINDOW, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Merge events of the watch key to the current batch.
+     *
+     * @param watchKey the watch key.
+     * @return true if some events were lost.
+     */
+    @BackgroundThread
+    private boolean handleKey(@NotNull final WatchKey watchKey) {
+
+        final Path folder = (Path) watchKey.watchable();
+
+        boolean overflow = false;
+
+        for (final WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+
+            final WatchEvent.Kind<?> kind = watchEvent.kind();
+
+            if (kind == OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+
+            final Path file = folder.resolve((Path) watchEvent.context());
+            final FileChange change = changes.get(file);
+
+            if (change == null) {
+                changes.put(file, new FileChange(kind));
+            } else {
+                change.merge(kind);
+            }
+        }
+
+        if (!watchKey.reset() && watchKeys.remove(folder, watchKey)) {
+            invalidatedFolders.add(folder);
+        }
+
+        return overflow;
+    }
+
+    /**
+     * Notify about merged changes of the current batch.
+     */
+    @BackgroundThread
+    private void notifyChanges() {
+
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        final ChangedFilesEvent batch = new ChangedFilesEvent();
+
+        for (final Map.Entry<Path, FileChange> entry : changes.entrySet()) {
+
+            final Path file = entry.getKey();
+            final FileChange change = entry.getValue();
+
+            final boolean existedBefore = change.isExistedBefore();
+            final boolean existsAfter = change.isExistsAfter();
+
+            if (existedBefore && (!existsAfter || change.deleted)) {
+                batch.addEvent(createDeletedEvent(file));
+            }
+
+            if (existsAfter && (!existedBefore || change.deleted)) {
+
+                final CreatedFileEvent event = createCreatedEvent(file);
+
+                if (event != null) {
+                    batch.addEvent(event);
+                }
+
+            } else if (existedBefore && existsAfter) {
+                final FileChangedEvent event = new FileChangedEvent();
+                event.setFile(file);
+                batch.addEvent(event);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            FX_EVENT_MANAGER.notify(batch);
+        }
+    }
+
+    /**
+     * Create the event about the deleted file.
+     *
+     * @param file the deleted file.
+     * @return the event.
+     */
+    @BackgroundThread
+    private @NotNull DeletedFileEvent createDeletedEvent(@NotNull final Path file) {
+
+        // the file doesn't exist anymore, so only the watched and invalidated folders know that it was a folder
+        final boolean directory = isWatched(file) || invalidatedFolders.contains(file);
+
+        if (directory) {
+            unregisterTree(file);
+        }
+
+        SNAPSHOT_CACHE.invalidate(file, directory);
+
+        final DeletedFileEvent event = new DeletedFileEvent();
+        event.setFile(file);
+        event.setDirectory(directory);
+
+        return event;
+    }
+
+    /**
+     * Create the event about the created file.
+     *
+     * @param file the created file.
+     * @return the event or null if the file doesn't exist already.
+     */
+    @BackgroundThread
+    private @Nullable CreatedFileEvent createCreatedEvent(@NotNull final Path file) {
+
+        if (!Files.exists(file)) {
+            SNAPSHOT_CACHE.invalidate(file, false);
+            return null;
+        }
+
+        final boolean directory = Files.isDirectory(file);
+
+        if (directory) {
+            registerTree(file);
+        }
+
+        SNAPSHOT_CACHE.invalidate(file, directory);
+
+        final CreatedFileEvent event = new CreatedFileEvent();
+        event.setFile(file);
+        event.setNeedSelect(false);
+        event.setDirectory(directory);
+
+        return event;
+    }
+}
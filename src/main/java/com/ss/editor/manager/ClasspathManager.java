@@ -7,11 +7,15 @@ import com.jme3.asset.AssetManager;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.JmeApplication;
 import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.config.Config;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.file.cache.ClasspathIndex;
 import com.ss.editor.util.EditorUtil;
 import com.ss.rlib.classpath.ClassPathScanner;
 import com.ss.rlib.classpath.ClassPathScannerFactory;
-import com.ss.rlib.manager.InitializeManager;
+import com.ss.rlib.logging.Logger;
+import com.ss.rlib.logging.LoggerManager;
 import com.ss.rlib.plugin.PluginContainer;
 import com.ss.rlib.util.FileUtils;
 import com.ss.rlib.util.Utils;
@@ -20,6 +24,8 @@ import com.ss.rlib.util.array.ArrayFactory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.DirectoryStream;
@@ -28,6 +34,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.EnumSet;
 import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
 
 /**
  * The class to manage classpath.
@@ -53,6 +61,15 @@ public class ClasspathManager {
         public static final Set<Scope> ALL = EnumSet.allOf(Scope.class);
     }
 
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(ClasspathManager.class);
+
+    /**
+     * The name of the file to store the index of the core classpath in the app folder.
+     */
+    @NotNull
+    private static final String CLASSPATH_CACHE_FILE = "classpath.index";
+
     @NotNull
     private static final EditorConfig EDITOR_CONFIG = EditorConfig.getInstance();
 
@@ -66,19 +83,25 @@ public class ClasspathManager {
     );
 
     @Nullable
-    private static ClasspathManager instance;
+    private static volatile ClasspathManager instance;
 
     @FromAnyThread
     public static @NotNull ClasspathManager getInstance() {
-        if (instance == null) instance = new ClasspathManager();
+        if (instance == null) {
+            synchronized (ClasspathManager.class) {
+                if (instance == null) {
+                    instance = new ClasspathManager();
+                }
+            }
+        }
         return instance;
     }
 
     /**
-     * The core classpath scanner.
+     * The index of the core classpath.
      */
     @NotNull
-    private final ClassPathScanner coreScanner;
+    private final ClasspathIndex coreIndex;
 
     /**
      * The custom classpath scanner.
@@ -123,29 +146,107 @@ public class ClasspathManager {
     private volatile URLClassLoader localClassesLoader;
 
     private ClasspathManager() {
-        InitializeManager.valid(getClass());
-
-        coreScanner = ClassPathScannerFactory.newManifestScanner(JmeApplication.class, "Class-Path");
-        coreScanner.setUseSystemClasspath(true);
-        coreScanner.scan(path -> {
-
-            if (Files.isDirectory(Paths.get(path))) {
-                return true;
-            } else if (CORE_LIBRARIES_NAMES.search(path, (pattern, pth) -> pth.contains(pattern)) == null) {
-                return false;
-            } else if (path.contains("natives")) {
-                return false;
-            } else if (path.contains("sources") || path.contains("javadoc")) {
-                return false;
+        StartupManager.valid(getClass());
+
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+        final String cacheKey = ClasspathIndex.buildKey(getCoreLibraries());
+        final Path cacheFile = Config.getAppFolderInUserHome().resolve(CLASSPATH_CACHE_FILE);
+
+        ClasspathIndex index = cacheKey == null ? null : ClasspathIndex.load(cacheFile, cacheKey);
+
+        if (index == null) {
+
+            final ClassPathScanner coreScanner = ClassPathScannerFactory.newManifestScanner(JmeApplication.class, "Class-Path");
+            coreScanner.setUseSystemClasspath(true);
+            coreScanner.scan(ClasspathManager::isCoreLibrary);
+
+            final ClasspathIndex scanned = ClasspathIndex.of(coreScanner);
+
+            if (cacheKey != null) {
+                executorManager.addBackgroundTask(() -> scanned.save(cacheFile, cacheKey), TaskPriority.BULK);
             }
 
-            return true;
-        });
+            index = scanned;
+        }
+
+        this.coreIndex = index;
 
-        final ExecutorManager executorManager = ExecutorManager.getInstance();
         executorManager.addJmeTask(this::reload);
     }
 
+    /**
+     * Return true if the path should be scanned as a core library.
+     *
+     * @param path the path.
+     * @return true if the path is a core library.
+     */
+    @FromAnyThread
+    private static boolean isCoreLibrary(@NotNull final String path) {
+
+        if (Files.isDirectory(Paths.get(path))) {
+            return true;
+        } else if (CORE_LIBRARIES_NAMES.search(path, (pattern, pth) -> pth.contains(pattern)) == null) {
+            return false;
+        } else if (path.contains("natives")) {
+            return false;
+        } else if (path.contains("sources") || path.contains("javadoc")) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the core libraries which are scanned: the libraries from the system classpath and from the manifest of the
+     * editor's library.
+     *
+     * @return the list of core libraries.
+     */
+    @FromAnyThread
+    private static @NotNull Array<Path> getCoreLibraries() {
+
+        final Array<Path> libraries = ArrayFactory.newArray(Path.class);
+        final String classPath = System.getProperty("java.class.path", "");
+
+        for (final String path : classPath.split(File.pathSeparator)) {
+            if (!path.isEmpty() && isCoreLibrary(path)) {
+                libraries.add(Paths.get(path));
+            }
+        }
+
+        final Path editorLibrary = Utils.get(JmeApplication.class,
+                type -> Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()));
+
+        if (!Files.isRegularFile(editorLibrary)) {
+            libraries.add(editorLibrary);
+            return libraries;
+        }
+
+        try (final JarFile jarFile = new JarFile(editorLibrary.toFile())) {
+
+            final Manifest manifest = jarFile.getManifest();
+            final String manifestClassPath = manifest == null ? null :
+                    manifest.getMainAttributes().getValue("Class-Path");
+
+            if (manifestClassPath != null) {
+                for (final String path : manifestClassPath.split(" ")) {
+                    if (!path.isEmpty() && isCoreLibrary(path)) {
+                        libraries.add(editorLibrary.resolveSibling(path));
+                    }
+                }
+            }
+
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
+
+        if (!libraries.contains(editorLibrary)) {
+            libraries.add(editorLibrary);
+        }
+
+        return libraries;
+    }
+
     /**
      * Get all available resources from classpath.
      *
@@ -153,7 +254,7 @@ public class ClasspathManager {
      */
     public @NotNull Array<String> getAllResources() {
         final Array<String> result = ArrayFactory.newArray(String.class);
-        coreScanner.getAllResources(result);
+        coreIndex.getAllResources(result);
         return result;
     }
 
@@ -502,7 +603,7 @@ public class ClasspathManager {
         final Array<Class<T>> result = ArrayFactory.newArray(Class.class);
 
         if (scope.contains(Scope.CORE)) {
-            coreScanner.findImplements(result, interfaceClass);
+            coreIndex.findImplements(result, interfaceClass, getClass().getClassLoader());
         }
 
         final ClassPathScanner customScanner = getCustomScanner();
@@ -1,16 +1,18 @@
 package com.ss.editor.manager;
 
 import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.BackgroundTaskEngine;
 import com.ss.editor.executor.EditorTaskExecutor;
-import com.ss.editor.executor.impl.BackgroundEditorTaskExecutor;
+import com.ss.editor.executor.TaskPriority;
 import com.ss.editor.executor.impl.FxEditorTaskExecutor;
 import com.ss.editor.executor.impl.JmeThreadExecutor;
-import com.ss.rlib.concurrent.atomic.AtomicInteger;
+import com.ss.editor.executor.impl.WorkStealingBackgroundTaskEngine;
 import com.ss.rlib.logging.Logger;
 import com.ss.rlib.logging.LoggerManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -31,7 +33,7 @@ public class ExecutorManager {
     private static final int PROP_BACKGROUND_TASK_EXECUTORS = RUNTIME.availableProcessors();
 
     @Nullable
-    private static ExecutorManager instance;
+    private static volatile ExecutorManager instance;
 
     /**
      * Gets instance.
@@ -40,7 +42,13 @@ public class ExecutorManager {
      */
     @NotNull
     public static ExecutorManager getInstance() {
-        if (instance == null) instance = new ExecutorManager();
+        if (instance == null) {
+            synchronized (ExecutorManager.class) {
+                if (instance == null) {
+                    instance = new ExecutorManager();
+                }
+            }
+        }
         return instance;
     }
 
@@ -51,10 +59,10 @@ public class ExecutorManager {
     private final ScheduledExecutorService scheduledExecutorService;
 
     /**
-     * The list of background tasks executors.
+     * The engine to execute background tasks.
      */
     @NotNull
-    private final EditorTaskExecutor[] backgroundTaskExecutors;
+    private final BackgroundTaskEngine backgroundTaskEngine;
 
     /**
      * The executor of editor tasks.
@@ -68,48 +76,38 @@ public class ExecutorManager {
     @NotNull
     private final EditorTaskExecutor fxEditorTaskExecutor;
 
-    /**
-     * The index of a next background executor.
-     */
-    @NotNull
-    private final AtomicInteger nextBackgroundTaskExecutor;
-
     private ExecutorManager() {
 
         this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
-        this.backgroundTaskExecutors = new EditorTaskExecutor[PROP_BACKGROUND_TASK_EXECUTORS];
-
-        for (int i = 0, length = backgroundTaskExecutors.length; i < length; i++) {
-            backgroundTaskExecutors[i] = new BackgroundEditorTaskExecutor(i + 1);
-        }
-
+        this.backgroundTaskEngine = new WorkStealingBackgroundTaskEngine(PROP_BACKGROUND_TASK_EXECUTORS);
         this.jmeTasksExecutor = JmeThreadExecutor.getInstance();
         this.fxEditorTaskExecutor = new FxEditorTaskExecutor();
 
-        this.nextBackgroundTaskExecutor = new AtomicInteger(0);
-
         LOGGER.debug("initialized.");
     }
 
     /**
-     * Add a new background task.
+     * Add a new background task with the {@link TaskPriority#NORMAL} priority.
      *
      * @param task the background task.
+     * @return the future of the task.
      */
     @FromAnyThread
-    public void addBackgroundTask(@NotNull final Runnable task) {
-
-        final EditorTaskExecutor[] executors = getBackgroundTaskExecutors();
-        final AtomicInteger nextTaskExecutor = getNextBackgroundTaskExecutor();
-
-        final int index = nextTaskExecutor.incrementAndGet();
+    public @NotNull CompletableFuture<Void> addBackgroundTask(@NotNull final Runnable task) {
+        return addBackgroundTask(task, TaskPriority.NORMAL);
+    }
 
-        if (index < executors.length) {
-            executors[index].execute(task);
-        } else {
-            nextTaskExecutor.set(0);
-            executors[0].execute(task);
-        }
+    /**
+     * Add a new background task.
+     *
+     * @param task     the background task.
+     * @param priority the priority of the task.
+     * @return the future of the task, it can be used to cancel the task.
+     */
+    @FromAnyThread
+    public @NotNull CompletableFuture<Void> addBackgroundTask(@NotNull final Runnable task,
+                                                             @NotNull final TaskPriority priority) {
+        return getBackgroundTaskEngine().submit(task, priority);
     }
 
     /**
@@ -135,27 +133,45 @@ public class ExecutorManager {
     }
 
     /**
-     * @return the list of background tasks executors.
+     * Add a new editor task with the priority.
+     *
+     * @param task     the editor task.
+     * @param priority the priority of the task.
      */
     @FromAnyThread
-    private @NotNull EditorTaskExecutor[] getBackgroundTaskExecutors() {
-        return backgroundTaskExecutors;
+    public void addJmeTask(@NotNull final Runnable task, @NotNull final TaskPriority priority) {
+        final JmeThreadExecutor executor = getJmeTasksExecutor();
+        executor.addToExecute(task, priority);
     }
 
     /**
-     * @return the executor of javaFX tasks.
+     * Add a new editor task which replaces a waited editor task with the same key.
+     *
+     * @param key      the key of the task.
+     * @param task     the editor task.
+     * @param priority the priority of the task.
      */
     @FromAnyThread
-    private @NotNull EditorTaskExecutor getFxTaskExecutor() {
-        return fxEditorTaskExecutor;
+    public void addJmeTask(@NotNull final Object key, @NotNull final Runnable task,
+                           @NotNull final TaskPriority priority) {
+        final JmeThreadExecutor executor = getJmeTasksExecutor();
+        executor.addToExecute(key, task, priority);
     }
 
     /**
-     * @return the index of a next background executor.
+     * @return the engine to execute background tasks.
      */
     @FromAnyThread
-    private @NotNull AtomicInteger getNextBackgroundTaskExecutor() {
-        return nextBackgroundTaskExecutor;
+    private @NotNull BackgroundTaskEngine getBackgroundTaskEngine() {
+        return backgroundTaskEngine;
+    }
+
+    /**
+     * @return the executor of javaFX tasks.
+     */
+    @FromAnyThread
+    private @NotNull EditorTaskExecutor getFxTaskExecutor() {
+        return fxEditorTaskExecutor;
     }
 
     /**
@@ -2,38 +2,54 @@ package com.ss.editor.manager;
 
 import static com.ss.editor.config.DefaultSettingsProvider.Defaults.PREF_DEFAULT_THEME;
 import static com.ss.editor.config.DefaultSettingsProvider.Preferences.PREF_UI_THEME;
+import static com.ss.editor.file.cache.IconAtlasCache.ICON_CACHE_FOLDER;
 import static com.ss.editor.util.EditorUtil.toAssetPath;
 import static com.ss.rlib.util.ObjectUtils.notNull;
 import com.ss.editor.FileExtensions;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
+import com.ss.editor.config.Config;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.file.cache.IconAtlasCache;
 import com.ss.editor.ui.css.CssColorTheme;
+import com.ss.editor.ui.event.FxEventManager;
+import com.ss.editor.ui.event.impl.ResolvedFileIconEvent;
 import com.ss.editor.util.EditorUtil;
 import com.ss.editor.util.svg.SvgImageLoader;
 import com.ss.rlib.logging.Logger;
 import com.ss.rlib.logging.LoggerManager;
-import com.ss.rlib.manager.InitializeManager;
 import com.ss.rlib.util.FileUtils;
 import com.ss.rlib.util.array.Array;
 import com.ss.rlib.util.array.ArrayFactory;
 import com.ss.rlib.util.dictionary.DictionaryFactory;
-import com.ss.rlib.util.dictionary.IntegerDictionary;
 import com.ss.rlib.util.dictionary.ObjectDictionary;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
 /**
- * The class to manage file icons.
+ * The class to manage file icons. Rasterized icons are stored to the atlas of the current theme on the disk and are
+ * loaded from it by parallel background tasks on startup, file type icons are resolved by the index of available
+ * icons. Getting an icon of a file in the FX thread never resolves or rasterizes it, missed icons are loaded in
+ * background and the icon of unknown files is used until that, then the {@link ResolvedFileIconEvent} is sent to
+ * update shown icons.
  *
  * @author JavaSaBr
  */
@@ -110,32 +126,61 @@ public class FileIconManager {
         MIME_TYPES_FOLDERS.add(Paths.get("/ui/icons/filetypes/"));
     }
 
+    /**
+     * The prefix of URLs of file type icons.
+     */
+    @NotNull
+    private static final String FILE_TYPES_PREFIX = "/ui/icons/filetypes/";
+
+    /**
+     * The URL of the icon of unknown files.
+     */
+    @NotNull
+    private static final String DEFAULT_FILE_ICON = "/ui/icons/svg/document.svg";
+
+    /**
+     * The count of icons which are loaded by one warming task.
+     */
+    private static final int WARM_BATCH_SIZE = 32;
+
     @Nullable
-    private static FileIconManager instance;
+    private static volatile FileIconManager instance;
 
     @FromAnyThread
     public static @NotNull FileIconManager getInstance() {
-        if (instance == null) instance = new FileIconManager();
+        if (instance == null) {
+            synchronized (FileIconManager.class) {
+                if (instance == null) {
+                    instance = new FileIconManager();
+                }
+            }
+        }
         return instance;
     }
 
     /**
-     * The image cache.
+     * The image cache by sizes and URLs.
      */
     @NotNull
-    private final IntegerDictionary<ObjectDictionary<String, Image>> imageCache;
+    private final Map<Integer, Map<String, Image>> imageCache;
 
     /**
      * The cache of original images.
      */
     @NotNull
-    private final ObjectDictionary<Image, Image> originalImageCache;
+    private final Map<Image, Image> originalImageCache;
 
     /**
      * The cache of urs by a file extension.
      */
     @NotNull
-    private final ObjectDictionary<String, String> extensionToUrl;
+    private final Map<String, String> extensionToUrl;
+
+    /**
+     * The keys of extensions and sizes which icons are resolving in background.
+     */
+    @NotNull
+    private final Set<String> resolvingIcons;
 
     /**
      * The list of icon finders.
@@ -143,12 +188,90 @@ public class FileIconManager {
     @NotNull
     private final Array<BiFunction<Path, String, String>> iconFinders;
 
+    /**
+     * The on-disk cache of rasterized icons of the current theme.
+     */
+    @NotNull
+    private final IconAtlasCache atlasCache;
+
+    /**
+     * The URLs of all available file type icons or null if they can't be got from the classpath index.
+     */
+    @Nullable
+    private final Set<String> fileTypeIcons;
+
+    /**
+     * The current theme, changing the theme requires restart.
+     */
+    @NotNull
+    private final CssColorTheme theme;
+
+    /**
+     * The key of loaded plugins, changing plugins requires restart.
+     */
+    @NotNull
+    private final String pluginsKey;
+
     private FileIconManager() {
-        InitializeManager.valid(getClass());
+        StartupManager.valid(getClass());
+
+        final EditorConfig config = EditorConfig.getInstance();
+
+        this.theme = config.getEnum(PREF_UI_THEME, PREF_DEFAULT_THEME);
         this.iconFinders = ArrayFactory.newArray(BiFunction.class);
-        this.imageCache = DictionaryFactory.newIntegerDictionary();
-        this.extensionToUrl = DictionaryFactory.newObjectDictionary();
-        this.originalImageCache = DictionaryFactory.newObjectDictionary();
+        this.imageCache = new ConcurrentHashMap<>();
+        this.extensionToUrl = new ConcurrentHashMap<>();
+        this.originalImageCache = new ConcurrentHashMap<>();
+        this.resolvingIcons = ConcurrentHashMap.newKeySet();
+        this.fileTypeIcons = collectFileTypeIcons();
+        this.pluginsKey = collectPluginsKey();
+        this.atlasCache = new IconAtlasCache(Config.getAppFolderInUserHome().resolve(ICON_CACHE_FOLDER), theme.name(),
+                pluginsKey);
+        this.atlasCache.load();
+    }
+
+    /**
+     * Collect URLs of all available file type icons from the index of the core classpath.
+     *
+     * @return the URLs or null if the index doesn't contain file type icons.
+     */
+    @BackgroundThread
+    private static @Nullable Set<String> collectFileTypeIcons() {
+
+        final ClasspathManager classpathManager = ClasspathManager.getInstance();
+        final Set<String> result = new HashSet<>();
+
+        for (final String resource : classpathManager.getAllResources()) {
+
+            String url = resource.replace('\\', '/');
+
+            if (!url.startsWith("/")) {
+                url = "/" + url;
+            }
+
+            if (url.startsWith(FILE_TYPES_PREFIX)) {
+                result.add(url);
+            }
+        }
+
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * Collect the key of loaded plugins by their ids and versions.
+     *
+     * @return the key of loaded plugins.
+     */
+    @BackgroundThread
+    private static @NotNull String collectPluginsKey() {
+
+        final PluginManager pluginManager = PluginManager.getInstance();
+        final List<String> plugins = new ArrayList<>();
+        pluginManager.handlePlugins(plugin -> plugins.add(plugin.getId() + ":" + plugin.getVersion()));
+
+        Collections.sort(plugins);
+
+        return String.join(";", plugins);
     }
 
     /**
@@ -162,6 +285,70 @@ public class FileIconManager {
         this.iconFinders.add(iconFinder);
     }
 
+    /**
+     * Apply the stored table of resolved extensions, so icons which are stored in the atlas can be got without
+     * resolving. It should be called when all icon finders are registered before showing any file icons.
+     *
+     * @return the stored table of resolved extensions.
+     */
+    @FromAnyThread
+    public @NotNull Map<String, String> applyStoredExtensions() {
+        final Map<String, String> extensions = atlasCache.getExtensions(getIconFindersKey() + "|" + pluginsKey);
+        extensions.forEach(extensionToUrl::putIfAbsent);
+        return extensions;
+    }
+
+    /**
+     * Warm the icon caches: apply the stored table of resolved extensions and load icons of all used sizes from the
+     * stored atlases, icons which aren't stored yet are rasterized and stored. Icons are loaded by parallel
+     * background tasks. It should be called when all icon finders are registered.
+     */
+    @BackgroundThread
+    public void warm() {
+
+        final Map<String, String> extensions = applyStoredExtensions();
+
+        final Set<Integer> sizes = atlasCache.getSizes();
+        sizes.add(DEFAULT_FILE_ICON_SIZE);
+
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        for (final Integer size : sizes) {
+
+            final Set<String> urls = atlasCache.getUrls(size);
+
+            if (size == DEFAULT_FILE_ICON_SIZE) {
+                urls.addAll(extensions.values());
+            }
+
+            final List<String> toLoad = new ArrayList<>(urls);
+
+            for (int i = 0; i < toLoad.size(); i += WARM_BATCH_SIZE) {
+
+                final List<String> batch = toLoad.subList(i, Math.min(i + WARM_BATCH_SIZE, toLoad.size()));
+
+                tasks.add(executorManager.addBackgroundTask(() -> {
+                    for (final String url : batch) {
+                        getImage(url, classLoader, size);
+                    }
+                }, TaskPriority.BULK));
+            }
+        }
+
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[tasks.size()]))
+                .whenComplete((result, throwable) -> atlasCache.flush());
+    }
+
+    /**
+     * Write new rasterized icons and resolved extensions to the disk.
+     */
+    @FromAnyThread
+    public void flush() {
+        atlasCache.flush();
+    }
+
     /**
      * Get an icon of the file.
      *
@@ -175,7 +362,8 @@ public class FileIconManager {
     }
 
     /**
-     * Get an icon of the file.
+     * Get an icon of the file. Only an already loaded or stored icon is returned, other icons are resolved and
+     * rasterized in background and the icon of unknown files is used until the {@link ResolvedFileIconEvent}.
      *
      * @param path                the file.
      * @param directory           the directory.
@@ -188,35 +376,82 @@ public class FileIconManager {
                                   int size) {
 
         final String extension = directory ? "folder" : FileUtils.getExtension(path);
-        final Array<BiFunction<Path, String, String>> iconFinders = getIconFinders();
+        final String url = extensionToUrl.get(extension);
 
-        String url = extensionToUrl.get(extension);
         if (url != null) {
-            return getImage(url, size);
+
+            final Image image = getLoadedImage(url, size);
+
+            if (image != null) {
+                return image;
+            }
         }
 
-        if (!iconFinders.isEmpty()) {
-            for (final BiFunction<Path, String, String> iconFinder : iconFinders) {
-                url = iconFinder.apply(path, extension);
+        final String key = extension + "@" + size;
 
-                final ClassLoader classLoader = iconFinder.getClass().getClassLoader();
-                if (url == null || !EditorUtil.checkExists(url, classLoader)) {
-                    continue;
+        if (resolvingIcons.add(key)) {
+            final ExecutorManager executorManager = ExecutorManager.getInstance();
+            executorManager.addBackgroundTask(() -> {
+                try {
+                    resolveIcon(path, extension, directory, tryToGetContentType, size);
+                    notifyResolved(extension);
+                } finally {
+                    resolvingIcons.remove(key);
                 }
+            });
+        }
+
+        return getImage(DEFAULT_FILE_ICON, size);
+    }
+
+    /**
+     * Notify components which show file icons that the icon of the extension can be got now.
+     *
+     * @param extension the file extension.
+     */
+    @FromAnyThread
+    private void notifyResolved(@NotNull final String extension) {
 
-                extensionToUrl.put(extension, url);
+        final ResolvedFileIconEvent event = new ResolvedFileIconEvent();
+        event.setExtension(extension);
 
-                return getImage(url, classLoader, size);
+        final FxEventManager eventManager = FxEventManager.getInstance();
+        eventManager.notify(event);
+    }
+
+    /**
+     * Resolve the icon of the file extension by icon finders, by the known content type or by probing the content
+     * type of the file and load the icon.
+     *
+     * @param path                the file.
+     * @param extension           the file extension.
+     * @param directory           the directory.
+     * @param tryToGetContentType true of we can try to get content type of the file.
+     * @param size                the icon size.
+     */
+    @BackgroundThread
+    private void resolveIcon(@NotNull final Path path, @NotNull final String extension, final boolean directory,
+                             final boolean tryToGetContentType, final int size) {
+
+        for (final BiFunction<Path, String, String> iconFinder : getIconFinders()) {
+
+            final String url = iconFinder.apply(path, extension);
+            final ClassLoader classLoader = iconFinder.getClass().getClassLoader();
+
+            if (url == null || !EditorUtil.checkExists(url, classLoader)) {
+                continue;
             }
+
+            getImage(url, classLoader, size);
+            extensionToUrl.put(extension, url);
+            return;
         }
 
-        String contentType;
+        String url = extensionToUrl.get(extension);
 
-        if (directory) {
-            contentType = "folder";
-        } else {
+        if (url == null) {
 
-            contentType = EXTENSION_TO_CONTENT_TYPE.get(extension);
+            String contentType = directory ? "folder" : EXTENSION_TO_CONTENT_TYPE.get(extension);
 
             if (contentType == null && tryToGetContentType) {
                 try {
@@ -225,49 +460,70 @@ public class FileIconManager {
                     LOGGER.warning(e);
                 }
             }
+
+            url = findIcon(extension, contentType);
         }
 
+        getImage(url, size);
+
+        extensionToUrl.put(extension, url);
+        atlasCache.putExtension(extension, url);
+    }
+
+    /**
+     * Find an icon of the file type in the folders of file type icons.
+     *
+     * @param extension   the file extension.
+     * @param contentType the content type or null.
+     * @return the URL of the found icon.
+     */
+    @FromAnyThread
+    private @NotNull String findIcon(@NotNull final String extension, @Nullable String contentType) {
+
         if (contentType != null) {
             contentType = contentType.replace("/", "-");
         }
 
         if (contentType == null) {
-            LOGGER.debug("not found content type for " + path);
+            LOGGER.debug("not found content type for the extension " + extension);
             contentType = "none";
         }
 
+        final String extensionType = EXTENSION_TO_CONTENT_TYPE.get(extension);
+
         for (final Path mimeTypes : MIME_TYPES_FOLDERS) {
 
-            Path iconPath = mimeTypes.resolve(contentType + ".svg");
-            url = toAssetPath(iconPath);
+            String url = toAssetPath(mimeTypes.resolve(contentType + ".svg"));
 
-            if (!EditorUtil.checkExists(url)) {
-                contentType = EXTENSION_TO_CONTENT_TYPE.get(extension);
-                iconPath = mimeTypes.resolve(contentType + ".svg");
-                url = toAssetPath(iconPath);
+            if (!hasFileTypeIcon(url)) {
+                url = toAssetPath(mimeTypes.resolve(extensionType + ".svg"));
             }
 
-            if (!EditorUtil.checkExists(url)) {
-                contentType = EXTENSION_TO_CONTENT_TYPE.get(extension);
-                iconPath = mimeTypes.resolve(contentType + ".png");
-                url = toAssetPath(iconPath);
+            if (!hasFileTypeIcon(url)) {
+                url = toAssetPath(mimeTypes.resolve(extensionType + ".png"));
             }
 
-            if (EditorUtil.checkExists(url)) {
-                break;
+            if (hasFileTypeIcon(url)) {
+                return url;
             }
         }
 
-        if (url == null || !EditorUtil.checkExists(url)) {
-            LOGGER.warning("not found image for contentType " + contentType + " and path " + path);
-            url = "/ui/icons/svg/document.svg";
-        }
+        LOGGER.warning("not found image for contentType " + contentType + " and extension " + extension);
 
-        extensionToUrl.put(extension, url);
-
-        return getImage(url, size);
+        return DEFAULT_FILE_ICON;
     }
 
+    /**
+     * Check existing of the file type icon by the index of file type icons.
+     *
+     * @param url the URL of the icon.
+     * @return true if the icon exists.
+     */
+    @FromAnyThread
+    private boolean hasFileTypeIcon(@NotNull final String url) {
+        final Set<String> fileTypeIcons = this.fileTypeIcons;
+        return fileTypeIcons == null ? EditorUtil.checkExists(url) : fileTypeIcons.contains(url);
+    }
 
     /**
      * Get an image by the URL.
@@ -275,7 +531,7 @@ public class FileIconManager {
      * @param url the url.
      * @return the image.
      */
-    @FxThread
+    @FromAnyThread
     public @NotNull Image getImage(@NotNull final String url) {
         return getImage(url, 16);
     }
@@ -287,7 +543,7 @@ public class FileIconManager {
      * @param size the size.
      * @return the image.
      */
-    @FxThread
+    @FromAnyThread
     public @NotNull Image getImage(@NotNull final String url, final int size) {
         return getImage(url, size, true);
     }
@@ -300,7 +556,7 @@ public class FileIconManager {
      * @param size        the size.
      * @return the image.
      */
-    @FxThread
+    @FromAnyThread
     public @NotNull Image getImage(@NotNull final String url, @NotNull final ClassLoader classLoader, final int size) {
         return getImage(url, classLoader, size, true);
     }
@@ -313,13 +569,14 @@ public class FileIconManager {
      * @param useCache true if need to use cache.
      * @return the image.
      */
-    @FxThread
+    @FromAnyThread
     public @NotNull Image getImage(@NotNull final String url, final int size, final boolean useCache) {
         return getImage(url, getClass().getClassLoader(), size, useCache);
     }
 
     /**
-     * Get an image by the URL.
+     * Get an image by the URL. Cached images are taken from the stored atlas of icons, only images which weren't
+     * rasterized before are loaded from the classpath.
      *
      * @param url         the url.
      * @param classLoader the class loader.
@@ -327,42 +584,131 @@ public class FileIconManager {
      * @param useCache    true if need to use cache.
      * @return the image.
      */
-    @FxThread
+    @FromAnyThread
     public @NotNull Image getImage(@NotNull final String url, @NotNull final ClassLoader classLoader, final int size,
                                    final boolean useCache) {
         if (!useCache) {
             return buildImage(url, classLoader, size);
         }
 
-        return imageCache.get(size, DictionaryFactory::newObjectDictionary)
-                .get(url, () -> buildImage(url, classLoader, size));
+        final Image image = getLoadedImage(url, size);
+
+        if (image != null) {
+            return image;
+        }
+
+        final Image newImage = buildImage(url, classLoader, size);
+        storeToAtlas(url, newImage, size);
+
+        final Map<String, Image> images = imageCache.computeIfAbsent(size, key -> new ConcurrentHashMap<>());
+        final Image prev = images.putIfAbsent(url, newImage);
+
+        return prev == null ? newImage : prev;
     }
 
-    @FxThread
-    private @NotNull Image buildImage(@NotNull final String url, @NotNull final ClassLoader classLoader,
-                                      final int size) {
-        return buildImage(url, EditorUtil.getInputStream(url, classLoader), size);
+    /**
+     * Get an already loaded image or an image from the stored atlas of icons without rasterizing it.
+     *
+     * @param url  the url.
+     * @param size the size.
+     * @return the image or null if the image wasn't rasterized before.
+     */
+    @FromAnyThread
+    private @Nullable Image getLoadedImage(@NotNull final String url, final int size) {
+
+        final Map<String, Image> images = imageCache.computeIfAbsent(size, key -> new ConcurrentHashMap<>());
+        final Image image = images.get(url);
+
+        if (image != null) {
+            return image;
+        }
+
+        final IconAtlasCache.Icon icon = atlasCache.get(url, size);
+
+        if (icon == null) {
+            return null;
+        }
+
+        final Image newImage = toImage(icon, size);
+        final Image prev = images.putIfAbsent(url, newImage);
+
+        return prev == null ? newImage : prev;
     }
 
-    @FxThread
-    private @NotNull Image buildImage(@NotNull final String url, @Nullable final InputStream in, final int size) {
+    /**
+     * Create an image from pixels of the stored icon.
+     */
+    @FromAnyThread
+    private @NotNull Image toImage(@NotNull final IconAtlasCache.Icon icon, final int size) {
+
+        final Image image = toImage(icon.getPixels(), size);
+        final int[] originalPixels = icon.getOriginalPixels();
 
-        final Image image;
+        originalImageCache.put(image, originalPixels == null ? image : toImage(originalPixels, size));
 
-        if (in != null) {
-            image = new Image(in, size, size, false, true);
-        } else {
-            image = new Image(url, size, size, false, true);
+        return image;
+    }
+
+    @FromAnyThread
+    private @NotNull Image toImage(@NotNull final int[] pixels, final int size) {
+        final WritableImage image = new WritableImage(size, size);
+        image.getPixelWriter().setPixels(0, 0, size, size, PixelFormat.getIntArgbInstance(), pixels, 0, size);
+        return image;
+    }
+
+    /**
+     * Store pixels of the loaded image and its original version to the atlas.
+     */
+    @FromAnyThread
+    private void storeToAtlas(@NotNull final String url, @NotNull final Image image, final int size) {
+
+        final Image original = originalImageCache.get(image);
+        final int[] pixels = getPixels(image, size);
+
+        if (original == null || pixels == null) {
+            return;
+        }
+
+        final int[] originalPixels = original == image ? null : getPixels(original, size);
+
+        if (original != image && originalPixels == null) {
+            return;
         }
 
+        atlasCache.put(url, size, new IconAtlasCache.Icon(pixels, originalPixels));
+    }
+
+    /**
+     * Get pixels of the loaded image.
+     *
+     * @return the pixels or null if the image isn't loaded.
+     */
+    @FromAnyThread
+    private @Nullable int[] getPixels(@NotNull final Image image, final int size) {
+
+        final PixelReader pixelReader = image.getPixelReader();
+
+        if (image.isError() || pixelReader == null || image.getWidth() != size || image.getHeight() != size) {
+            return null;
+        }
+
+        final int[] pixels = new int[size * size];
+        pixelReader.getPixels(0, 0, size, size, PixelFormat.getIntArgbInstance(), pixels, 0, size);
+
+        return pixels;
+    }
+
+    @FromAnyThread
+    private @NotNull Image buildImage(@NotNull final String url, @NotNull final ClassLoader classLoader,
+                                      final int size) {
+
+        final Image image = readImage(url, classLoader, size);
+
         if (!url.contains("icons/svg/")) {
             originalImageCache.put(image, image);
             return image;
         }
 
-        final EditorConfig config = EditorConfig.getInstance();
-        final CssColorTheme theme = config.getEnum(PREF_UI_THEME, PREF_DEFAULT_THEME);
-
         if (theme.needRepaintIcons()) {
             try {
 
@@ -371,13 +717,7 @@ public class FileIconManager {
 
                 SvgImageLoader.OVERRIDE_COLOR.set(iconColor);
                 try {
-
-                    if (in != null) {
-                        coloredImage = new Image(in, size, size, false, true);
-                    } else {
-                        coloredImage = new Image(url, size, size, false, true);
-                    }
-
+                    coloredImage = readImage(url, classLoader, size);
                 } finally {
                     SvgImageLoader.OVERRIDE_COLOR.set(null);
                 }
@@ -396,6 +736,46 @@ public class FileIconManager {
         return image;
     }
 
+    @FromAnyThread
+    private @NotNull Image readImage(@NotNull final String url, @NotNull final ClassLoader classLoader,
+                                     final int size) {
+
+        final InputStream in = EditorUtil.getInputStream(url, classLoader);
+
+        if (in == null) {
+            return new Image(url, size, size, false, true);
+        }
+
+        try (final InputStream stream = in) {
+            return new Image(stream, size, size, false, true);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get the key of registered icon finders.
+     *
+     * @return the key of registered icon finders.
+     */
+    @FromAnyThread
+    private @NotNull String getIconFindersKey() {
+
+        final List<String> names = new ArrayList<>();
+
+        for (final BiFunction<Path, String, String> iconFinder : getIconFinders()) {
+
+            final String name = iconFinder.getClass().getName();
+            final int lambdaIndex = name.indexOf("$$Lambda");
+
+            names.add(lambdaIndex < 0 ? name : name.substring(0, lambdaIndex));
+        }
+
+        Collections.sort(names);
+
+        return String.join(";", names);
+    }
+
     /**
      * Get an original image of the image.
      *
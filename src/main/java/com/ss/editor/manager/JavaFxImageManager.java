@@ -2,34 +2,31 @@ package com.ss.editor.manager;
 
 import static com.ss.rlib.util.FileUtils.getExtension;
 import static com.ss.rlib.util.array.ArrayFactory.asArray;
-import static java.awt.Image.SCALE_DEFAULT;
-import static java.nio.file.StandardOpenOption.*;
 import com.jme3.asset.AssetManager;
 import com.jme3.texture.Texture;
 import com.ss.editor.FileExtensions;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
-import com.ss.editor.config.Config;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.file.cache.PreviewCache;
+import com.ss.editor.file.reader.PreviewImageReader;
 import com.ss.editor.file.reader.DdsReader;
 import com.ss.editor.file.reader.TgaReader;
 import com.ss.editor.ui.Icons;
 import com.ss.editor.ui.event.FxEventManager;
 import com.ss.editor.ui.event.impl.ChangedCurrentAssetFolderEvent;
 import com.ss.editor.ui.event.impl.DeletedFileEvent;
+import com.ss.editor.ui.event.impl.FileChangedEvent;
 import com.ss.editor.util.EditorUtil;
 import com.ss.rlib.logging.Logger;
 import com.ss.rlib.logging.LoggerManager;
-import com.ss.rlib.manager.InitializeManager;
-import com.ss.rlib.util.FileUtils;
-import com.ss.rlib.util.StringUtils;
 import com.ss.rlib.util.Utils;
 import com.ss.rlib.util.array.Array;
 import com.ss.rlib.util.array.ArrayFactory;
-import com.ss.rlib.util.dictionary.DictionaryFactory;
-import com.ss.rlib.util.dictionary.IntegerDictionary;
-import com.ss.rlib.util.dictionary.ObjectDictionary;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import jme3tools.converters.ImageToAwt;
 import org.apache.commons.io.IOUtils;
 import org.jetbrains.annotations.NotNull;
@@ -38,12 +35,28 @@ import org.jetbrains.annotations.Nullable;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.FileTime;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * The class to manage previews of images to JavaFX
@@ -58,9 +71,6 @@ public class JavaFxImageManager {
     @NotNull
     private static final FxEventManager FX_EVENT_MANAGER = FxEventManager.getInstance();
 
-    @NotNull
-    private static final String PREVIEW_CACHE_FOLDER = "preview-cache";
-
     @NotNull
     private static final Array<String> FX_FORMATS = asArray(
             FileExtensions.IMAGE_PNG,
@@ -81,9 +91,66 @@ public class JavaFxImageManager {
     private static final Array<String> IMAGE_FORMATS = ArrayFactory.newArray(String.class);
 
     /**
-     * The size of cached images.
+     * The max size in bytes of cached images in memory.
+     */
+    private static final long MAX_CACHE_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The key of a requested preview in properties of an image view.
+     */
+    @NotNull
+    private static final String PROP_PREVIEW_REQUEST = JavaFxImageManager.class.getName() + ".previewRequest";
+
+    /**
+     * The key of a preview in the memory cache.
      */
-    private static final int CACHED_IMAGES_SIZE = 30;
+    private static final class PreviewKey {
+
+        /**
+         * The path or resource path of an image.
+         */
+        @NotNull
+        private final String path;
+
+        private final int width;
+        private final int height;
+
+        private PreviewKey(@NotNull final String path, final int width, final int height) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (this == object) return true;
+            if (object == null || getClass() != object.getClass()) return false;
+            final PreviewKey other = (PreviewKey) object;
+            return width == other.width && height == other.height && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, width, height);
+        }
+    }
+
+    /**
+     * The preview which is loading in the background.
+     */
+    private static final class PendingPreview {
+
+        /**
+         * The handlers of the loaded preview.
+         */
+        @NotNull
+        private final List<Consumer<Image>> handlers = new ArrayList<>(1);
+
+        /**
+         * True if the source image was changed during loading.
+         */
+        private boolean stale;
+    }
 
     static {
         IMAGE_FORMATS.addAll(FX_FORMATS);
@@ -120,144 +187,387 @@ public class JavaFxImageManager {
     }
 
     @Nullable
-    private static JavaFxImageManager instance;
+    private static volatile JavaFxImageManager instance;
 
     @FromAnyThread
     public static @NotNull JavaFxImageManager getInstance() {
-        if (instance == null) instance = new JavaFxImageManager();
+        if (instance == null) {
+            synchronized (JavaFxImageManager.class) {
+                if (instance == null) {
+                    instance = new JavaFxImageManager();
+                }
+            }
+        }
         return instance;
     }
 
     /**
-     * The cache of small images.
+     * The LRU cache of loaded previews.
      */
     @NotNull
-    private IntegerDictionary<IntegerDictionary<ObjectDictionary<String, Image>>> smallImageCache;
+    private final LinkedHashMap<PreviewKey, Image> imageCache;
 
     /**
-     * The cache folder.
+     * The table of loading previews.
      */
     @NotNull
-    private final Path cacheFolder;
+    private final Map<PreviewKey, PendingPreview> pendingPreviews;
 
-    private JavaFxImageManager() {
-        InitializeManager.valid(getClass());
+    /**
+     * The current size in bytes of cached images.
+     */
+    private long cacheSize;
+
+    /**
+     * The disk cache of previews.
+     */
+    @NotNull
+    private final PreviewCache previewCache;
 
-        final Path appFolder = Config.getAppFolderInUserHome();
+    private JavaFxImageManager() {
+        StartupManager.valid(getClass());
 
-        this.cacheFolder = appFolder.resolve(PREVIEW_CACHE_FOLDER);
-        this.smallImageCache = DictionaryFactory.newIntegerDictionary();
+        this.previewCache = PreviewCache.getInstance();
+        this.imageCache = new LinkedHashMap<>(64, 0.75F, true);
+        this.pendingPreviews = new HashMap<>();
 
         final ExecutorManager executorManager = ExecutorManager.getInstance();
+        executorManager.addBackgroundTask(previewCache::open, TaskPriority.BULK);
         executorManager.addFxTask(() -> FX_EVENT_MANAGER.addEventHandler(DeletedFileEvent.EVENT_TYPE,
                 event -> processEvent((DeletedFileEvent) event)));
+        executorManager.addFxTask(() -> FX_EVENT_MANAGER.addEventHandler(FileChangedEvent.EVENT_TYPE,
+                event -> processEvent((FileChangedEvent) event)));
         executorManager.addFxTask(() -> FX_EVENT_MANAGER.addEventHandler(ChangedCurrentAssetFolderEvent.EVENT_TYPE,
                 event -> processEvent((ChangedCurrentAssetFolderEvent) event)));
     }
 
     /**
-     * Get the cache folder.
+     * Get the disk cache of previews.
      *
-     * @return the cache folder.
+     * @return the disk cache of previews.
      */
     @FromAnyThread
-    private @NotNull Path getCacheFolder() {
-        return cacheFolder;
+    private @NotNull PreviewCache getPreviewCache() {
+        return previewCache;
     }
 
     /**
-     * Get an image preview.
+     * Get an image preview, the image is loaded in the current thread if it isn't in the cache.
      *
      * @param file   the image file.
      * @param width  the required width.
      * @param height the required height.
      * @return the image.
+     * @deprecated loading blocks the FX thread, use {@link #requestImagePreview(Path, int, int, Consumer)} or
+     * {@link #showImagePreview(ImageView, Path, int, int)}.
      */
     @FxThread
+    @Deprecated
     public @NotNull Image getImagePreview(@Nullable final Path file, final int width, final int height) {
-        if (file == null || !Files.exists(file)) {
+
+        if (file == null) {
             return Icons.IMAGE_512;
         }
 
-        if (width <= CACHED_IMAGES_SIZE && height <= CACHED_IMAGES_SIZE) {
-            final Image image = getFromCache(file.toString(), width, height);
-            if (image != null) {
-                return image;
-            }
+        final PreviewKey key = new PreviewKey(file.toString(), width, height);
+        final Image cached = imageCache.get(key);
+
+        if (cached != null) {
+            return cached;
         }
 
-        final URL url = Utils.get(file, f -> f.toUri().toURL());
-        final FileTime lastModFile = Utils.get(file, f -> Files.getLastModifiedTime(f));
+        final Image image = loadImagePreview(file, width, height);
+        putImageToCache(key, image);
 
-        final Image image = getImagePreview(url, lastModFile, width, height);
+        return image;
+    }
 
-        if (width <= CACHED_IMAGES_SIZE && height <= CACHED_IMAGES_SIZE) {
-            putImageToCache(file.toString(), image, width, height);
+    /**
+     * Get an image preview, the image is loaded in the current thread if it isn't in the cache.
+     *
+     * @param resourcePath the resource path to an image.
+     * @param width        the required width.
+     * @param height       the required height.
+     * @return the image.
+     * @deprecated loading blocks the FX thread, use {@link #requestImagePreview(String, int, int, Consumer)} or
+     * {@link #showImagePreview(ImageView, String, int, int)}.
+     */
+    @FxThread
+    @Deprecated
+    public @NotNull Image getImagePreview(@Nullable final String resourcePath, final int width, final int height) {
+
+        if (resourcePath == null) {
+            return Icons.IMAGE_512;
         }
 
+        final PreviewKey key = new PreviewKey(resourcePath, width, height);
+        final Image cached = imageCache.get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final Image image = loadImagePreview(resourcePath, width, height);
+        putImageToCache(key, image);
+
         return image;
     }
 
     /**
-     * Try to get an image from the cache by path and size.
+     * Request an image preview. If the preview is in the cache, it's returned immediately, otherwise a placeholder
+     * is returned and the preview is loaded in the background and passed to the handler in the FX thread.
      *
-     * @param path   the path to the image.
-     * @param width  the width.
-     * @param height the height.
-     * @return the image or null.
+     * @param file    the image file.
+     * @param width   the required width.
+     * @param height  the required height.
+     * @param handler the handler of the loaded preview.
+     * @return the cached preview or the placeholder.
      */
     @FxThread
-    private @Nullable Image getFromCache(@NotNull final String path, final int width, final int height) {
+    public @NotNull Image requestImagePreview(@Nullable final Path file, final int width, final int height,
+                                              @NotNull final Consumer<Image> handler) {
 
-        final IntegerDictionary<ObjectDictionary<String, Image>> heightImages = smallImageCache.get(width);
-        if (heightImages == null) {
-            return null;
+        if (file == null) {
+            return Icons.IMAGE_512;
         }
 
-        final ObjectDictionary<String, Image> images = heightImages.get(height);
-        if (images == null) {
-            return null;
+        return requestImagePreview(new PreviewKey(file.toString(), width, height),
+                () -> loadImagePreview(file, width, height), handler);
+    }
+
+    /**
+     * Request an image preview. If the preview is in the cache, it's returned immediately, otherwise a placeholder
+     * is returned and the preview is loaded in the background and passed to the handler in the FX thread.
+     *
+     * @param resourcePath the resource path to an image.
+     * @param width        the required width.
+     * @param height       the required height.
+     * @param handler      the handler of the loaded preview.
+     * @return the cached preview or the placeholder.
+     */
+    @FxThread
+    public @NotNull Image requestImagePreview(@Nullable final String resourcePath, final int width, final int height,
+                                              @NotNull final Consumer<Image> handler) {
+
+        if (resourcePath == null) {
+            return Icons.IMAGE_512;
         }
 
-        return images.get(path);
+        return requestImagePreview(new PreviewKey(resourcePath, width, height),
+                () -> loadImagePreview(resourcePath, width, height), handler);
     }
 
     /**
-     * Put the image to the cache.
+     * Show an image preview in the image view, the placeholder is shown until the preview is loaded.
      *
-     * @param path   the ath to the image.
-     * @param image  the image.
-     * @param width  the width.
-     * @param height the height.
+     * @param imageView the image view.
+     * @param file      the image file.
+     * @param width     the required width.
+     * @param height    the required height.
      */
     @FxThread
-    private void putImageToCache(@NotNull final String path, @NotNull final Image image, final int width,
+    public void showImagePreview(@NotNull final ImageView imageView, @Nullable final Path file, final int width,
                                  final int height) {
-        smallImageCache.get(width, DictionaryFactory::newIntegerDictionary)
-                .get(height, DictionaryFactory::newObjectDictionary)
-                .put(path, image);
+
+        final Object request = file == null ? null : new PreviewKey(file.toString(), width, height);
+        final Image image = requestImagePreview(file, width, height,
+                loaded -> applyPreview(imageView, request, loaded));
+
+        showImagePreview(imageView, request, image);
     }
 
     /**
-     * Get an image preview.
+     * Show an image preview in the image view, the placeholder is shown until the preview is loaded.
      *
+     * @param imageView    the image view.
      * @param resourcePath the resource path to an image.
      * @param width        the required width.
      * @param height       the required height.
-     * @return the image.
      */
     @FxThread
-    public @NotNull Image getImagePreview(@Nullable final String resourcePath, final int width, final int height) {
+    public void showImagePreview(@NotNull final ImageView imageView, @Nullable final String resourcePath,
+                                 final int width, final int height) {
+
+        final Object request = resourcePath == null ? null : new PreviewKey(resourcePath, width, height);
+        final Image image = requestImagePreview(resourcePath, width, height,
+                loaded -> applyPreview(imageView, request, loaded));
+
+        showImagePreview(imageView, request, image);
+    }
+
+    @FxThread
+    private void showImagePreview(@NotNull final ImageView imageView, @Nullable final Object request,
+                                  @NotNull final Image image) {
+
+        if (request == null) {
+            imageView.getProperties().remove(PROP_PREVIEW_REQUEST);
+        } else {
+            imageView.getProperties().put(PROP_PREVIEW_REQUEST, request);
+        }
+
+        imageView.setImage(image);
+    }
+
+    /**
+     * Apply the loaded preview to the image view if the view still waits for this preview.
+     */
+    @FxThread
+    private void applyPreview(@NotNull final ImageView imageView, @Nullable final Object request,
+                              @NotNull final Image image) {
+
+        final Object currentRequest = imageView.getProperties().get(PROP_PREVIEW_REQUEST);
+
+        // the image view was reused for other image or was cleared while the preview was loading
+        if (request == null || currentRequest != request || imageView.getImage() != Icons.IMAGE_512) {
+            return;
+        }
+
+        imageView.setImage(image);
+    }
+
+    @FxThread
+    private @NotNull Image requestImagePreview(@NotNull final PreviewKey key, @NotNull final Supplier<Image> loader,
+                                               @NotNull final Consumer<Image> handler) {
+
+        final Image cached = imageCache.get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        PendingPreview pending = pendingPreviews.get(key);
+
+        if (pending != null) {
+            pending.handlers.add(handler);
+            return Icons.IMAGE_512;
+        }
+
+        pending = new PendingPreview();
+        pending.handlers.add(handler);
+        pendingPreviews.put(key, pending);
 
-        if (width <= CACHED_IMAGES_SIZE && height <= CACHED_IMAGES_SIZE) {
-            final Image image = getFromCache(resourcePath, width, height);
-            if (image != null) {
-                return image;
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+        executorManager.addBackgroundTask(() -> {
+
+            Image image;
+            try {
+                image = loader.get();
+            } catch (final RuntimeException e) {
+                LOGGER.warning(this, e);
+                image = Icons.IMAGE_512;
             }
+
+            final Image result = image;
+            executorManager.addFxTask(() -> finishLoading(key, result));
+
+        }, TaskPriority.INTERACTIVE);
+
+        return Icons.IMAGE_512;
+    }
+
+    /**
+     * Finish loading the preview.
+     */
+    @FxThread
+    private void finishLoading(@NotNull final PreviewKey key, @NotNull final Image image) {
+
+        final PendingPreview pending = pendingPreviews.remove(key);
+
+        if (pending == null) {
+            return;
+        }
+
+        if (!pending.stale) {
+            putImageToCache(key, image);
         }
 
+        pending.handlers.forEach(handler -> handler.accept(image));
+    }
+
+    /**
+     * Put the image to the cache and evict the least recently used images if the cache is full.
+     *
+     * @param key   the key.
+     * @param image the image.
+     */
+    @FxThread
+    private void putImageToCache(@NotNull final PreviewKey key, @NotNull final Image image) {
+
+        // the placeholder is shared, so it shouldn't be cached
+        if (image == Icons.IMAGE_512) {
+            return;
+        }
+
+        final Image prev = imageCache.put(key, image);
+
+        if (prev != null) {
+            cacheSize -= sizeOf(prev);
+        }
+
+        cacheSize += sizeOf(image);
+
+        for (final Iterator<Image> iterator = imageCache.values().iterator();
+             cacheSize > MAX_CACHE_SIZE && iterator.hasNext(); ) {
+            cacheSize -= sizeOf(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Remove all previews of the image from the cache.
+     *
+     * @param path the path or the resource path of the image.
+     */
+    @FxThread
+    private void removeFromCache(@NotNull final String path) {
+
+        for (final Iterator<Map.Entry<PreviewKey, Image>> iterator = imageCache.entrySet().iterator();
+             iterator.hasNext(); ) {
+
+            final Map.Entry<PreviewKey, Image> entry = iterator.next();
+
+            if (entry.getKey().path.equals(path)) {
+                cacheSize -= sizeOf(entry.getValue());
+                iterator.remove();
+            }
+        }
+
+        pendingPreviews.forEach((key, pending) -> pending.stale |= key.path.equals(path));
+    }
+
+    /**
+     * Estimate the size of the image in memory.
+     */
+    @FromAnyThread
+    private static long sizeOf(@NotNull final Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    /**
+     * Load an image preview from the disk cache or from the image file.
+     */
+    @BackgroundThread
+    private @NotNull Image loadImagePreview(@NotNull final Path file, final int width, final int height) {
+
+        if (!Files.exists(file)) {
+            return Icons.IMAGE_512;
+        }
+
+        final URL url = Utils.get(file, f -> f.toUri().toURL());
+        final BasicFileAttributes attributes = Utils.get(file,
+                f -> Files.readAttributes(f, BasicFileAttributes.class));
+
+        return getImagePreview(url, attributes.lastModifiedTime().toMillis(), attributes.size(), width, height);
+    }
+
+    /**
+     * Load an image preview from the disk cache or from the resource.
+     */
+    @BackgroundThread
+    private @NotNull Image loadImagePreview(@NotNull final String resourcePath, final int width, final int height) {
+
         final ResourceManager resourceManager = ResourceManager.getInstance();
-        URL url = resourceManager.tryToFindResource(resourcePath);
+        final URL url = resourceManager.tryToFindResource(resourcePath);
 
         if (url == null) {
 
@@ -266,110 +576,192 @@ public class JavaFxImageManager {
                 return Icons.IMAGE_512;
             }
 
-            url = FileUtils.toUrl(realFile);
-        }
-
-        final Image image = getImagePreview(url, null, width, height);
+            return loadImagePreview(realFile, width, height);
 
-        if (width <= CACHED_IMAGES_SIZE && height <= CACHED_IMAGES_SIZE) {
-            putImageToCache(resourcePath, image, width, height);
+        } else if ("file".equals(url.getProtocol())) {
+            return loadImagePreview(Utils.get(url, u -> Paths.get(u.toURI())), width, height);
         }
 
-        return image;
+        // resources are changed only with the classpath, so they are cached without checking of modification
+        return getImagePreview(url, PreviewCache.UNCHECKED, PreviewCache.UNCHECKED, width, height);
     }
 
-    @FxThread
-    private @NotNull Image getImagePreview(@NotNull URL url, @Nullable final FileTime lastModFile, final int width,
-                                           final int height) {
+    @BackgroundThread
+    private @NotNull Image getImagePreview(@NotNull final URL url, final long lastModified, final long size,
+                                           final int width, final int height) {
 
         final String externalForm = url.toExternalForm();
-        final String fileHash = StringUtils.toMD5(externalForm) + ".png";
+        final PreviewCache previewCache = getPreviewCache();
+        final byte[] cached = previewCache.get(externalForm, lastModified, size, width, height);
 
-        final Path cacheFolder = getCacheFolder();
-        final Path imageFolder = cacheFolder.resolve(String.valueOf(width)).resolve(String.valueOf(height));
-        final Path cacheFile = imageFolder.resolve(fileHash);
+        if (cached != null) {
+            return new Image(new ByteArrayInputStream(cached), width, height, false, false);
+        }
 
-        if (Files.exists(cacheFile)) {
+        final BufferedImage preview = readPreview(url, width, height);
 
-            final FileTime lastModCacheFile = Utils.get(cacheFile, file -> Files.getLastModifiedTime(file));
+        if (preview == null) {
+            return Icons.IMAGE_512;
+        }
 
-            if (lastModFile == null || lastModCacheFile.compareTo(lastModFile) >= 0) {
-                final String pathToCache = Utils.get(cacheFile, first -> first.toUri().toURL().toExternalForm());
-                return new Image(pathToCache, width, height, false, false);
-            }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(preview, "png", out);
+            previewCache.put(externalForm, lastModified, size, width, height, out.toByteArray());
+        } catch (final IOException e) {
+            LOGGER.warning(e);
         }
 
-        Utils.run(cacheFile, first -> Files.createDirectories(first.getParent()));
+        return SwingFXUtils.toFXImage(preview, null);
+    }
+
+    @BackgroundThread
+    private @Nullable BufferedImage readPreview(@NotNull final URL url, final int width, final int height) {
 
+        final String externalForm = url.toExternalForm();
         final String extension = getExtension(externalForm);
 
         if (FX_FORMATS.contains(extension)) {
-            return readFxImage(width, height, externalForm, cacheFile);
+            return readFxImage(width, height, externalForm);
         } else if (JME_FORMATS.contains(extension)) {
-            return readJMETexture(width, height, externalForm, cacheFile);
+            return readJMETexture(width, height, externalForm);
         } else if (IMAGE_IO_FORMATS.contains(extension)) {
-            return readIOImage(url, width, height, cacheFile);
+            return readIOImage(url, width, height);
         } else if (FileExtensions.IMAGE_DDS.equals(extension)) {
 
-            final byte[] content = Utils.get(url, first -> IOUtils.toByteArray(first.openStream()));
-            final int[] pixels = DdsReader.read(content, DdsReader.ARGB, 0);
-            final int currentWidth = DdsReader.getWidth(content);
-            final int currentHeight = DdsReader.getHeight(content);
+            final BufferedImage preview = readDdsPreview(url, width, height);
+
+            if (preview != null) {
+                return scaleImage(width, height, preview, preview.getWidth(), preview.getHeight());
+            }
+
+            // other formats aren't supported by the preview reader
+            final ByteBuffer content = readContent(url);
+
+            if (content == null) {
+                return null;
+            }
+
+            final byte[] bytes = new byte[content.remaining()];
+            content.duplicate().get(bytes);
+
+            final BufferedImage awtImage;
+            try {
+
+                final int[] pixels = DdsReader.read(bytes, DdsReader.ARGB, 0);
+                final int imageWidth = DdsReader.getWidth(bytes);
+                final int imageHeight = DdsReader.getHeight(bytes);
+
+                awtImage = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+                awtImage.setRGB(0, 0, imageWidth, imageHeight, pixels, 0, imageWidth);
 
-            final BufferedImage read = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
-            read.setRGB(0, 0, currentWidth, currentHeight, pixels, 0, currentWidth);
+            } catch (final Exception e) {
+                LOGGER.warning(e);
+                return null;
+            }
 
-            return scaleAndWrite(width, height, cacheFile, read, currentWidth, currentHeight);
+            return scaleImage(width, height, awtImage, awtImage.getWidth(), awtImage.getHeight());
 
         } else if (FileExtensions.IMAGE_TGA.equals(extension)) {
 
-            final byte[] content = Utils.get(url, first -> IOUtils.toByteArray(first.openStream()));
+            final ByteBuffer content = readContent(url);
+
+            if (content == null) {
+                return null;
+            }
+
+            final BufferedImage preview = PreviewImageReader.readTga(content, width, height);
+
+            if (preview != null) {
+                return scaleImage(width, height, preview, preview.getWidth(), preview.getHeight());
+            }
+
+            // color-mapped images aren't supported by the preview reader
+            final byte[] bytes = new byte[content.remaining()];
+            content.duplicate().get(bytes);
+
             final BufferedImage awtImage;
             try {
-                awtImage = (BufferedImage) TgaReader.getImage(content);
+                awtImage = (BufferedImage) TgaReader.getImage(bytes);
             } catch (final Exception e) {
                 LOGGER.warning(e);
-                writeDefaultToCache(cacheFile);
-                return Icons.IMAGE_512;
+                return null;
             }
 
             final int imageWidth = awtImage.getWidth();
             final int imageHeight = awtImage.getHeight();
 
-            return scaleAndWrite(width, height, cacheFile, awtImage, imageWidth, imageHeight);
+            return scaleImage(width, height, awtImage, imageWidth, imageHeight);
         }
 
-        return Icons.IMAGE_512;
+        return null;
     }
 
-    @FxThread
-    private void writeDefaultToCache(@NotNull final Path cacheFile) {
-        final BufferedImage bufferedImage = SwingFXUtils.fromFXImage(Icons.IMAGE_512, null);
-        try (final OutputStream out = Files.newOutputStream(cacheFile, WRITE, TRUNCATE_EXISTING, CREATE)) {
-            ImageIO.write(bufferedImage, "png", out);
-        } catch (final IOException ex) {
-            LOGGER.warning(ex);
+    /**
+     * Read a preview of the DDS image, only the header and the used mip level of a local file are read.
+     *
+     * @param url    the url of the image.
+     * @param width  the required width.
+     * @param height the required height.
+     * @return the preview or null if the image can't be read by the preview reader.
+     */
+    @BackgroundThread
+    private @Nullable BufferedImage readDdsPreview(@NotNull final URL url, final int width, final int height) {
+
+        if (!"file".equals(url.getProtocol())) {
+            final ByteBuffer content = readContent(url);
+            return content == null ? null : PreviewImageReader.readDds(content, width, height);
+        }
+
+        try (final FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+            return PreviewImageReader.readDds(channel, width, height);
+        } catch (final IOException | URISyntaxException e) {
+            LOGGER.warning(e);
+            return null;
         }
     }
 
-    @FxThread
-    private @NotNull Image readIOImage(@NotNull final URL url, final int width, final int height,
-                                       @NotNull final Path cacheFile) {
+    /**
+     * Read the whole content of the image to the heap.
+     *
+     * @param url the url of the image.
+     * @return the content or null if it can't be read.
+     */
+    @BackgroundThread
+    private @Nullable ByteBuffer readContent(@NotNull final URL url) {
+        try {
+
+            if ("file".equals(url.getProtocol())) {
+                return ByteBuffer.wrap(Files.readAllBytes(Paths.get(url.toURI())));
+            }
+
+            try (final InputStream in = url.openStream()) {
+                return ByteBuffer.wrap(IOUtils.toByteArray(in));
+            }
+
+        } catch (final IOException | URISyntaxException e) {
+            LOGGER.warning(e);
+            return null;
+        }
+    }
+
+    @BackgroundThread
+    private @Nullable BufferedImage readIOImage(@NotNull final URL url, final int width, final int height) {
 
         final BufferedImage read;
         try {
             read = ImageIO.read(url);
         } catch (final IOException e) {
             EditorUtil.handleException(LOGGER, this, e);
-            return Icons.IMAGE_512;
+            return null;
         }
 
-        return scaleAndWrite(width, height, cacheFile, read, read.getWidth(), read.getHeight());
+        return scaleImage(width, height, read, read.getWidth(), read.getHeight());
     }
 
-    @FxThread
-    private @NotNull Image readJMETexture(final int width, final int height, @NotNull final String externalForm,
-                                          @NotNull final Path cacheFile) {
+    @BackgroundThread
+    private @Nullable BufferedImage readJMETexture(final int width, final int height,
+                                                   @NotNull final String externalForm) {
 
         final AssetManager assetManager = EditorUtil.getAssetManager();
         final Texture texture = assetManager.loadTexture(externalForm);
@@ -379,18 +771,18 @@ public class JavaFxImageManager {
             textureImage = ImageToAwt.convert(texture.getImage(), false, true, 0);
         } catch (final UnsupportedOperationException e) {
             EditorUtil.handleException(LOGGER, this, e);
-            return Icons.IMAGE_512;
+            return null;
         }
 
         final int imageWidth = textureImage.getWidth();
         final int imageHeight = textureImage.getHeight();
 
-        return scaleAndWrite(width, height, cacheFile, textureImage, imageWidth, imageHeight);
+        return scaleImage(width, height, textureImage, imageWidth, imageHeight);
     }
 
-    @FxThread
-    private @NotNull Image readFxImage(final int width, final int height, @NotNull final String externalForm,
-                                       @NotNull final Path cacheFile) {
+    @BackgroundThread
+    private @NotNull BufferedImage readFxImage(final int width, final int height,
+                                               @NotNull final String externalForm) {
 
         Image image = new Image(externalForm);
 
@@ -409,55 +801,36 @@ public class JavaFxImageManager {
             }
         }
 
-        final BufferedImage bufferedImage = SwingFXUtils.fromFXImage(image, null);
-
-        try (final OutputStream out = Files.newOutputStream(cacheFile, WRITE, TRUNCATE_EXISTING, CREATE)) {
-            ImageIO.write(bufferedImage, "png", out);
-        } catch (final IOException e) {
-            LOGGER.warning(e);
-        }
-
-        return image;
-    }
-
-    @FxThread
-    private @NotNull Image scaleAndWrite(final int targetWidth, final int targetHeight, @NotNull final Path cacheFile,
-                                         @NotNull final BufferedImage textureImage, final int currentWidth,
-                                         final int currentHeight) {
-
-        final BufferedImage newImage = scaleImage(targetWidth, targetHeight, textureImage, currentWidth, currentHeight);
-
-        try (final OutputStream out = Files.newOutputStream(cacheFile, WRITE, TRUNCATE_EXISTING, CREATE)) {
-            ImageIO.write(newImage, "png", out);
-            return new Image(cacheFile.toUri().toString());
-        } catch (final IOException e) {
-            LOGGER.warning(e);
-            return Icons.IMAGE_512;
-        }
+        return SwingFXUtils.fromFXImage(image, null);
     }
 
-    @FxThread
+    @BackgroundThread
     private @NotNull BufferedImage scaleImage(final int width, final int height, @NotNull final BufferedImage read,
                                               final int imageWidth, final int imageHeight) {
 
-        java.awt.Image newImage = read;
+        int newWidth = imageWidth;
+        int newHeight = imageHeight;
 
         if (imageWidth > width || imageHeight > height) {
             if (imageWidth == imageHeight) {
-                newImage = read.getScaledInstance(width, height, SCALE_DEFAULT);
+                newWidth = width;
+                newHeight = height;
             } else if (imageWidth > imageHeight) {
                 float mod = imageHeight * 1F / imageWidth;
-                newImage = read.getScaledInstance(width, (int) (height * mod), SCALE_DEFAULT);
+                newWidth = width;
+                newHeight = (int) (height * mod);
             } else if (imageHeight > imageWidth) {
                 float mod = imageWidth * 1F / imageHeight;
-                newImage = read.getScaledInstance((int) (width * mod), height, SCALE_DEFAULT);
+                newWidth = (int) (width * mod);
+                newHeight = height;
             }
         }
 
         final BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
 
         final Graphics2D g2d = bufferedImage.createGraphics();
-        g2d.drawImage(newImage, 0, 0, null);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.drawImage(read, 0, 0, newWidth, newHeight, null);
         g2d.dispose();
 
         return bufferedImage;
@@ -465,11 +838,39 @@ public class JavaFxImageManager {
 
     @FxThread
     private void processEvent(@NotNull final DeletedFileEvent event) {
-        //TODO need to add remove from cache
+        invalidate(event.getFile());
+    }
+
+    @FxThread
+    private void processEvent(@NotNull final FileChangedEvent event) {
+        invalidate(event.getFile());
+    }
+
+    /**
+     * Remove previews of the changed or deleted file from the cache.
+     *
+     * @param file the file.
+     */
+    @FxThread
+    private void invalidate(@NotNull final Path file) {
+
+        if (!isImage(file)) {
+            return;
+        }
+
+        removeFromCache(file.toString());
+
+        final Path assetFile = EditorUtil.getAssetFile(file);
+
+        if (assetFile != null) {
+            removeFromCache(EditorUtil.toAssetPath(assetFile));
+        }
     }
 
     @FxThread
     private void processEvent(@NotNull final ChangedCurrentAssetFolderEvent event) {
-        smallImageCache.clear();
+        imageCache.clear();
+        cacheSize = 0;
+        pendingPreviews.forEach((key, pending) -> pending.stale = true);
     }
 }
@@ -29,12 +29,15 @@ import com.jme3.util.SkyFactory;
 import com.jme3x.jfx.injfx.processor.FrameTransferSceneProcessor;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.JmeApplication;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.asset.locator.FolderAssetLocator;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.TaskPriority;
 import com.ss.editor.executor.impl.JmeThreadExecutor;
+import com.ss.editor.file.cache.PreviewCache;
 import com.ss.editor.model.EditorCamera;
 import com.ss.editor.ui.scene.EditorFxScene;
 import com.ss.editor.util.EditorUtil;
@@ -45,15 +48,31 @@ import com.ss.rlib.ui.util.FXUtils;
 import com.ss.rlib.util.StringUtils;
 import com.ss.rlib.util.array.Array;
 import com.ss.rlib.util.array.ArrayFactory;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * The class to manage previews of JME files.
+ * The class to manage previews of JME files. Models and materials are loaded and prepared in background tasks and
+ * only the finished spatial is handed to the jME thread, a new preview request supersedes all previous requests
+ * which aren't finished yet. The light probe of the preview scene depends only on the studio sky, so it's generated
+ * only once.
  *
  * @author JavaSaBr
  */
@@ -84,6 +103,78 @@ public class JmeFilePreviewManager extends AbstractControl {
     @NotNull
     private static final EditorConfig EDITOR_CONFIG = EditorConfig.getInstance();
 
+    /**
+     * The count of frames to render a model after preparing the light probe before storing a preview to the cache.
+     */
+    private static final int CAPTURE_DELAY = 3;
+
+    /**
+     * The max count of recently previewed models to keep loaded.
+     */
+    private static final int MAX_CACHED_MODELS = 6;
+
+    /**
+     * The loaded model of a recently previewed file.
+     */
+    private static final class LoadedModel {
+
+        /**
+         * The prepared model.
+         */
+        @NotNull
+        private final Spatial model;
+
+        /**
+         * The last modified time of the model file or -1.
+         */
+        private final long lastModified;
+
+        private LoadedModel(@NotNull final Spatial model, final long lastModified) {
+            this.model = model;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * The rendered preview of a model file which should be stored to the cache.
+     */
+    private static final class CachedPreview {
+
+        /**
+         * The path of the model file.
+         */
+        @NotNull
+        private final String source;
+
+        /**
+         * The last modified time of the model file.
+         */
+        private final long lastModified;
+
+        /**
+         * The size of the model file.
+         */
+        private final long size;
+
+        private final int width;
+        private final int height;
+
+        /**
+         * The number of the preview request.
+         */
+        private final int request;
+
+        private CachedPreview(@NotNull final String source, final long lastModified, final long size, final int width,
+                              final int height, final int request) {
+            this.source = source;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.width = width;
+            this.height = height;
+            this.request = request;
+        }
+    }
+
     static {
         JME_FORMATS.add(FileExtensions.JME_MATERIAL);
         JME_FORMATS.add(FileExtensions.JME_OBJECT);
@@ -196,7 +287,7 @@ public class JmeFilePreviewManager extends AbstractControl {
 
         @Override
         public void done(final LightProbe result) {
-            notifyProbeComplete();
+            notifyProbeComplete(result != null);
         }
     };
 
@@ -224,15 +315,75 @@ public class JmeFilePreviewManager extends AbstractControl {
     @Nullable
     private volatile FrameTransferSceneProcessor processor;
 
+    /**
+     * The disk cache of previews.
+     */
+    @NotNull
+    private final PreviewCache previewCache;
+
+    /**
+     * The preview which is rendering now to be stored to the cache.
+     */
+    @Nullable
+    private volatile CachedPreview rendering;
+
+    /**
+     * The image of the transfer processor while a cached preview is shown.
+     */
+    @Nullable
+    private Image renderedImage;
+
+    /**
+     * True if a cached preview is shown.
+     */
+    private boolean showingCached;
+
+    /**
+     * The recently previewed models by paths in order of access.
+     */
+    @NotNull
+    private final Map<String, LoadedModel> loadedModels;
+
+    /**
+     * The number of the last preview request, a request is superseded when the number is changed.
+     */
+    @NotNull
+    private final AtomicInteger lastRequest;
+
+    /**
+     * True if the light probe of the preview scene is generated.
+     */
+    private boolean probeReady;
+
+    /**
+     * True if the light probe of the preview scene is generating now.
+     */
+    private boolean probeGenerating;
+
     /**
      * The count of frames.
      */
     private int frame;
 
+    /**
+     * The frame to store the rendered preview to the cache.
+     */
+    private int captureFrame;
+
     private JmeFilePreviewManager() {
         this.imageView = new ImageView();
         this.testBox = new Geometry("Box", new Box(2, 2, 2));
         this.modelNode = new Node("Model Node");
+        this.previewCache = PreviewCache.getInstance();
+        this.captureFrame = -1;
+        this.lastRequest = new AtomicInteger();
+        this.loadedModels = new LinkedHashMap<String, LoadedModel>(MAX_CACHED_MODELS * 2, 0.75F, true) {
+
+            @Override
+            protected boolean removeEldestEntry(@NotNull final Map.Entry<String, LoadedModel> eldest) {
+                return size() > MAX_CACHED_MODELS;
+            }
+        };
 
         final ExecutorManager executorManager = ExecutorManager.getInstance();
         executorManager.addFxTask(() -> {
@@ -253,18 +404,167 @@ public class JmeFilePreviewManager extends AbstractControl {
     @JmeThread
     protected void controlUpdate(final float tpf) {
 
-        if (frame == 2) {
+        if (frame == 2 && !probeReady && !probeGenerating) {
+            probeGenerating = true;
             final JmeApplication jmeApplication = JmeApplication.getInstance();
             jmeApplication.updatePreviewLightProbe(probeHandler);
         }
 
+        if (frame == captureFrame) {
+            captureFrame = -1;
+            final CachedPreview preview = rendering;
+            ExecutorManager.getInstance().addFxTask(() -> storeToCache(preview));
+        }
+
         frame++;
     }
 
     @JmeThread
-    private void notifyProbeComplete() {
+    private void notifyProbeComplete(final boolean generated) {
+        probeGenerating = false;
+
+        if (generated) {
+            probeReady = true;
+        }
+
         final Node rootNode = EditorUtil.getPreviewNode();
         rootNode.attachChild(modelNode);
+
+        if (rendering != null) {
+            captureFrame = frame + CAPTURE_DELAY;
+        }
+    }
+
+    /**
+     * Attach the model node to the preview scene when the light probe is ready.
+     */
+    @JmeThread
+    private void attachModelNode() {
+
+        final Node rootNode = EditorUtil.getPreviewNode();
+
+        if (!probeReady) {
+            rootNode.detachChild(modelNode);
+            return;
+        }
+
+        rootNode.attachChild(modelNode);
+
+        if (rendering != null) {
+            captureFrame = frame + CAPTURE_DELAY;
+        }
+    }
+
+    /**
+     * Store the rendered preview to the cache if it's still shown.
+     *
+     * @param preview the rendered preview.
+     */
+    @FxThread
+    private void storeToCache(@Nullable final CachedPreview preview) {
+
+        final Image image = imageView.getImage();
+
+        if (preview == null || preview != rendering || isSuperseded(preview.request) || showingCached ||
+                image == null) {
+            return;
+        }
+
+        rendering = null;
+
+        final BufferedImage bufferedImage = SwingFXUtils.fromFXImage(image, null);
+
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+        executorManager.addBackgroundTask(() -> writeToCache(preview, bufferedImage), TaskPriority.BULK);
+    }
+
+    @BackgroundThread
+    private void writeToCache(@NotNull final CachedPreview preview, @NotNull final BufferedImage image) {
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+            return;
+        }
+
+        previewCache.put(preview.source, preview.lastModified, preview.size, preview.width, preview.height,
+                out.toByteArray());
+    }
+
+    /**
+     * Get the description of a preview of the model file to find it in the cache.
+     *
+     * @param request   the number of the preview request.
+     * @param file      the model file.
+     * @param fitWidth  the target width of preview.
+     * @param fitHeight the target height of preview.
+     * @return the description or null if the file isn't available.
+     */
+    @BackgroundThread
+    private @Nullable CachedPreview getCachedPreview(final int request, @Nullable final Path file, final int fitWidth,
+                                                     final int fitHeight) {
+
+        if (file == null) {
+            return null;
+        }
+
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (final IOException e) {
+            return null;
+        }
+
+        return new CachedPreview(file.toString(), attributes.lastModifiedTime().toMillis(), attributes.size(),
+                fitWidth, fitHeight, request);
+    }
+
+    /**
+     * Show a cached preview instead of the image of the transfer processor.
+     *
+     * @param request the number of the preview request.
+     * @param image   the cached preview.
+     */
+    @FxThread
+    private void showCached(final int request, @NotNull final Image image) {
+
+        if (isSuperseded(request)) {
+            return;
+        }
+
+        if (!showingCached) {
+            renderedImage = imageView.getImage();
+            showingCached = true;
+        }
+
+        imageView.setImage(image);
+        clear();
+    }
+
+    /**
+     * Show the image of the transfer processor for the request.
+     *
+     * @param request the number of the preview request.
+     */
+    @FxThread
+    private void showRendered(final int request) {
+        if (!isSuperseded(request)) {
+            showRendered();
+        }
+    }
+
+    /**
+     * Return the image of the transfer processor to the image view.
+     */
+    @FxThread
+    private void showRendered() {
+        if (showingCached) {
+            showingCached = false;
+            imageView.setImage(renderedImage);
+            renderedImage = null;
+        }
     }
 
     @Override
@@ -279,7 +579,7 @@ public class JmeFilePreviewManager extends AbstractControl {
      * @param fitWidth  the target width of preview.
      * @param fitHeight the target height of preview.
      */
-    @FromAnyThread
+    @FxThread
     public void show(@NotNull final Path file, final int fitWidth, final int fitHeight) {
         imageView.setFitHeight(fitHeight);
         imageView.setFitWidth(fitWidth);
@@ -287,7 +587,7 @@ public class JmeFilePreviewManager extends AbstractControl {
         final Path assetFile = notNull(getAssetFile(file), "File can't be null.");
         final String path = toAssetPath(assetFile);
 
-        showPreview(path, getExtension(assetFile), false);
+        showPreview(file, path, getExtension(assetFile), false, fitWidth, fitHeight);
     }
 
     /**
@@ -297,31 +597,60 @@ public class JmeFilePreviewManager extends AbstractControl {
      * @param fitWidth  the target width of preview.
      * @param fitHeight the target height of preview.
      */
-    @FromAnyThread
+    @FxThread
     public void showExternal(@NotNull final Path file, final int fitWidth, final int fitHeight) {
         imageView.setFitHeight(fitHeight);
         imageView.setFitWidth(fitWidth);
-        showPreview(file.toString(), getExtension(file), true);
+
+        showPreview(file, file.toString(), getExtension(file), true, fitWidth, fitHeight);
     }
 
     /**
-     * Show a preview of the file by the asset path.
+     * Show a preview of the file by the asset path, a cached preview of a model file is looked up in the background.
      *
+     * @param file      the real file or null.
      * @param path      the asset path.
      * @param extension the extension.
      * @param external  true if the path is external path.
+     * @param fitWidth  the target width of preview.
+     * @param fitHeight the target height of preview.
      */
-    @FromAnyThread
-    private void showPreview(@NotNull final String path, @NotNull final String extension, final boolean external) {
+    @FxThread
+    private void showPreview(@Nullable final Path file, @NotNull final String path, @NotNull final String extension,
+                             final boolean external, final int fitWidth, final int fitHeight) {
+
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+
+        rendering = null;
+
+        if (isModelFile(path)) {
+            final int request = lastRequest.incrementAndGet();
+            executorManager.addBackgroundTask(() -> loadObject(request, file, path, external, fitWidth, fitHeight),
+                    TaskPriority.INTERACTIVE);
+            return;
+        }
+
+        showRendered();
+
         if (FileExtensions.JME_MATERIAL.equals(extension)) {
-            EDITOR_THREAD_EXECUTOR.addToExecute(() -> showMaterial(path));
-        } else if (isModelFile(path)) {
-            EDITOR_THREAD_EXECUTOR.addToExecute(() -> showObject(path, external));
+            final int request = lastRequest.incrementAndGet();
+            executorManager.addBackgroundTask(() -> loadMaterial(request, path), TaskPriority.INTERACTIVE);
         } else {
-            EDITOR_THREAD_EXECUTOR.addToExecute(this::clear);
+            clear();
         }
     }
 
+    /**
+     * Check the preview request.
+     *
+     * @param request the number of the request.
+     * @return true if the request is superseded by a newer request.
+     */
+    @FromAnyThread
+    private boolean isSuperseded(final int request) {
+        return request != lastRequest.get();
+    }
+
     /**
      * Show a file.
      *
@@ -329,43 +658,137 @@ public class JmeFilePreviewManager extends AbstractControl {
      * @param fitWidth  the target width of preview.
      * @param fitHeight the target height of preview.
      */
-    @FromAnyThread
+    @FxThread
     public void show(@NotNull final String assetPath, final int fitWidth, final int fitHeight) {
         imageView.setFitHeight(fitHeight);
         imageView.setFitWidth(fitWidth);
-        showPreview(assetPath, getExtension(assetPath), false);
+
+        showPreview(EditorUtil.getRealFile(assetPath), assetPath, getExtension(assetPath), false, fitWidth,
+                fitHeight);
     }
 
     /**
-     * Show a j3o object.
+     * Show a cached preview of a model or load and prepare the model to show it.
+     *
+     * @param request   the number of the preview request.
+     * @param file      the real file of the model or null.
+     * @param path      the path to object.
+     * @param external  true if the object is external object.
+     * @param fitWidth  the target width of preview.
+     * @param fitHeight the target height of preview.
+     */
+    @BackgroundThread
+    private void loadObject(final int request, @Nullable final Path file, @NotNull final String path,
+                            final boolean external, final int fitWidth, final int fitHeight) {
+
+        if (isSuperseded(request)) {
+            return;
+        }
+
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+        final CachedPreview preview = getCachedPreview(request, file, fitWidth, fitHeight);
+        final byte[] data = preview == null ? null :
+                previewCache.get(preview.source, preview.lastModified, preview.size, fitWidth, fitHeight);
+
+        if (data != null) {
+            final Image image = new Image(new ByteArrayInputStream(data));
+            executorManager.addFxTask(() -> showCached(request, image));
+            return;
+        }
+
+        executorManager.addFxTask(() -> showRendered(request));
+
+        if (isSuperseded(request)) {
+            return;
+        }
+
+        rendering = preview;
+
+        final String key = external ? "external:" + path : path;
+        final long lastModified = getLastModified(path, external);
+
+        LoadedModel loaded;
+
+        synchronized (loadedModels) {
+            loaded = loadedModels.get(key);
+        }
+
+        if (loaded == null || loaded.lastModified != lastModified) {
+
+            final AssetManager assetManager = EditorUtil.getAssetManager();
+            final Spatial model;
+
+            FolderAssetLocator.setIgnore(external);
+            try {
+
+                model = assetManager.loadModel(path);
+
+                if (external && EDITOR_CONFIG.getBoolean(PREF_TANGENT_GENERATION, PREF_DEFAULT_TANGENT_GENERATION)) {
+                    TangentGenerator.useMikktspaceGenerator(model);
+                }
+
+            } catch (final RuntimeException e) {
+                EditorUtil.handleException(LOGGER, this, e);
+                return;
+            } finally {
+                FolderAssetLocator.setIgnore(false);
+            }
+
+            loaded = new LoadedModel(model, lastModified);
+
+            synchronized (loadedModels) {
+                loadedModels.put(key, loaded);
+            }
+        }
+
+        if (isSuperseded(request)) {
+            return;
+        }
+
+        final Spatial model = loaded.model;
+
+        EDITOR_THREAD_EXECUTOR.addToExecute(() -> showObject(request, model));
+    }
+
+    /**
+     * Get the last modified time of the model file.
      *
      * @param path     the path to object.
      * @param external true if the object is external object.
+     * @return the last modified time or -1.
      */
-    @JmeThread
-    private void showObject(@NotNull final String path, final boolean external) {
-        prepareProcessor();
+    @BackgroundThread
+    private long getLastModified(@NotNull final String path, final boolean external) {
 
-        final AssetManager assetManager = EditorUtil.getAssetManager();
-        final Spatial model;
+        final Path file = external ? Paths.get(path) : EditorUtil.getRealFile(path);
 
-        FolderAssetLocator.setIgnore(external);
-        try {
+        if (file == null) {
+            return -1;
+        }
 
-            model = assetManager.loadModel(path);
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (final IOException e) {
+            return -1;
+        }
+    }
 
-            if (external && EDITOR_CONFIG.getBoolean(PREF_TANGENT_GENERATION, PREF_DEFAULT_TANGENT_GENERATION)) {
-                TangentGenerator.useMikktspaceGenerator(model);
-            }
+    /**
+     * Show a loaded j3o object.
+     *
+     * @param request the number of the preview request.
+     * @param model   the loaded model.
+     */
+    @JmeThread
+    private void showObject(final int request, @NotNull final Spatial model) {
 
-        } finally {
-            FolderAssetLocator.setIgnore(false);
+        if (isSuperseded(request)) {
+            return;
         }
 
+        prepareProcessor();
         tryToLoad(model);
-
-        final Node rootNode = EditorUtil.getPreviewNode();
-        rootNode.detachChild(modelNode);
+        attachModelNode();
     }
 
     /**
@@ -399,6 +822,7 @@ public class JmeFilePreviewManager extends AbstractControl {
         }
 
         frame = 0;
+        captureFrame = -1;
 
         final Camera camera = EditorUtil.getPreviewCamera();
         camera.setLocation(CAMERA_LOCATION);
@@ -408,22 +832,50 @@ public class JmeFilePreviewManager extends AbstractControl {
     }
 
     /**
-     * Show a j3m material.
+     * Load a j3m material to show it.
      *
-     * @param path the path to material.
+     * @param request the number of the preview request.
+     * @param path    the path to material.
      */
-    @JmeThread
-    private void showMaterial(@NotNull final String path) {
-        prepareProcessor();
+    @BackgroundThread
+    private void loadMaterial(final int request, @NotNull final String path) {
+
+        if (isSuperseded(request)) {
+            return;
+        }
 
         final AssetManager assetManager = EditorUtil.getAssetManager();
-        final Material material = assetManager.loadMaterial(path);
+        final Material material;
+        try {
+            material = assetManager.loadMaterial(path);
+        } catch (final RuntimeException e) {
+            EditorUtil.handleException(LOGGER, this, e);
+            return;
+        }
+
+        if (!isSuperseded(request)) {
+            EDITOR_THREAD_EXECUTOR.addToExecute(() -> showMaterial(request, material));
+        }
+    }
+
+    /**
+     * Show a loaded j3m material.
+     *
+     * @param request  the number of the preview request.
+     * @param material the loaded material.
+     */
+    @JmeThread
+    private void showMaterial(final int request, @NotNull final Material material) {
+
+        if (isSuperseded(request)) {
+            return;
+        }
+
+        prepareProcessor();
 
         testBox.setMaterial(material);
         tryToLoad(testBox);
-
-        final Node rootNode = EditorUtil.getPreviewNode();
-        rootNode.detachChild(modelNode);
+        attachModelNode();
     }
 
     /**
@@ -431,12 +883,15 @@ public class JmeFilePreviewManager extends AbstractControl {
      */
     @FromAnyThread
     public void clear() {
+        lastRequest.incrementAndGet();
         EDITOR_THREAD_EXECUTOR.addToExecute(this::clearImpl);
     }
 
     @JmeThread
     private void clearImpl() {
 
+        captureFrame = -1;
+
         final JmeApplication jmeApplication = JmeApplication.getInstance();
         final Node rootNode = jmeApplication.getPreviewNode();
         rootNode.detachChild(modelNode);
@@ -11,7 +11,6 @@ import com.ss.editor.plugin.EditorPlugin;
 import com.ss.editor.util.EditorUtil;
 import com.ss.rlib.logging.Logger;
 import com.ss.rlib.logging.LoggerManager;
-import com.ss.rlib.manager.InitializeManager;
 import com.ss.rlib.plugin.ConfigurablePluginSystem;
 import com.ss.rlib.plugin.Plugin;
 import com.ss.rlib.plugin.PluginContainer;
@@ -39,11 +38,17 @@ public class PluginManager {
     private static final Logger LOGGER = LoggerManager.getLogger(PluginManager.class);
 
     @Nullable
-    private static PluginManager instance;
+    private static volatile PluginManager instance;
 
     @NotNull
     public static PluginManager getInstance() {
-        if (instance == null) instance = new PluginManager();
+        if (instance == null) {
+            synchronized (PluginManager.class) {
+                if (instance == null) {
+                    instance = new PluginManager();
+                }
+            }
+        }
         return instance;
     }
 
@@ -54,7 +59,7 @@ public class PluginManager {
     private final ConfigurablePluginSystem pluginSystem;
 
     private PluginManager() {
-        InitializeManager.valid(getClass());
+        StartupManager.valid(getClass());
 
         this.pluginSystem = newBasePluginSystem(getClass().getClassLoader());
         this.pluginSystem.setAppVersion(Config.APP_VERSION);
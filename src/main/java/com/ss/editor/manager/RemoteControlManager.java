@@ -21,10 +21,16 @@ import java.net.InetSocketAddress;
 public class RemoteControlManager {
 
     @Nullable
-    private static RemoteControlManager instance;
+    private static volatile RemoteControlManager instance;
 
     public static @NotNull RemoteControlManager getInstance() {
-        if (instance == null) instance = new RemoteControlManager();
+        if (instance == null) {
+            synchronized (RemoteControlManager.class) {
+                if (instance == null) {
+                    instance = new RemoteControlManager();
+                }
+            }
+        }
         return instance;
     }
 
@@ -11,28 +11,27 @@ import static com.ss.rlib.util.Utils.get;
 import static com.ss.rlib.util.array.ArrayFactory.toArray;
 import static com.ss.rlib.util.ref.ReferenceFactory.newRef;
 import static java.lang.System.currentTimeMillis;
-import static java.nio.file.StandardWatchEventKinds.*;
 import com.jme3.asset.AssetEventListener;
 import com.jme3.asset.AssetKey;
 import com.jme3.asset.AssetManager;
-import com.ss.editor.EditorThread;
 import com.ss.editor.FileExtensions;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.FxThread;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.file.cache.DirectorySnapshotCache;
+import com.ss.editor.file.index.AssetIndex;
+import com.ss.editor.file.index.ResourceList;
+import com.ss.editor.file.watcher.AssetFolderWatcher;
 import com.ss.editor.ui.event.FxEventManager;
 import com.ss.editor.ui.event.impl.*;
 import com.ss.editor.util.EditorUtil;
-import com.ss.editor.util.SimpleFileVisitor;
-import com.ss.editor.util.SimpleFolderVisitor;
-import com.ss.rlib.concurrent.util.ThreadUtils;
 import com.ss.rlib.logging.Logger;
 import com.ss.rlib.logging.LoggerManager;
-import com.ss.rlib.manager.InitializeManager;
 import com.ss.rlib.util.FileUtils;
 import com.ss.rlib.util.StringUtils;
-import com.ss.rlib.util.Utils;
 import com.ss.rlib.util.array.Array;
-import com.ss.rlib.util.array.ArrayComparator;
 import com.ss.rlib.util.array.ArrayFactory;
 import com.ss.rlib.util.dictionary.DictionaryFactory;
 import com.ss.rlib.util.dictionary.ObjectDictionary;
@@ -46,15 +45,25 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.*;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
 
 /**
  * The class to manage working with resources of an editor.
  *
  * @author JavaSaBr
  */
-public class ResourceManager extends EditorThread implements AssetEventListener {
+public class ResourceManager implements AssetEventListener {
 
     @NotNull
     private static final Logger LOGGER = LoggerManager.getLogger(ResourceManager.class);
@@ -65,27 +74,110 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     @NotNull
     private static final FxEventManager FX_EVENT_MANAGER = FxEventManager.getInstance();
 
-    @NotNull
-    private static final ArrayComparator<String> STRING_ARRAY_COMPARATOR = StringUtils::compareIgnoreCase;
+    /**
+     * The delay to save the changed asset index.
+     */
+    private static final long INDEX_SAVE_DELAY = 5000;
 
-    @NotNull
-    private static final WatchService WATCH_SERVICE;
+    /**
+     * The snapshot of available resources with the same extension.
+     */
+    private static final class AvailableResources {
+
+        @NotNull
+        private static final AvailableResources EMPTY = new AvailableResources(ResourceList.EMPTY, ResourceList.EMPTY);
+
+        /**
+         * The resources in the asset folder.
+         */
+        @NotNull
+        private final ResourceList inAsset;
+
+        /**
+         * The resources in the classpath.
+         */
+        @NotNull
+        private final ResourceList inClasspath;
+
+        /**
+         * The merged resources, it's built on the first request.
+         */
+        @Nullable
+        private volatile ResourceList merged;
+
+        private AvailableResources(@NotNull final ResourceList inAsset, @NotNull final ResourceList inClasspath) {
+            this.inAsset = inAsset;
+            this.inClasspath = inClasspath;
+        }
 
-    static {
-        try {
-            WATCH_SERVICE = FileSystems.getDefault().newWatchService();
-        } catch (final IOException e) {
-            LOGGER.warning(e);
-            throw new RuntimeException(e);
+        @FromAnyThread
+        private @NotNull ResourceList getMerged() {
+
+            ResourceList result = merged;
+
+            if (result == null) {
+                merged = result = inAsset.merge(inClasspath);
+            }
+
+            return result;
+        }
+
+        @FromAnyThread
+        private @NotNull AvailableResources withAsset(@NotNull final ResourceList inAsset) {
+            return inAsset == this.inAsset ? this : new AvailableResources(inAsset, inClasspath);
+        }
+
+        @FromAnyThread
+        private @NotNull AvailableResources withClasspath(@NotNull final ResourceList inClasspath) {
+            return inClasspath == this.inClasspath ? this : new AvailableResources(inAsset, inClasspath);
+        }
+    }
+
+    /**
+     * The collector of changes of the asset index to apply them to available resources by one update per extension.
+     */
+    private static final class ResourceChanges implements AssetIndex.Listener {
+
+        /**
+         * The table of added asset paths by extensions.
+         */
+        @NotNull
+        private final Map<String, List<String>> added = new HashMap<>();
+
+        /**
+         * The table of removed asset paths by extensions.
+         */
+        @NotNull
+        private final Map<String, Set<String>> removed = new HashMap<>();
+
+        @Override
+        public void notifyAdded(@NotNull final AssetIndex.FileEntry entry) {
+            added.computeIfAbsent(entry.getExtension(), ext -> new ArrayList<>()).add(entry.getAssetPath());
+        }
+
+        @Override
+        public void notifyRemoved(@NotNull final AssetIndex.FileEntry entry) {
+            removed.computeIfAbsent(entry.getExtension(), ext -> new HashSet<>()).add(entry.getAssetPath());
+        }
+
+        private void clear() {
+            added.clear();
+            removed.clear();
         }
     }
 
     @Nullable
-    private static ResourceManager instance;
+    private static volatile ResourceManager instance;
 
     @FromAnyThread
     public static @NotNull ResourceManager getInstance() {
-        if (instance == null) instance = new ResourceManager();
+        if (instance == null) {
+            synchronized (ResourceManager.class) {
+                if (instance == null) {
+                    instance = new ResourceManager();
+                }
+            }
+        }
         return instance;
     }
 
@@ -96,16 +188,22 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     private final ObjectDictionary<String, Reference> assetCacheTable;
 
     /**
-     * The table with interested resources.
+     * The list of interested file types in the classpath.
+     */
+    @NotNull
+    private final Array<String> interestedTypesInClasspath;
+
+    /**
+     * The table of available resources by extensions.
      */
     @NotNull
-    private final ObjectDictionary<String, Array<String>> interestedResources;
+    private final ConcurrentMap<String, AvailableResources> availableResources;
 
     /**
-     * The table with interested resources in the classpath.
+     * The collector of changes of the asset index.
      */
     @NotNull
-    private final ObjectDictionary<String, Array<String>> interestedResourcesInClasspath;
+    private final ResourceChanges resourceChanges;
 
     /**
      * The list of additional ENVs.
@@ -126,23 +224,51 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     private final Array<String> resourcesInClasspath;
 
     /**
-     * The list of keys for watching to folders.
+     * The watcher of changes in the asset folder.
+     */
+    @NotNull
+    private final AssetFolderWatcher folderWatcher;
+
+    /**
+     * The flag of scheduled saving of the asset index.
+     */
+    @NotNull
+    private final AtomicBoolean indexSaveScheduled;
+
+    /**
+     * The queue of updates of the asset index by file events in the order of the events.
      */
     @NotNull
-    private final Array<WatchKey> watchKeys;
+    private final ConcurrentLinkedQueue<Runnable> indexUpdates;
+
+    /**
+     * The flag of scheduled applying of updates of the asset index.
+     */
+    @NotNull
+    private final AtomicBoolean indexUpdateScheduled;
+
+    /**
+     * The index of the current asset folder.
+     */
+    @Nullable
+    private AssetIndex assetIndex;
 
     private ResourceManager() {
-        InitializeManager.valid(getClass());
+        StartupManager.valid(getClass());
 
         final ClasspathManager classpathManager = ClasspathManager.getInstance();
 
         this.assetCacheTable = DictionaryFactory.newObjectDictionary();
         this.additionalEnvs = ArrayFactory.newArray(Path.class);
-        this.watchKeys = ArrayFactory.newArray(WatchKey.class);
+        this.folderWatcher = new AssetFolderWatcher();
+        this.indexSaveScheduled = new AtomicBoolean(false);
+        this.indexUpdates = new ConcurrentLinkedQueue<>();
+        this.indexUpdateScheduled = new AtomicBoolean(false);
         this.classLoaders = ArrayFactory.newArray(URLClassLoader.class);
         this.resourcesInClasspath = classpathManager.getAllResources();
-        this.interestedResources = DictionaryFactory.newObjectDictionary();
-        this.interestedResourcesInClasspath = DictionaryFactory.newObjectDictionary();
+        this.interestedTypesInClasspath = ArrayFactory.newArray(String.class);
+        this.availableResources = new ConcurrentHashMap<>();
+        this.resourceChanges = new ResourceChanges();
 
         final InitializationManager initializationManager = InitializationManager.getInstance();
         initializationManager.addOnFinishLoading(() -> {
@@ -152,6 +278,7 @@ public class ResourceManager extends EditorThread implements AssetEventListener
             fxEventManager.addEventHandler(RequestedRefreshAssetEvent.EVENT_TYPE, event -> processRefreshAsset());
             fxEventManager.addEventHandler(CreatedFileEvent.EVENT_TYPE, event -> processEvent((CreatedFileEvent) event));
             fxEventManager.addEventHandler(DeletedFileEvent.EVENT_TYPE, event -> processEvent((DeletedFileEvent) event));
+            fxEventManager.addEventHandler(FileChangedEvent.EVENT_TYPE, event -> processEvent((FileChangedEvent) event));
         });
 
         initializationManager.addOnAfterCreateJmeContext(() -> {
@@ -161,7 +288,7 @@ public class ResourceManager extends EditorThread implements AssetEventListener
 
         registerInterestedFileType(FileExtensions.JME_MATERIAL_DEFINITION);
         updateAdditionalEnvs();
-        start();
+        folderWatcher.start();
     }
 
     /**
@@ -209,22 +336,6 @@ public class ResourceManager extends EditorThread implements AssetEventListener
         return url;
     }
 
-    /**
-     * @return the table with interested resources.
-     */
-    @FromAnyThread
-    private @NotNull ObjectDictionary<String, Array<String>> getInterestedResources() {
-        return interestedResources;
-    }
-
-    /**
-     * @return the table with interested resources in the classpath.
-     */
-    @FromAnyThread
-    private @NotNull ObjectDictionary<String, Array<String>> getInterestedResourcesInClasspath() {
-        return interestedResourcesInClasspath;
-    }
-
     /**
      * Register the file type of interested resources.
      *
@@ -232,17 +343,8 @@ public class ResourceManager extends EditorThread implements AssetEventListener
      */
     @FromAnyThread
     public synchronized void registerInterestedFileType(@NotNull final String fileExtension) {
-
-        ObjectDictionary<String, Array<String>> resources = getInterestedResources();
-
-        if(!resources.containsKey(fileExtension)) {
-            resources.put(fileExtension, ArrayFactory.newArray(String.class));
-        }
-
-        resources = getInterestedResourcesInClasspath();
-
-        if(!resources.containsKey(fileExtension)) {
-            resources.put(fileExtension, ArrayFactory.newArray(String.class));
+        if (!interestedTypesInClasspath.contains(fileExtension)) {
+            interestedTypesInClasspath.add(fileExtension);
         }
     }
 
@@ -349,26 +451,81 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     /**
      * Handle a removed file.
      */
+    @FxThread
+    private void processEvent(@NotNull final DeletedFileEvent event) {
+        final Path file = event.getFile();
+        final boolean directory = event.isDirectory();
+        addIndexUpdate(() -> handleDeleted(file, directory));
+    }
+
+    /**
+     * Handle a created file.
+     */
+    @FxThread
+    private void processEvent(@NotNull final CreatedFileEvent event) {
+        final Path file = event.getFile();
+        final boolean directory = event.isDirectory();
+        addIndexUpdate(() -> handleCreated(file, directory));
+    }
+
+    /**
+     * Handle a changed file.
+     */
+    @FxThread
+    private void processEvent(@NotNull final FileChangedEvent event) {
+        final Path file = event.getFile();
+        addIndexUpdate(() -> handleChanged(file));
+    }
+
+    /**
+     * Add an update of the asset index to apply it in the background.
+     *
+     * @param update the update.
+     */
     @FromAnyThread
-    private synchronized void processEvent(@NotNull final DeletedFileEvent event) {
+    private void addIndexUpdate(@NotNull final Runnable update) {
+        indexUpdates.add(update);
+        if (indexUpdateScheduled.compareAndSet(false, true)) {
+            EXECUTOR_MANAGER.addBackgroundTask(this::applyIndexUpdates);
+        }
+    }
 
-        if (event.isDirectory()) {
-            return;
+    /**
+     * Apply all queued updates of the asset index in the order of file events.
+     */
+    @BackgroundThread
+    private synchronized void applyIndexUpdates() {
+
+        indexUpdateScheduled.set(false);
+
+        for (Runnable update = indexUpdates.poll(); update != null; update = indexUpdates.poll()) {
+            update.run();
         }
+    }
 
-        final Path file = event.getFile();
-        final String extension = FileUtils.getExtension(file);
+    /**
+     * Update the asset index and class loaders by a removed file.
+     *
+     * @param file      the removed file.
+     * @param directory true if the file was a directory.
+     */
+    @BackgroundThread
+    private void handleDeleted(@NotNull final Path file, final boolean directory) {
 
-        final ObjectDictionary<String, Array<String>> interestedResources = getInterestedResources();
-        final Array<String> resources = interestedResources.get(extension);
+        final AssetIndex assetIndex = getAssetIndex();
 
-        final Path assetFile = notNull(getAssetFile(file), "Not found asset file for " + file);
-        final String assetPath = toAssetPath(assetFile);
+        if (assetIndex != null) {
+            assetIndex.notifyDeleted(file);
+            applyResourceChanges();
+            scheduleIndexSaving();
+        }
 
-        if (resources != null) {
-            resources.fastRemove(assetPath);
+        if (directory) {
+            return;
         }
 
+        final String extension = FileUtils.getExtension(file);
+
         if (extension.endsWith(FileExtensions.JAVA_LIBRARY)) {
 
             final AssetManager assetManager = EditorUtil.getAssetManager();
@@ -386,12 +543,41 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     }
 
     /**
-     * Handle a created file.
+     * Update the asset index and class loaders by a created file.
+     *
+     * @param file      the created file.
+     * @param directory true if the file is a directory.
      */
-    @FromAnyThread
-    private synchronized void processEvent(@NotNull final CreatedFileEvent event) {
-        if (event.isDirectory()) return;
-        handleFile(event.getFile());
+    @BackgroundThread
+    private void handleCreated(@NotNull final Path file, final boolean directory) {
+
+        final AssetIndex assetIndex = getAssetIndex();
+
+        if (assetIndex != null) {
+            assetIndex.notifyCreated(file);
+            applyResourceChanges();
+            scheduleIndexSaving();
+        }
+
+        if (!directory) {
+            handleFile(file);
+        }
+    }
+
+    /**
+     * Update the asset index by a changed file.
+     *
+     * @param file the changed file.
+     */
+    @BackgroundThread
+    private void handleChanged(@NotNull final Path file) {
+
+        final AssetIndex assetIndex = getAssetIndex();
+
+        if (assetIndex != null) {
+            assetIndex.notifyChanged(file);
+            scheduleIndexSaving();
+        }
     }
 
     /**
@@ -406,17 +592,58 @@ public class ResourceManager extends EditorThread implements AssetEventListener
      * Prepare classpath resources.
      */
     @FromAnyThread
-    private void prepareClasspathResources() {
+    private synchronized void prepareClasspathResources() {
 
-        final ObjectDictionary<String, Array<String>> resources = getInterestedResourcesInClasspath();
+        final Map<String, List<String>> resources = new HashMap<>();
+        final Array<String> interestedTypes = interestedTypesInClasspath;
         final Array<String> resourcesInClasspath = getResourcesInClasspath();
         resourcesInClasspath.forEach(resource -> {
             final String extension = FileUtils.getExtension(resource);
-            final Array<String> toStore = resources.get(extension);
-            if (toStore != null) {
-                toStore.add(resource);
+            if (interestedTypes.contains(extension)) {
+                resources.computeIfAbsent(extension, ext -> new ArrayList<>()).add(resource);
             }
         });
+
+        resources.forEach((extension, inClasspath) ->
+                updateAvailableResources(extension, current -> current.withClasspath(ResourceList.of(inClasspath))));
+    }
+
+    /**
+     * Apply collected changes of the asset index to available resources.
+     */
+    @FromAnyThread
+    private void applyResourceChanges() {
+
+        final ResourceChanges changes = resourceChanges;
+
+        changes.removed.forEach((extension, removed) -> updateAvailableResources(extension,
+                current -> current.withAsset(current.inAsset.without(removed))));
+
+        changes.added.forEach((extension, added) -> updateAvailableResources(extension,
+                current -> current.withAsset(current.inAsset.merge(ResourceList.of(added)))));
+
+        changes.clear();
+    }
+
+    /**
+     * Update available resources with the extension.
+     *
+     * @param extension the extension.
+     * @param updater   the function to create the new snapshot of resources.
+     */
+    @FromAnyThread
+    private void updateAvailableResources(@NotNull final String extension,
+                                          @NotNull final UnaryOperator<AvailableResources> updater) {
+        availableResources.put(extension, updater.apply(getResources(extension)));
+    }
+
+    /**
+     * Get the current snapshot of available resources with the extension.
+     */
+    @FromAnyThread
+    private @NotNull AvailableResources getResources(@NotNull final String extension) {
+        final AvailableResources resources = availableResources.get(extension);
+        return resources == null ? AvailableResources.EMPTY : resources;
     }
 
     /**
@@ -433,56 +660,108 @@ public class ResourceManager extends EditorThread implements AssetEventListener
      * Get available resources by the file extension.
      *
      * @param extension the interested extension.
-     * @return the list of all available material definitions.
+     * @return the new sorted array of available resources.
      */
     @FromAnyThread
-    public synchronized @NotNull Array<String> getAvailableResources(@NotNull final String extension) {
-        final Array<String> result = ArrayFactory.newArray(String.class);
-        addAvailableResources(result, extension);
-        return result;
+    public @NotNull Array<String> getAvailableResources(@NotNull final String extension) {
+        return getAvailableResourceList(extension).toArray();
     }
 
     /**
-     * Add available interested resources to the result array by the file extension.
+     * Add available resources to the result array by the file extension, resources which are already in the result
+     * aren't added again and the whole result is sorted.
      *
      * @param result    the array to store result.
      * @param extension the interested extension.
      */
     @FromAnyThread
-    public synchronized void addAvailableResources(@NotNull final Array<String> result,
-                                                   @NotNull final String extension) {
-
-        final ObjectDictionary<String, Array<String>> resourcesInClasspath = getInterestedResourcesInClasspath();
-        final ObjectDictionary<String, Array<String>> resources = getInterestedResources();
+    public void addAvailableResources(@NotNull final Array<String> result, @NotNull final String extension) {
 
-        final Array<String> inAsset = resources.get(extension);
-        final Array<String> inClassPath = resourcesInClasspath.get(extension);
+        final ResourceList resources = getAvailableResourceList(extension);
 
-        if (inAsset != null) {
-            result.addAll(inAsset);
+        if (!isSorted(result)) {
+            result.sort(ResourceList.COMPARATOR);
         }
 
-        if (inClassPath != null) {
-            inClassPath.forEach(result,
-                    (resource, toStore) -> !toStore.contains(resource),
-                    (resource, toStore) -> toStore.add(resource));
+        resources.mergeTo(result);
+    }
+
+    /**
+     * Return true if the array is sorted by {@link ResourceList#COMPARATOR}.
+     */
+    @FromAnyThread
+    private static boolean isSorted(@NotNull final Array<String> array) {
+
+        final String[] elements = array.array();
+
+        for (int i = 1, length = array.size(); i < length; i++) {
+            if (ResourceList.COMPARATOR.compare(elements[i - 1], elements[i]) > 0) {
+                return false;
+            }
         }
 
-        result.sort(STRING_ARRAY_COMPARATOR);
+        return true;
+    }
+
+    /**
+     * Get the immutable sorted snapshot of available resources in the asset folder and the classpath by the
+     * file extension.
+     *
+     * @param extension the interested extension.
+     * @return the sorted snapshot of available resources.
+     */
+    @FromAnyThread
+    public @NotNull ResourceList getAvailableResourceList(@NotNull final String extension) {
+        return getResources(extension).getMerged();
+    }
+
+    /**
+     * Find available resources by the file extension which start with the prefix ignoring case.
+     *
+     * @param extension the interested extension.
+     * @param prefix    the prefix.
+     * @return the sorted list of found resources.
+     */
+    @FromAnyThread
+    public @NotNull ResourceList findAvailableResourcesByPrefix(@NotNull final String extension,
+                                                                @NotNull final String prefix) {
+        return getAvailableResourceList(extension).findByPrefix(prefix);
+    }
+
+    /**
+     * Find available resources by the file extension which contain the text ignoring case.
+     *
+     * @param extension the interested extension.
+     * @param text      the text.
+     * @return the sorted list of found resources.
+     */
+    @FromAnyThread
+    public @NotNull ResourceList findAvailableResources(@NotNull final String extension,
+                                                        @NotNull final String text) {
+        return getAvailableResourceList(extension).findContaining(text);
+    }
+
+    /**
+     * Reload available resources, only changes since the last time are scanned in the asset folder.
+     */
+    @FromAnyThread
+    public void reload() {
+        reload(false);
     }
 
     /**
      * Reload available resources.
+     *
+     * @param fullScan true if need to scan the whole asset folder.
      */
     @FromAnyThread
-    public synchronized void reload() {
+    public synchronized void reload(final boolean fullScan) {
 
         final ObjectDictionary<String, Reference> lastModifyTable = getAssetCacheTable();
         lastModifyTable.clear();
 
-        final Array<WatchKey> watchKeys = getWatchKeys();
-        watchKeys.forEach(WatchKey::cancel);
-        watchKeys.clear();
+        final AssetFolderWatcher folderWatcher = getFolderWatcher();
+        folderWatcher.unregisterAll();
 
         final AssetManager assetManager = EditorUtil.getAssetManager();
 
@@ -492,171 +771,138 @@ public class ResourceManager extends EditorThread implements AssetEventListener
 
         assetManager.clearCache();
 
-        final ObjectDictionary<String, Array<String>> interestedResources = getInterestedResources();
-        interestedResources.forEach((extension, resources) -> resources.clear());
-
         final EditorConfig editorConfig = EditorConfig.getInstance();
         final Path currentAsset = editorConfig.getCurrentAsset();
-        if (currentAsset == null) return;
 
-        try {
-            Files.walkFileTree(currentAsset, (SimpleFileVisitor) (file, attrs) -> handleFile(file));
-        } catch (IOException e) {
-            LOGGER.warning(e);
-        }
-
-        try {
-            watchKeys.add(currentAsset.register(WATCH_SERVICE, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
-            Files.walkFileTree(currentAsset, (SimpleFolderVisitor) (file, attrs) -> registerFiles(watchKeys, file));
-        } catch (final IOException e) {
-            LOGGER.warning(e);
-        }
-    }
+        DirectorySnapshotCache.getInstance().setRoot(currentAsset, folderWatcher::isWatched);
 
-    @FromAnyThread
-    private static void registerFiles(@NotNull final Array<WatchKey> watchKeys, @NotNull final Path file) {
-        watchKeys.add(get(file, toRegister -> toRegister.register(WATCH_SERVICE, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY)));
-    }
-
-    /**
-     * Handle a file event in an asset folder.
-     */
-    @FromAnyThread
-    private synchronized void handleFile(@NotNull final Path file) {
-
-        if (Files.isDirectory(file)) {
+        if (currentAsset == null) {
+            setAssetIndex(null);
+            rebuildAssetResources(null);
             return;
         }
 
-        final String extension = FileUtils.getExtension(file);
-
-        final ObjectDictionary<String, Array<String>> interestedResources = getInterestedResources();
-        final Array<String> toStore = interestedResources.get(extension);
+        AssetIndex assetIndex = getAssetIndex();
 
-        if (toStore != null) {
-            final Path assetFile = notNull(getAssetFile(file), "Not found asset file for " + file);
-            toStore.add(toAssetPath(assetFile));
+        if (assetIndex == null || !assetIndex.getAssetFolder().equals(currentAsset)) {
+            saveIndex();
+            assetIndex = AssetIndex.load(currentAsset);
+            setAssetIndex(assetIndex);
         }
 
-        if (extension.endsWith(FileExtensions.JAVA_LIBRARY)) {
+        final long time = currentTimeMillis();
 
-            final AssetManager assetManager = EditorUtil.getAssetManager();
-            final URL url = get(file, FileUtils::toUrl);
+        assetIndex.setListener(null);
+        assetIndex.synchronize(fullScan);
+        assetIndex.setListener(resourceChanges);
 
-            final Array<URLClassLoader> classLoaders = getClassLoaders();
-            final URLClassLoader oldLoader = classLoaders.search(url, (loader, toCheck) -> contains(loader.getURLs(), toCheck));
-            if (oldLoader != null) return;
+        rebuildAssetResources(assetIndex);
 
-            final URLClassLoader newLoader = new URLClassLoader(toArray(url), getClass().getClassLoader());
-            classLoaders.add(newLoader);
-            assetManager.addClassLoader(newLoader);
-        }
-    }
+        LOGGER.debug(this, "synchronized the index of " + currentAsset + " with " + assetIndex.size() +
+                " files for " + (currentTimeMillis() - time) + "ms.");
 
-    @Override
-    public void run() {
-        super.run();
+        assetIndex.getFiles(FileExtensions.JAVA_LIBRARY)
+                .forEach(assetPath -> handleFile(currentAsset.resolve(assetPath)));
 
-        while (true) {
-            ThreadUtils.sleep(200);
+        assetIndex.getFolders().forEach(folderWatcher::register);
 
-            final Array<WatchKey> watchKeys = getWatchKeys();
+        scheduleIndexSaving();
+    }
 
-            List<WatchEvent<?>> watchEvents = null;
-            WatchKey watchKey = null;
+    /**
+     * Rebuild all available resources in the asset folder using the asset index.
+     *
+     * @param assetIndex the asset index or null if there is no asset folder.
+     */
+    @FromAnyThread
+    private void rebuildAssetResources(@Nullable final AssetIndex assetIndex) {
 
-            synchronized (this) {
-                for (final WatchKey key : watchKeys) {
-                    watchKey = key;
-                    watchEvents = key.pollEvents();
-                    if (!watchEvents.isEmpty()) break;
-                }
+        for (final String extension : availableResources.keySet()) {
+            if (assetIndex == null || !assetIndex.getExtensions().contains(extension)) {
+                updateAvailableResources(extension, current -> current.withAsset(ResourceList.EMPTY));
             }
+        }
 
-            if (watchEvents == null || watchEvents.isEmpty()) continue;
-
-            for (final WatchEvent<?> watchEvent : watchEvents) {
-
-                final Path file = (Path) watchEvent.context();
-                final Path folder = (Path) watchKey.watchable();
-                final Path realFile = folder.resolve(file);
-
-                if (watchEvent.kind() == ENTRY_CREATE) {
-
-                    final boolean directory = Files.isDirectory(realFile);
-
-                    final CreatedFileEvent event = new CreatedFileEvent();
-                    event.setFile(realFile);
-                    event.setNeedSelect(false);
-                    event.setDirectory(directory);
-
-                    if (directory) {
-                        registerWatchKey(realFile);
-                    }
-
-                    FX_EVENT_MANAGER.notify(event);
-
-                } else if (watchEvent.kind() == ENTRY_DELETE) {
-
-                    final boolean directory = Files.isDirectory(realFile);
+        if (assetIndex == null) {
+            return;
+        }
 
-                    final DeletedFileEvent event = new DeletedFileEvent();
-                    event.setFile(realFile);
-                    event.setDirectory(directory);
+        for (final String extension : assetIndex.getExtensions()) {
+            final ResourceList inAsset = ResourceList.of(assetIndex.getFiles(extension));
+            updateAvailableResources(extension, current -> current.withAsset(inAsset));
+        }
+    }
 
-                    removeWatchKeyFor(realFile);
+    /**
+     * Schedule saving the changed asset index.
+     */
+    @FromAnyThread
+    private void scheduleIndexSaving() {
+        if (indexSaveScheduled.compareAndSet(false, true)) {
+            EXECUTOR_MANAGER.schedule(this::saveIndex, INDEX_SAVE_DELAY);
+        }
+    }
 
-                    FX_EVENT_MANAGER.notify(event);
+    /**
+     * Save the asset index if it was changed.
+     */
+    @FromAnyThread
+    private synchronized void saveIndex() {
 
-                } else if (watchEvent.kind() == ENTRY_MODIFY) {
+        indexSaveScheduled.set(false);
 
-                    final FileChangedEvent event = new FileChangedEvent();
-                    event.setFile(realFile);
+        final AssetIndex assetIndex = getAssetIndex();
 
-                    FX_EVENT_MANAGER.notify(event);
-                }
-            }
+        if (assetIndex != null && assetIndex.isChanged()) {
+            assetIndex.save();
         }
     }
 
     /**
-     * Find a watch key for the file.
+     * Get the index of the current asset folder.
      *
-     * @param path the file.
-     * @return the watch key or null.
+     * @return the index of the current asset folder.
      */
     @FromAnyThread
-    private synchronized @Nullable WatchKey findWatchKey(@NotNull final Path path) {
-        final Array<WatchKey> watchKeys = getWatchKeys();
-        return watchKeys.search(path, (watchKey, toCheck) -> watchKey.watchable().equals(toCheck));
+    private @Nullable AssetIndex getAssetIndex() {
+        return assetIndex;
     }
 
     /**
-     * Remove a watch key for the file.
+     * Set the index of the current asset folder.
      *
-     * @param path the file.
+     * @param assetIndex the index of the current asset folder.
      */
     @FromAnyThread
-    private synchronized void removeWatchKeyFor(@NotNull final Path path) {
-
-        final WatchKey watchKey = findWatchKey(path);
-        if (watchKey == null) {
-            return;
-        }
-
-        final Array<WatchKey> watchKeys = getWatchKeys();
-        watchKeys.fastRemove(watchKey);
-        watchKey.cancel();
+    private void setAssetIndex(@Nullable final AssetIndex assetIndex) {
+        this.assetIndex = assetIndex;
     }
 
     /**
-     * Register a watch key for the file.
-     *
-     * @param path the file.
+     * Handle a file event in an asset folder.
      */
     @FromAnyThread
-    private synchronized void registerWatchKey(@NotNull final Path path) {
-        Utils.run(() -> getWatchKeys().add(path.register(WATCH_SERVICE, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY)));
+    private synchronized void handleFile(@NotNull final Path file) {
+
+        if (Files.isDirectory(file)) {
+            return;
+        }
+
+        final String extension = FileUtils.getExtension(file);
+
+        if (extension.endsWith(FileExtensions.JAVA_LIBRARY)) {
+
+            final AssetManager assetManager = EditorUtil.getAssetManager();
+            final URL url = get(file, FileUtils::toUrl);
+
+            final Array<URLClassLoader> classLoaders = getClassLoaders();
+            final URLClassLoader oldLoader = classLoaders.search(url, (loader, toCheck) -> contains(loader.getURLs(), toCheck));
+            if (oldLoader != null) return;
+
+            final URLClassLoader newLoader = new URLClassLoader(toArray(url), getClass().getClassLoader());
+            classLoaders.add(newLoader);
+            assetManager.addClassLoader(newLoader);
+        }
     }
 
     /**
@@ -664,7 +910,7 @@ public class ResourceManager extends EditorThread implements AssetEventListener
      */
     @FromAnyThread
     private void processRefreshAsset() {
-        EXECUTOR_MANAGER.addBackgroundTask(this::reload);
+        EXECUTOR_MANAGER.addBackgroundTask(() -> reload(true), TaskPriority.BULK);
     }
 
     /**
@@ -672,14 +918,14 @@ public class ResourceManager extends EditorThread implements AssetEventListener
      */
     @FromAnyThread
     private void processChangeAsset() {
-        EXECUTOR_MANAGER.addBackgroundTask(this::reload);
+        EXECUTOR_MANAGER.addBackgroundTask(this::reload, TaskPriority.BULK);
     }
 
     /**
-     * @return the list of keys for watching to folders.
+     * @return the watcher of changes in the asset folder.
      */
     @FromAnyThread
-    private @NotNull Array<WatchKey> getWatchKeys() {
-        return watchKeys;
+    private @NotNull AssetFolderWatcher getFolderWatcher() {
+        return folderWatcher;
     }
 }
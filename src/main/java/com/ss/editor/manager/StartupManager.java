@@ -0,0 +1,256 @@
+package com.ss.editor.manager;
+
+import com.ss.editor.EditorThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.rlib.logging.Logger;
+import com.ss.rlib.logging.LoggerManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class to initialize managers on startup. Managers are registered with their dependencies and make a dependency
+ * graph, a manager is built when all its dependencies are built, so independent managers are built in parallel. A
+ * manager can depend only on already registered managers, so the graph can't have cycles. When the initialization
+ * is finished, the timing report is written to the log.
+ *
+ * @author JavaSaBr
+ */
+public final class StartupManager {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(StartupManager.class);
+
+    @NotNull
+    private static final String METHOD_NAME = "getInstance";
+
+    /**
+     * The registered manager.
+     */
+    private static final class Node {
+
+        /**
+         * The class of the manager.
+         */
+        @NotNull
+        private final Class<?> type;
+
+        /**
+         * The dependencies of the manager.
+         */
+        @NotNull
+        private final Node[] dependencies;
+
+        /**
+         * The result of building the manager.
+         */
+        @Nullable
+        private CompletableFuture<Void> future;
+
+        /**
+         * The thread which builds the manager.
+         */
+        @Nullable
+        private volatile Thread thread;
+
+        /**
+         * The time of starting and finishing building in nanos.
+         */
+        private volatile long startTime;
+        private volatile long finishTime;
+
+        private Node(@NotNull final Class<?> type, @NotNull final Node[] dependencies) {
+            this.type = type;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * The registered managers in order of registration.
+     */
+    @NotNull
+    private static final List<Node> NODES = new ArrayList<>();
+
+    /**
+     * The table of registered managers by their classes.
+     */
+    @NotNull
+    private static final Map<Class<?>, Node> NODE_TABLE = new ConcurrentHashMap<>();
+
+    /**
+     * Register a manager to initialize.
+     *
+     * @param type         the class of the manager, it should have the static method 'getInstance'.
+     * @param dependencies the classes of already registered managers which are used by the manager.
+     */
+    @FromAnyThread
+    public static synchronized void register(@NotNull final Class<?> type, @NotNull final Class<?>... dependencies) {
+
+        if (NODE_TABLE.containsKey(type)) {
+            throw new IllegalArgumentException("The class " + type + " is already registered.");
+        }
+
+        getInstanceMethod(type);
+
+        final Node[] nodes = new Node[dependencies.length];
+
+        for (int i = 0; i < dependencies.length; i++) {
+
+            nodes[i] = NODE_TABLE.get(dependencies[i]);
+
+            if (nodes[i] == null) {
+                throw new IllegalArgumentException("The dependency " + dependencies[i] + " of the " + type +
+                        " isn't registered.");
+            }
+        }
+
+        final Node node = new Node(type, nodes);
+
+        NODES.add(node);
+        NODE_TABLE.put(type, node);
+    }
+
+    /**
+     * Initialize all registered managers and wait for finishing.
+     */
+    @FromAnyThread
+    public static synchronized void initialize() {
+
+        final List<Node> nodes = NODES;
+
+        if (nodes.isEmpty()) {
+            return;
+        }
+
+        final AtomicInteger threadId = new AtomicInteger();
+        final int threads = Math.min(nodes.size(), Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new EditorThread(runnable);
+            thread.setName("Startup-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final long startTime = System.nanoTime();
+
+        try {
+
+            for (final Node node : nodes) {
+
+                final CompletableFuture<?>[] dependencies = Arrays.stream(node.dependencies)
+                        .map(dependency -> dependency.future)
+                        .toArray(CompletableFuture[]::new);
+
+                node.future = CompletableFuture.allOf(dependencies)
+                        .thenRunAsync(() -> build(node), executor);
+            }
+
+            final CompletableFuture<?>[] futures = nodes.stream()
+                    .map(node -> node.future)
+                    .toArray(CompletableFuture[]::new);
+
+            CompletableFuture.allOf(futures).join();
+
+        } finally {
+            executor.shutdown();
+        }
+
+        report(nodes, startTime);
+
+        NODES.clear();
+        NODE_TABLE.clear();
+    }
+
+    /**
+     * Build the manager, an error of building is logged and doesn't stop building other managers.
+     *
+     * @param node the node of the manager.
+     */
+    @FromAnyThread
+    private static void build(@NotNull final Node node) {
+
+        node.thread = Thread.currentThread();
+        node.startTime = System.nanoTime();
+        try {
+
+            final Object instance = getInstanceMethod(node.type).invoke(null);
+
+            if (instance == null) {
+                LOGGER.warning("no initialize class " + node.type);
+            }
+
+        } catch (final InvocationTargetException e) {
+            LOGGER.warning(e.getTargetException());
+        } catch (final IllegalAccessException e) {
+            LOGGER.warning(e);
+        } finally {
+            node.finishTime = System.nanoTime();
+            node.thread = null;
+        }
+    }
+
+    /**
+     * Write the timing report of the initialization to the log.
+     *
+     * @param nodes     the initialized nodes.
+     * @param startTime the time of starting the initialization in nanos.
+     */
+    @FromAnyThread
+    private static void report(@NotNull final List<Node> nodes, final long startTime) {
+
+        final long finishTime = System.nanoTime();
+        final long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        final StringBuilder builder = new StringBuilder("the startup timing report:\n");
+
+        for (final Node node : nodes) {
+            builder.append("    ").append(node.type.getSimpleName())
+                    .append(": started at +").append(toMillis(node.startTime - startTime))
+                    .append("ms, built for ").append(toMillis(node.finishTime - node.startTime))
+                    .append("ms\n");
+        }
+
+        builder.append("    managers were initialized for ").append(toMillis(finishTime - startTime))
+                .append("ms, ").append(sinceJvmStart).append("ms since starting JVM.");
+
+        LOGGER.debug(builder.toString());
+    }
+
+    private static long toMillis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Check that the manager is built by this initializer, it prints the stack trace if the manager is built out of
+     * the dependency graph, e.g. by other manager which doesn't declare the dependency on it.
+     *
+     * @param type the class of the manager.
+     */
+    @FromAnyThread
+    public static void valid(@NotNull final Class<?> type) {
+
+        final Node node = NODE_TABLE.get(type);
+
+        if (node != null && node.thread != Thread.currentThread()) {
+            Thread.dumpStack();
+        }
+    }
+
+    private static @NotNull Method getInstanceMethod(@NotNull final Class<?> type) {
+        try {
+            return type.getMethod(METHOD_NAME);
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalArgumentException("The class " + type + " doesn't have the method " + METHOD_NAME, e);
+        }
+    }
+
+    private StartupManager() {
+        throw new RuntimeException();
+    }
+}
@@ -8,7 +8,6 @@ import com.ss.editor.model.workspace.Workspace;
 import com.ss.editor.util.EditorUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import com.ss.rlib.manager.InitializeManager;
 import com.ss.rlib.util.dictionary.DictionaryFactory;
 import com.ss.rlib.util.dictionary.ObjectDictionary;
 
@@ -35,11 +34,17 @@ public class WorkspaceManager {
     public static final String FILE_WORKSPACE = "workspace";
 
     @Nullable
-    private static WorkspaceManager instance;
+    private static volatile WorkspaceManager instance;
 
     @FromAnyThread
     public static @NotNull WorkspaceManager getInstance() {
-        if (instance == null) instance = new WorkspaceManager();
+        if (instance == null) {
+            synchronized (WorkspaceManager.class) {
+                if (instance == null) {
+                    instance = new WorkspaceManager();
+                }
+            }
+        }
         return instance;
     }
 
@@ -50,7 +55,7 @@ public class WorkspaceManager {
     private final ObjectDictionary<Path, Workspace> workspaces;
 
     private WorkspaceManager() {
-        InitializeManager.valid(getClass());
+        StartupManager.valid(getClass());
         this.workspaces = DictionaryFactory.newObjectDictionary();
     }
 
@@ -10,6 +10,7 @@ import com.jme3.scene.Node;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.util.LocalObjects;
+import com.ss.editor.util.NodeUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -45,6 +46,21 @@ public class EditorAudioNode extends Node {
     @NotNull
     private final Node editedNode;
 
+    /**
+     * The camera location which the model was placed for.
+     */
+    @NotNull
+    private final Vector3f modelCameraLocation;
+
+    /**
+     * The position and rotation of the edited node which the model was placed for.
+     */
+    @NotNull
+    private final Vector3f modelPosition;
+
+    @NotNull
+    private final Quaternion modelRotation;
+
     /**
      * The audio node.
      */
@@ -60,6 +76,9 @@ public class EditorAudioNode extends Node {
     public EditorAudioNode(@NotNull final Camera camera) {
         this.camera = camera;
         this.editedNode = new EditedNode("EditedNode");
+        this.modelCameraLocation = new Vector3f();
+        this.modelPosition = new Vector3f();
+        this.modelRotation = new Quaternion();
         attachChild(editedNode);
     }
 
@@ -101,6 +120,7 @@ public class EditorAudioNode extends Node {
     @JmeThread
     public void setModel(@Nullable final Node model) {
         this.model = model;
+        this.modelCameraLocation.set(Float.NaN, Float.NaN, Float.NaN);
     }
 
     /**
@@ -148,7 +168,8 @@ public class EditorAudioNode extends Node {
     }
 
     /**
-     * Update position and rotation of a model.
+     * Update position and rotation of a model, the model is updated only when the camera, the audio node or its
+     * parent was moved.
      */
     @JmeThread
     public void updateModel() {
@@ -160,20 +181,32 @@ public class EditorAudioNode extends Node {
         final Node parent = audioNode.getParent();
 
         if (parent != null) {
-            setLocalTranslation(parent.getWorldTranslation());
-            setLocalRotation(parent.getWorldRotation());
-            setLocalScale(parent.getWorldScale());
+            NodeUtils.updateLocalTransform(this, parent.getWorldTranslation(), parent.getWorldRotation(),
+                    parent.getWorldScale());
         }
 
         final Node editedNode = getEditedNode();
+        final Vector3f cameraLocation = camera.getLocation();
+        final Vector3f editedPosition = editedNode.getWorldTranslation();
+        final Quaternion editedRotation = editedNode.getLocalRotation();
+
+        if (modelCameraLocation.equals(cameraLocation) && modelPosition.equals(editedPosition) &&
+                modelRotation.equals(editedRotation)) {
+            return;
+        }
+
         final LocalObjects local = LocalObjects.get();
         final Vector3f positionOnCamera = local.nextVector();
-        positionOnCamera.set(editedNode.getWorldTranslation()).subtractLocal(camera.getLocation());
+        positionOnCamera.set(editedPosition).subtractLocal(cameraLocation);
         positionOnCamera.normalizeLocal();
         positionOnCamera.multLocal(camera.getFrustumNear() + 0.4f);
-        positionOnCamera.addLocal(camera.getLocation());
+        positionOnCamera.addLocal(cameraLocation);
 
         model.setLocalTranslation(positionOnCamera);
-        model.setLocalRotation(editedNode.getLocalRotation());
+        model.setLocalRotation(editedRotation);
+
+        modelCameraLocation.set(cameraLocation);
+        modelPosition.set(editedPosition);
+        modelRotation.set(editedRotation);
     }
 }
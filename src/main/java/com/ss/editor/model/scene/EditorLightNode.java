@@ -41,6 +41,21 @@ public class EditorLightNode extends Node implements NoSelection, WrapperNode {
     @NotNull
     private final Quaternion lastLightRotation;
 
+    /**
+     * The camera location which the model was placed for.
+     */
+    @NotNull
+    private final Vector3f modelCameraLocation;
+
+    /**
+     * The position and rotation of this node which the model was placed for.
+     */
+    @NotNull
+    private final Vector3f modelPosition;
+
+    @NotNull
+    private final Quaternion modelRotation;
+
     /**
      * The light.
      */
@@ -57,6 +72,9 @@ public class EditorLightNode extends Node implements NoSelection, WrapperNode {
         this.camera = camera;
         this.lastLightPosition = new Vector3f();
         this.lastLightRotation = new Quaternion();
+        this.modelCameraLocation = new Vector3f();
+        this.modelPosition = new Vector3f();
+        this.modelRotation = new Quaternion();
     }
 
     /**
@@ -99,6 +117,7 @@ public class EditorLightNode extends Node implements NoSelection, WrapperNode {
     @JmeThread
     public void setModel(@Nullable final Node model) {
         this.model = model;
+        this.modelCameraLocation.set(Float.NaN, Float.NaN, Float.NaN);
     }
 
     @Override
@@ -223,7 +242,7 @@ public class EditorLightNode extends Node implements NoSelection, WrapperNode {
     }
 
     /**
-     * Update position and rotation of a model.
+     * Update position and rotation of a model, the model is updated only when the camera or this node was moved.
      */
     @JmeThread
     public void updateModel() {
@@ -231,15 +250,26 @@ public class EditorLightNode extends Node implements NoSelection, WrapperNode {
         final Node model = getModel();
         if (model == null) return;
 
+        final Vector3f cameraLocation = camera.getLocation();
+
+        if (modelCameraLocation.equals(cameraLocation) && modelPosition.equals(getLocalTranslation()) &&
+                modelRotation.equals(getLocalRotation())) {
+            return;
+        }
+
         final LocalObjects local = LocalObjects.get();
         final Vector3f positionOnCamera = local.nextVector();
         positionOnCamera.set(getLocalTranslation())
-                .subtractLocal(camera.getLocation())
+                .subtractLocal(cameraLocation)
                 .normalizeLocal()
                 .multLocal(camera.getFrustumNear() + 0.4f)
-                .addLocal(camera.getLocation());
+                .addLocal(cameraLocation);
 
         model.setLocalTranslation(positionOnCamera);
         model.setLocalRotation(getLocalRotation());
+
+        modelCameraLocation.set(cameraLocation);
+        modelPosition.set(getLocalTranslation());
+        modelRotation.set(getLocalRotation());
     }
 }
@@ -6,6 +6,7 @@ import com.jme3.scene.Node;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.extension.scene.ScenePresentable;
+import com.ss.editor.util.NodeUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -141,7 +142,7 @@ public class EditorPresentableNode extends Node {
     }
 
     /**
-     * Update position and rotation of a model.
+     * Update position and rotation of a model, the model is updated only when the edited node was moved.
      */
     @JmeThread
     public void updateModel() {
@@ -160,8 +161,8 @@ public class EditorPresentableNode extends Node {
         }*/
 
         final Node editedNode = getEditedNode();
-        model.setLocalTranslation(editedNode.getWorldTranslation());
-        model.setLocalRotation(editedNode.getWorldRotation());
-        model.setLocalScale(editedNode.getWorldScale());
+
+        NodeUtils.updateLocalTransform(model, editedNode.getWorldTranslation(), editedNode.getWorldRotation(),
+                editedNode.getWorldScale());
     }
 }
@@ -0,0 +1,828 @@
+package com.ss.editor.model.scene;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.bounding.BoundingVolume;
+import com.jme3.collision.CollisionResult;
+import com.jme3.collision.CollisionResults;
+import com.jme3.math.Plane;
+import com.jme3.math.Ray;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.terrain.Terrain;
+import com.ss.editor.annotation.JmeThread;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
+import com.ss.rlib.util.dictionary.DictionaryFactory;
+import com.ss.rlib.util.dictionary.ObjectDictionary;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The bounding volume hierarchy over world bounds of collidable spatials of a scene to pick them without testing
+ * each spatial. Collidable spatials are geometries and terrains (a terrain picks its patches itself). Nodes of the
+ * tree keep enlarged bounds, so small moves of a spatial don't change the tree.
+ * <p>
+ * The tree is synchronized with the scene lazily: after {@link #invalidate()} the next query compares world bounds
+ * of collidable spatials with the stored ones and reinserts only spatials which left their enlarged bounds. A query
+ * of the whole scene walks the whole scene, a pick within a spatial walks only the subtree of the spatial. When most
+ * of spatials are changed (e.g. a new model is opened) the tree is rebuilt from scratch.
+ * <p>
+ * The tree doesn't recalculate model bounds of spatials, a mesh changed in place should be reported by
+ * {@link #invalidateModelBound(Spatial)}.
+ *
+ * @author JavaSaBr
+ */
+public class SceneBoundsTree {
+
+    /**
+     * The margin of enlarged bounds relative to the size of a spatial.
+     */
+    private static final float MARGIN = 0.1F;
+
+    /**
+     * The min margin of enlarged bounds.
+     */
+    private static final float MIN_MARGIN = 0.01F;
+
+    /**
+     * The node of the tree.
+     */
+    private static final class TreeNode {
+
+        /**
+         * The bounds of the node.
+         */
+        private float minX, minY, minZ;
+        private float maxX, maxY, maxZ;
+
+        /**
+         * The parent node.
+         */
+        @Nullable
+        private TreeNode parent;
+
+        /**
+         * The children of an internal node.
+         */
+        @Nullable
+        private TreeNode left, right;
+
+        /**
+         * The spatial of a leaf node.
+         */
+        @Nullable
+        private Leaf leaf;
+
+        private float getArea() {
+            final float x = maxX - minX, y = maxY - minY, z = maxZ - minZ;
+            return x * y + y * z + z * x;
+        }
+
+        private boolean contains(@NotNull final Leaf leaf) {
+            return minX <= leaf.minX && minY <= leaf.minY && minZ <= leaf.minZ &&
+                    maxX >= leaf.maxX && maxY >= leaf.maxY && maxZ >= leaf.maxZ;
+        }
+
+        private void union(@NotNull final TreeNode first, @NotNull final TreeNode second) {
+            minX = Math.min(first.minX, second.minX);
+            minY = Math.min(first.minY, second.minY);
+            minZ = Math.min(first.minZ, second.minZ);
+            maxX = Math.max(first.maxX, second.maxX);
+            maxY = Math.max(first.maxY, second.maxY);
+            maxZ = Math.max(first.maxZ, second.maxZ);
+        }
+
+        /**
+         * Calculate the distance along the ray to entering into the bounds.
+         *
+         * @return the distance or positive infinity if the ray misses the bounds.
+         */
+        private float intersect(@NotNull final Vector3f origin, @NotNull final Vector3f inverse, final float limit) {
+
+            float near = 0, far = limit;
+
+            float first = (minX - origin.x) * inverse.x, second = (maxX - origin.x) * inverse.x;
+            near = Math.max(near, Math.min(first, second));
+            far = Math.min(far, Math.max(first, second));
+
+            first = (minY - origin.y) * inverse.y;
+            second = (maxY - origin.y) * inverse.y;
+            near = Math.max(near, Math.min(first, second));
+            far = Math.min(far, Math.max(first, second));
+
+            first = (minZ - origin.z) * inverse.z;
+            second = (maxZ - origin.z) * inverse.z;
+            near = Math.max(near, Math.min(first, second));
+            far = Math.min(far, Math.max(first, second));
+
+            return near <= far ? near : Float.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Check the bounds against planes which normals look inside.
+         *
+         * @return true if the bounds aren't outside of some plane.
+         */
+        private boolean intersect(@NotNull final Plane[] planes) {
+
+            for (final Plane plane : planes) {
+
+                final Vector3f normal = plane.getNormal();
+                final float x = normal.x >= 0 ? maxX : minX;
+                final float y = normal.y >= 0 ? maxY : minY;
+                final float z = normal.z >= 0 ? maxZ : minZ;
+
+                if (normal.x * x + normal.y * y + normal.z * z < plane.getConstant()) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * The collidable spatial in the tree.
+     */
+    private static final class Leaf {
+
+        /**
+         * The spatial.
+         */
+        @NotNull
+        private final Spatial spatial;
+
+        /**
+         * The leaf node of the spatial.
+         */
+        @NotNull
+        private final TreeNode node;
+
+        /**
+         * The world bounds of the spatial.
+         */
+        private float minX, minY, minZ;
+        private float maxX, maxY, maxZ;
+
+        /**
+         * The stamp of the last synchronization which found the spatial in the scene.
+         */
+        private long stamp;
+
+        private Leaf(@NotNull final Spatial spatial) {
+            this.spatial = spatial;
+            this.node = new TreeNode();
+            this.node.leaf = this;
+        }
+
+        /**
+         * Update the world bounds of the spatial.
+         *
+         * @return true if the bounds were changed.
+         */
+        private boolean updateBounds() {
+
+            final BoundingVolume bound = spatial.getWorldBound();
+            final Vector3f center = bound == null ? spatial.getWorldTranslation() : bound.getCenter();
+
+            float extentX = 0, extentY = 0, extentZ = 0;
+
+            if (bound instanceof BoundingBox) {
+                final BoundingBox box = (BoundingBox) bound;
+                extentX = box.getXExtent();
+                extentY = box.getYExtent();
+                extentZ = box.getZExtent();
+            } else if (bound instanceof BoundingSphere) {
+                extentX = extentY = extentZ = ((BoundingSphere) bound).getRadius();
+            }
+
+            final float minX = center.x - extentX, minY = center.y - extentY, minZ = center.z - extentZ;
+            final float maxX = center.x + extentX, maxY = center.y + extentY, maxZ = center.z + extentZ;
+
+            if (minX == this.minX && minY == this.minY && minZ == this.minZ &&
+                    maxX == this.maxX && maxY == this.maxY && maxZ == this.maxZ) {
+                return false;
+            }
+
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            return true;
+        }
+
+        /**
+         * Set the enlarged bounds of the spatial to its leaf node.
+         */
+        private void enlarge() {
+
+            final float marginX = Math.max((maxX - minX) * MARGIN, MIN_MARGIN);
+            final float marginY = Math.max((maxY - minY) * MARGIN, MIN_MARGIN);
+            final float marginZ = Math.max((maxZ - minZ) * MARGIN, MIN_MARGIN);
+
+            node.minX = minX - marginX;
+            node.minY = minY - marginY;
+            node.minZ = minZ - marginZ;
+            node.maxX = maxX + marginX;
+            node.maxY = maxY + marginY;
+            node.maxZ = maxZ + marginZ;
+        }
+
+        private float getCenter(final int axis) {
+            return axis == 0 ? minX + maxX : axis == 1 ? minY + maxY : minZ + maxZ;
+        }
+    }
+
+    /**
+     * The root spatial of the scene.
+     */
+    @NotNull
+    private final Spatial scene;
+
+    /**
+     * The table of leaves by their spatials.
+     */
+    @NotNull
+    private final ObjectDictionary<Spatial, Leaf> leafTable;
+
+    /**
+     * All leaves of the tree.
+     */
+    @NotNull
+    private final Array<Leaf> leaves;
+
+    /**
+     * The leaves which need to be inserted to the tree on the current synchronization.
+     */
+    @NotNull
+    private final Array<Leaf> toInsert;
+
+    /**
+     * The spatials which model bounds need to be recalculated on the next synchronization.
+     */
+    @NotNull
+    private final Array<Spatial> toUpdateBound;
+
+    /**
+     * The collision results of a spatial.
+     */
+    @NotNull
+    private final CollisionResults spatialResults;
+
+    /**
+     * The stack of nodes to traverse the tree.
+     */
+    @NotNull
+    private TreeNode[] stack;
+
+    /**
+     * The root node of the tree.
+     */
+    @Nullable
+    private TreeNode root;
+
+    /**
+     * The stamp of the current synchronization.
+     */
+    private long stamp;
+
+    /**
+     * True if the tree needs to be synchronized with the scene.
+     */
+    private boolean dirty;
+
+    public SceneBoundsTree(@NotNull final Spatial scene) {
+        this.scene = scene;
+        this.leafTable = DictionaryFactory.newObjectDictionary();
+        this.leaves = ArrayFactory.newArray(Leaf.class);
+        this.toInsert = ArrayFactory.newArray(Leaf.class);
+        this.toUpdateBound = ArrayFactory.newArray(Spatial.class);
+        this.spatialResults = new CollisionResults();
+        this.stack = new TreeNode[64];
+        this.dirty = true;
+    }
+
+    /**
+     * Mark the tree as needing to be synchronized with the scene before the next query, it should be called when the
+     * scene could be changed, e.g. once per frame.
+     */
+    @JmeThread
+    public void invalidate() {
+        this.dirty = true;
+    }
+
+    /**
+     * Mark the model bound of the spatial as changed, e.g. when its mesh was changed in place. The bound is
+     * recalculated on the next synchronization.
+     *
+     * @param spatial the changed spatial.
+     */
+    @JmeThread
+    public void invalidateModelBound(@NotNull final Spatial spatial) {
+
+        if (!toUpdateBound.contains(spatial)) {
+            toUpdateBound.add(spatial);
+        }
+
+        this.dirty = true;
+    }
+
+    /**
+     * Find the closest collision of the ray with the scene.
+     *
+     * @param ray    the ray.
+     * @param within the spatial to check only its collidable spatials or null to check the whole scene.
+     * @return the closest collision or null.
+     */
+    @JmeThread
+    public @Nullable CollisionResult pick(@NotNull final Ray ray, @Nullable final Spatial within) {
+
+        sync(within);
+
+        final TreeNode root = this.root;
+
+        if (root == null) {
+            return null;
+        }
+
+        final Vector3f origin = ray.getOrigin();
+        final Vector3f direction = ray.getDirection();
+        final Vector3f inverse = new Vector3f(1F / direction.x, 1F / direction.y, 1F / direction.z);
+        final CollisionResults spatialResults = this.spatialResults;
+
+        CollisionResult closest = null;
+        float limit = ray.getLimit();
+
+        if (root.intersect(origin, inverse, limit) == Float.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        TreeNode[] stack = this.stack;
+        int size = 0;
+
+        stack[size++] = root;
+
+        while (size > 0) {
+
+            final TreeNode node = stack[--size];
+
+            // the node could be pushed before finding a closer collision
+            if (node.intersect(origin, inverse, limit) == Float.POSITIVE_INFINITY) {
+                continue;
+            }
+
+            final Leaf leaf = node.leaf;
+
+            if (leaf != null) {
+
+                if (within != null && within != scene && !isInside(leaf.spatial, within)) {
+                    continue;
+                }
+
+                spatialResults.clear();
+                leaf.spatial.collideWith(ray, spatialResults);
+
+                final CollisionResult result = spatialResults.size() > 0 ?
+                        spatialResults.getClosestCollision() : null;
+
+                if (result != null && result.getDistance() <= limit) {
+                    closest = result;
+                    limit = result.getDistance();
+                }
+
+                continue;
+            }
+
+            final TreeNode left = node.left;
+            final TreeNode right = node.right;
+
+            final float leftDistance = left.intersect(origin, inverse, limit);
+            final float rightDistance = right.intersect(origin, inverse, limit);
+
+            if (size + 2 > stack.length) {
+                stack = this.stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+
+            // the closer child is visited first
+            if (leftDistance <= rightDistance) {
+                if (rightDistance != Float.POSITIVE_INFINITY) stack[size++] = right;
+                if (leftDistance != Float.POSITIVE_INFINITY) stack[size++] = left;
+            } else {
+                if (leftDistance != Float.POSITIVE_INFINITY) stack[size++] = left;
+                if (rightDistance != Float.POSITIVE_INFINITY) stack[size++] = right;
+            }
+        }
+
+        spatialResults.clear();
+
+        return closest;
+    }
+
+    /**
+     * Find collidable spatials which world bounds intersect the frustum of the area of the screen.
+     *
+     * @param camera    the camera.
+     * @param minX      the min X coord of the area on the screen.
+     * @param minY      the min Y coord of the area on the screen.
+     * @param maxX      the max X coord of the area on the screen.
+     * @param maxY      the max Y coord of the area on the screen.
+     * @param container the container of found spatials.
+     */
+    @JmeThread
+    public void query(@NotNull final Camera camera, final float minX, final float minY, final float maxX,
+                      final float maxY, @NotNull final Array<Spatial> container) {
+
+        final Vector3f[] corners = new Vector3f[8];
+        final Vector2f screen = new Vector2f();
+        final Vector3f center = new Vector3f();
+
+        for (int i = 0; i < 8; i++) {
+            screen.set((i & 1) == 0 ? minX : maxX, (i & 2) == 0 ? minY : maxY);
+            corners[i] = camera.getWorldCoordinates(screen, (i & 4) == 0 ? 0F : 1F);
+            center.addLocal(corners[i]);
+        }
+
+        center.divideLocal(8F);
+
+        // near, far, left, right, bottom, top
+        final Plane[] planes = {
+                buildPlane(corners[0], corners[1], corners[2], center),
+                buildPlane(corners[4], corners[5], corners[6], center),
+                buildPlane(corners[0], corners[2], corners[4], center),
+                buildPlane(corners[1], corners[3], corners[5], center),
+                buildPlane(corners[0], corners[1], corners[4], center),
+                buildPlane(corners[2], corners[3], corners[6], center)
+        };
+
+        query(planes, container);
+    }
+
+    /**
+     * Find collidable spatials which world bounds aren't outside of the planes.
+     *
+     * @param planes    the planes which normals look inside of the area.
+     * @param container the container of found spatials.
+     */
+    @JmeThread
+    public void query(@NotNull final Plane[] planes, @NotNull final Array<Spatial> container) {
+
+        sync(null);
+
+        final TreeNode root = this.root;
+
+        if (root == null) {
+            return;
+        }
+
+        TreeNode[] stack = this.stack;
+        int size = 0;
+
+        stack[size++] = root;
+
+        while (size > 0) {
+
+            final TreeNode node = stack[--size];
+
+            if (!node.intersect(planes)) {
+                continue;
+            }
+
+            final Leaf leaf = node.leaf;
+
+            if (leaf != null) {
+                container.add(leaf.spatial);
+                continue;
+            }
+
+            if (size + 2 > stack.length) {
+                stack = this.stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+
+            stack[size++] = node.left;
+            stack[size++] = node.right;
+        }
+    }
+
+    private static @NotNull Plane buildPlane(@NotNull final Vector3f first, @NotNull final Vector3f second,
+                                             @NotNull final Vector3f third, @NotNull final Vector3f inside) {
+
+        final Plane plane = new Plane();
+        plane.setPlanePoints(first, second, third);
+
+        if (plane.pseudoDistance(inside) < 0) {
+            plane.setNormal(plane.getNormal().negate());
+            plane.setConstant(-plane.getConstant());
+        }
+
+        return plane;
+    }
+
+    private static boolean isInside(@NotNull final Spatial spatial, @NotNull final Spatial parent) {
+
+        for (Spatial current = spatial; current != null; current = current.getParent()) {
+            if (current == parent) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Synchronize the tree with the scene or with the subtree of the spatial if it's needed.
+     *
+     * @param within the spatial to synchronize only its subtree or null to synchronize the whole scene.
+     */
+    @JmeThread
+    private void sync(@Nullable final Spatial within) {
+
+        if (!dirty) {
+            return;
+        }
+
+        if (!toUpdateBound.isEmpty()) {
+            toUpdateBound.forEach(Spatial::updateModelBound);
+            toUpdateBound.clear();
+        }
+
+        if (within == null || within == scene) {
+            syncScene();
+        } else if (isInside(within, scene)) {
+            // removed spatials are out of the subtree, so they are skipped by picking until the next full sync
+            collect(within);
+            insertChanged();
+        }
+    }
+
+    /**
+     * Synchronize the tree with the whole scene.
+     */
+    @JmeThread
+    private void syncScene() {
+
+        dirty = false;
+        stamp++;
+
+        collect(scene);
+
+        final Array<Leaf> leaves = this.leaves;
+
+        for (int i = leaves.size() - 1; i >= 0; i--) {
+
+            final Leaf leaf = leaves.get(i);
+
+            if (leaf.stamp != stamp) {
+                leaves.fastRemove(i);
+                leafTable.remove(leaf.spatial);
+                if (leaf.node.parent != null || root == leaf.node) {
+                    remove(leaf.node);
+                }
+            }
+        }
+
+        insertChanged();
+    }
+
+    /**
+     * Insert new and changed leaves to the tree.
+     */
+    @JmeThread
+    private void insertChanged() {
+
+        final Array<Leaf> leaves = this.leaves;
+        final Array<Leaf> toInsert = this.toInsert;
+
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        if (toInsert.size() > leaves.size() / 2) {
+            rebuild();
+        } else {
+
+            for (final Leaf leaf : toInsert) {
+
+                if (leaf.node.parent != null || root == leaf.node) {
+                    remove(leaf.node);
+                }
+
+                leaf.enlarge();
+                insert(leaf.node);
+            }
+        }
+
+        toInsert.clear();
+    }
+
+    /**
+     * Collect collidable spatials of the subtree and find changed spatials.
+     */
+    @JmeThread
+    private void collect(@NotNull final Spatial spatial) {
+
+        if (spatial instanceof Geometry || spatial instanceof Terrain) {
+
+            Leaf leaf = leafTable.get(spatial);
+
+            if (leaf == null) {
+                leaf = new Leaf(spatial);
+                leafTable.put(spatial, leaf);
+                leaves.add(leaf);
+                leaf.updateBounds();
+                toInsert.add(leaf);
+            } else if (leaf.updateBounds() && !leaf.node.contains(leaf)) {
+                toInsert.add(leaf);
+            }
+
+            leaf.stamp = stamp;
+            return;
+
+        } else if (!(spatial instanceof Node)) {
+            return;
+        }
+
+        for (final Spatial child : ((Node) spatial).getChildren()) {
+            collect(child);
+        }
+    }
+
+    /**
+     * Insert the leaf node as a sibling of the node which bounds grow least.
+     */
+    @JmeThread
+    private void insert(@NotNull final TreeNode leafNode) {
+
+        if (root == null) {
+            root = leafNode;
+            leafNode.parent = null;
+            return;
+        }
+
+        final TreeNode union = new TreeNode();
+
+        TreeNode sibling = root;
+
+        while (sibling.leaf == null) {
+
+            union.union(sibling, leafNode);
+
+            final float area = sibling.getArea();
+            final float combinedArea = union.getArea();
+
+            // the cost of making a new parent for this node and the leaf
+            final float cost = 2 * combinedArea;
+            final float inheritanceCost = 2 * (combinedArea - area);
+
+            final float leftCost = getInsertionCost(sibling.left, leafNode, union) + inheritanceCost;
+            final float rightCost = getInsertionCost(sibling.right, leafNode, union) + inheritanceCost;
+
+            if (cost < leftCost && cost < rightCost) {
+                break;
+            }
+
+            sibling = leftCost < rightCost ? sibling.left : sibling.right;
+        }
+
+        final TreeNode oldParent = sibling.parent;
+        final TreeNode newParent = new TreeNode();
+        newParent.parent = oldParent;
+        newParent.left = sibling;
+        newParent.right = leafNode;
+        newParent.union(sibling, leafNode);
+
+        sibling.parent = newParent;
+        leafNode.parent = newParent;
+
+        if (oldParent == null) {
+            root = newParent;
+        } else if (oldParent.left == sibling) {
+            oldParent.left = newParent;
+        } else {
+            oldParent.right = newParent;
+        }
+
+        refit(oldParent);
+    }
+
+    private static float getInsertionCost(@NotNull final TreeNode child, @NotNull final TreeNode leafNode,
+                                          @NotNull final TreeNode union) {
+
+        union.union(child, leafNode);
+
+        if (child.leaf != null) {
+            return union.getArea();
+        }
+
+        return union.getArea() - child.getArea();
+    }
+
+    /**
+     * Remove the leaf node from the tree, its sibling takes place of their parent.
+     */
+    @JmeThread
+    private void remove(@NotNull final TreeNode leafNode) {
+
+        final TreeNode parent = leafNode.parent;
+        leafNode.parent = null;
+
+        if (parent == null) {
+            root = null;
+            return;
+        }
+
+        final TreeNode sibling = parent.left == leafNode ? parent.right : parent.left;
+        final TreeNode grandParent = parent.parent;
+
+        sibling.parent = grandParent;
+
+        if (grandParent == null) {
+            root = sibling;
+        } else {
+
+            if (grandParent.left == parent) {
+                grandParent.left = sibling;
+            } else {
+                grandParent.right = sibling;
+            }
+
+            refit(grandParent);
+        }
+    }
+
+    /**
+     * Update bounds of the node and its ancestors.
+     */
+    @JmeThread
+    private void refit(@Nullable TreeNode node) {
+        for (; node != null; node = node.parent) {
+            node.union(node.left, node.right);
+        }
+    }
+
+    /**
+     * Rebuild the whole tree by splitting leaves by the median of the longest axis.
+     */
+    @JmeThread
+    private void rebuild() {
+
+        final Leaf[] all = leaves.toArray(Leaf.class);
+
+        for (final Leaf leaf : all) {
+            leaf.enlarge();
+            leaf.node.parent = null;
+        }
+
+        root = all.length == 0 ? null : build(all, 0, all.length);
+
+        if (root != null) {
+            root.parent = null;
+        }
+    }
+
+    @JmeThread
+    private static @NotNull TreeNode build(@NotNull final Leaf[] leaves, final int from, final int to) {
+
+        if (to - from == 1) {
+            return leaves[from].node;
+        }
+
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+
+        for (int i = from; i < to; i++) {
+            final Leaf leaf = leaves[i];
+            minX = Math.min(minX, leaf.minX + leaf.maxX);
+            minY = Math.min(minY, leaf.minY + leaf.maxY);
+            minZ = Math.min(minZ, leaf.minZ + leaf.maxZ);
+            maxX = Math.max(maxX, leaf.minX + leaf.maxX);
+            maxY = Math.max(maxY, leaf.minY + leaf.maxY);
+            maxZ = Math.max(maxZ, leaf.minZ + leaf.maxZ);
+        }
+
+        final float sizeX = maxX - minX, sizeY = maxY - minY, sizeZ = maxZ - minZ;
+        final int axis = sizeX >= sizeY && sizeX >= sizeZ ? 0 : sizeY >= sizeZ ? 1 : 2;
+
+        Arrays.sort(leaves, from, to, Comparator.comparingDouble(leaf -> leaf.getCenter(axis)));
+
+        final int middle = (from + to) >>> 1;
+
+        final TreeNode node = new TreeNode();
+        node.left = build(leaves, from, middle);
+        node.right = build(leaves, middle, to);
+        node.left.parent = node;
+        node.right.parent = node;
+        node.union(node.left, node.right);
+
+        return node;
+    }
+}
@@ -4,6 +4,10 @@ import com.ss.editor.annotation.FxThread;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * The interface for implementing an operation in an editor.
  *
@@ -11,6 +15,11 @@ import org.jetbrains.annotations.NotNull;
  */
 public interface EditorOperation {
 
+    /**
+     * The default estimated size of an operation without heavy data.
+     */
+    long DEFAULT_SIZE = 128;
+
     /**
      * Redo this operation for the editor.
      *
@@ -28,4 +37,55 @@ public interface EditorOperation {
     @FxThread
     default void undo(@NotNull final UndoableEditor editor) {
     }
+
+    /**
+     * Get the estimated size of this operation in the memory.
+     *
+     * @return the estimated size in bytes.
+     */
+    @FxThread
+    default long getEstimatedSize() {
+        return DEFAULT_SIZE;
+    }
+
+    /**
+     * Try to merge the next executed operation to this operation, so both operations are undone by one step.
+     *
+     * @param operation the next executed operation.
+     * @return true if the operation was merged.
+     */
+    @FxThread
+    default boolean merge(@NotNull final EditorOperation operation) {
+        return false;
+    }
+
+    /**
+     * Return true if this operation has heavy data which can be spilled to the disk.
+     *
+     * @return true if this operation can be spilled.
+     */
+    @FxThread
+    default boolean isSpillable() {
+        return false;
+    }
+
+    /**
+     * Write heavy data of this operation and release it from the memory.
+     *
+     * @param out the output.
+     * @throws IOException if the data can't be written.
+     */
+    @FxThread
+    default void spill(@NotNull final DataOutput out) throws IOException {
+    }
+
+    /**
+     * Read the spilled data of this operation back to the memory.
+     *
+     * @param in the input.
+     * @throws IOException if the data can't be read.
+     */
+    @FxThread
+    default void restore(@NotNull final DataInput in) throws IOException {
+    }
 }
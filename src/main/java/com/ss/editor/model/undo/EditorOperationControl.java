@@ -1,36 +1,110 @@
 package com.ss.editor.model.undo;
 
+import static com.ss.editor.config.DefaultSettingsProvider.Defaults.PREF_DEFAULT_UNDO_MEMORY_BUDGET;
+import static com.ss.editor.config.DefaultSettingsProvider.Preferences.PREF_UNDO_MEMORY_BUDGET;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
+import com.ss.editor.config.EditorConfig;
 import com.ss.editor.manager.ExecutorManager;
+import com.ss.rlib.logging.Logger;
+import com.ss.rlib.logging.LoggerManager;
 import com.ss.rlib.util.array.Array;
 import com.ss.rlib.util.array.ArrayFactory;
 import javafx.application.Platform;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
- * The implementation of controller to support undo/redo operations.
+ * The implementation of controller to support undo/redo operations. The history keeps as many operations as fit the
+ * memory budget by their estimated sizes, heavy data of the oldest operations over the budget is spilled to a temp
+ * file and is read back on undo. An operation is spilled only after its changes were applied in the editor thread.
+ * If the history is still over the budget, the oldest heavy operation which can't be spilled is discarded together
+ * with all older operations, because operations can be undone only in order. Consecutive operations which can be
+ * merged are undone by one step.
+ * <p>
+ * All methods of this controller work in the FX thread.
  *
  * @author JavaSaBr
  */
 public class EditorOperationControl {
 
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(EditorOperationControl.class);
+
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
     /**
      * The maximum history size.
      */
-    private static final int HISTORY_SIZE = 20;
+    private static final int HISTORY_SIZE = 500;
+
+    /**
+     * The operation in the history.
+     */
+    private static final class Entry {
+
+        /**
+         * The operation.
+         */
+        @NotNull
+        private final EditorOperation operation;
+
+        /**
+         * The estimated size of the operation in the memory.
+         */
+        private long size;
+
+        /**
+         * The offset of spilled data in the spill file or -1 if the operation isn't spilled.
+         */
+        private long spillOffset;
+
+        /**
+         * The length of spilled data.
+         */
+        private int spillLength;
+
+        /**
+         * The count of changes of the editor made by this operation.
+         */
+        private int changes;
+
+        /**
+         * The count of applying of this operation which are still waiting in the editor thread.
+         */
+        private int pending;
+
+        private Entry(@NotNull final EditorOperation operation) {
+            this.operation = operation;
+            this.size = operation.getEstimatedSize();
+            this.spillOffset = -1;
+            this.changes = 1;
+        }
+
+        private boolean isSpilled() {
+            return spillOffset >= 0;
+        }
+    }
 
     /**
      * The list of operations.
      */
     @NotNull
-    private final Array<EditorOperation> operations;
+    private final Array<Entry> operations;
 
     /**
      * The list of operations to redo.
      */
     @NotNull
-    private final Array<EditorOperation> toRedo;
+    private final Array<Entry> toRedo;
 
     /**
      * The editor with supporting undo/redo.
@@ -38,10 +112,37 @@ public class EditorOperationControl {
     @NotNull
     private final UndoableEditor editor;
 
+    /**
+     * The last executed operation which can take next operations.
+     */
+    @Nullable
+    private Entry lastExecuted;
+
+    /**
+     * The channel of the spill file.
+     */
+    @Nullable
+    private FileChannel spillChannel;
+
+    /**
+     * The size of the spill file.
+     */
+    private long spillSize;
+
+    /**
+     * The count of spilled operations.
+     */
+    private int spilledCount;
+
+    /**
+     * The total estimated size of operations in the memory.
+     */
+    private long memorySize;
+
     public EditorOperationControl(@NotNull final UndoableEditor editor) {
         this.editor = editor;
-        this.operations = ArrayFactory.newArray(EditorOperation.class);
-        this.toRedo = ArrayFactory.newArray(EditorOperation.class);
+        this.operations = ArrayFactory.newArray(Entry.class);
+        this.toRedo = ArrayFactory.newArray(Entry.class);
     }
 
     /**
@@ -50,7 +151,7 @@ public class EditorOperationControl {
      * @return the list of operations.
      */
     @FromAnyThread
-    private @NotNull Array<EditorOperation> getOperations() {
+    private @NotNull Array<Entry> getOperations() {
         return operations;
     }
 
@@ -60,7 +161,7 @@ public class EditorOperationControl {
      * @return the list of operations to redo.
      */
     @FromAnyThread
-    private @NotNull Array<EditorOperation> getToRedo() {
+    private @NotNull Array<Entry> getToRedo() {
         return toRedo;
     }
 
@@ -84,8 +185,7 @@ public class EditorOperationControl {
         if (Platform.isFxApplicationThread()) {
             executeImpl(operation);
         } else {
-            final ExecutorManager executorManager = ExecutorManager.getInstance();
-            executorManager.addFxTask(() -> executeImpl(operation));
+            EXECUTOR_MANAGER.addFxTask(() -> executeImpl(operation));
         }
     }
 
@@ -100,17 +200,277 @@ public class EditorOperationControl {
         final UndoableEditor editor = getEditor();
         operation.redo(editor);
 
+        final Array<Entry> operations = getOperations();
+        final Entry last = lastExecuted;
+
+        if (last != null && last == operations.last() && last.operation.merge(operation)) {
+
+            // the merged change can be made after saving, so it's counted to undo it correctly
+            editor.incrementChange();
+
+            last.changes++;
+            memorySize -= last.size;
+            last.size = last.operation.getEstimatedSize();
+            memorySize += last.size;
+
+            pin(last);
+            return;
+        }
+
         editor.incrementChange();
 
-        final Array<EditorOperation> operations = getOperations();
-        operations.add(operation);
+        final Entry entry = new Entry(operation);
+        pin(entry);
+
+        operations.add(entry);
+        memorySize += entry.size;
+        lastExecuted = entry;
 
-        if (operations.size() > HISTORY_SIZE) {
-            operations.poll();
+        final Array<Entry> toRedo = getToRedo();
+
+        for (final Entry removed : toRedo) {
+            release(removed);
         }
 
-        final Array<EditorOperation> toRedo = getToRedo();
         toRedo.clear();
+
+        fitToBudget();
+    }
+
+    /**
+     * Mark the operation as applying until its changes are applied in the editor thread, an applying operation can't
+     * be spilled. Changes of the operation are queued to the editor thread before this call, so the editor thread
+     * executes them before the task of this method.
+     *
+     * @param entry the applying operation.
+     */
+    @FxThread
+    private void pin(@NotNull final Entry entry) {
+        entry.pending++;
+        EXECUTOR_MANAGER.addJmeTask(() -> EXECUTOR_MANAGER.addFxTask(() -> {
+            entry.pending--;
+            fitToBudget();
+        }));
+    }
+
+    /**
+     * Spill the oldest applied operations to the disk while the history is over the memory budget, then discard the
+     * oldest heavy operations which can't be spilled together with all older operations.
+     */
+    @FxThread
+    private void fitToBudget() {
+
+        final EditorConfig config = EditorConfig.getInstance();
+        final long budget = config.getInteger(PREF_UNDO_MEMORY_BUDGET, PREF_DEFAULT_UNDO_MEMORY_BUDGET) * 1024L * 1024L;
+        final Array<Entry> operations = getOperations();
+
+        for (int i = 0, length = operations.size(); i < length && memorySize > budget; i++) {
+
+            final Entry entry = operations.get(i);
+
+            if (entry.pending < 1 && !entry.isSpilled() && entry.operation.isSpillable()) {
+                spill(entry);
+            }
+        }
+
+        while (memorySize > budget) {
+
+            final int index = findHeavyNotSpillable(operations);
+
+            if (index < 0) {
+                break;
+            }
+
+            for (int i = 0; i <= index; i++) {
+                release(operations.poll());
+            }
+        }
+
+        while (operations.size() > HISTORY_SIZE) {
+            release(operations.poll());
+        }
+    }
+
+    /**
+     * Find the oldest operation which keeps heavy data in the memory and can't be spilled, the last operation is
+     * never found.
+     *
+     * @param operations the operations.
+     * @return the index of the operation or -1.
+     */
+    @FxThread
+    private int findHeavyNotSpillable(@NotNull final Array<Entry> operations) {
+
+        for (int i = 0, length = operations.size() - 1; i < length; i++) {
+
+            final Entry entry = operations.get(i);
+
+            if (!entry.isSpilled() && !entry.operation.isSpillable() && entry.size > EditorOperation.DEFAULT_SIZE) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Write heavy data of the operation to the spill file.
+     *
+     * @param entry the operation.
+     */
+    @FxThread
+    private void spill(@NotNull final Entry entry) {
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try {
+
+            try (final DataOutputStream out = new DataOutputStream(bytes)) {
+                entry.operation.spill(out);
+            }
+
+            final FileChannel channel = getSpillChannel();
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            final long offset = spillSize;
+
+            long position = offset;
+
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+
+            spillSize = position;
+            spilledCount++;
+
+            entry.spillOffset = offset;
+            entry.spillLength = buffer.capacity();
+
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+            return;
+        }
+
+        memorySize -= entry.size;
+        entry.size = entry.operation.getEstimatedSize();
+        memorySize += entry.size;
+    }
+
+    /**
+     * Read spilled data of the operation back from the spill file.
+     *
+     * @param entry the operation.
+     * @return true if the operation is in the memory.
+     */
+    @FxThread
+    private boolean restore(@NotNull final Entry entry) {
+
+        if (!entry.isSpilled()) {
+            return true;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(entry.spillLength);
+
+        try {
+
+            final FileChannel channel = getSpillChannel();
+
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, entry.spillOffset + buffer.position()) < 0) {
+                    throw new EOFException("The spill file is truncated.");
+                }
+            }
+
+            try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array()))) {
+                entry.operation.restore(in);
+            }
+
+        } catch (final IOException e) {
+            LOGGER.warning(this, e);
+            return false;
+        }
+
+        markNotSpilled(entry);
+
+        memorySize -= entry.size;
+        entry.size = entry.operation.getEstimatedSize();
+        memorySize += entry.size;
+
+        return true;
+    }
+
+    /**
+     * Remove the operation from the memory accounting.
+     *
+     * @param entry the removed operation.
+     */
+    @FxThread
+    private void release(@Nullable final Entry entry) {
+
+        if (entry == null) {
+            return;
+        }
+
+        memorySize -= entry.size;
+
+        if (entry.isSpilled()) {
+            markNotSpilled(entry);
+        }
+
+        if (entry == lastExecuted) {
+            lastExecuted = null;
+        }
+    }
+
+    /**
+     * Mark the operation as not spilled and truncate the spill file when it has no spilled operations.
+     *
+     * @param entry the operation.
+     */
+    @FxThread
+    private void markNotSpilled(@NotNull final Entry entry) {
+
+        entry.spillOffset = -1;
+        entry.spillLength = 0;
+
+        if (--spilledCount > 0) {
+            return;
+        }
+
+        spilledCount = 0;
+        spillSize = 0;
+
+        final FileChannel channel = spillChannel;
+
+        if (channel != null) {
+            try {
+                channel.truncate(0);
+            } catch (final IOException e) {
+                LOGGER.warning(this, e);
+            }
+        }
+    }
+
+    /**
+     * Get or create the channel of the spill file.
+     *
+     * @return the channel of the spill file.
+     * @throws IOException if the spill file can't be created.
+     */
+    @FxThread
+    private @NotNull FileChannel getSpillChannel() throws IOException {
+
+        FileChannel channel = spillChannel;
+
+        if (channel == null) {
+
+            final Path file = Files.createTempFile("jmb-undo-", ".data");
+            file.toFile().deleteOnExit();
+
+            spillChannel = channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        return channel;
     }
 
     /**
@@ -121,8 +481,7 @@ public class EditorOperationControl {
         if (Platform.isFxApplicationThread()) {
             undoImpl();
         } else {
-            final ExecutorManager executorManager = ExecutorManager.getInstance();
-            executorManager.addFxTask(this::undoImpl);
+            EXECUTOR_MANAGER.addFxTask(this::undoImpl);
         }
     }
 
@@ -130,20 +489,31 @@ public class EditorOperationControl {
      * Undo the last operation.
      */
     @FxThread
-    private synchronized void undoImpl() {
+    private void undoImpl() {
+
+        final Array<Entry> operations = getOperations();
+        final Entry entry = operations.pop();
+        if (entry == null) {
+            return;
+        }
 
-        final Array<EditorOperation> operations = getOperations();
-        final EditorOperation operation = operations.pop();
-        if (operation == null) {
+        lastExecuted = null;
+
+        if (!restore(entry)) {
+            release(entry);
+            clearImpl();
             return;
         }
 
         final UndoableEditor editor = getEditor();
-        operation.undo(editor);
-        editor.decrementChange();
+        entry.operation.undo(editor);
 
-        final Array<EditorOperation> toRedo = getToRedo();
-        toRedo.add(operation);
+        for (int i = 0; i < entry.changes; i++) {
+            editor.decrementChange();
+        }
+
+        final Array<Entry> toRedo = getToRedo();
+        toRedo.add(entry);
     }
 
     /**
@@ -154,8 +524,7 @@ public class EditorOperationControl {
         if (Platform.isFxApplicationThread()) {
             redoImpl();
         } else {
-            final ExecutorManager executorManager = ExecutorManager.getInstance();
-            executorManager.addFxTask(this::redoImpl);
+            EXECUTOR_MANAGER.addFxTask(this::redoImpl);
         }
     }
 
@@ -165,19 +534,27 @@ public class EditorOperationControl {
     @FxThread
     private void redoImpl() {
 
-        final Array<EditorOperation> toRedo = getToRedo();
-        final EditorOperation operation = toRedo.pop();
-        if (operation == null) {
+        final Array<Entry> toRedo = getToRedo();
+        final Entry entry = toRedo.pop();
+        if (entry == null) {
             return;
         }
 
-        operation.redo(editor);
+        lastExecuted = null;
 
         final UndoableEditor editor = getEditor();
-        editor.incrementChange();
+        entry.operation.redo(editor);
+
+        for (int i = 0; i < entry.changes; i++) {
+            editor.incrementChange();
+        }
+
+        final Array<Entry> operations = getOperations();
+        operations.add(entry);
+
+        pin(entry);
 
-        final Array<EditorOperation> operations = getOperations();
-        operations.add(operation);
+        fitToBudget();
     }
 
     /**
@@ -188,28 +565,45 @@ public class EditorOperationControl {
         if (Platform.isFxApplicationThread()) {
             clearImpl();
         } else {
-            final ExecutorManager executorManager = ExecutorManager.getInstance();
-            executorManager.addFxTask(this::clearImpl);
+            EXECUTOR_MANAGER.addFxTask(this::clearImpl);
         }
     }
 
     /**
      * Clear operation history.
      */
+    @FxThread
     private void clearImpl() {
 
-        final Array<EditorOperation> operations = getOperations();
+        final Array<Entry> operations = getOperations();
         operations.clear();
 
-        final Array<EditorOperation> toRedo = getToRedo();
+        final Array<Entry> toRedo = getToRedo();
         toRedo.clear();
+
+        lastExecuted = null;
+        memorySize = 0;
+        spilledCount = 0;
+        spillSize = 0;
+
+        final FileChannel channel = spillChannel;
+
+        if (channel != null) {
+            spillChannel = null;
+            try {
+                channel.close();
+            } catch (final IOException e) {
+                LOGGER.warning(this, e);
+            }
+        }
     }
 
     @Override
     public String toString() {
         return "EditorOperationControl{" +
-                "operations=" + operations +
-                ", toRedo=" + toRedo +
+                "operations=" + operations.size() +
+                ", toRedo=" + toRedo.size() +
+                ", memorySize=" + memorySize +
                 ", editor=" + editor +
                 '}';
     }
@@ -0,0 +1,39 @@
+package com.ss.editor.model.undo;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The interface to implement heavy data of an operation which can be moved from the memory to the disk while the
+ * operation is deep in the history.
+ *
+ * @author JavaSaBr
+ */
+public interface SpillableData {
+
+    /**
+     * Get the estimated size of this data in the memory.
+     *
+     * @return the estimated size in bytes.
+     */
+    long getDataSize();
+
+    /**
+     * Write this data and release it from the memory, this data can't be used until it's restored.
+     *
+     * @param out the output.
+     * @throws IOException if this data can't be written.
+     */
+    void spill(@NotNull DataOutput out) throws IOException;
+
+    /**
+     * Read the spilled data back to the memory.
+     *
+     * @param in the input.
+     * @throws IOException if the data can't be read.
+     */
+    void restore(@NotNull DataInput in) throws IOException;
+}
@@ -4,6 +4,7 @@ import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.model.undo.EditorOperation;
+import com.ss.rlib.util.array.Array;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -35,6 +36,19 @@ public interface ChangeConsumer {
         notifyFxChangeProperty(null, object, propertyName);
     }
 
+    /**
+     * Notify about changed property of several objects by one operation from FX thread.
+     *
+     * @param objects      the objects.
+     * @param propertyName the property name.
+     */
+    @FxThread
+    default void notifyFxChangeProperties(@NotNull Array<?> objects, @NotNull String propertyName) {
+        for (final Object object : objects) {
+            notifyFxChangeProperty(object, propertyName);
+        }
+    }
+
     /**
      * Notify about changed property count in the object from FX thread.
      *
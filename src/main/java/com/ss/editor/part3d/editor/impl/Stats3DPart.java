@@ -9,6 +9,7 @@ import com.jme3.system.Timer;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.executor.impl.JmeThreadExecutor;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.part3d.editor.Editor3DPart;
 import com.ss.editor.ui.css.CssClasses;
@@ -132,6 +133,18 @@ public class Stats3DPart extends AbstractAppState implements Editor3DPart {
     @Nullable
     private Label fpsField;
 
+    /**
+     * The field to show the max time of editor tasks in a frame.
+     */
+    @Nullable
+    private Label jmeTasksTimeField;
+
+    /**
+     * The field to show the count of waited editor tasks.
+     */
+    @Nullable
+    private Label jmeTasksQueueField;
+
     /**
      * The current application.
      */
@@ -157,6 +170,7 @@ public class Stats3DPart extends AbstractAppState implements Editor3DPart {
     private int[] prevStatsData;
 
     private float secondCounter;
+    private float tasksSecondCounter;
     private int frameCounter;
 
     private int fps;
@@ -220,6 +234,12 @@ public class Stats3DPart extends AbstractAppState implements Editor3DPart {
         final Label fpsLabel = new Label("Fps");
         fpsField = new Label();
 
+        final Label jmeTasksTimeLabel = new Label("Jme tasks (ms)");
+        jmeTasksTimeField = new Label();
+
+        final Label jmeTasksQueueLabel = new Label("Jme task queue");
+        jmeTasksQueueField = new Label();
+
         statsContainer.add(frameBuffersMLabel, 0, 0);
         statsContainer.add(frameBuffersMField, 1, 0);
         statsContainer.add(frameBuffersFLabel, 0, 1);
@@ -248,6 +268,10 @@ public class Stats3DPart extends AbstractAppState implements Editor3DPart {
         statsContainer.add(verticesField, 1, 12);
         statsContainer.add(fpsLabel, 0, 13);
         statsContainer.add(fpsField, 1, 13);
+        statsContainer.add(jmeTasksTimeLabel, 0, 14);
+        statsContainer.add(jmeTasksTimeField, 1, 14);
+        statsContainer.add(jmeTasksQueueLabel, 0, 15);
+        statsContainer.add(jmeTasksQueueField, 1, 15);
 
         FXUtils.addClassTo(statsContainer, CssClasses.STATS_3D_STATE);
     }
@@ -323,6 +347,26 @@ public class Stats3DPart extends AbstractAppState implements Editor3DPart {
         return notNull(fpsField);
     }
 
+    /**
+     * Get the field to show the max time of editor tasks in a frame.
+     *
+     * @return the field to show the max time of editor tasks.
+     */
+    @FxThread
+    private @NotNull Label getJmeTasksTimeField() {
+        return notNull(jmeTasksTimeField);
+    }
+
+    /**
+     * Get the field to show the count of waited editor tasks.
+     *
+     * @return the field to show the count of waited editor tasks.
+     */
+    @FxThread
+    private @NotNull Label getJmeTasksQueueField() {
+        return notNull(jmeTasksQueueField);
+    }
+
     /**
      * Get the vertices S field.
      *
@@ -476,6 +520,13 @@ public class Stats3DPart extends AbstractAppState implements Editor3DPart {
             }
         }
 
+        tasksSecondCounter += timer.getTimePerFrame();
+
+        if (tasksSecondCounter >= 1.0f) {
+            tasksSecondCounter = 0.0f;
+            updateJmeTasks();
+        }
+
         final int[] statsData = getStatsData();
 
         final Statistics statistics = getStatistics();
@@ -528,6 +579,22 @@ public class Stats3DPart extends AbstractAppState implements Editor3DPart {
         EXECUTOR_MANAGER.addFxTask(() -> getFpsField().setText(Integer.toString(fps)));
     }
 
+    /**
+     * Update the counters of editor tasks.
+     */
+    @JmeThread
+    private void updateJmeTasks() {
+
+        final JmeThreadExecutor executor = JmeThreadExecutor.getInstance();
+        final float peakTime = executor.takePeakFrameTime() / 1_000_000F;
+        final int queueDepth = executor.getQueueDepth();
+
+        EXECUTOR_MANAGER.addFxTask(() -> {
+            getJmeTasksTimeField().setText(String.format("%.2f", peakTime));
+            getJmeTasksQueueField().setText(Integer.toString(queueDepth));
+        });
+    }
+
     @Override
     @JmeThread
     public void cleanup() {
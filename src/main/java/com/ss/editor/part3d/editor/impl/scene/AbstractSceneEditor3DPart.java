@@ -36,6 +36,7 @@ import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.control.painting.PaintingControl;
 import com.ss.editor.control.painting.PaintingInput;
 import com.ss.editor.control.transform.*;
+import com.ss.editor.executor.TaskPriority;
 import com.ss.editor.extension.property.SimpleProperty;
 import com.ss.editor.extension.scene.ScenePresentable;
 import com.ss.editor.model.EditorCamera;
@@ -60,7 +61,9 @@ import javafx.scene.input.MouseButton;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 import java.util.function.Function;
 
 /**
@@ -84,9 +87,20 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
     private static final String KEY_R = "SSEditor.sceneEditorState.R";
     private static final String KEY_DEL = "SSEditor.sceneEditorState.Del";
 
+    /**
+     * The budget of preloading geometries of an opened model in a frame.
+     */
+    private static final long PRELOAD_BUDGET = TimeUnit.MILLISECONDS.toNanos(4);
+
     private static final float H_ROTATION = AngleUtils.degreeToRadians(45);
     private static final float V_ROTATION = AngleUtils.degreeToRadians(15);
 
+    /**
+     * The scale of transformation tools.
+     */
+    @NotNull
+    private static final Vector3f TOOL_SCALE = new Vector3f(1.5F, 1.5F, 1.5F);
+
     static {
         TRIGGERS.put(KEY_S, new KeyTrigger(KeyInput.KEY_S));
         TRIGGERS.put(KEY_G, new KeyTrigger(KeyInput.KEY_G));
@@ -211,6 +225,18 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
     @NotNull
     protected final Array<Spatial> selected;
 
+    /**
+     * The key to coalesce waited tasks of updating selection.
+     */
+    @NotNull
+    private final Object selectionTaskKey;
+
+    /**
+     * The key to coalesce waited tasks of moving the camera.
+     */
+    @NotNull
+    private final Object cameraTaskKey;
+
     /**
      * The node for the placement of controls.
      */
@@ -229,6 +255,12 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
     @NotNull
     private final Node modelNode;
 
+    /**
+     * The bounds tree of the model node to pick objects.
+     */
+    @NotNull
+    private final SceneBoundsTree boundsTree;
+
     /**
      * The node for the placement of lights.
      */
@@ -295,6 +327,12 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
     @Nullable
     private M currentModel;
 
+    /**
+     * The model which is preloading to show.
+     */
+    @Nullable
+    private M openingModel;
+
     /**
      * Material for selection.
      */
@@ -364,8 +402,11 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
         this.cachedPresentableObjects = DictionaryFactory.newObjectDictionary();
         this.modelNode = new Node("TreeNode");
         this.modelNode.setUserData(EditorTransformSupport.class.getName(), true);
+        this.boundsTree = new SceneBoundsTree(modelNode);
         this.selected = ArrayFactory.newArray(Spatial.class);
         this.selectionShape = DictionaryFactory.newObjectDictionary();
+        this.selectionTaskKey = new Object();
+        this.cameraTaskKey = new Object();
         this.toolNode = new Node("ToolNode");
         this.transformToolNode = new Node("TransformToolNode");
         this.lightNodes = ArrayFactory.newArray(EditorLightNode.class);
@@ -774,6 +815,26 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
         return notNull(rotateTool);
     }
 
+    /**
+     * Get the node of the tool of the transformation type.
+     *
+     * @param transformType the transformation type.
+     * @return the node of the tool or null.
+     */
+    @FromAnyThread
+    private @Nullable Node getTransformTool(@Nullable final TransformType transformType) {
+
+        if (transformType == TransformType.MOVE_TOOL) {
+            return getMoveTool();
+        } else if (transformType == TransformType.ROTATE_TOOL) {
+            return getRotateTool();
+        } else if (transformType == TransformType.SCALE_TOOL) {
+            return getScaleTool();
+        }
+
+        return null;
+    }
+
     /**
      * Get the node to place scale tool controls.
      *
@@ -826,16 +887,11 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
 
         // Transform Selected Objects!
         if (isActiveTransform() && selectionCenter != null) {
-            if (transformType == TransformType.MOVE_TOOL) {
-                final TransformControl control = getMoveTool().getControl(TransformControl.class);
-                transformToolNode.detachAllChildren();
-                control.processTransform();
-            } else if (transformType == TransformType.ROTATE_TOOL) {
-                final TransformControl control = getRotateTool().getControl(TransformControl.class);
-                transformToolNode.detachAllChildren();
-                control.processTransform();
-            } else if (transformType == TransformType.SCALE_TOOL) {
-                final TransformControl control = getScaleTool().getControl(TransformControl.class);
+
+            final Node tool = getTransformTool(transformType);
+
+            if (tool != null) {
+                final TransformControl control = tool.getControl(TransformControl.class);
                 transformToolNode.detachAllChildren();
                 control.processTransform();
             }
@@ -846,6 +902,9 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
     protected void postCameraUpdate(final float tpf) {
         super.postCameraUpdate(tpf);
 
+        // the scene could be changed since the previous frame
+        boundsTree.invalidate();
+
         final Array<EditorLightNode> lightNodes = getLightNodes();
         lightNodes.forEach(EditorLightNode::updateModel);
 
@@ -856,8 +915,12 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
         presentableNodes.forEach(EditorPresentableNode::updateModel);
 
         final Array<Spatial> selected = getSelected();
-        selected.forEach(this, (spatial, state) -> {
-            if (spatial == null) return;
+        final ObjectDictionary<Spatial, Spatial> selectionShape = getSelectionShape();
+
+        Spatial lastSelected = null;
+
+        for (Spatial spatial : selected) {
+            if (spatial == null) continue;
 
             if (spatial instanceof EditorLightNode) {
                 spatial = ((EditorLightNode) spatial).getModel();
@@ -867,25 +930,30 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
                 spatial = ((EditorPresentableNode) spatial).getModel();
             }
 
-            state.updateTransformNode(spatial.getWorldTransform());
+            lastSelected = spatial;
 
-            final ObjectDictionary<Spatial, Spatial> selectionShape = state.getSelectionShape();
             final Spatial shape = selectionShape.get(spatial);
-            if (shape == null) return;
+            if (shape == null) continue;
 
-            shape.setLocalTranslation(spatial.getWorldTranslation());
-            shape.setLocalRotation(spatial.getWorldRotation());
-            shape.setLocalScale(spatial.getWorldScale());
-        });
+            NodeUtils.updateLocalTransform(shape, spatial.getWorldTranslation(), spatial.getWorldRotation(),
+                    spatial.getWorldScale());
+        }
 
-        transformToolNode.detachAllChildren();
+        // the tool is placed by the last selected spatial
+        if (lastSelected != null) {
+            updateTransformNode(lastSelected.getWorldTransform());
+        }
 
-        if (transformType == TransformType.MOVE_TOOL) {
-            transformToolNode.attachChild(getMoveTool());
-        } else if (transformType == TransformType.ROTATE_TOOL) {
-            transformToolNode.attachChild(getRotateTool());
-        } else if (transformType == TransformType.SCALE_TOOL) {
-            transformToolNode.attachChild(getScaleTool());
+        final Node transformTool = getTransformTool(transformType);
+
+        // the tool is re-attached only when the type of transformation is changed or after an active transformation
+        if (transformTool == null) {
+            if (transformToolNode.getQuantity() > 0) {
+                transformToolNode.detachAllChildren();
+            }
+        } else if (transformTool.getParent() != transformToolNode) {
+            transformToolNode.detachAllChildren();
+            transformToolNode.attachChild(transformTool);
         }
 
         final Node toolNode = getToolNode();
@@ -914,7 +982,8 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
         final Spatial editedModel = PaintingUtils.getPaintedModel(control);
         if (editedModel == null) return;
 
-        final Vector3f contactPoint = GeomUtils.getContactPointFromCursor(editedModel, getCamera());
+        final CollisionResult collision = getCollisionFromCursor(editedModel);
+        final Vector3f contactPoint = collision == null ? null : collision.getContactPoint();
 
         if (contactPoint != null) {
             cursorNode.setLocalTranslation(contactPoint);
@@ -933,9 +1002,9 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
         final Vector3f positionOnCamera = getPositionOnCamera(location);
 
         final Node transformToolNode = getTransformToolNode();
-        transformToolNode.setLocalTranslation(positionOnCamera);
-        transformToolNode.setLocalScale(1.5F);
-        transformToolNode.setLocalRotation(transformationMode.getToolRotation(transform, getCamera()));
+        final Quaternion rotation = transformationMode.getToolRotation(transform, getCamera());
+
+        NodeUtils.updateLocalTransform(transformToolNode, positionOnCamera, rotation, TOOL_SCALE);
     }
 
     @JmeThread
@@ -1043,13 +1112,14 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
     }
 
     /**
-     * Update selected models.
+     * Update selected models. The selection is updated by an interactive task which can be executed before waited
+     * changes of the scene, so it changes only the selection state.
      *
      * @param spatials the spatials
      */
     @FromAnyThread
     public void updateSelection(@NotNull final Array<Spatial> spatials) {
-        EXECUTOR_MANAGER.addJmeTask(() -> updateSelectionImpl(spatials));
+        EXECUTOR_MANAGER.addJmeTask(selectionTaskKey, () -> updateSelectionImpl(spatials), TaskPriority.INTERACTIVE);
     }
 
     /**
@@ -1370,12 +1440,17 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
             return;
         }
 
-        final Geometry anyGeometry = GeomUtils.getGeometryFromCursor(notNull(getModelNode()), getCamera());
+        final CollisionResult anyCollision = getCollisionFromCursor(getModelNode());
+        final Geometry anyGeometry = anyCollision == null ? null : anyCollision.getGeometry();
 
         Object toSelect = anyGeometry == null ? null : findToSelect(anyGeometry);
 
-        if (toSelect == null && anyGeometry != null) {
-            final Geometry modelGeometry = GeomUtils.getGeometryFromCursor(notNull(getCurrentModel()), getCamera());
+        // the current model can be not set yet while it's preloading
+        final M currentModel = getCurrentModel();
+
+        if (toSelect == null && anyGeometry != null && currentModel != null) {
+            final CollisionResult modelCollision = getCollisionFromCursor(currentModel);
+            final Geometry modelGeometry = modelCollision == null ? null : modelCollision.getGeometry();
             toSelect = modelGeometry == null ? null : findToSelect(modelGeometry);
         }
 
@@ -1448,11 +1523,46 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
      *
      * @param screenX the x position on screen.
      * @param screenY the y position on screen.
-     * @return the position on a scene.
+     * @return the geometry or null if there is no geometry or the model isn't loaded yet.
      */
     @JmeThread
     public @Nullable Geometry getGeometryByScreenPos(final float screenX, final float screenY) {
-        return GeomUtils.getGeometryFromScreenPos(notNull(getCurrentModel()), getCamera(), screenX, screenY);
+
+        final M currentModel = getCurrentModel();
+        if (currentModel == null) {
+            return null;
+        }
+
+        final CollisionResult collision = getCollisionFromScreenPos(currentModel, screenX, screenY);
+        return collision == null ? null : collision.getGeometry();
+    }
+
+    /**
+     * Get a collision with objects of the model node from the cursor position.
+     *
+     * @param within the spatial to check only its objects.
+     * @return the collision or null.
+     */
+    @JmeThread
+    private @Nullable CollisionResult getCollisionFromCursor(@NotNull final Spatial within) {
+        final InputManager inputManager = EditorUtil.getInputManager();
+        final Vector2f cursor = inputManager.getCursorPosition();
+        return getCollisionFromScreenPos(within, cursor.getX(), cursor.getY());
+    }
+
+    /**
+     * Get a collision with objects of the model node from the screen position using the bounds tree.
+     *
+     * @param within  the spatial to check only its objects.
+     * @param screenX the screen X coord.
+     * @param screenY the screen Y coord.
+     * @return the collision or null.
+     */
+    @JmeThread
+    private @Nullable CollisionResult getCollisionFromScreenPos(@NotNull final Spatial within, final float screenX,
+                                                                final float screenY) {
+        final Ray ray = GeomUtils.getRayFromScreenPos(getCamera(), screenX, screenY, LocalObjects.get().nextRay());
+        return boundsTree.pick(ray, within);
     }
 
     @JmeThread
@@ -1471,14 +1581,15 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
     public @NotNull Vector3f getScenePosByScreenPos(final float screenX, final float screenY) {
 
         final Camera camera = getCamera();
-        final M currentModel = notNull(getCurrentModel());
+        final M currentModel = getCurrentModel();
 
-        Vector3f result = GeomUtils.getContactPointFromScreenPos(currentModel, camera, screenX, screenY);
-        if (result != null) {
-            return result;
+        final CollisionResult collision = currentModel == null ? null :
+                getCollisionFromScreenPos(currentModel, screenX, screenY);
+        if (collision != null) {
+            return collision.getContactPoint();
         }
 
-        result = GeomUtils.getContactPointFromScreenPos(getGrid(), camera, screenX, screenY);
+        final Vector3f result = GeomUtils.getContactPointFromScreenPos(getGrid(), camera, screenX, screenY);
 
         return result == null ? Vector3f.ZERO : result;
     }
@@ -1696,6 +1807,9 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
         } else if (object instanceof ScenePresentable) {
             final EditorPresentableNode node = getPresentableNode((ScenePresentable) object);
             if (node != null) node.sync();
+        } else if (object instanceof Geometry) {
+            // the mesh of the geometry could be changed in place
+            boundsTree.invalidateModelBound((Geometry) object);
         }
     }
 
@@ -1722,25 +1836,55 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
      */
     @FromAnyThread
     public void openModel(@NotNull final M model) {
-        EXECUTOR_MANAGER.addJmeTask(() -> openModelImpl(model));
+        openModel(model, null);
+    }
+
+    /**
+     * Show the model in the scene. Geometries of the model are preloaded by chunks in several frames, the model is
+     * attached to the scene when all geometries are preloaded.
+     *
+     * @param model           the model.
+     * @param progressHandler the handler of preloading progress from 0 to 1, it's called in the jME thread.
+     */
+    @FromAnyThread
+    public void openModel(@NotNull final M model, @Nullable final DoubleConsumer progressHandler) {
+        EXECUTOR_MANAGER.addJmeTask(() -> openModelImpl(model, progressHandler));
     }
 
     /**
      * The process of showing the model in the scene.
      */
     @JmeThread
-    private void openModelImpl(@NotNull final M model) {
+    private void openModelImpl(@NotNull final M model, @Nullable final DoubleConsumer progressHandler) {
 
-        final Node modelNode = getModelNode();
-        final M currentModel = getCurrentModel();
+        final Array<Geometry> geometries = ArrayFactory.newArray(Geometry.class);
 
-        if (currentModel != null) {
-            detachPrevModel(modelNode, currentModel);
+        NodeUtils.visitGeometry(model, geometries::add);
+
+        openingModel = model;
+        preloadModel(model, geometries, 0, progressHandler);
+    }
+
+    /**
+     * Preload the next chunk of geometries of the opened model.
+     */
+    @JmeThread
+    private void preloadModel(@NotNull final M model, @NotNull final Array<Geometry> geometries, final int start,
+                              @Nullable final DoubleConsumer progressHandler) {
+
+        if (openingModel != model) {
+            return;
         }
 
-        NodeUtils.visitGeometry(model, geometry -> {
+        final RenderManager renderManager = EditorUtil.getRenderManager();
+        final long deadline = System.nanoTime() + PRELOAD_BUDGET;
 
-            final RenderManager renderManager = EditorUtil.getRenderManager();
+        int index = start;
+
+        // preload at least one geometry per frame to be sure that the model will be shown
+        while (index < geometries.size() && (index == start || System.nanoTime() < deadline)) {
+
+            final Geometry geometry = geometries.get(index++);
             try {
                 renderManager.preloadScene(geometry);
             } catch (final RendererException | AssetNotFoundException | UnsupportedOperationException e) {
@@ -1749,10 +1893,35 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
                                 "The material will be removed from the geometry.", e));
                 geometry.setMaterial(EditorUtil.getDefaultMaterial());
             }
-        });
+        }
+
+        if (index < geometries.size()) {
+
+            if (progressHandler != null) {
+                progressHandler.accept((double) index / geometries.size());
+            }
+
+            final int next = index;
+
+            EXECUTOR_MANAGER.addJmeTask(() -> preloadModel(model, geometries, next, progressHandler));
+            return;
+        }
+
+        final Node modelNode = getModelNode();
+        final M currentModel = getCurrentModel();
+
+        if (currentModel != null) {
+            detachPrevModel(modelNode, currentModel);
+        }
 
         attachModel(model, modelNode);
         setCurrentModel(model);
+
+        openingModel = null;
+
+        if (progressHandler != null) {
+            progressHandler.accept(1D);
+        }
     }
 
     @JmeThread
@@ -1839,13 +2008,15 @@ public abstract class AbstractSceneEditor3DPart<T extends AbstractSceneFileEdito
     }
 
     /**
-     * Move a camera to a location.
+     * Move a camera to a location. The camera is moved by an interactive task which can be executed before waited
+     * changes of the scene, so the location should be calculated by the caller.
      *
      * @param location the location.
      */
     @FromAnyThread
     public void moveCameraTo(@NotNull final Vector3f location) {
-        EXECUTOR_MANAGER.addJmeTask(() -> getNodeForCamera().setLocalTranslation(location));
+        EXECUTOR_MANAGER.addJmeTask(cameraTaskKey, () -> getNodeForCamera().setLocalTranslation(location),
+                TaskPriority.INTERACTIVE);
     }
 
     /**
@@ -131,6 +131,14 @@ public abstract class BaseFileEditor<S extends EditorState> extends AbstractFile
         return operationControl;
     }
 
+    @Override
+    @FxThread
+    public void notifyClosed() {
+        super.notifyClosed();
+        // release the history and the spill file of the closed editor
+        operationControl.clear();
+    }
+
     @Override
     @FxThread
     public void openFile(@NotNull final Path file) {
@@ -142,7 +150,20 @@ public abstract class BaseFileEditor<S extends EditorState> extends AbstractFile
             throw new RuntimeException(e);
         }
 
-        EXECUTOR_MANAGER.addFxTask(this::loadState);
+        if (!isOpeningInBackground()) {
+            EXECUTOR_MANAGER.addFxTask(this::loadState);
+        }
+    }
+
+    /**
+     * Return true if the file is still opening in background after {@link #doOpenFile(Path)}, in this case the
+     * editor should load its state itself when the file is opened.
+     *
+     * @return true if the file is still opening in background.
+     */
+    @FromAnyThread
+    protected boolean isOpeningInBackground() {
+        return false;
     }
 
     /**
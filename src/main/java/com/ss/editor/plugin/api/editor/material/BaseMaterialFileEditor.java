@@ -23,6 +23,7 @@ import com.ss.editor.ui.control.tree.node.TreeNode;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.editor.ui.util.DynamicIconSupport;
 import com.ss.rlib.ui.util.FXUtils;
+import com.ss.rlib.util.array.Array;
 import javafx.collections.ObservableList;
 import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
@@ -416,4 +417,25 @@ public abstract class BaseMaterialFileEditor<T extends BaseMaterialEditor3DPart,
             getPropertyEditor().syncFor(object);
         }
     }
+
+    @Override
+    @FxThread
+    public void notifyFxChangeProperties(@NotNull final Array<?> objects, @NotNull final String propertyName) {
+
+        final PropertyEditor<C> propertyEditor = getPropertyEditor();
+
+        for (final Object object : objects) {
+            if (object instanceof Material) {
+                propertyEditor.refresh();
+                return;
+            }
+        }
+
+        for (final Object object : objects) {
+            if (propertyEditor.isShown(object)) {
+                propertyEditor.syncFor(object);
+                return;
+            }
+        }
+    }
 }
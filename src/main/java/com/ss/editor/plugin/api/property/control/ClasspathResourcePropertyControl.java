@@ -3,13 +3,13 @@ package com.ss.editor.plugin.api.property.control;
 import static com.ss.rlib.util.ObjectUtils.notNull;
 import com.ss.editor.Messages;
 import com.ss.editor.annotation.FxThread;
+import com.ss.editor.file.index.ResourceList;
 import com.ss.editor.manager.ResourceManager;
 import com.ss.editor.plugin.api.property.PropertyDefinition;
 import com.ss.editor.ui.util.UiUtils;
 import com.ss.rlib.util.FileUtils;
 import com.ss.rlib.util.StringUtils;
 import com.ss.rlib.util.VarTable;
-import com.ss.rlib.util.array.Array;
 import javafx.scene.control.Label;
 import org.jetbrains.annotations.NotNull;
 
@@ -38,7 +38,7 @@ public class ClasspathResourcePropertyControl extends ResourcePropertyEditorCont
         super.processSelect();
 
         final ResourceManager resourceManager = ResourceManager.getInstance();
-        final Array<String> resources = resourceManager.getAvailableResources(extension);
+        final ResourceList resources = resourceManager.getAvailableResourceList(extension);
 
         UiUtils.openResourceAssetDialog(this::processSelect, this::validate, resources);
     }
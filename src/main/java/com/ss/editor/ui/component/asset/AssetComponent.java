@@ -11,10 +11,10 @@ import com.ss.editor.ui.component.ScreenComponent;
 import com.ss.editor.ui.component.asset.tree.ResourceTree;
 import com.ss.editor.ui.component.asset.tree.resource.FolderResourceElement;
 import com.ss.editor.ui.component.asset.tree.resource.ResourceElement;
-import com.ss.editor.ui.component.asset.tree.resource.ResourceElementFactory;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.editor.ui.css.CssIds;
 import com.ss.editor.ui.event.FxEventManager;
+import com.ss.editor.ui.event.SceneEvent;
 import com.ss.editor.ui.event.impl.*;
 import com.ss.editor.ui.util.UiUtils;
 import com.ss.rlib.ui.util.FXUtils;
@@ -26,6 +26,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * The component to work with asset tree.
@@ -55,6 +58,12 @@ public class AssetComponent extends VBox implements ScreenComponent {
     @NotNull
     private final Array<Path> waitedFilesToSelect;
 
+    /**
+     * The events of the last batch of changes which were already handled as a part of the batch.
+     */
+    @NotNull
+    private final Set<SceneEvent> batchedEvents;
+
     /**
      * The toolbar of this component.
      */
@@ -77,6 +86,7 @@ public class AssetComponent extends VBox implements ScreenComponent {
      */
     public AssetComponent() {
         this.waitedFilesToSelect = ArrayFactory.newArray(Path.class);
+        this.batchedEvents = Collections.newSetFromMap(new IdentityHashMap<>());
         setId(CssIds.ASSET_COMPONENT);
         createComponents();
         FX_EVENT_MANAGER.addEventHandler(RequestedRefreshAssetEvent.EVENT_TYPE, event -> processRefresh());
@@ -84,6 +94,7 @@ public class AssetComponent extends VBox implements ScreenComponent {
         FX_EVENT_MANAGER.addEventHandler(CreatedFileEvent.EVENT_TYPE, event -> processEvent((CreatedFileEvent) event));
         FX_EVENT_MANAGER.addEventHandler(RequestSelectFileEvent.EVENT_TYPE, event -> processEvent((RequestSelectFileEvent) event));
         FX_EVENT_MANAGER.addEventHandler(DeletedFileEvent.EVENT_TYPE, event -> processEvent((DeletedFileEvent) event));
+        FX_EVENT_MANAGER.addEventHandler(ChangedFilesEvent.EVENT_TYPE, event -> processEvent((ChangedFilesEvent) event));
     }
 
     /**
@@ -105,8 +116,7 @@ public class AssetComponent extends VBox implements ScreenComponent {
         final Path file = event.getFile();
 
         final ResourceTree resourceTree = getResourceTree();
-        final ResourceElement element = ResourceElementFactory.createFor(file);
-        final TreeItem<ResourceElement> treeItem = UiUtils.findItemForValue(resourceTree.getRoot(), element);
+        final TreeItem<ResourceElement> treeItem = resourceTree.findItem(file);
 
         if (treeItem == null) {
             getWaitedFilesToSelect().add(file);
@@ -116,12 +126,51 @@ public class AssetComponent extends VBox implements ScreenComponent {
         resourceTree.expandTo(treeItem, true);
     }
 
+    /**
+     * Handle a batch of changes of files by one update of the resource tree, the events of the batch are notified
+     * separately after this, so they are skipped by their own handlers.
+     */
+    @FxThread
+    private void processEvent(@NotNull final ChangedFilesEvent event) {
+
+        final ResourceTree resourceTree = getResourceTree();
+        final Array<Path> toSelect = ArrayFactory.newArray(Path.class);
+
+        for (final SceneEvent fileEvent : event.getEvents()) {
+            if (fileEvent instanceof CreatedFileEvent) {
+
+                final CreatedFileEvent createdEvent = (CreatedFileEvent) fileEvent;
+                final Path file = createdEvent.getFile();
+
+                resourceTree.notifyCreated(file);
+
+                if (getWaitedFilesToSelect().fastRemove(file) || createdEvent.isNeedSelect()) {
+                    toSelect.add(file);
+                }
+
+            } else if (fileEvent instanceof DeletedFileEvent) {
+                processDeleted(((DeletedFileEvent) fileEvent).getFile());
+            } else {
+                continue;
+            }
+
+            batchedEvents.add(fileEvent);
+        }
+
+        resourceTree.flushChanges();
+        toSelect.forEach(file -> resourceTree.expandTo(file, true));
+    }
+
     /**
      * Handle a created file.
      */
     @FxThread
     private void processEvent(@NotNull final CreatedFileEvent event) {
 
+        if (batchedEvents.remove(event)) {
+            return;
+        }
+
         final Path file = event.getFile();
 
         final Array<Path> waitedFilesToSelect = getWaitedFilesToSelect();
@@ -139,8 +188,18 @@ public class AssetComponent extends VBox implements ScreenComponent {
      */
     @FxThread
     private void processEvent(@NotNull final DeletedFileEvent event) {
+        if (!batchedEvents.remove(event)) {
+            processDeleted(event.getFile());
+        }
+    }
 
-        final Path file = event.getFile();
+    /**
+     * Remove the deleted file from the resource tree and its editor state from the workspace.
+     *
+     * @param file the deleted file.
+     */
+    @FxThread
+    private void processDeleted(@NotNull final Path file) {
 
         final ResourceTree resourceTree = getResourceTree();
         resourceTree.notifyDeleted(file);
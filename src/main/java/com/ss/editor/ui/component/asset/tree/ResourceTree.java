@@ -1,19 +1,22 @@
 package com.ss.editor.ui.component.asset.tree;
 
 import static com.ss.editor.ui.component.asset.tree.resource.ResourceElementFactory.createFor;
-import static com.ss.editor.ui.util.UiUtils.findItemForValue;
 import static com.ss.editor.ui.util.UiUtils.hasFileInClipboard;
 import static com.ss.rlib.util.ObjectUtils.notNull;
 import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.file.cache.DirectorySnapshotCache;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.ui.FXConstants;
 import com.ss.editor.ui.component.asset.tree.context.menu.action.*;
 import com.ss.editor.ui.component.asset.tree.context.menu.filler.AssetTreeMultiContextMenuFiller;
 import com.ss.editor.ui.component.asset.tree.context.menu.filler.AssetTreeSingleContextMenuFiller;
 import com.ss.editor.ui.component.asset.tree.resource.*;
+import com.ss.editor.ui.event.FxEventManager;
+import com.ss.editor.ui.event.impl.ResolvedFileIconEvent;
 import com.ss.editor.ui.util.UiUtils;
 import com.ss.rlib.function.IntObjectConsumer;
 import com.ss.rlib.util.StringUtils;
@@ -21,9 +24,9 @@ import com.ss.rlib.util.array.Array;
 import com.ss.rlib.util.array.ArrayComparator;
 import com.ss.rlib.util.array.ArrayFactory;
 import com.ss.rlib.util.array.ConcurrentArray;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
+import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.scene.control.*;
 import javafx.scene.input.KeyCode;
@@ -32,7 +35,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.file.Path;
-import java.util.Objects;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -49,6 +52,9 @@ public class ResourceTree extends TreeView<ResourceElement> {
     @NotNull
     private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
 
+    @NotNull
+    private static final DirectorySnapshotCache SNAPSHOT_CACHE = DirectorySnapshotCache.getInstance();
+
     /**
      * The resource elements comparator.
      */
@@ -111,6 +117,14 @@ public class ResourceTree extends TreeView<ResourceElement> {
         onAction.handle(null);
     };
 
+    @NotNull
+    private static final FxEventManager FX_EVENT_MANAGER = FxEventManager.getInstance();
+
+    /**
+     * The max count of created files which are inserted to a folder one by one.
+     */
+    private static final int MAX_SEPARATED_INSERTS = 4;
+
     /**
      * The list of expanded elements.
      */
@@ -129,6 +143,24 @@ public class ResourceTree extends TreeView<ResourceElement> {
     @Nullable
     private final Consumer<ResourceElement> openFunction;
 
+    /**
+     * The waited changes of files, true if a file was created and false if a file was deleted.
+     */
+    @NotNull
+    private final Map<Path, Boolean> pendingChanges;
+
+    /**
+     * The index of tree items by their files.
+     */
+    @NotNull
+    private Map<Path, TreeItem<ResourceElement>> itemIndex;
+
+    /**
+     * The handler to redraw cells when an icon of files was resolved.
+     */
+    @NotNull
+    private final EventHandler<Event> resolvedIconHandler;
+
     /**
      * The action tester.
      */
@@ -173,6 +205,11 @@ public class ResourceTree extends TreeView<ResourceElement> {
      */
     private boolean needCleanup;
 
+    /**
+     * The flag of scheduled applying of waited changes.
+     */
+    private boolean flushScheduled;
+
     public ResourceTree(final boolean readOnly) {
         this(DEFAULT_OPEN_FUNCTION, readOnly);
     }
@@ -184,6 +221,9 @@ public class ResourceTree extends TreeView<ResourceElement> {
         this.selectedElements = ArrayFactory.newConcurrentAtomicARSWLockArray(ResourceElement.class);
         this.extensionFilter = ArrayFactory.newArray(String.class, 0);
         this.actionTester = actionClass -> true;
+        this.pendingChanges = new LinkedHashMap<>();
+        this.itemIndex = new HashMap<>();
+        this.resolvedIconHandler = event -> refresh();
 
         expandedItemCountProperty()
                 .addListener((observable, oldValue, newValue) -> processChangedExpands(newValue));
@@ -195,6 +235,14 @@ public class ResourceTree extends TreeView<ResourceElement> {
         setShowRoot(true);
         setContextMenu(new ContextMenu());
         setFocusTraversable(true);
+
+        sceneProperty().addListener((observable, oldValue, newValue) -> {
+            if (oldValue == null && newValue != null) {
+                FX_EVENT_MANAGER.addEventHandler(ResolvedFileIconEvent.EVENT_TYPE, resolvedIconHandler);
+            } else if (oldValue != null && newValue == null) {
+                FX_EVENT_MANAGER.removeEventHandler(ResolvedFileIconEvent.EVENT_TYPE, resolvedIconHandler);
+            }
+        });
     }
 
     /**
@@ -262,7 +310,7 @@ public class ResourceTree extends TreeView<ResourceElement> {
                 .forEach(expanded::add);
 
         for (final TreeItem<ResourceElement> treeItem : expanded) {
-            EXECUTOR_MANAGER.addBackgroundTask(() -> lazyLoadChildren(treeItem, null));
+            EXECUTOR_MANAGER.addBackgroundTask(() -> lazyLoadChildren(treeItem, null), TaskPriority.INTERACTIVE);
         }
     }
 
@@ -300,10 +348,12 @@ public class ResourceTree extends TreeView<ResourceElement> {
             return;
         }
 
-        children.forEach(child -> items.add(new TreeItem<>(child)));
+        final List<TreeItem<ResourceElement>> loaded = new ArrayList<>(children.size());
+        children.forEach(child -> loaded.add(new TreeItem<>(child)));
+        loaded.forEach(this::fill);
+        loaded.forEach(item -> indexItems(item, itemIndex));
 
-        items.remove(0);
-        items.forEach(this::fill);
+        items.setAll(loaded);
 
         if (isNeedCleanup()) {
             cleanup(treeItem);
@@ -465,6 +515,7 @@ public class ResourceTree extends TreeView<ResourceElement> {
             setRoot(null);
         }
 
+        pendingChanges.clear();
         showLoading();
 
         EXECUTOR_MANAGER.addBackgroundTask(() -> startBackgroundFill(rootFolder));
@@ -488,6 +539,7 @@ public class ResourceTree extends TreeView<ResourceElement> {
             setRoot(null);
         }
 
+        pendingChanges.clear();
         showLoading();
 
         EXECUTOR_MANAGER.addBackgroundTask(() -> startBackgroundFill(rootFolders));
@@ -510,7 +562,8 @@ public class ResourceTree extends TreeView<ResourceElement> {
     }
 
     /**
-     * Refresh this tree.
+     * Refresh this tree. If the tree already shows the current asset folder, only loaded folders are compared with
+     * the disk and changed children are updated, other items keep their expanded and selected states.
      */
     @FxThread
     public void refresh() {
@@ -518,14 +571,34 @@ public class ResourceTree extends TreeView<ResourceElement> {
         final EditorConfig config = EditorConfig.getInstance();
         final Path currentAsset = config.getCurrentAsset();
 
+        pendingChanges.clear();
+
+        // the refresh is requested when the disk can have changes which were missed by the watcher
+        SNAPSHOT_CACHE.invalidateAll();
+
         if (currentAsset == null) {
             setRoot(null);
+            itemIndex = new HashMap<>();
             return;
         }
 
         final Consumer<Boolean> onLoadHandler = getOnLoadHandler();
         if (onLoadHandler != null) onLoadHandler.accept(Boolean.FALSE);
 
+        final TreeItem<ResourceElement> currentRoot = getRoot();
+        final ResourceElement rootElement = currentRoot == null ? null : currentRoot.getValue();
+
+        if (rootElement instanceof FolderResourceElement && currentAsset.equals(rootElement.getFile())) {
+
+            final Array<TreeItem<ResourceElement>> folders = ArrayFactory.newArray(TreeItem.class);
+            final Array<Set<Path>> existed = ArrayFactory.newArray(Set.class);
+
+            collectLoadedFolders(currentRoot, folders, existed);
+
+            EXECUTOR_MANAGER.addBackgroundTask(() -> startBackgroundRefresh(folders, existed));
+            return;
+        }
+
         updateSelectedElements();
         updateExpandedElements();
 
@@ -535,6 +608,121 @@ public class ResourceTree extends TreeView<ResourceElement> {
         EXECUTOR_MANAGER.addBackgroundTask(() -> startBackgroundRefresh(currentAsset));
     }
 
+    /**
+     * Collect folder items with loaded children and files of their current children.
+     */
+    @FxThread
+    private void collectLoadedFolders(@NotNull final TreeItem<ResourceElement> treeItem,
+                                      @NotNull final Array<TreeItem<ResourceElement>> folders,
+                                      @NotNull final Array<Set<Path>> existed) {
+
+        if (!(treeItem.getValue() instanceof FolderResourceElement) || !isLoaded(treeItem)) {
+            return;
+        }
+
+        final ObservableList<TreeItem<ResourceElement>> children = treeItem.getChildren();
+        final Set<Path> files = new HashSet<>(children.size());
+        children.forEach(child -> files.add(child.getValue().getFile()));
+
+        folders.add(treeItem);
+        existed.add(files);
+
+        children.forEach(child -> collectLoadedFolders(child, folders, existed));
+    }
+
+    /**
+     * Load actual children of the folders and build items for new files in the background.
+     */
+    @BackgroundThread
+    private void startBackgroundRefresh(@NotNull final Array<TreeItem<ResourceElement>> folders,
+                                        @NotNull final Array<Set<Path>> existed) {
+
+        final Array<String> extensionFilter = getExtensionFilter();
+        final Array<Set<Path>> actualFiles = ArrayFactory.newArray(Set.class);
+        final Array<Array<TreeItem<ResourceElement>>> newItems = ArrayFactory.newArray(Array.class);
+
+        for (int i = 0; i < folders.size(); i++) {
+
+            final ResourceElement element = folders.get(i).getValue();
+            final Set<Path> existedFiles = existed.get(i);
+            final Array<ResourceElement> children = element.getChildren(extensionFilter, isOnlyFolders());
+            final Set<Path> files = new HashSet<>();
+            final Array<TreeItem<ResourceElement>> items = ArrayFactory.newArray(TreeItem.class);
+
+            if (children != null) {
+                for (final ResourceElement child : children) {
+
+                    files.add(child.getFile());
+
+                    if (!existedFiles.contains(child.getFile())) {
+                        final TreeItem<ResourceElement> newItem = new TreeItem<>(child);
+                        fill(newItem);
+                        items.add(newItem);
+                    }
+                }
+            }
+
+            actualFiles.add(files);
+            newItems.add(items);
+        }
+
+        EXECUTOR_MANAGER.addFxTask(() -> applyRefresh(folders, actualFiles, newItems));
+    }
+
+    /**
+     * Apply the actual children of the folders to the tree.
+     *
+     * @param folders     the refreshed folders.
+     * @param actualFiles the actual files of the folders.
+     * @param newItems    the items of new files of the folders.
+     */
+    @FxThread
+    private void applyRefresh(@NotNull final Array<TreeItem<ResourceElement>> folders,
+                              @NotNull final Array<Set<Path>> actualFiles,
+                              @NotNull final Array<Array<TreeItem<ResourceElement>>> newItems) {
+
+        flushChanges();
+
+        final TreeItem<ResourceElement> root = getRoot();
+
+        for (int i = 0; i < folders.size(); i++) {
+
+            final TreeItem<ResourceElement> folderItem = folders.get(i);
+            if (!isAttached(folderItem, root) || !isLoaded(folderItem)) continue;
+
+            final Set<Path> files = actualFiles.get(i);
+            final Array<TreeItem<ResourceElement>> toAdd = newItems.get(i);
+
+            final Set<TreeItem<ResourceElement>> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            for (final TreeItem<ResourceElement> child : folderItem.getChildren()) {
+                if (!files.contains(child.getValue().getFile())) {
+                    toRemove.add(child);
+                }
+            }
+
+            if (!toRemove.isEmpty()) {
+                toRemove.forEach(this::unindexItems);
+                folderItem.getChildren().removeAll(toRemove);
+            }
+
+            if (!toAdd.isEmpty()) {
+                toAdd.removeIf(item -> getItem(item.getValue().getFile()) != null);
+                toAdd.forEach(item -> indexItems(item, itemIndex));
+                addSorted(folderItem, toAdd);
+            }
+        }
+
+        if (root != null && isNeedCleanup()) {
+            cleanup(root);
+        }
+
+        final Consumer<Boolean> onLoadHandler = getOnLoadHandler();
+        if (onLoadHandler != null) {
+            onLoadHandler.accept(Boolean.TRUE);
+        }
+    }
+
     /**
      * Update the list of expanded elements.
      */
@@ -584,6 +772,7 @@ public class ResourceTree extends TreeView<ResourceElement> {
      */
     @FxThread
     private void showLoading() {
+        itemIndex = new HashMap<>();
         setRoot(new TreeItem<>(LoadingResourceElement.getInstance()));
     }
 
@@ -593,6 +782,10 @@ public class ResourceTree extends TreeView<ResourceElement> {
     @BackgroundThread
     private void startBackgroundFill(@NotNull final Path path) {
 
+        if (!isLazyMode()) {
+            SNAPSHOT_CACHE.preload(path);
+        }
+
         final ResourceElement rootElement = createFor(path);
         final TreeItem<ResourceElement> newRoot = new TreeItem<>(rootElement);
         newRoot.setExpanded(true);
@@ -603,7 +796,11 @@ public class ResourceTree extends TreeView<ResourceElement> {
             cleanup(newRoot);
         }
 
+        final Map<Path, TreeItem<ResourceElement>> newIndex = new HashMap<>();
+        indexItems(newRoot, newIndex);
+
         EXECUTOR_MANAGER.addFxTask(() -> {
+            itemIndex = newIndex;
             setRoot(newRoot);
 
             final Consumer<Boolean> onLoadHandler = getOnLoadHandler();
@@ -629,7 +826,11 @@ public class ResourceTree extends TreeView<ResourceElement> {
             cleanup(newRoot);
         }
 
+        final Map<Path, TreeItem<ResourceElement>> newIndex = new HashMap<>();
+        indexItems(newRoot, newIndex);
+
         EXECUTOR_MANAGER.addFxTask(() -> {
+            itemIndex = newIndex;
             setRoot(newRoot);
             final Consumer<Boolean> onLoadHandler = getOnLoadHandler();
             if (onLoadHandler != null) {
@@ -644,12 +845,19 @@ public class ResourceTree extends TreeView<ResourceElement> {
     @BackgroundThread
     private void startBackgroundRefresh(@NotNull final Path assetFolder) {
 
+        if (!isLazyMode()) {
+            SNAPSHOT_CACHE.preload(assetFolder);
+        }
+
         final ResourceElement rootElement = createFor(assetFolder);
         final TreeItem<ResourceElement> newRoot = new TreeItem<>(rootElement);
         newRoot.setExpanded(true);
 
         fill(newRoot);
 
+        final Map<Path, TreeItem<ResourceElement>> newIndex = new HashMap<>();
+        indexItems(newRoot, newIndex);
+
         final ConcurrentArray<ResourceElement> expandedElements = getExpandedElements();
         final long stamp = expandedElements.writeLock();
         try {
@@ -657,7 +865,7 @@ public class ResourceTree extends TreeView<ResourceElement> {
             expandedElements.sort(COMPARATOR);
             expandedElements.forEach(element -> {
 
-                final TreeItem<ResourceElement> item = findItemForValue(newRoot, element);
+                final TreeItem<ResourceElement> item = newIndex.get(element.getFile());
                 if (item == null) {
                     return;
                 }
@@ -672,6 +880,7 @@ public class ResourceTree extends TreeView<ResourceElement> {
         }
 
         EXECUTOR_MANAGER.addFxTask(() -> {
+            itemIndex = newIndex;
             setRoot(newRoot);
             restoreSelection();
 
@@ -696,7 +905,7 @@ public class ResourceTree extends TreeView<ResourceElement> {
                 final MultipleSelectionModel<TreeItem<ResourceElement>> selectionModel = getSelectionModel();
 
                 selectedElements.forEach(element -> {
-                    final TreeItem<ResourceElement> item = findItemForValue(getRoot(), element);
+                    final TreeItem<ResourceElement> item = findItem(element.getFile());
                     if (item == null) return;
                     selectionModel.select(item);
                 });
@@ -736,37 +945,162 @@ public class ResourceTree extends TreeView<ResourceElement> {
     }
 
     /**
-     * Handle a created file.
+     * Index the item and all its children.
      *
-     * @param file the created file.
+     * @param treeItem the tree item.
+     * @param index    the index.
+     */
+    @FromAnyThread
+    private static void indexItems(@NotNull final TreeItem<ResourceElement> treeItem,
+                                   @NotNull final Map<Path, TreeItem<ResourceElement>> index) {
+
+        final ResourceElement element = treeItem.getValue();
+        if (element instanceof LoadingResourceElement) return;
+
+        if (!(element instanceof FoldersResourceElement)) {
+            index.put(element.getFile(), treeItem);
+        }
+
+        treeItem.getChildren().forEach(child -> indexItems(child, index));
+    }
+
+    /**
+     * Remove the item and all its children from the index.
+     *
+     * @param treeItem the tree item.
      */
     @FxThread
-    public void notifyCreated(@NotNull final Path file) {
+    private void unindexItems(@NotNull final TreeItem<ResourceElement> treeItem) {
 
-        final EditorConfig editorConfig = EditorConfig.getInstance();
-        final Path currentAsset = editorConfig.getCurrentAsset();
-        final Path folder = file.getParent();
-        if (!folder.startsWith(currentAsset)) return;
+        final ResourceElement element = treeItem.getValue();
+        if (element instanceof LoadingResourceElement) return;
 
-        final ResourceElement element = createFor(folder);
+        itemIndex.remove(element.getFile(), treeItem);
 
-        TreeItem<ResourceElement> folderItem = findItemForValue(getRoot(), element);
+        treeItem.getChildren().forEach(this::unindexItems);
+    }
 
-        if (folderItem == null) {
-            notifyCreated(folder);
-            folderItem = findItemForValue(getRoot(), folder);
+    /**
+     * Return true if the item is a child of the root item.
+     */
+    @FxThread
+    private static boolean isAttached(@NotNull final TreeItem<ResourceElement> treeItem,
+                                      @Nullable final TreeItem<ResourceElement> root) {
+
+        for (TreeItem<ResourceElement> item = treeItem; item != null; item = item.getParent()) {
+            if (item == root) return true;
         }
 
-        if (folderItem == null) return;
+        return false;
+    }
 
-        final TreeItem<ResourceElement> newItem = new TreeItem<>(createFor(file));
+    /**
+     * Return true if children of the item are loaded.
+     */
+    @FxThread
+    private static boolean isLoaded(@NotNull final TreeItem<ResourceElement> treeItem) {
+        final ObservableList<TreeItem<ResourceElement>> children = treeItem.getChildren();
+        return children.size() != 1 || children.get(0).getValue() != LoadingResourceElement.getInstance();
+    }
 
-        fill(newItem);
+    /**
+     * Find a tree item of the file.
+     *
+     * @param file the file.
+     * @return the tree item or null.
+     */
+    @FxThread
+    public @Nullable TreeItem<ResourceElement> findItem(@Nullable final Path file) {
+        if (file == null) return null;
+        flushChanges();
+        return getItem(file);
+    }
+
+    /**
+     * Get a tree item of the file from the index without applying waited changes.
+     */
+    @FxThread
+    private @Nullable TreeItem<ResourceElement> getItem(@NotNull final Path file) {
+        final TreeItem<ResourceElement> treeItem = itemIndex.get(file);
+        return treeItem != null && isAttached(treeItem, getRoot()) ? treeItem : null;
+    }
+
+    /**
+     * Insert the items to children of the folder item keeping the order of children.
+     */
+    @FxThread
+    private static void addSorted(@NotNull final TreeItem<ResourceElement> folderItem,
+                                  @NotNull final Array<TreeItem<ResourceElement>> items) {
 
         final ObservableList<TreeItem<ResourceElement>> children = folderItem.getChildren();
-        children.add(newItem);
 
-        FXCollections.sort(children, ITEM_COMPARATOR);
+        if (items.size() <= MAX_SEPARATED_INSERTS) {
+            items.forEach(item -> children.add(findInsertIndex(children, item), item));
+            return;
+        }
+
+        items.sort(ITEM_COMPARATOR);
+
+        // inserts runs of items from the end to keep calculated indexes actual
+        final List<TreeItem<ResourceElement>> run = new ArrayList<>();
+
+        int runIndex = -1;
+
+        for (int i = items.size() - 1; i >= 0; i--) {
+
+            final TreeItem<ResourceElement> item = items.get(i);
+            final int index = findInsertIndex(children, item);
+
+            if (index != runIndex && !run.isEmpty()) {
+                Collections.reverse(run);
+                children.addAll(runIndex, run);
+                run.clear();
+            }
+
+            runIndex = index;
+            run.add(item);
+        }
+
+        if (!run.isEmpty()) {
+            Collections.reverse(run);
+            children.addAll(runIndex, run);
+        }
+    }
+
+    /**
+     * Find an index to insert the item to the sorted children by binary search.
+     */
+    @FxThread
+    private static int findInsertIndex(@NotNull final List<TreeItem<ResourceElement>> children,
+                                       @NotNull final TreeItem<ResourceElement> item) {
+
+        int low = 0;
+        int high = children.size();
+
+        while (low < high) {
+
+            final int middle = (low + high) >>> 1;
+
+            if (ITEM_COMPARATOR.compare(children.get(middle), item) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Handle a created file.
+     *
+     * @param file the created file.
+     */
+    @FxThread
+    public void notifyCreated(@NotNull final Path file) {
+        pendingChanges.remove(file);
+        pendingChanges.put(file, Boolean.TRUE);
+        scheduleFlush();
     }
 
     /**
@@ -776,16 +1110,143 @@ public class ResourceTree extends TreeView<ResourceElement> {
      */
     @FxThread
     public void notifyDeleted(@NotNull final Path file) {
+        pendingChanges.remove(file);
+        pendingChanges.put(file, Boolean.FALSE);
+        scheduleFlush();
+    }
 
-        final ResourceElement element = createFor(file);
-        final TreeItem<ResourceElement> treeItem = findItemForValue(getRoot(), element);
-        if (treeItem == null) return;
+    @FxThread
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        EXECUTOR_MANAGER.addFxTask(this::flushChanges);
+    }
+
+    /**
+     * Apply all waited changes of files by one update of each changed folder.
+     */
+    @FxThread
+    public void flushChanges() {
+        flushScheduled = false;
+
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+
+        final Array<Path> created = ArrayFactory.newArray(Path.class);
+        final Array<Path> deleted = ArrayFactory.newArray(Path.class);
+
+        pendingChanges.forEach((file, exists) -> {
+            if (exists) {
+                created.add(file);
+            } else {
+                deleted.add(file);
+            }
+        });
+
+        pendingChanges.clear();
+
+        applyDeleted(deleted);
+        applyCreated(created);
+    }
+
+    /**
+     * Remove items of the deleted files.
+     */
+    @FxThread
+    private void applyDeleted(@NotNull final Array<Path> deleted) {
+
+        final Map<TreeItem<ResourceElement>, Set<TreeItem<ResourceElement>>> toRemove = new IdentityHashMap<>();
+
+        for (final Path file : deleted) {
+
+            final TreeItem<ResourceElement> treeItem = getItem(file);
+            if (treeItem == null) continue;
+
+            final TreeItem<ResourceElement> parent = treeItem.getParent();
+            if (parent == null) continue;
+
+            toRemove.computeIfAbsent(parent, item -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                    .add(treeItem);
+        }
+
+        toRemove.forEach((parent, items) -> {
+            items.forEach(this::unindexItems);
+            parent.getChildren().removeAll(items);
+        });
+    }
+
+    /**
+     * Add items of the created files, parent folders are updated before their children.
+     */
+    @FxThread
+    private void applyCreated(@NotNull final Array<Path> created) {
+
+        final EditorConfig editorConfig = EditorConfig.getInstance();
+        final Path currentAsset = editorConfig.getCurrentAsset();
+        if (currentAsset == null) return;
 
-        final TreeItem<ResourceElement> parent = treeItem.getParent();
-        if (parent == null) return;
+        final Map<Path, Array<Path>> byFolder = new HashMap<>();
 
-        final ObservableList<TreeItem<ResourceElement>> children = parent.getChildren();
-        children.remove(treeItem);
+        for (final Path file : created) {
+            final Path folder = file.getParent();
+            if (folder == null || !folder.startsWith(currentAsset)) continue;
+            byFolder.computeIfAbsent(folder, key -> ArrayFactory.newArray(Path.class)).add(file);
+        }
+
+        final Array<Path> folders = ArrayFactory.newArray(Path.class);
+        byFolder.keySet().forEach(folders::add);
+        folders.sort((first, second) -> first.getNameCount() - second.getNameCount());
+
+        for (final Path folder : folders) {
+
+            final TreeItem<ResourceElement> folderItem = getOrCreateFolderItem(folder, currentAsset);
+
+            // not loaded folders will load actual children on expanding
+            if (folderItem == null || !isLoaded(folderItem)) continue;
+
+            final Array<TreeItem<ResourceElement>> newItems = ArrayFactory.newArray(TreeItem.class);
+
+            for (final Path file : byFolder.get(folder)) {
+
+                if (getItem(file) != null) continue;
+
+                final TreeItem<ResourceElement> newItem = new TreeItem<>(createFor(file));
+                fill(newItem);
+                indexItems(newItem, itemIndex);
+                newItems.add(newItem);
+            }
+
+            if (!newItems.isEmpty()) {
+                addSorted(folderItem, newItems);
+            }
+        }
+    }
+
+    /**
+     * Get an item of the folder or create items for the folder and its missed parents.
+     */
+    @FxThread
+    private @Nullable TreeItem<ResourceElement> getOrCreateFolderItem(@NotNull final Path folder,
+                                                                      @NotNull final Path currentAsset) {
+
+        final TreeItem<ResourceElement> folderItem = getItem(folder);
+        if (folderItem != null) return folderItem;
+
+        final Path parent = folder.getParent();
+        if (parent == null || !parent.startsWith(currentAsset)) return null;
+
+        final TreeItem<ResourceElement> parentItem = getOrCreateFolderItem(parent, currentAsset);
+        if (parentItem == null || !isLoaded(parentItem)) return null;
+
+        final TreeItem<ResourceElement> newItem = new TreeItem<>(createFor(folder));
+        fill(newItem);
+        indexItems(newItem, itemIndex);
+
+        final ObservableList<TreeItem<ResourceElement>> children = parentItem.getChildren();
+        children.add(findInsertIndex(children, newItem), newItem);
+
+        return newItem;
     }
 
     /**
@@ -797,18 +1258,18 @@ public class ResourceTree extends TreeView<ResourceElement> {
     @FxThread
     public void notifyMoved(@NotNull final Path prevFile, @NotNull final Path newFile) {
 
-        final ResourceElement prevElement = createFor(prevFile);
-        final TreeItem<ResourceElement> prevItem = findItemForValue(getRoot(), prevElement);
+        final TreeItem<ResourceElement> prevItem = findItem(prevFile);
         if (prevItem == null) return;
 
-        final ResourceElement newParentElement = createFor(newFile.getParent());
-        final TreeItem<ResourceElement> newParentItem = findItemForValue(getRoot(), newParentElement);
+        final TreeItem<ResourceElement> newParentItem = findItem(newFile.getParent());
         if (newParentItem == null) return;
 
         final TreeItem<ResourceElement> prevParentItem = prevItem.getParent();
         final ObservableList<TreeItem<ResourceElement>> prevParentChildren = prevParentItem.getChildren();
         prevParentChildren.remove(prevItem);
 
+        unindexItems(prevItem);
+
         prevItem.setValue(createFor(newFile));
 
         final Array<TreeItem<ResourceElement>> children = UiUtils.getAllItems(prevItem);
@@ -816,10 +1277,10 @@ public class ResourceTree extends TreeView<ResourceElement> {
 
         fillChildren(prevFile, newFile, children);
 
-        final ObservableList<TreeItem<ResourceElement>> newParentChildren = newParentItem.getChildren();
-        newParentChildren.add(prevItem);
+        indexItems(prevItem, itemIndex);
 
-        FXCollections.sort(newParentChildren, ITEM_COMPARATOR);
+        final ObservableList<TreeItem<ResourceElement>> newParentChildren = newParentItem.getChildren();
+        newParentChildren.add(findInsertIndex(newParentChildren, prevItem), prevItem);
     }
 
     @FxThread
@@ -828,6 +1289,8 @@ public class ResourceTree extends TreeView<ResourceElement> {
         for (final TreeItem<ResourceElement> child : children) {
 
             final ResourceElement resourceElement = child.getValue();
+            if (resourceElement instanceof LoadingResourceElement) continue;
+
             final Path file = resourceElement.getFile();
             final Path relativeFile = file.subpath(prevFile.getNameCount(), file.getNameCount());
             final Path resultFile = newFile.resolve(relativeFile);
@@ -845,16 +1308,19 @@ public class ResourceTree extends TreeView<ResourceElement> {
     @FxThread
     public void notifyRenamed(@NotNull final Path prevFile, @NotNull final Path newFile) {
 
-        final ResourceElement prevElement = createFor(prevFile);
-        final TreeItem<ResourceElement> prevItem = findItemForValue(getRoot(), prevElement);
+        final TreeItem<ResourceElement> prevItem = findItem(prevFile);
         if (prevItem == null) return;
 
+        unindexItems(prevItem);
+
         prevItem.setValue(createFor(newFile));
 
         final Array<TreeItem<ResourceElement>> children = UiUtils.getAllItems(prevItem);
         children.fastRemove(prevItem);
 
         fillChildren(prevFile, newFile, children);
+
+        indexItems(prevItem, itemIndex);
     }
 
     /**
@@ -990,8 +1456,7 @@ public class ResourceTree extends TreeView<ResourceElement> {
     @FxThread
     public void markExpand(@NotNull final Path file) {
 
-        final ResourceElement element = createFor(file);
-        final TreeItem<ResourceElement> treeItem = findItemForValue(getRoot(), element);
+        final TreeItem<ResourceElement> treeItem = findItem(file);
         if (treeItem == null) return;
 
         treeItem.setExpanded(true);
@@ -1026,14 +1491,14 @@ public class ResourceTree extends TreeView<ResourceElement> {
 
         if (isLazyMode()) {
 
-            final TreeItem<ResourceElement> targetItem = findItemForValue(getRoot(), file);
+            final TreeItem<ResourceElement> targetItem = findItem(file);
             if (targetItem == null) {
 
                 TreeItem<ResourceElement> parentItem = null;
                 Path parent = file.getParent();
 
                 while (parent != null) {
-                    parentItem = findItemForValue(getRoot(), parent);
+                    parentItem = findItem(parent);
                     if (parentItem != null) {
                         break;
                     }
@@ -1046,19 +1511,20 @@ public class ResourceTree extends TreeView<ResourceElement> {
                 }
 
                 final TreeItem<ResourceElement> toLoad = parentItem;
-                EXECUTOR_MANAGER.addBackgroundTask(() -> lazyLoadChildren(toLoad, item -> expandTo(file, needSelect)));
+                EXECUTOR_MANAGER.addBackgroundTask(() -> lazyLoadChildren(toLoad, item -> expandTo(file, needSelect)),
+                        TaskPriority.INTERACTIVE);
                 return;
             }
 
             final ObservableList<TreeItem<ResourceElement>> children = targetItem.getChildren();
             if (children.size() == 1 && children.get(0).getValue() == LoadingResourceElement.getInstance()) {
-                EXECUTOR_MANAGER.addBackgroundTask(() -> lazyLoadChildren(targetItem, item -> expandTo(file, needSelect)));
+                EXECUTOR_MANAGER.addBackgroundTask(() -> lazyLoadChildren(targetItem, item -> expandTo(file, needSelect)),
+                        TaskPriority.INTERACTIVE);
                 return;
             }
         }
 
-        final ResourceElement element = createFor(file);
-        final TreeItem<ResourceElement> treeItem = findItemForValue(getRoot(), element);
+        final TreeItem<ResourceElement> treeItem = findItem(file);
         if (treeItem == null) return;
 
         TreeItem<ResourceElement> parent = treeItem;
@@ -2,16 +2,13 @@ package com.ss.editor.ui.component.asset.tree.resource;
 
 import static com.ss.editor.ui.component.asset.tree.resource.ResourceElementFactory.createFor;
 import com.ss.editor.annotation.FromAnyThread;
-import com.ss.rlib.util.FileUtils;
+import com.ss.editor.file.cache.DirectorySnapshotCache;
+import com.ss.editor.file.cache.DirectorySnapshotCache.Snapshot;
 import com.ss.rlib.util.array.Array;
 import com.ss.rlib.util.array.ArrayFactory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.nio.file.AccessDeniedException;
-import java.nio.file.DirectoryStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -21,6 +18,9 @@ import java.nio.file.Path;
  */
 public class FolderResourceElement extends ResourceElement {
 
+    @NotNull
+    private static final DirectorySnapshotCache SNAPSHOT_CACHE = DirectorySnapshotCache.getInstance();
+
     public FolderResourceElement(@NotNull final Path file) {
         super(file);
     }
@@ -28,33 +28,16 @@ public class FolderResourceElement extends ResourceElement {
     @Override
     @FromAnyThread
     public @Nullable Array<ResourceElement> getChildren(@NotNull final Array<String> extensionFilter, final boolean onlyFolders) {
-        if (!Files.isDirectory(file)) return null;
-
-        final Array<ResourceElement> elements = ArrayFactory.newArray(ResourceElement.class);
-
-        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(file)) {
-            stream.forEach(child -> {
-
-                final String fileName = child.getFileName().toString();
-
-                if (fileName.startsWith(".")) {
-                    return;
-                } else if (Files.isDirectory(child)) {
-                    elements.add(createFor(child));
-                    return;
-                }
 
-                if (onlyFolders) return;
+        final Snapshot snapshot = SNAPSHOT_CACHE.get(file);
+        if (snapshot == null) return null;
 
-                final String extension = FileUtils.getExtension(child);
+        final Array<ResourceElement> elements = ArrayFactory.newArray(ResourceElement.class, snapshot.size());
 
-                if (extensionFilter.isEmpty() || extensionFilter.contains(extension)) {
-                    elements.add(createFor(child));
-                }
-            });
-
-        } catch (final IOException e) {
-            LOGGER.warning(this, e);
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.isAccepted(i, extensionFilter, onlyFolders)) {
+                elements.add(createFor(snapshot.getFile(i), snapshot.isDirectory(i)));
+            }
         }
 
         return elements;
@@ -63,35 +46,8 @@ public class FolderResourceElement extends ResourceElement {
     @Override
     @FromAnyThread
     public boolean hasChildren(@NotNull final Array<String> extensionFilter, final boolean onlyFolders) {
-        if (!Files.isDirectory(file)) return false;
-
-        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(file)) {
-            for (final Path path : stream) {
-
-                final String fileName = path.getFileName().toString();
-
-                if (fileName.startsWith(".")) {
-                    continue;
-                } else if (Files.isDirectory(path)) {
-                    return true;
-                }
-
-                if (onlyFolders) continue;
-
-                final String extension = FileUtils.getExtension(path);
-
-                if (extensionFilter.isEmpty() || extensionFilter.contains(extension)) {
-                    return true;
-                }
-            }
-
-        } catch (final AccessDeniedException e) {
-            return false;
-        } catch (final IOException e) {
-            LOGGER.warning(this, e);
-        }
-
-        return false;
+        final Snapshot snapshot = SNAPSHOT_CACHE.get(file);
+        return snapshot != null && snapshot.hasAccepted(extensionFilter, onlyFolders);
     }
 
     @Override
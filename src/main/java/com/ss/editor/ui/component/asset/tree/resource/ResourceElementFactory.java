@@ -22,7 +22,19 @@ public class ResourceElementFactory {
      */
     @FromAnyThread
     public static @NotNull ResourceElement createFor(@NotNull final Path file) {
-        if (Files.isDirectory(file)) {
+        return createFor(file, Files.isDirectory(file));
+    }
+
+    /**
+     * Create a resource element for the file with the known type.
+     *
+     * @param file      the file.
+     * @param directory true if the file is a directory.
+     * @return the created resource element.
+     */
+    @FromAnyThread
+    public static @NotNull ResourceElement createFor(@NotNull final Path file, final boolean directory) {
+        if (directory) {
             return new FolderResourceElement(file);
         } else if (JavaFxImageManager.isImage(file)) {
             return new ImageResourceElement(file);
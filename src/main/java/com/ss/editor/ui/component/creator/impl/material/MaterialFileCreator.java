@@ -11,6 +11,7 @@ import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.extension.property.EditablePropertyType;
+import com.ss.editor.file.index.ResourceList;
 import com.ss.editor.manager.ResourceManager;
 import com.ss.editor.plugin.api.file.creator.GenericFileCreator;
 import com.ss.editor.plugin.api.property.PropertyDefinition;
@@ -63,7 +64,7 @@ public class MaterialFileCreator extends GenericFileCreator {
      * The list of available definitions.
      */
     @Nullable
-    private Array<String> definitions;
+    private ResourceList definitions;
 
     @Override
     @FromAnyThread
@@ -81,7 +82,10 @@ public class MaterialFileCreator extends GenericFileCreator {
     @FromAnyThread
     protected @NotNull Array<PropertyDefinition> getPropertyDefinitions() {
 
-        definitions = RESOURCE_MANAGER.getAvailableResources(FileExtensions.JME_MATERIAL_DEFINITION);
+        final ResourceList definitions =
+                RESOURCE_MANAGER.getAvailableResourceList(FileExtensions.JME_MATERIAL_DEFINITION);
+
+        this.definitions = definitions;
 
         final String def;
 
@@ -90,12 +94,12 @@ public class MaterialFileCreator extends GenericFileCreator {
         } else if (definitions.contains(LIGHTING_MAT_DEF)) {
             def = LIGHTING_MAT_DEF;
         } else {
-            def = definitions.first();
+            def = definitions.isEmpty() ? null : definitions.get(0);
         }
 
         final Array<PropertyDefinition> result = ArrayFactory.newArray(PropertyDefinition.class);
         result.add(new PropertyDefinition(EditablePropertyType.STRING_FROM_LIST,
-                Messages.MATERIAL_FILE_CREATOR_MATERIAL_TYPE_LABEL, PROP_MAT_DEF, def, definitions));
+                Messages.MATERIAL_FILE_CREATOR_MATERIAL_TYPE_LABEL, PROP_MAT_DEF, def, definitions.toArray()));
 
         return result;
     }
@@ -104,7 +108,7 @@ public class MaterialFileCreator extends GenericFileCreator {
      * @return the list of available definitions.
      */
     @FromAnyThread
-    private @NotNull Array<String> getDefinitions() {
+    private @NotNull ResourceList getDefinitions() {
         return notNull(definitions);
     }
 
@@ -11,6 +11,7 @@ import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.executor.TaskPriority;
 import com.ss.editor.file.converter.FileConverter;
 import com.ss.editor.file.converter.FileConverterDescription;
 import com.ss.editor.file.converter.FileConverterRegistry;
@@ -47,6 +48,7 @@ import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
 import javafx.event.Event;
+import javafx.scene.Node;
 import javafx.scene.control.SingleSelectionModel;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
@@ -124,11 +126,30 @@ public class EditorAreaComponent extends TabPane implements ScreenComponent {
                 .addListener(this::switchEditor);
 
         FX_EVENT_MANAGER.addEventHandler(RequestedOpenFileEvent.EVENT_TYPE, event -> processOpenFile((RequestedOpenFileEvent) event));
+        FX_EVENT_MANAGER.addEventHandler(RequestedCloseFileEvent.EVENT_TYPE, event -> processCloseFile((RequestedCloseFileEvent) event));
         FX_EVENT_MANAGER.addEventHandler(RequestedCreateFileEvent.EVENT_TYPE, event -> processCreateFile((RequestedCreateFileEvent) event));
         FX_EVENT_MANAGER.addEventHandler(RequestedConvertFileEvent.EVENT_TYPE, event -> processConvertFile((RequestedConvertFileEvent) event));
         FX_EVENT_MANAGER.addEventHandler(RenamedFileEvent.EVENT_TYPE, event -> processEvent((RenamedFileEvent) event));
         FX_EVENT_MANAGER.addEventHandler(MovedFileEvent.EVENT_TYPE, event -> processEvent((MovedFileEvent) event));
         FX_EVENT_MANAGER.addEventHandler(ChangedCurrentAssetFolderEvent.EVENT_TYPE, event -> processEvent((ChangedCurrentAssetFolderEvent) event));
+        FX_EVENT_MANAGER.addEventHandler(ResolvedFileIconEvent.EVENT_TYPE, event -> processEvent((ResolvedFileIconEvent) event));
+    }
+
+    /**
+     * Update icons of tabs of editors after resolving an icon of files.
+     */
+    @FxThread
+    private void processEvent(@NotNull final ResolvedFileIconEvent event) {
+
+        for (final Tab tab : getTabs()) {
+
+            final FileEditor editor = (FileEditor) tab.getProperties().get(KEY_EDITOR);
+            final Node graphic = tab.getGraphic();
+
+            if (editor != null && graphic instanceof ImageView) {
+                ((ImageView) graphic).setImage(ICON_MANAGER.getIcon(editor.getEditFile(), DEFAULT_FILE_ICON_SIZE));
+            }
+        }
     }
 
     @FxThread
@@ -304,6 +325,22 @@ public class EditorAreaComponent extends TabPane implements ScreenComponent {
         return openedEditors;
     }
 
+    /**
+     * Handle the request to close an editor of a file.
+     */
+    @FxThread
+    private void processCloseFile(@NotNull final RequestedCloseFileEvent event) {
+
+        final Path file = event.getFile();
+
+        final ConcurrentObjectDictionary<Path, Tab> openedEditors = getOpenedEditors();
+        final Tab tab = DictionaryUtils.getInReadLock(openedEditors, file, ObjectDictionary::get);
+
+        if (tab != null) {
+            getTabs().remove(tab);
+        }
+    }
+
     /**
      * Handle the request to create a file.
      */
@@ -423,7 +460,7 @@ public class EditorAreaComponent extends TabPane implements ScreenComponent {
 
         UiUtils.incrementLoading();
 
-        EXECUTOR_MANAGER.addBackgroundTask(() -> processOpenFileImpl(event, file));
+        EXECUTOR_MANAGER.addBackgroundTask(() -> processOpenFileImpl(event, file), TaskPriority.INTERACTIVE);
     }
 
     @BackgroundThread
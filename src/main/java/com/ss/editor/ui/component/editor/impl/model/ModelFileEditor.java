@@ -28,7 +28,6 @@ import com.ss.editor.ui.component.editor.state.impl.EditorModelEditorState;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.editor.ui.util.DynamicIconSupport;
 import com.ss.editor.util.EditorUtil;
-import com.ss.editor.util.MaterialUtils;
 import com.ss.editor.util.NodeUtils;
 import com.ss.rlib.ui.util.FXUtils;
 import com.ss.rlib.util.array.Array;
@@ -174,13 +173,19 @@ public class ModelFileEditor extends AbstractSceneFileEditor<Spatial, ModelEdito
         final Path assetFile = notNull(getAssetFile(file), "Asset file for " + file + " can't be null.");
         final ModelKey modelKey = new ModelKey(toAssetPath(assetFile));
 
-        final AssetManager assetManager = EditorUtil.getAssetManager();
-        final Spatial model = assetManager.loadAsset(modelKey);
+        openModelInBackground(modelKey, model -> {}, this::openModel);
+    }
 
-        MaterialUtils.cleanUpMaterialParams(model);
+    /**
+     * Apply the loaded model to this editor.
+     *
+     * @param model the loaded model.
+     */
+    @FxThread
+    private void openModel(@NotNull final Spatial model) {
 
         final ModelEditor3DPart editor3DState = getEditor3DPart();
-        editor3DState.openModel(model);
+        editor3DState.openModel(model, this::notifyOpeningProgress);
 
         handleAddedObject(model);
 
@@ -34,6 +34,7 @@ import com.ss.editor.annotation.FxThread;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.control.transform.EditorTransformSupport.TransformType;
 import com.ss.editor.control.transform.EditorTransformSupport.TransformationMode;
+import com.ss.editor.executor.TaskPriority;
 import com.ss.editor.extension.scene.SceneLayer;
 import com.ss.editor.extension.scene.ScenePresentable;
 import com.ss.editor.model.editor.ModelEditingProvider;
@@ -62,7 +63,9 @@ import com.ss.editor.ui.control.tree.action.impl.operation.RemoveControlOperatio
 import com.ss.editor.ui.control.tree.action.impl.operation.RemoveLightOperation;
 import com.ss.editor.ui.control.tree.node.TreeNode;
 import com.ss.editor.ui.css.CssClasses;
+import com.ss.editor.ui.css.CssIds;
 import com.ss.editor.ui.event.impl.FileChangedEvent;
+import com.ss.editor.ui.event.impl.RequestedCloseFileEvent;
 import com.ss.editor.ui.util.DynamicIconSupport;
 import com.ss.editor.ui.util.UiUtils;
 import com.ss.editor.util.EditorUtil;
@@ -76,8 +79,10 @@ import com.ss.rlib.util.array.ArrayFactory;
 import javafx.collections.ObservableList;
 import javafx.event.Event;
 import javafx.geometry.Point2D;
+import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.Tooltip;
 import javafx.scene.image.ImageView;
@@ -259,11 +264,39 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
     @Nullable
     private ToggleButton scaleToolButton;
 
+    /**
+     * The layer to show progress of opening a model.
+     */
+    @Nullable
+    private VBox openingLayer;
+
+    /**
+     * The indicator of progress of opening a model.
+     */
+    @Nullable
+    private ProgressIndicator openingProgress;
+
+    /**
+     * The button to cancel opening a model.
+     */
+    @Nullable
+    private Button cancelOpeningButton;
+
     /**
      * The flag of ignoring camera moving.
      */
     private boolean ignoreCameraMove;
 
+    /**
+     * True if a model is opening in background.
+     */
+    private volatile boolean openingInBackground;
+
+    /**
+     * True if opening a model was cancelled.
+     */
+    private volatile boolean openingCancelled;
+
     public AbstractSceneFileEditor() {
         this.stats3DPart = new Stats3DPart(notNull(statsContainer));
         addEditor3DPart(stats3DPart);
@@ -569,6 +602,9 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
     @FxThread
     protected void setCurrentModel(@NotNull final M currentModel) {
         this.currentModel = currentModel;
+
+        // kept property controls are bound to objects of the previous model
+        getModelPropertyEditor().clearLayouts();
     }
 
     @Override
@@ -596,6 +632,38 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
         editingComponentContainer.notifyChangeProperty(object, propertyName);
     }
 
+    @Override
+    @FxThread
+    public void notifyFxChangeProperties(@NotNull final Array<?> objects, @NotNull final String propertyName) {
+
+        final ModelPropertyEditor modelPropertyEditor = getModelPropertyEditor();
+        final ModelNodeTree modelNodeTree = getModelNodeTree();
+        final PaintingComponentContainer editingComponentContainer = getPaintingComponentContainer();
+        final boolean materialChanged = Messages.MODEL_PROPERTY_MATERIAL.equals(propertyName);
+
+        Object toSync = null;
+
+        for (final Object object : objects) {
+
+            modelNodeTree.notifyChanged(null, object);
+
+            if (materialChanged && object instanceof Geometry) {
+                modelNodeTree.refresh(object);
+            }
+
+            editingComponentContainer.notifyChangeProperty(object, propertyName);
+
+            if (toSync == null && modelPropertyEditor.isShown(object)) {
+                toSync = object;
+            }
+        }
+
+        // the property editor shows one of the objects, so it's synced once
+        if (toSync != null) {
+            modelPropertyEditor.syncFor(toSync);
+        }
+    }
+
     @Override
     @FxThread
     public void notifyJmeChangeProperty(@NotNull final Object object, @NotNull final String propertyName) {
@@ -723,6 +791,14 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
     @FxThread
     public void selectNodeFromTree(@Nullable final Object object) {
 
+        final ModelNodeTree modelNodeTree = getModelNodeTree();
+        final Array<TreeNode<?>> selectedNodes = modelNodeTree.getSelectedNodes(ArrayFactory.newArray(TreeNode.class));
+
+        if (selectedNodes.size() > 1 && selectedNodes.first() == object) {
+            selectNodesFromTree(selectedNodes);
+            return;
+        }
+
         final MA editor3DPart = getEditor3DPart();
 
         Object parent = null;
@@ -773,6 +849,63 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
         editingComponentContainer.prepareFor(element);
     }
 
+    /**
+     * Handle several selected objects from the Tree, the first object is the last selected object. Properties of the
+     * first object are shown and changed for all selected objects of the same type.
+     *
+     * @param treeNodes the selected tree nodes.
+     */
+    @FxThread
+    private void selectNodesFromTree(@NotNull final Array<TreeNode<?>> treeNodes) {
+
+        final MA editor3DPart = getEditor3DPart();
+        final Array<Spatial> spatials = ArrayFactory.newArray(Spatial.class);
+        final Array<Object> elements = ArrayFactory.newArray(Object.class);
+
+        for (final TreeNode<?> treeNode : treeNodes) {
+
+            final Object element = treeNode.getElement();
+
+            if (element instanceof SceneLayer) {
+                continue;
+            }
+
+            Spatial spatial = null;
+
+            if (element instanceof AudioNode) {
+                final EditorAudioNode audioNode = editor3DPart.getAudioNode((AudioNode) element);
+                spatial = audioNode == null ? null : audioNode.getEditedNode();
+            } else if (element instanceof Spatial) {
+                spatial = (Spatial) element;
+            } else if (element instanceof Light) {
+                spatial = editor3DPart.getLightNode((Light) element);
+            }
+
+            if (spatial != null && spatial.isVisible()) {
+                spatials.add(spatial);
+            }
+
+            elements.add(element);
+        }
+
+        updateSelection(spatials);
+
+        final Object first = elements.first();
+        final TreeNode<?> parentNode = treeNodes.first().getParent();
+
+        Object parent = parentNode == null ? null : parentNode.getElement();
+
+        if (first instanceof Spatial) {
+            parent = ((Spatial) first).getParent();
+        }
+
+        final ModelPropertyEditor modelPropertyEditor = getModelPropertyEditor();
+        modelPropertyEditor.buildFor(elements, parent);
+
+        final PaintingComponentContainer editingComponentContainer = getPaintingComponentContainer();
+        editingComponentContainer.prepareFor(first);
+    }
+
     @FxThread
     private boolean isVisibleOnEditor(@NotNull final Spatial spatial) {
 
@@ -799,8 +932,18 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
         final Array<Spatial> selection = ArrayFactory.newArray(Spatial.class);
         if (spatial != null) selection.add(spatial);
 
+        updateSelection(selection);
+    }
+
+    /**
+     * Update selection of several objects to 3D state.
+     *
+     * @param spatials the new selected objects.
+     */
+    @FxThread
+    protected void updateSelection(@NotNull final Array<Spatial> spatials) {
         final MA editor3DState = getEditor3DPart();
-        editor3DState.updateSelection(selection);
+        editor3DState.updateSelection(spatials);
     }
 
     @Override
@@ -1017,11 +1160,187 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
         modelPropertyEditor = new ModelPropertyEditor(this);
         modelPropertyEditor.prefHeightProperty().bind(root.heightProperty());
 
+        openingProgress = new ProgressIndicator(ProgressIndicator.INDETERMINATE_PROGRESS);
+        openingProgress.setId(CssIds.EDITOR_LOADING_PROGRESS);
+
+        cancelOpeningButton = new Button(Messages.SIMPLE_DIALOG_BUTTON_CANCEL);
+        cancelOpeningButton.setOnAction(event -> cancelOpening());
+
+        openingLayer = new VBox();
+        openingLayer.setId(CssIds.EDITOR_LOADING_LAYER);
+        openingLayer.setVisible(false);
+
         FXUtils.addToPane(statsContainer, editorAreaPane);
+        FXUtils.addToPane(openingProgress, openingLayer);
+        FXUtils.addToPane(cancelOpeningButton, openingLayer);
+        FXUtils.addToPane(openingLayer, root);
         FXUtils.addClassTo(statsContainer, CssClasses.SCENE_EDITOR_STATS_CONTAINER);
         FXUtils.addClassTo(modelNodeTree.getTreeView(), CssClasses.TRANSPARENT_TREE_VIEW);
     }
 
+    @Override
+    @FromAnyThread
+    protected boolean isOpeningInBackground() {
+        return openingInBackground;
+    }
+
+    /**
+     * Load the model in background and apply it to this editor in the FX thread. Until the model is loaded, the
+     * editor shows progress of opening and the opening can be cancelled.
+     *
+     * @param modelKey the key of the model.
+     * @param preparer the handler to prepare the loaded model in background.
+     * @param handler  the handler to apply the loaded model to this editor.
+     */
+    @FromAnyThread
+    protected void openModelInBackground(@NotNull final ModelKey modelKey, @NotNull final Consumer<M> preparer,
+                                         @NotNull final Consumer<M> handler) {
+
+        openingInBackground = true;
+        openingCancelled = false;
+
+        EXECUTOR_MANAGER.addFxTask(this::showOpeningProgress);
+        EXECUTOR_MANAGER.addBackgroundTask(() -> loadModel(modelKey, preparer, handler), TaskPriority.INTERACTIVE)
+                .exceptionally(e -> {
+                    EditorUtil.handleException(null, this, new Exception(e));
+                    EXECUTOR_MANAGER.addFxTask(this::cancelOpening);
+                    return null;
+                });
+    }
+
+    /**
+     * Load and prepare the model in background.
+     */
+    @BackgroundThread
+    private void loadModel(@NotNull final ModelKey modelKey, @NotNull final Consumer<M> preparer,
+                           @NotNull final Consumer<M> handler) {
+
+        final AssetManager assetManager = EditorUtil.getAssetManager();
+        final M model = unsafeCast(assetManager.loadAsset(modelKey));
+
+        if (openingCancelled) {
+            return;
+        }
+
+        // materials are cleaned up in parallel while the FX thread builds UI of this editor
+        MaterialUtils.cleanUpMaterialParamsInParallel(model);
+        preparer.accept(model);
+
+        if (!openingCancelled) {
+            EXECUTOR_MANAGER.addFxTask(() -> finishOpening(model, handler));
+        }
+    }
+
+    /**
+     * Apply the loaded model to this editor, after that the editor can be used while the model is preloading to
+     * show in the 3D part.
+     */
+    @FxThread
+    private void finishOpening(@NotNull final M model, @NotNull final Consumer<M> handler) {
+
+        if (openingCancelled) {
+            return;
+        }
+
+        final VBox openingLayer = getOpeningLayer();
+        openingLayer.setMouseTransparent(true);
+
+        getCancelOpeningButton().setVisible(false);
+        getOpeningProgress().setProgress(0);
+
+        handler.accept(model);
+
+        openingInBackground = false;
+
+        loadState();
+    }
+
+    /**
+     * Notify about progress of preloading the opened model in the 3D part.
+     *
+     * @param progress the progress from 0 to 1.
+     */
+    @JmeThread
+    protected void notifyOpeningProgress(final double progress) {
+        EXECUTOR_MANAGER.addFxTask(() -> {
+            if (progress >= 1D) {
+                hideOpeningProgress();
+            } else {
+                getOpeningProgress().setProgress(progress);
+            }
+        });
+    }
+
+    /**
+     * Show progress of opening a model.
+     */
+    @FxThread
+    private void showOpeningProgress() {
+
+        final VBox openingLayer = getOpeningLayer();
+        openingLayer.setMouseTransparent(false);
+        openingLayer.setVisible(true);
+        openingLayer.toFront();
+
+        getCancelOpeningButton().setVisible(true);
+        getOpeningProgress().setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+    }
+
+    /**
+     * Hide progress of opening a model.
+     */
+    @FxThread
+    private void hideOpeningProgress() {
+        getOpeningLayer().setVisible(false);
+    }
+
+    /**
+     * Cancel opening a model and close this editor.
+     */
+    @FxThread
+    private void cancelOpening() {
+
+        if (!openingInBackground) {
+            return;
+        }
+
+        openingCancelled = true;
+        hideOpeningProgress();
+
+        FX_EVENT_MANAGER.notify(new RequestedCloseFileEvent(getEditFile()));
+    }
+
+    @Override
+    @FxThread
+    public void notifyClosed() {
+        openingCancelled = true;
+        super.notifyClosed();
+    }
+
+    /**
+     * @return the layer to show progress of opening a model.
+     */
+    @FxThread
+    private @NotNull VBox getOpeningLayer() {
+        return notNull(openingLayer);
+    }
+
+    /**
+     * @return the indicator of progress of opening a model.
+     */
+    @FxThread
+    private @NotNull ProgressIndicator getOpeningProgress() {
+        return notNull(openingProgress);
+    }
+
+    /**
+     * @return the button to cancel opening a model.
+     */
+    @FxThread
+    private @NotNull Button getCancelOpeningButton() {
+        return notNull(cancelOpeningButton);
+    }
+
     @Override
     @FxThread
     protected void createToolComponents(@NotNull final EditorToolComponent container, @NotNull final StackPane root) {
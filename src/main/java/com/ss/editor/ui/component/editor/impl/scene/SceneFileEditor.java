@@ -3,7 +3,6 @@ package com.ss.editor.ui.component.editor.impl.scene;
 import static com.ss.editor.util.EditorUtil.getAssetFile;
 import static com.ss.editor.util.EditorUtil.toAssetPath;
 import static com.ss.rlib.util.ObjectUtils.notNull;
-import com.jme3.asset.AssetManager;
 import com.jme3.asset.ModelKey;
 import com.jme3.scene.Spatial;
 import com.ss.editor.FileExtensions;
@@ -35,8 +34,9 @@ import com.ss.editor.ui.control.model.ModelNodeTree;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.editor.ui.util.DynamicIconSupport;
 import com.ss.editor.util.EditorUtil;
-import com.ss.editor.util.MaterialUtils;
 import com.ss.rlib.ui.util.FXUtils;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.Tooltip;
 import javafx.scene.image.ImageView;
@@ -153,17 +153,19 @@ public class SceneFileEditor extends
         final Path assetFile = notNull(getAssetFile(file), "Asset file for " + file + " can't be null.");
         final ModelKey modelKey = new ModelKey(toAssetPath(assetFile));
 
-        final AssetManager assetManager = EditorUtil.getAssetManager();
-
-        Spatial loadedScene = assetManager.loadAsset(modelKey);
-
-        final SceneNode model = (SceneNode) loadedScene;
-        model.depthFirstTraversal(this::updateVisibility);
+        openModelInBackground(modelKey, model -> model.depthFirstTraversal(this::updateVisibility), this::openModel);
+    }
 
-        MaterialUtils.cleanUpMaterialParams(model);
+    /**
+     * Apply the loaded scene to this editor.
+     *
+     * @param model the loaded scene.
+     */
+    @FxThread
+    private void openModel(@NotNull final SceneNode model) {
 
         final SceneEditor3DPart editor3DState = getEditor3DPart();
-        editor3DState.openModel(model);
+        editor3DState.openModel(model, this::notifyOpeningProgress);
 
         handleAddedObject(model);
 
@@ -193,7 +195,7 @@ public class SceneFileEditor extends
         layerNodeTree.fill(new LayersRoot(this));
     }
 
-    @FxThread
+    @FromAnyThread
     private void updateVisibility(@NotNull final Spatial spatial) {
         final SceneLayer layer = SceneLayer.getLayer(spatial);
         if (layer != null) spatial.setVisible(layer.isShowed());
@@ -522,6 +524,21 @@ public class SceneFileEditor extends
         super.updateSelection(spatial);
     }
 
+    @Override
+    @FxThread
+    protected void updateSelection(@NotNull final Array<Spatial> spatials) {
+
+        final Array<Spatial> selection = ArrayFactory.newArray(Spatial.class, spatials.size());
+
+        for (final Spatial spatial : spatials) {
+            if (!(spatial instanceof SceneNode || spatial instanceof SceneLayer)) {
+                selection.add(spatial);
+            }
+        }
+
+        super.updateSelection(selection);
+    }
+
     @Override
     @FxThread
     protected void handleAddedObject(@NotNull final Spatial model) {
@@ -600,6 +617,27 @@ public class SceneFileEditor extends
     public void notifyFxChangeProperty(@Nullable final Object parent, @NotNull final Object object,
                                        @NotNull final String propertyName) {
         super.notifyFxChangeProperty(parent, object, propertyName);
+        notifyLayersChangeProperty(object, propertyName);
+    }
+
+    @Override
+    @FxThread
+    public void notifyFxChangeProperties(@NotNull final Array<?> objects, @NotNull final String propertyName) {
+        super.notifyFxChangeProperties(objects, propertyName);
+
+        for (final Object object : objects) {
+            notifyLayersChangeProperty(object, propertyName);
+        }
+    }
+
+    /**
+     * Update layers of the scene by the changed property.
+     *
+     * @param object       the changed object.
+     * @param propertyName the property name.
+     */
+    @FxThread
+    private void notifyLayersChangeProperty(@NotNull final Object object, @NotNull final String propertyName) {
 
         if (object instanceof Spatial && Objects.equals(propertyName, SceneLayer.KEY)) {
 
@@ -270,7 +270,7 @@ public class ChooseTextureControl extends HBox {
         final Path assetFile = notNull(getAssetFile(textureFile));
 
         textureLabel.setText(assetFile.toString());
-        preview.setImage(IMAGE_MANAGER.getImagePreview(textureFile, 28, 28));
+        IMAGE_MANAGER.showImagePreview(preview, textureFile, 28, 28);
         textureTooltip.showImage(textureFile);
     }
 }
@@ -1,6 +1,5 @@
 package com.ss.editor.ui.control.layer;
 
-import static com.ss.editor.ui.util.UiUtils.findItemForValue;
 import com.jme3.scene.Spatial;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.extension.scene.SceneLayer;
@@ -25,6 +24,18 @@ public class LayerNodeTree extends NodeTree<SceneChangeConsumer> {
         super(selectionHandler, consumer);
     }
 
+    @Override
+    @FxThread
+    protected @Nullable Object getParentObject(@NotNull final Object element) {
+
+        if (!(element instanceof Spatial)) {
+            return null;
+        }
+
+        final SceneLayer layer = SceneLayer.getLayer((Spatial) element);
+        return layer == SceneLayer.NO_LAYER ? null : layer;
+    }
+
     @Override
     @FxThread
     protected @NotNull NodeTreeCell<SceneChangeConsumer, ?> createNodeTreeCell() {
@@ -43,12 +54,12 @@ public class LayerNodeTree extends NodeTree<SceneChangeConsumer> {
             final SceneLayer layer = SceneLayer.getLayer(child);
             if (layer == SceneLayer.NO_LAYER) return;
 
-            final TreeItem<TreeNode<?>> newLayerItem = findItemForValue(getTreeView(), layer);
-            final TreeItem<TreeNode<?>> treeItem = findItemForValue(getTreeView(), child);
+            final TreeItem<TreeNode<?>> newLayerItem = findItem(layer);
+            final TreeItem<TreeNode<?>> treeItem = findItem(child);
 
-            if (newLayerItem != null && treeItem == null) {
+            if (newLayerItem != null && treeItem == null && isLoaded(newLayerItem)) {
                 final TreeNode<?> objectNode = FACTORY_REGISTRY.createFor(child);
-                newLayerItem.getChildren().add(new TreeItem<>(objectNode));
+                newLayerItem.getChildren().add(createItem(objectNode));
             }
 
         }, Spatial.DFSMode.POST_ORDER);
@@ -66,11 +77,12 @@ public class LayerNodeTree extends NodeTree<SceneChangeConsumer> {
             final SceneLayer layer = SceneLayer.getLayer(child);
             if (layer == SceneLayer.NO_LAYER) return;
 
-            final TreeItem<TreeNode<?>> newLayerItem = findItemForValue(getTreeView(), layer);
-            final TreeItem<TreeNode<?>> treeItem = findItemForValue(getTreeView(), child);
+            final TreeItem<TreeNode<?>> newLayerItem = findItem(layer);
+            final TreeItem<TreeNode<?>> treeItem = findItem(child);
 
             if (newLayerItem != null && treeItem != null) {
                 newLayerItem.getChildren().remove(treeItem);
+                unregisterItem(treeItem);
             }
 
         }, Spatial.DFSMode.POST_ORDER);
@@ -85,21 +97,25 @@ public class LayerNodeTree extends NodeTree<SceneChangeConsumer> {
     @FxThread
     public void notifyChangedLayer(@NotNull final Spatial object, @Nullable final SceneLayer newLayer) {
 
-        final TreeNode<?> objectNode = FACTORY_REGISTRY.createFor(object);
-        TreeItem<TreeNode<?>> objectItem = findItemForValue(getTreeView(), objectNode);
+        TreeItem<TreeNode<?>> objectItem = findItem(object);
 
-        if (objectItem == null && newLayer != null) {
-            objectItem = new TreeItem<>(objectNode);
-        } else if (objectItem != null) {
+        if (objectItem != null) {
             final TreeItem<TreeNode<?>> parent = objectItem.getParent();
             parent.getChildren().remove(objectItem);
         }
 
-        final TreeItem<TreeNode<?>> newLayerItem =
-                newLayer == null ? null : findItemForValue(getTreeView(), FACTORY_REGISTRY.createFor(newLayer));
+        final TreeItem<TreeNode<?>> newLayerItem = newLayer == null ? null : findItem(newLayer);
 
-        if (newLayerItem != null) {
-            newLayerItem.getChildren().add(objectItem);
+        // a collapsed layer will create the item of the object with other its children on expanding
+        if (newLayerItem == null || !isLoaded(newLayerItem)) {
+            if (objectItem != null) unregisterItem(objectItem);
+            return;
         }
+
+        if (objectItem == null) {
+            objectItem = createItem(FACTORY_REGISTRY.createFor(object));
+        }
+
+        newLayerItem.getChildren().add(objectItem);
     }
 }
@@ -2,13 +2,15 @@ package com.ss.editor.ui.control.model;
 
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.ui.control.tree.NodeTree;
+import javafx.scene.control.SelectionMode;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.function.Consumer;
 
 /**
- * The implementation of {@link NodeTree} to present a structure of model in an editor.
+ * The implementation of {@link NodeTree} to present a structure of model in an editor. Several objects can be
+ * selected to edit their common properties together.
  *
  * @author JavaSaBr
  */
@@ -16,5 +18,6 @@ public class ModelNodeTree extends NodeTree<ModelChangeConsumer> {
 
     public ModelNodeTree(@NotNull final Consumer<Object> selectionHandler, @Nullable final ModelChangeConsumer consumer) {
         super(selectionHandler, consumer);
+        getTreeView().getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
     }
 }
@@ -10,6 +10,7 @@ import com.ss.editor.ui.component.asset.tree.context.menu.action.DeleteFileActio
 import com.ss.editor.ui.component.asset.tree.context.menu.action.NewFileAction;
 import com.ss.editor.ui.component.asset.tree.context.menu.action.RenameFileAction;
 import com.ss.editor.ui.control.UpdatableControl;
+import com.ss.editor.ui.control.property.operation.MultiPropertyOperation;
 import com.ss.editor.ui.control.property.operation.PropertyOperation;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.editor.ui.event.FxEventManager;
@@ -18,6 +19,7 @@ import com.ss.rlib.function.SixObjectConsumer;
 import com.ss.rlib.logging.Logger;
 import com.ss.rlib.logging.LoggerManager;
 import com.ss.rlib.ui.util.FXUtils;
+import com.ss.rlib.util.array.Array;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
@@ -110,6 +112,12 @@ public class PropertyControl<C extends ChangeConsumer, D, T> extends VBox implem
     @Nullable
     private D editObject;
 
+    /**
+     * The all edited objects if the property is edited for several objects.
+     */
+    @Nullable
+    private Array<D> editObjects;
+
     /**
      * The value of the property.
      */
@@ -134,6 +142,11 @@ public class PropertyControl<C extends ChangeConsumer, D, T> extends VBox implem
     @Nullable
     private Label propertyNameLabel;
 
+    /**
+     * The flag of using a custom change handler.
+     */
+    private final boolean customChangeHandler;
+
     /**
      * The flag for ignoring listeners.
      */
@@ -150,6 +163,7 @@ public class PropertyControl<C extends ChangeConsumer, D, T> extends VBox implem
         this.propertyName = propertyName;
         this.changeConsumer = changeConsumer;
         this.changeHandler = changeHandler == null ? newChangeHandler() : changeHandler;
+        this.customChangeHandler = changeHandler != null;
 
         setOnKeyReleased(UiUtils::consumeIfIsNotHotKey);
         setOnKeyPressed(UiUtils::consumeIfIsNotHotKey);
@@ -189,6 +203,73 @@ public class PropertyControl<C extends ChangeConsumer, D, T> extends VBox implem
     @FxThread
     public void setEditObject(@NotNull final D editObject) {
         this.editObject = editObject;
+
+        if (editObjects != null && !editObjects.contains(editObject)) {
+            editObjects = null;
+        }
+    }
+
+    /**
+     * Rebind this control to another edit object of the same type and reload the actual value of the property.
+     *
+     * @param editObject the new edit object.
+     */
+    @FxThread
+    public void rebind(@NotNull final D editObject) {
+        setEditObject(editObject);
+        setIgnoreListener(true);
+        try {
+
+            final Function<D, T> syncHandler = getSyncHandler();
+
+            if (syncHandler != null) {
+                setPropertyValue(syncHandler.apply(editObject));
+            }
+
+            reload();
+
+        } finally {
+            setIgnoreListener(false);
+        }
+    }
+
+    /**
+     * Sets edit objects to change the property of all the objects at once, the first object is presented by this
+     * control.
+     *
+     * @param editObjects the edit objects.
+     */
+    @FxThread
+    public void setEditObjects(@NotNull final Array<D> editObjects) {
+
+        final D first = editObjects.first();
+
+        if (first != null) {
+            setEditObject(first);
+        }
+
+        this.editObjects = editObjects.size() > 1 ? editObjects : null;
+    }
+
+    /**
+     * Check that the property can be changed for several objects at once, we need the sync handler to get old values
+     * of other objects and the default change handler to apply the new value to all of them.
+     *
+     * @return true if the property can be changed for several objects.
+     */
+    @FxThread
+    public boolean canEditObjects() {
+        return getSyncHandler() != null && !customChangeHandler;
+    }
+
+    /**
+     * Gets edit objects.
+     *
+     * @return the all edited objects or null if the property is edited for one object.
+     */
+    @FxThread
+    protected @Nullable Array<D> getEditObjects() {
+        return editObjects;
     }
 
     /**
@@ -392,7 +473,35 @@ public class PropertyControl<C extends ChangeConsumer, D, T> extends VBox implem
      */
     @FxThread
     protected void changed(@Nullable final T newValue, @Nullable final T oldValue) {
-        changeHandler.accept(getChangeConsumer(), getEditObject(), getPropertyName(), newValue, oldValue, getApplyHandler());
+
+        final Array<D> editObjects = getEditObjects();
+        final Function<D, T> syncHandler = getSyncHandler();
+
+        if (editObjects == null || syncHandler == null || !canEditObjects()) {
+            changeHandler.accept(getChangeConsumer(), getEditObject(), getPropertyName(), newValue, oldValue, getApplyHandler());
+            return;
+        }
+
+        final D editObject = getEditObject();
+
+        final MultiPropertyOperation<ChangeConsumer, D, T> operation = new MultiPropertyOperation<>(editObjects,
+                getPropertyName(), newValue, object -> object == editObject ? oldValue : copyValue(syncHandler.apply(object)));
+
+        operation.setApplyHandler(getApplyHandler());
+        operation.setCopyHandler(this::copyValue);
+
+        getChangeConsumer().execute(operation);
+    }
+
+    /**
+     * Copy the value of the property, values which can be changed after applying must be copied.
+     *
+     * @param value the value.
+     * @return the copied value.
+     */
+    @FromAnyThread
+    protected @Nullable T copyValue(@Nullable final T value) {
+        return value;
     }
 
     /**
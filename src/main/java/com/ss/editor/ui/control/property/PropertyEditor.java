@@ -1,14 +1,20 @@
 package com.ss.editor.ui.control.property;
 
+import static com.ss.rlib.util.ClassUtils.unsafeCast;
 import static com.ss.rlib.util.ObjectUtils.notNull;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.extension.property.EditableProperty;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.ui.FXConstants;
 import com.ss.editor.ui.control.UpdatableControl;
+import com.ss.editor.ui.control.property.builder.PropertyBuilder;
 import com.ss.editor.ui.control.property.builder.PropertyBuilderRegistry;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.rlib.ui.util.FXUtils;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
+import com.ss.rlib.util.dictionary.DictionaryFactory;
+import com.ss.rlib.util.dictionary.ObjectDictionary;
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.control.ScrollPane;
@@ -17,7 +23,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * The component to contains property controls in the editor.
+ * The component to contains property controls in the editor. Controls built for an object are kept by the type of the
+ * object when all their builders report them as reusable, so selecting another object of the same type rebinds and
+ * syncs the kept controls instead of building new ones. Other applicable builders are checked again that they still
+ * don't build any control for the selected object. Kept controls should be cleared when the edited model is changed.
  *
  * @param <C> the type of {@link ChangeConsumer}
  * @author JavaSaBr
@@ -27,6 +36,58 @@ public class PropertyEditor<C extends ChangeConsumer> extends ScrollPane {
     @NotNull
     private static final PropertyBuilderRegistry BUILDER_REGISTRY = PropertyBuilderRegistry.getInstance();
 
+    /**
+     * The reusable controls built for some object.
+     */
+    private static final class Layout {
+
+        /**
+         * The built controls.
+         */
+        @NotNull
+        private final Array<Node> nodes;
+
+        /**
+         * The builders which built the controls.
+         */
+        @NotNull
+        private final Array<PropertyBuilder> usedBuilders;
+
+        /**
+         * The all builders which were applied to build the controls.
+         */
+        @NotNull
+        private final Array<PropertyBuilder> applicableBuilders;
+
+        private Layout(@NotNull final Array<Node> nodes, @NotNull final Array<PropertyBuilder> usedBuilders,
+                       @NotNull final Array<PropertyBuilder> applicableBuilders) {
+            this.nodes = nodes;
+            this.usedBuilders = usedBuilders;
+            this.applicableBuilders = applicableBuilders;
+        }
+
+        /**
+         * Check that the controls are shown in the container.
+         *
+         * @param children the children of the container.
+         * @return true if the controls are shown.
+         */
+        private boolean isShownIn(@NotNull final ObservableList<Node> children) {
+
+            if (children.size() != nodes.size()) {
+                return false;
+            }
+
+            for (int i = 0, length = nodes.size(); i < length; i++) {
+                if (children.get(i) != nodes.get(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
     /**
      * The consumer of changes.
      */
@@ -51,6 +112,24 @@ public class PropertyEditor<C extends ChangeConsumer> extends ScrollPane {
     @Nullable
     private Object currentParent;
 
+    /**
+     * The all current editable objects if several objects are edited.
+     */
+    @NotNull
+    private final Array<Object> currentObjects;
+
+    /**
+     * The reusable controls by the types of objects.
+     */
+    @NotNull
+    private final ObjectDictionary<Class<?>, Layout> layouts;
+
+    /**
+     * The controls which were disabled because they can't change all current editable objects.
+     */
+    @NotNull
+    private final Array<Node> unboundNodes;
+
     /**
      * Instantiates a new Abstract property editor.
      *
@@ -58,6 +137,9 @@ public class PropertyEditor<C extends ChangeConsumer> extends ScrollPane {
      */
     public PropertyEditor(@NotNull final C changeConsumer) {
         this.changeConsumer = changeConsumer;
+        this.currentObjects = ArrayFactory.newArray(Object.class);
+        this.layouts = DictionaryFactory.newObjectDictionary();
+        this.unboundNodes = ArrayFactory.newArray(Node.class);
         createComponents();
     }
 
@@ -135,14 +217,23 @@ public class PropertyEditor<C extends ChangeConsumer> extends ScrollPane {
      */
     @FxThread
     public void buildFor(@Nullable final Object object, @Nullable final Object parent) {
-        if (getCurrentObject() == object) return;
+
+        if (getCurrentObject() == object) {
+            if (!currentObjects.isEmpty()) {
+                currentObjects.clear();
+                bindCurrentObjects();
+            }
+            return;
+        }
+
+        currentObjects.clear();
 
         final VBox container = getContainer();
-        final ObservableList<Node> children = container.getChildren();
-        children.clear();
 
-        if (object != null) {
-            BUILDER_REGISTRY.buildFor(object, parent, container, changeConsumer);
+        if (object == null) {
+            container.getChildren().clear();
+        } else {
+            buildControls(object, parent, true);
         }
 
         container.setDisable(object == null || !canEdit(object, parent));
@@ -151,6 +242,197 @@ public class PropertyEditor<C extends ChangeConsumer> extends ScrollPane {
         setCurrentParent(parent);
     }
 
+    /**
+     * Build property controls for the first object of the selected objects, changes of properties are applied to all
+     * selected objects of the same type as the first object.
+     *
+     * @param objects the selected objects.
+     * @param parent  the parent.
+     */
+    @FxThread
+    public void buildFor(@NotNull final Array<?> objects, @Nullable final Object parent) {
+
+        final Object object = objects.first();
+
+        buildFor(object, parent);
+
+        currentObjects.clear();
+
+        if (object == null || objects.size() < 2) {
+            return;
+        }
+
+        for (final Object other : objects) {
+            if (other.getClass() == object.getClass()) {
+                currentObjects.add(other);
+            }
+        }
+
+        bindCurrentObjects();
+    }
+
+    /**
+     * Build property controls for the object or rebind the kept controls built for another object of the same type.
+     *
+     * @param object   the object.
+     * @param parent   the parent.
+     * @param canReuse true if the kept controls can be reused.
+     */
+    @FxThread
+    private void buildControls(@NotNull final Object object, @Nullable final Object parent, final boolean canReuse) {
+
+        final Class<?> type = object.getClass();
+        final ObservableList<Node> children = getContainer().getChildren();
+        final Layout layout = canReuse ? layouts.get(type) : null;
+
+        enableUnboundNodes();
+
+        if (layout != null && BUILDER_REGISTRY.isReusable(object, parent, changeConsumer, layout.usedBuilders,
+                layout.applicableBuilders)) {
+
+            if (!layout.isShownIn(children)) {
+                children.setAll(layout.nodes);
+            }
+
+            for (final Node node : layout.nodes) {
+                if (node instanceof PropertyControl) {
+                    final PropertyControl<?, Object, ?> control = unsafeCast(node);
+                    control.rebind(object);
+                }
+            }
+
+            return;
+        }
+
+        children.clear();
+
+        final Array<PropertyBuilder> usedBuilders = ArrayFactory.newArray(PropertyBuilder.class);
+        final Array<PropertyBuilder> applicableBuilders = ArrayFactory.newArray(PropertyBuilder.class);
+
+        BUILDER_REGISTRY.buildFor(object, parent, getContainer(), changeConsumer, usedBuilders, applicableBuilders);
+
+        if (isReusable(object, parent, usedBuilders) && canRebind(object, children)) {
+            final Array<Node> nodes = ArrayFactory.newArray(Node.class, children.size());
+            nodes.addAll(children);
+            layouts.put(type, new Layout(nodes, usedBuilders, applicableBuilders));
+        } else {
+            layouts.remove(type);
+        }
+    }
+
+    /**
+     * Check that all builders which built controls for the object report them as reusable.
+     *
+     * @param object       the object.
+     * @param parent       the parent.
+     * @param usedBuilders the builders which built controls.
+     * @return true if the controls can be kept.
+     */
+    @FxThread
+    private boolean isReusable(@NotNull final Object object, @Nullable final Object parent,
+                               @NotNull final Array<PropertyBuilder> usedBuilders) {
+
+        for (final PropertyBuilder builder : usedBuilders) {
+            if (!builder.isReusable(object, parent)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Clear the kept controls, they keep the last bound objects, so they should be cleared when the edited model is
+     * changed.
+     */
+    @FxThread
+    public void clearLayouts() {
+        layouts.clear();
+    }
+
+    /**
+     * Check that all built controls can be rebound to another object, so all of them must edit the object itself
+     * and be able to get the actual value from it.
+     *
+     * @param object   the object.
+     * @param children the built controls.
+     * @return true if the controls can be rebound.
+     */
+    @FxThread
+    private boolean canRebind(@NotNull final Object object, @NotNull final ObservableList<Node> children) {
+
+        for (final Node node : children) {
+
+            if (node.getStyleClass().contains(CssClasses.ABSTRACT_PARAM_CONTROL_CONTAINER_SPLIT_LINE)) {
+                continue;
+            } else if (!(node instanceof PropertyControl)) {
+                return false;
+            }
+
+            final PropertyControl<?, ?, ?> control = (PropertyControl<?, ?, ?>) node;
+
+            if (!control.hasEditObject() || control.getEditObject() != object || control.getSyncHandler() == null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Bind all current editable objects to the controls of the current object, other controls such as controls of
+     * editable properties or controls which can't change several objects are disabled while several objects are
+     * selected.
+     */
+    @FxThread
+    private void bindCurrentObjects() {
+
+        final Object object = getCurrentObject();
+        if (object == null) return;
+
+        final Array<Object> editObjects = ArrayFactory.newArray(Object.class);
+
+        if (currentObjects.size() > 1) {
+            editObjects.addAll(currentObjects);
+        } else {
+            editObjects.add(object);
+        }
+
+        enableUnboundNodes();
+
+        final ObservableList<Node> children = getContainer().getChildren();
+        children.forEach(node -> {
+
+            if (node.getStyleClass().contains(CssClasses.ABSTRACT_PARAM_CONTROL_CONTAINER_SPLIT_LINE)) {
+                return;
+            }
+
+            if (node instanceof PropertyControl) {
+
+                final PropertyControl<?, Object, ?> control = unsafeCast(node);
+
+                if (control.hasEditObject() && control.getEditObject() == object && control.canEditObjects()) {
+                    control.setEditObjects(editObjects);
+                    return;
+                }
+            }
+
+            if (editObjects.size() > 1 && !node.isDisable()) {
+                node.setDisable(true);
+                unboundNodes.add(node);
+            }
+        });
+    }
+
+    /**
+     * Enable the controls which were disabled while several objects were edited.
+     */
+    @FxThread
+    private void enableUnboundNodes() {
+        unboundNodes.forEach(node -> node.setDisable(false));
+        unboundNodes.clear();
+    }
+
     /**
      * Can edit boolean.
      *
@@ -173,12 +455,14 @@ public class PropertyEditor<C extends ChangeConsumer> extends ScrollPane {
     public void rebuildFor(@Nullable final Object object, @Nullable final Object parent) {
         if (getCurrentObject() != object) return;
 
-        final VBox container = getContainer();
-        final ObservableList<Node> children = container.getChildren();
-        children.clear();
+        if (object == null) {
+            getContainer().getChildren().clear();
+        } else {
+            buildControls(object, parent, false);
+        }
 
-        if (object != null) {
-            BUILDER_REGISTRY.buildFor(object, parent, container, changeConsumer);
+        if (!currentObjects.isEmpty()) {
+            bindCurrentObjects();
         }
     }
 
@@ -190,6 +474,17 @@ public class PropertyEditor<C extends ChangeConsumer> extends ScrollPane {
         rebuildFor(getCurrentObject(), null);
     }
 
+    /**
+     * Check that properties of the object are shown in this editor.
+     *
+     * @param object the object.
+     * @return true if properties of the object are shown.
+     */
+    @FxThread
+    public boolean isShown(@Nullable final Object object) {
+        return object != null && isNeedUpdate(object);
+    }
+
     /**
      * Is need update boolean.
      *
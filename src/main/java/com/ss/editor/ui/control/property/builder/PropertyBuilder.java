@@ -26,4 +26,17 @@ public interface PropertyBuilder {
     @FxThread
     void buildFor(@NotNull Object object, @Nullable Object parent, @NotNull VBox container,
                   @NotNull ChangeConsumer changeConsumer);
+
+    /**
+     * Return true if the controls built by this builder for the object depend only on the type of the object, so they
+     * can be rebound to another object of the same type for which this builder returns true as well.
+     *
+     * @param object the object.
+     * @param parent the parent of the object.
+     * @return true if the built controls can be reused.
+     */
+    @FxThread
+    default boolean isReusable(@NotNull final Object object, @Nullable final Object parent) {
+        return false;
+    }
 }
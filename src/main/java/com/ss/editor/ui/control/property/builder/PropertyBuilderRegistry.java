@@ -37,6 +37,12 @@ public class PropertyBuilderRegistry {
     @NotNull
     private final Array<PropertyBuilderFilter> filters;
 
+    /**
+     * The container to check that a builder doesn't build any control for an object.
+     */
+    @Nullable
+    private VBox probeContainer;
+
     private PropertyBuilderRegistry() {
         builders = ArrayFactory.newArray(PropertyBuilder.class);
         filters = ArrayFactory.newArray(PropertyBuilderFilter.class);
@@ -89,6 +95,25 @@ public class PropertyBuilderRegistry {
     @FxThread
     public void buildFor(@NotNull final Object object, @Nullable final Object parent, @NotNull final VBox container,
                          @NotNull final ChangeConsumer changeConsumer) {
+        buildFor(object, parent, container, changeConsumer, null);
+    }
+
+    /**
+     * Build properties controls for the object to the container and collect applied builders and builders which
+     * built any control.
+     *
+     * @param object             the object to build property controls.
+     * @param parent             the parent of the object.
+     * @param container          the container for containing these controls.
+     * @param changeConsumer     the consumer to work between controls and editor.
+     * @param usedBuilders       the container of builders which built any control or null.
+     * @param applicableBuilders the container of builders which weren't skipped by filters or null.
+     */
+    @FxThread
+    public void buildFor(@NotNull final Object object, @Nullable final Object parent, @NotNull final VBox container,
+                         @NotNull final ChangeConsumer changeConsumer,
+                         @Nullable final Array<PropertyBuilder> usedBuilders,
+                         @Nullable final Array<PropertyBuilder> applicableBuilders) {
 
         for (final PropertyBuilder builder : builders) {
 
@@ -105,7 +130,83 @@ public class PropertyBuilderRegistry {
                 continue;
             }
 
+            if (applicableBuilders != null) {
+                applicableBuilders.add(builder);
+            }
+
+            final int count = container.getChildren().size();
+
             builder.buildFor(object, parent, container, changeConsumer);
+
+            if (usedBuilders != null && container.getChildren().size() != count) {
+                usedBuilders.add(builder);
+            }
         }
     }
+
+    /**
+     * Check that the controls built by the builders can be reused for the object. Builders which built controls must
+     * report them as reusable, other applicable builders must not build any control for the object, so they are
+     * checked by building to a temporary container. Filters can skip builders for some objects, so controls aren't
+     * reused if any filter is registered.
+     *
+     * @param object             the object.
+     * @param parent             the parent of the object.
+     * @param changeConsumer     the consumer to work between controls and editor.
+     * @param usedBuilders       the builders which built the controls.
+     * @param applicableBuilders the builders which were applied to build the controls.
+     * @return true if the controls can be reused for the object.
+     */
+    @FxThread
+    public boolean isReusable(@NotNull final Object object, @Nullable final Object parent,
+                              @NotNull final ChangeConsumer changeConsumer,
+                              @NotNull final Array<PropertyBuilder> usedBuilders,
+                              @NotNull final Array<PropertyBuilder> applicableBuilders) {
+
+        if (!filters.isEmpty() || applicableBuilders.size() != builders.size()) {
+            return false;
+        }
+
+        for (int i = 0, length = builders.size(); i < length; i++) {
+
+            final PropertyBuilder builder = builders.get(i);
+
+            if (applicableBuilders.get(i) != builder) {
+                return false;
+            } else if (usedBuilders.contains(builder)) {
+                if (!builder.isReusable(object, parent)) {
+                    return false;
+                }
+            } else if (isBuildingAny(builder, object, parent, changeConsumer)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Check that the builder builds any control for the object.
+     *
+     * @param builder        the builder.
+     * @param object         the object.
+     * @param parent         the parent of the object.
+     * @param changeConsumer the consumer to work between controls and editor.
+     * @return true if the builder builds any control.
+     */
+    @FxThread
+    private boolean isBuildingAny(@NotNull final PropertyBuilder builder, @NotNull final Object object,
+                                  @Nullable final Object parent, @NotNull final ChangeConsumer changeConsumer) {
+
+        if (probeContainer == null) {
+            probeContainer = new VBox();
+        }
+
+        builder.buildFor(object, parent, probeContainer, changeConsumer);
+
+        final boolean result = !probeContainer.getChildren().isEmpty();
+        probeContainer.getChildren().clear();
+
+        return result;
+    }
 }
@@ -211,4 +211,10 @@ public class AudioNodePropertyBuilder extends AbstractPropertyBuilder<ModelChang
 
         buildSplitLine(container);
     }
+
+    @Override
+    @FxThread
+    public boolean isReusable(@NotNull final Object object, @Nullable final Object parent) {
+        return true;
+    }
 }
@@ -126,6 +126,7 @@ public class GeometryPropertyBuilder extends AbstractPropertyBuilder<ModelChange
                 new DefaultPropertyControl<>(modelBound, Messages.BOUNDING_VOLUME_MODEL_PROPERTY_CONTROL_NAME, changeConsumer);
 
         boundingVolumeControl.setToStringFunction(BOUNDING_VOLUME_TO_STRING);
+        boundingVolumeControl.setSyncHandler(Geometry::getModelBound);
         boundingVolumeControl.reload();
         boundingVolumeControl.setEditObject(geometry);
 
@@ -158,6 +159,12 @@ public class GeometryPropertyBuilder extends AbstractPropertyBuilder<ModelChange
         FXUtils.addToPane(lodLevelControl, container);
     }
 
+    @Override
+    @FxThread
+    public boolean isReusable(@NotNull final Object object, @Nullable final Object parent) {
+        return !(object instanceof Geometry) || canEditMaterial((Geometry) object);
+    }
+
     /**
      * Can edit material boolean.
      *
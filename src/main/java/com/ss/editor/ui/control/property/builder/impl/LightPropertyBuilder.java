@@ -63,6 +63,12 @@ public class LightPropertyBuilder extends AbstractPropertyBuilder<ModelChangeCon
         }
     }
 
+    @Override
+    @FxThread
+    public boolean isReusable(@NotNull final Object object, @Nullable final Object parent) {
+        return true;
+    }
+
     @FxThread
     private void buildForDirectionLight(@NotNull final DirectionalLight light, @NotNull final VBox container,
                                         @NotNull final ModelChangeConsumer changeConsumer) {
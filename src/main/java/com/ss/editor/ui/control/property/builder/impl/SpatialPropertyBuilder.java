@@ -260,6 +260,22 @@ public class SpatialPropertyBuilder extends AbstractPropertyBuilder<ModelChangeC
         }
     }
 
+    @Override
+    @FxThread
+    public boolean isReusable(@NotNull final Object object, @Nullable final Object parent) {
+
+        if (!(object instanceof Spatial)) {
+            return true;
+        }
+
+        // controls of user data depend on the keys of the spatial
+        for (final String key : ((Spatial) object).getUserDataKeys()) {
+            if (!isNeedSkip(key)) return false;
+        }
+
+        return true;
+    }
+
     @FxThread
     private boolean isNeedSkip(@NotNull final String key) {
         return SceneLayer.KEY.equals(key) || LOADED_MODEL_KEY.equals(key);
@@ -63,6 +63,12 @@ public class ColorPropertyControl<C extends ChangeConsumer, T> extends PropertyC
         super.setPropertyValue(color == null ? null : color.clone());
     }
 
+    @Override
+    @FromAnyThread
+    protected @Nullable ColorRGBA copyValue(@Nullable final ColorRGBA value) {
+        return value == null ? null : value.clone();
+    }
+
     @Override
     @FromAnyThread
     protected boolean isSingleRow() {
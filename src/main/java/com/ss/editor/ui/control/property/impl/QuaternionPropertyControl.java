@@ -4,6 +4,7 @@ import static com.ss.rlib.geom.util.AngleUtils.degreeToRadians;
 import static com.ss.rlib.geom.util.AngleUtils.radiansToDegree;
 import static com.ss.rlib.util.ObjectUtils.notNull;
 import com.jme3.math.Quaternion;
+import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.ui.control.property.PropertyControl;
@@ -99,6 +100,12 @@ public class QuaternionPropertyControl<C extends ChangeConsumer, T> extends Prop
         super.setPropertyValue(quaternion == null ? null : quaternion.clone());
     }
 
+    @Override
+    @FromAnyThread
+    protected @Nullable Quaternion copyValue(@Nullable final Quaternion value) {
+        return value == null ? null : value.clone();
+    }
+
     /**
      * @return the field X.
      */
@@ -379,10 +379,10 @@ public class Texture2DPropertyControl<C extends ChangeConsumer, T> extends Prope
             final Path realFile = notNull(getRealFile(key.getName()));
 
             if (Files.exists(realFile)) {
-                preview.setImage(IMAGE_MANAGER.getImagePreview(realFile, 24, 24));
+                IMAGE_MANAGER.showImagePreview(preview, realFile, 24, 24);
                 textureTooltip.showImage(realFile);
             } else {
-                preview.setImage(IMAGE_MANAGER.getImagePreview(key.getName(), 24, 24));
+                IMAGE_MANAGER.showImagePreview(preview, key.getName(), 24, 24);
                 textureTooltip.showImage(key.getName());
             }
         }
@@ -105,6 +105,12 @@ public class Vector2FPropertyControl<C extends ChangeConsumer, T> extends Proper
         super.setPropertyValue(vector == null ? null : vector.clone());
     }
 
+    @Override
+    @FromAnyThread
+    protected @Nullable Vector2f copyValue(@Nullable final Vector2f value) {
+        return value == null ? null : value.clone();
+    }
+
     @Override
     @FromAnyThread
     protected boolean isSingleRow() {
@@ -2,6 +2,7 @@ package com.ss.editor.ui.control.property.impl;
 
 import static com.ss.rlib.util.ObjectUtils.notNull;
 import com.jme3.math.Vector3f;
+import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.ui.control.property.PropertyControl;
@@ -108,6 +109,12 @@ public class Vector3FPropertyControl<C extends ChangeConsumer, T> extends Proper
         super.setPropertyValue(vector == null ? null : vector.clone());
     }
 
+    @Override
+    @FromAnyThread
+    protected @Nullable Vector3f copyValue(@Nullable final Vector3f value) {
+        return value == null ? null : value.clone();
+    }
+
     /**
      * Gets scroll power.
      *
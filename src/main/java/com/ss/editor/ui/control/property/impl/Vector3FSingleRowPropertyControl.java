@@ -116,6 +116,12 @@ public class Vector3FSingleRowPropertyControl<C extends ChangeConsumer, T> exten
         super.setPropertyValue(vector == null ? null : vector.clone());
     }
 
+    @Override
+    @FromAnyThread
+    protected @Nullable Vector3f copyValue(@Nullable final Vector3f value) {
+        return value == null ? null : value.clone();
+    }
+
     @Override
     @FromAnyThread
     protected boolean isSingleRow() {
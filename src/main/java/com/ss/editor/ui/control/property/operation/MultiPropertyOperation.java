@@ -0,0 +1,245 @@
+package com.ss.editor.ui.control.property.operation;
+
+import static com.ss.rlib.util.ClassUtils.unsafeCast;
+import static com.ss.rlib.util.ObjectUtils.notNull;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.model.undo.EditorOperation;
+import com.ss.editor.model.undo.editor.ChangeConsumer;
+import com.ss.editor.model.undo.impl.AbstractEditorOperation;
+import com.ss.editor.util.EditorUtil;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * The implementation of the {@link AbstractEditorOperation} to set the same value of a property to several objects.
+ * All objects are changed by one {@link TaskPriority#BULK} task in the editor thread, the editor is notified about
+ * changes once and the change is undone by one step.
+ *
+ * @param <C> the type of changed consumer
+ * @param <D> the type of edited objects
+ * @param <T> the type of edited property
+ * @author JavaSaBr
+ */
+public class MultiPropertyOperation<C extends ChangeConsumer, D, T> extends AbstractEditorOperation<C> {
+
+    /**
+     * The max time between changes of a property to merge them.
+     */
+    private static final long MERGE_WINDOW = 500;
+
+    /**
+     * The property name.
+     */
+    @NotNull
+    protected final String propertyName;
+
+    /**
+     * The target objects.
+     */
+    @NotNull
+    protected final Array<Object> targets;
+
+    /**
+     * The old values of the property by the indexes of the targets.
+     */
+    @NotNull
+    protected final Object[] oldValues;
+
+    /**
+     * The new value of the property.
+     */
+    @Nullable
+    protected T newValue;
+
+    /**
+     * The handler for applying new value.
+     */
+    @Nullable
+    private BiConsumer<D, T> applyHandler;
+
+    /**
+     * The handler for copying the new value for each target.
+     */
+    @NotNull
+    private UnaryOperator<T> copyHandler;
+
+    /**
+     * The time of the last change of this operation.
+     */
+    private long time;
+
+    /**
+     * Instantiates a new multi property operation.
+     *
+     * @param targets         the targets.
+     * @param propertyName    the property name.
+     * @param newValue        the new value.
+     * @param oldValueHandler the handler to get a copy of the current value of a target.
+     */
+    public MultiPropertyOperation(@NotNull final Array<D> targets, @NotNull final String propertyName,
+                                  @Nullable final T newValue, @NotNull final Function<D, T> oldValueHandler) {
+        this.propertyName = propertyName;
+        this.newValue = newValue;
+        this.targets = ArrayFactory.newArray(Object.class, targets.size());
+        this.targets.addAll(targets);
+        this.oldValues = new Object[targets.size()];
+        this.copyHandler = UnaryOperator.identity();
+        this.time = System.currentTimeMillis();
+
+        for (int i = 0; i < oldValues.length; i++) {
+            oldValues[i] = oldValueHandler.apply(targets.get(i));
+        }
+    }
+
+    @Override
+    @FxThread
+    protected void redoImpl(@NotNull final C editor) {
+        EXECUTOR_MANAGER.addJmeTask(() -> {
+
+            final Object[] array = targets.array();
+
+            for (int i = 0, length = targets.size(); i < length; i++) {
+                apply(unsafeCast(array[i]), i == 0 ? newValue : copyHandler.apply(newValue));
+                editor.notifyJmeChangeProperty(array[i], propertyName);
+            }
+
+            EXECUTOR_MANAGER.addFxTask(() -> editor.notifyFxChangeProperties(targets, propertyName));
+        }, TaskPriority.BULK);
+    }
+
+    @Override
+    @FxThread
+    protected void undoImpl(@NotNull final C editor) {
+        EXECUTOR_MANAGER.addJmeTask(() -> {
+
+            final Object[] array = targets.array();
+
+            for (int i = 0, length = targets.size(); i < length; i++) {
+                apply(unsafeCast(array[i]), unsafeCast(oldValues[i]));
+                editor.notifyJmeChangeProperty(array[i], propertyName);
+            }
+
+            EXECUTOR_MANAGER.addFxTask(() -> editor.notifyFxChangeProperties(targets, propertyName));
+        }, TaskPriority.BULK);
+    }
+
+    /**
+     * Sets apply handler.
+     *
+     * @param applyHandler the handler for applying new value.
+     */
+    public void setApplyHandler(@NotNull final BiConsumer<D, T> applyHandler) {
+        this.applyHandler = applyHandler;
+    }
+
+    /**
+     * Sets copy handler, it's needed when the apply handler keeps the value instead of copying it.
+     *
+     * @param copyHandler the handler for copying the new value for each target.
+     */
+    public void setCopyHandler(@NotNull final UnaryOperator<T> copyHandler) {
+        this.copyHandler = copyHandler;
+    }
+
+    @Override
+    @FxThread
+    public long getEstimatedSize() {
+
+        long size = DEFAULT_SIZE + 8L * targets.size() + PropertyOperation.estimateSize(newValue) * targets.size();
+
+        for (final Object oldValue : oldValues) {
+            size += PropertyOperation.estimateSize(oldValue);
+        }
+
+        return size;
+    }
+
+    @Override
+    @FxThread
+    public boolean merge(@NotNull final EditorOperation operation) {
+
+        if (operation.getClass() != getClass()) {
+            return false;
+        }
+
+        final MultiPropertyOperation<C, D, T> next = unsafeCast(operation);
+
+        if (!propertyName.equals(next.propertyName) || !isSameTargets(next) || !isMergeable() ||
+                !next.isMergeable() || next.time - time > MERGE_WINDOW) {
+            return false;
+        }
+
+        newValue = next.newValue;
+        time = next.time;
+
+        return true;
+    }
+
+    /**
+     * Return true if the operation changes the same objects in the same order.
+     *
+     * @param operation the operation.
+     * @return true if the operation has the same targets.
+     */
+    @FxThread
+    private boolean isSameTargets(@NotNull final MultiPropertyOperation<C, D, T> operation) {
+
+        final Array<Object> other = operation.targets;
+
+        if (other.size() != targets.size()) {
+            return false;
+        }
+
+        for (int i = 0, length = targets.size(); i < length; i++) {
+            if (targets.get(i) != other.get(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Return true if this operation sets a simple value.
+     *
+     * @return true if this operation can be merged.
+     */
+    @FxThread
+    protected boolean isMergeable() {
+
+        if (!PropertyOperation.isSimpleValue(newValue)) {
+            return false;
+        }
+
+        for (final Object oldValue : oldValues) {
+            if (!PropertyOperation.isSimpleValue(oldValue)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Apply new value of the property to the target.
+     *
+     * @param target the target.
+     * @param value  the value.
+     */
+    @JmeThread
+    protected void apply(@NotNull final D target, @Nullable final T value) {
+        try {
+            notNull(applyHandler).accept(target, value);
+        } catch (final Exception e) {
+            EditorUtil.handleException(LOGGER, this, e);
+        }
+    }
+}
@@ -1,16 +1,33 @@
 package com.ss.editor.ui.control.property.operation;
 
+import static com.ss.rlib.util.ClassUtils.unsafeCast;
+import com.jme3.scene.VertexBuffer;
 import com.ss.editor.annotation.FxThread;
+import com.ss.editor.model.undo.EditorOperation;
+import com.ss.editor.model.undo.SpillableData;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.model.undo.impl.AbstractEditorOperation;
 import com.ss.editor.util.EditorUtil;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
+import com.ss.rlib.util.dictionary.ObjectDictionary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.Collection;
+import java.util.Map;
 import java.util.function.BiConsumer;
 
 /**
- * The implementation of the {@link AbstractEditorOperation} to edit properties of objects.
+ * The implementation of the {@link AbstractEditorOperation} to edit properties of objects. Consecutive operations
+ * which change the same simple property of the same object in a short time are merged, so dragging a slider is undone
+ * by one step. Heavy values which implement {@link SpillableData} can be spilled to the disk by the history.
  *
  * @param <C> the type of changed consumer
  * @param <D> the type of edited object
@@ -19,6 +36,11 @@ import java.util.function.BiConsumer;
  */
 public class PropertyOperation<C extends ChangeConsumer, D, T> extends AbstractEditorOperation<C> {
 
+    /**
+     * The max time between changes of a property to merge them.
+     */
+    private static final long MERGE_WINDOW = 500;
+
     /**
      * The property name.
      */
@@ -29,7 +51,7 @@ public class PropertyOperation<C extends ChangeConsumer, D, T> extends AbstractE
      * The new value of the property.
      */
     @Nullable
-    protected final T newValue;
+    protected T newValue;
 
     /**
      * The old value of the property.
@@ -47,6 +69,17 @@ public class PropertyOperation<C extends ChangeConsumer, D, T> extends AbstractE
      */
     private BiConsumer<D, T> applyHandler;
 
+    /**
+     * The additional heavy data of this operation which is used by the apply handler.
+     */
+    @NotNull
+    private final Array<SpillableData> data;
+
+    /**
+     * The time of the last change of this operation.
+     */
+    private long time;
+
     /**
      * Instantiates a new Abstract property operation.
      *
@@ -61,6 +94,8 @@ public class PropertyOperation<C extends ChangeConsumer, D, T> extends AbstractE
         this.oldValue = oldValue;
         this.target = target;
         this.propertyName = propertyName;
+        this.data = ArrayFactory.newArray(SpillableData.class);
+        this.time = System.currentTimeMillis();
     }
 
     @Override
@@ -92,6 +127,194 @@ public class PropertyOperation<C extends ChangeConsumer, D, T> extends AbstractE
         this.applyHandler = applyHandler;
     }
 
+    /**
+     * Add heavy data which is used by the apply handler to let the history estimate and spill it.
+     *
+     * @param data the heavy data.
+     */
+    public void addData(@NotNull final SpillableData data) {
+        this.data.add(data);
+    }
+
+    @Override
+    @FxThread
+    public long getEstimatedSize() {
+
+        long size = DEFAULT_SIZE + estimateSize(newValue) + estimateSize(oldValue);
+
+        for (final SpillableData spillableData : data) {
+            size += spillableData.getDataSize();
+        }
+
+        return size;
+    }
+
+    @Override
+    @FxThread
+    public boolean merge(@NotNull final EditorOperation operation) {
+
+        if (operation.getClass() != getClass()) {
+            return false;
+        }
+
+        final PropertyOperation<C, D, T> next = unsafeCast(operation);
+
+        if (next.target != target || !propertyName.equals(next.propertyName) || !isMergeable() ||
+                !next.isMergeable() || next.time - time > MERGE_WINDOW) {
+            return false;
+        }
+
+        newValue = next.newValue;
+        time = next.time;
+
+        return true;
+    }
+
+    /**
+     * Return true if this operation sets a simple value, operations which apply changes by heavy data can't be merged.
+     *
+     * @return true if this operation can be merged.
+     */
+    @FxThread
+    protected boolean isMergeable() {
+        return data.isEmpty() && isSimpleValue(newValue) && isSimpleValue(oldValue);
+    }
+
+    @Override
+    @FxThread
+    public boolean isSpillable() {
+
+        final Array<SpillableData> container = ArrayFactory.newArray(SpillableData.class);
+        collectSpillableData(container);
+
+        return !container.isEmpty();
+    }
+
+    @Override
+    @FxThread
+    public void spill(@NotNull final DataOutput out) throws IOException {
+
+        final Array<SpillableData> container = ArrayFactory.newArray(SpillableData.class);
+        collectSpillableData(container);
+
+        for (final SpillableData spillableData : container) {
+            spillableData.spill(out);
+        }
+    }
+
+    @Override
+    @FxThread
+    public void restore(@NotNull final DataInput in) throws IOException {
+
+        final Array<SpillableData> container = ArrayFactory.newArray(SpillableData.class);
+        collectSpillableData(container);
+
+        for (final SpillableData spillableData : container) {
+            spillableData.restore(in);
+        }
+    }
+
+    /**
+     * Collect all heavy data of this operation in stable order.
+     *
+     * @param container the container.
+     */
+    @FxThread
+    protected void collectSpillableData(@NotNull final Array<SpillableData> container) {
+        collectSpillableData(newValue, container);
+        collectSpillableData(oldValue, container);
+        container.addAll(data);
+    }
+
+    private static void collectSpillableData(@Nullable final Object value,
+                                             @NotNull final Array<SpillableData> container) {
+
+        if (value instanceof SpillableData) {
+            container.add((SpillableData) value);
+        } else if (value instanceof ObjectDictionary) {
+            final ObjectDictionary<?, ?> dictionary = (ObjectDictionary<?, ?>) value;
+            dictionary.forEach((key, element) -> collectSpillableData(element, container));
+        } else if (value instanceof Map) {
+            ((Map<?, ?>) value).values().forEach(element -> collectSpillableData(element, container));
+        }
+    }
+
+    static boolean isSimpleValue(@Nullable final Object value) {
+        return !(value instanceof SpillableData || value instanceof ObjectDictionary || value instanceof Map ||
+                value instanceof Collection || value instanceof Object[] || value instanceof VertexBuffer);
+    }
+
+    /**
+     * Estimate the size of the value in the memory.
+     *
+     * @param value the value.
+     * @return the estimated size in bytes.
+     */
+    protected static long estimateSize(@Nullable final Object value) {
+
+        if (value == null) {
+            return 0;
+        } else if (value instanceof SpillableData) {
+            return ((SpillableData) value).getDataSize();
+        } else if (value instanceof VertexBuffer) {
+            final VertexBuffer vertexBuffer = (VertexBuffer) value;
+            final Buffer buffer = vertexBuffer.getData();
+            return 64 + (buffer == null ? 0 : (long) buffer.capacity() * vertexBuffer.getFormat().getComponentSize());
+        } else if (value instanceof Buffer) {
+            final Buffer buffer = (Buffer) value;
+            final int elementSize = buffer instanceof ByteBuffer ? 1 : buffer instanceof ShortBuffer ? 2 : 4;
+            return 32 + (long) buffer.capacity() * elementSize;
+        } else if (value instanceof Object[]) {
+
+            long size = 16;
+
+            for (final Object element : (Object[]) value) {
+                size += 4 + estimateSize(element);
+            }
+
+            return size;
+
+        } else if (value instanceof ObjectDictionary) {
+
+            final long[] size = {32};
+            final ObjectDictionary<?, ?> dictionary = (ObjectDictionary<?, ?>) value;
+            dictionary.forEach((key, element) -> size[0] += 32 + estimateSize(element));
+
+            return size[0];
+
+        } else if (value instanceof Map) {
+
+            long size = 32;
+
+            for (final Object element : ((Map<?, ?>) value).values()) {
+                size += 32 + estimateSize(element);
+            }
+
+            return size;
+
+        } else if (value instanceof Collection) {
+
+            long size = 32;
+
+            for (final Object element : (Collection<?>) value) {
+                size += 4 + estimateSize(element);
+            }
+
+            return size;
+
+        } else if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        } else if (value instanceof int[]) {
+            return 16 + 4L * ((int[]) value).length;
+        } else if (value instanceof float[]) {
+            return 16 + 4L * ((float[]) value).length;
+        }
+
+        return 16;
+    }
+
     /**
      * Apply new value of the property to the model.
      *
@@ -1,7 +1,7 @@
 package com.ss.editor.ui.control.tree;
 
-import static com.ss.editor.ui.util.UiUtils.findItemForValue;
 import static com.ss.rlib.util.ObjectUtils.notNull;
+import com.jme3.scene.Spatial;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
@@ -10,16 +10,23 @@ import com.ss.editor.ui.control.tree.node.factory.TreeNodeFactoryRegistry;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.rlib.ui.util.FXUtils;
 import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
 import javafx.collections.ObservableList;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
- * The implementation of {@link TreeView} to present some structure.
+ * The implementation of {@link TreeView} to present some structure. Children of an item are created only when the
+ * item is expanded at the first time, created items are indexed by their elements to find them without walking the
+ * tree and notifications about changes of the structure are collected and applied once per a batch of UI tasks.
  *
  * @param <C> the type parameter
  * @author JavaSaBr
@@ -38,6 +45,42 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @NotNull
     protected static final TreeNodeFactoryRegistry FACTORY_REGISTRY = TreeNodeFactoryRegistry.getInstance();
 
+    /**
+     * The tree item which creates its children on the first expanding.
+     */
+    private static final class LazyTreeItem extends TreeItem<TreeNode<?>> {
+
+        /**
+         * The node tree.
+         */
+        @NotNull
+        private final NodeTree<?> nodeTree;
+
+        /**
+         * True if children of this item were created.
+         */
+        private boolean loaded;
+
+        private LazyTreeItem(@NotNull final NodeTree<?> nodeTree, @NotNull final TreeNode<?> treeNode) {
+            super(treeNode);
+            this.nodeTree = nodeTree;
+            expandedProperty().addListener((observable, oldValue, newValue) -> {
+                if (newValue) nodeTree.loadChildren(this);
+            });
+        }
+
+        @Override
+        public boolean isLeaf() {
+
+            if (loaded) {
+                return super.isLeaf();
+            }
+
+            final TreeNode<?> treeNode = getValue();
+            return treeNode == null || !treeNode.hasChildren(nodeTree);
+        }
+    }
+
     /**
      * The handler of selected objects.
      */
@@ -50,15 +93,42 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @Nullable
     private final C changeConsumer;
 
+    /**
+     * The index of created tree items by their elements, the same element can be presented by several items, e.g. a
+     * shared material.
+     */
+    @NotNull
+    private final Map<Object, List<TreeItem<TreeNode<?>>>> itemIndex;
+
+    /**
+     * The waited notifications about changes of the structure.
+     */
+    @NotNull
+    private final Array<Runnable> pendingNotifications;
+
+    /**
+     * The waited notifications about changed objects with their parents.
+     */
+    @NotNull
+    private final Map<Object, Object> pendingChanges;
+
     /**
      * The tree with structure of the model.
      */
     @Nullable
     private TreeView<TreeNode<?>> treeView;
 
+    /**
+     * True if applying waited notifications is scheduled.
+     */
+    private boolean flushScheduled;
+
     public NodeTree(@NotNull final Consumer<Object> selectionHandler, @Nullable final C consumer) {
         this.selectionHandler = selectionHandler;
         this.changeConsumer = consumer;
+        this.itemIndex = new IdentityHashMap<>();
+        this.pendingNotifications = ArrayFactory.newArray(Runnable.class);
+        this.pendingChanges = new IdentityHashMap<>();
         createComponents();
         FXUtils.addClassTo(this, CssClasses.ABSTRACT_NODE_TREE_CONTAINER);
     }
@@ -132,9 +202,12 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
             treeView.setRoot(null);
         }
 
+        pendingNotifications.clear();
+        pendingChanges.clear();
+        itemIndex.clear();
+
         final TreeNode<?> rootElement = FACTORY_REGISTRY.createFor(object);
-        final TreeItem<TreeNode<?>> newRoot = new TreeItem<>(rootElement);
-        newRoot.setExpanded(true);
+        final TreeItem<TreeNode<?>> newRoot = createItem(notNull(rootElement));
 
         fill(newRoot, false, 1);
 
@@ -142,25 +215,312 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     }
 
     /**
-     * Fill the item.
+     * Fill the item, children of collapsed items will be created on expanding.
      */
     @FxThread
     private void fill(@NotNull final TreeItem<TreeNode<?>> treeItem, final boolean expanded, final int level) {
         treeItem.setExpanded(expanded || level == 1);
+        if (!treeItem.isExpanded()) return;
 
-        final TreeNode<?> element = treeItem.getValue();
-        if (!element.hasChildren(this)) return;
+        loadChildren(treeItem);
 
         final ObservableList<TreeItem<TreeNode<?>>> items = treeItem.getChildren();
+        items.forEach(item -> fill(item, expanded, level == -1 ? -1 : level + 1));
+    }
+
+    /**
+     * Create a tree item for the tree node.
+     *
+     * @param treeNode the tree node.
+     * @return the new tree item.
+     */
+    @FxThread
+    protected @NotNull TreeItem<TreeNode<?>> createItem(@NotNull final TreeNode<?> treeNode) {
+        final TreeItem<TreeNode<?>> treeItem = new LazyTreeItem(this, treeNode);
+        itemIndex.computeIfAbsent(treeNode.getElement(), element -> new ArrayList<>(1)).add(treeItem);
+        return treeItem;
+    }
+
+    /**
+     * Create children of the item if they weren't created yet.
+     */
+    @FxThread
+    private void loadChildren(@NotNull final TreeItem<TreeNode<?>> treeItem) {
+
+        if (!(treeItem instanceof LazyTreeItem)) {
+            return;
+        }
+
+        final LazyTreeItem lazyItem = (LazyTreeItem) treeItem;
+        if (lazyItem.loaded) return;
+
+        lazyItem.loaded = true;
+
+        final TreeNode<?> element = treeItem.getValue();
+        if (element == null || !element.hasChildren(this)) return;
 
         final Array<TreeNode<?>> children = element.getChildren(this);
-        children.forEach(child -> {
+        final List<TreeItem<TreeNode<?>>> items = new ArrayList<>(children.size());
+
+        for (final TreeNode<?> child : children) {
             element.notifyChildPreAdd(child);
-            items.add(new TreeItem<>(child));
+            items.add(createItem(child));
             element.notifyChildAdded(child);
-        });
+        }
 
-        items.forEach(item -> fill(item, expanded, level == -1 ? -1 : level + 1));
+        treeItem.getChildren().addAll(items);
+
+        if (items.isEmpty()) {
+            treeItem.setExpanded(false);
+        }
+    }
+
+    /**
+     * Check of creating children of the item.
+     *
+     * @param treeItem the tree item.
+     * @return true if children of the item were created.
+     */
+    @FxThread
+    protected boolean isLoaded(@NotNull final TreeItem<TreeNode<?>> treeItem) {
+        return !(treeItem instanceof LazyTreeItem) || ((LazyTreeItem) treeItem).loaded;
+    }
+
+    /**
+     * Remove the item and all its created children from the index.
+     *
+     * @param treeItem the removed tree item.
+     */
+    @FxThread
+    protected void unregisterItem(@NotNull final TreeItem<TreeNode<?>> treeItem) {
+
+        final TreeNode<?> treeNode = treeItem.getValue();
+
+        if (treeNode != null) {
+
+            final Object element = treeNode.getElement();
+            final List<TreeItem<TreeNode<?>>> items = itemIndex.get(element);
+
+            if (items != null && items.remove(treeItem) && items.isEmpty()) {
+                itemIndex.remove(element);
+            }
+        }
+
+        treeItem.getChildren().forEach(this::unregisterItem);
+    }
+
+    /**
+     * Find a created tree item for the object.
+     *
+     * @param object the object or its tree node.
+     * @return the tree item or null.
+     */
+    @FxThread
+    public @Nullable TreeItem<TreeNode<?>> findItem(@Nullable final Object object) {
+        if (object == null) return null;
+
+        flushNotifications();
+
+        final TreeItem<TreeNode<?>> root = getTreeView().getRoot();
+        final List<TreeItem<TreeNode<?>>> items = itemIndex.get(getElement(object));
+
+        if (root != null && items != null) {
+
+            TreeItem<TreeNode<?>> result = null;
+
+            for (final TreeItem<TreeNode<?>> treeItem : items) {
+                if (!isChild(treeItem, root)) {
+                    continue;
+                } else if (treeItem.getValue() == object) {
+                    return treeItem;
+                } else if (result == null) {
+                    result = treeItem;
+                }
+            }
+
+            if (result != null) {
+                return result;
+            }
+        }
+
+        if (root != null && root.getValue() != null && root.getValue().equals(object)) {
+            return root;
+        }
+
+        return null;
+    }
+
+    /**
+     * Find all created tree items for the object.
+     *
+     * @param object the object or its tree node.
+     * @return the tree items.
+     */
+    @FxThread
+    private @NotNull Array<TreeItem<TreeNode<?>>> findItems(@NotNull final Object object) {
+
+        final Array<TreeItem<TreeNode<?>>> result = ArrayFactory.newArray(TreeItem.class);
+        final TreeItem<TreeNode<?>> root = getTreeView().getRoot();
+        final List<TreeItem<TreeNode<?>>> items = itemIndex.get(getElement(object));
+
+        if (root != null && items != null) {
+            for (final TreeItem<TreeNode<?>> treeItem : items) {
+                if (isChild(treeItem, root)) {
+                    result.add(treeItem);
+                }
+            }
+        }
+
+        if (result.isEmpty() && root != null && root.getValue() != null && root.getValue().equals(object)) {
+            result.add(root);
+        }
+
+        return result;
+    }
+
+    /**
+     * Find all created tree items for the object which are placed in the items of the parent object.
+     *
+     * @param parent the parent object or null to find all items.
+     * @param object the object.
+     * @return the tree items.
+     */
+    @FxThread
+    private @NotNull Array<TreeItem<TreeNode<?>>> findItems(@Nullable final Object parent,
+                                                          @NotNull final Object object) {
+
+        final Array<TreeItem<TreeNode<?>>> items = findItems(object);
+
+        if (parent == null) {
+            return items;
+        }
+
+        final Object parentElement = getElement(parent);
+
+        for (int i = items.size() - 1; i >= 0; i--) {
+            if (!hasParent(items.get(i), parentElement)) {
+                items.fastRemove(i);
+            }
+        }
+
+        return items;
+    }
+
+    /**
+     * Check that some parent item of the item presents the element.
+     */
+    @FxThread
+    private static boolean hasParent(@NotNull final TreeItem<TreeNode<?>> treeItem, @NotNull final Object element) {
+
+        for (TreeItem<TreeNode<?>> item = treeItem.getParent(); item != null; item = item.getParent()) {
+            final TreeNode<?> treeNode = item.getValue();
+            if (treeNode != null && treeNode.getElement() == element) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Get the element of the object.
+     *
+     * @param object the object or its tree node.
+     * @return the element.
+     */
+    @FxThread
+    private static @NotNull Object getElement(@NotNull final Object object) {
+        return object instanceof TreeNode ? ((TreeNode<?>) object).getElement() : object;
+    }
+
+    /**
+     * Find a tree item for the object and create all its parent items if they weren't created yet.
+     *
+     * @param object the object or its tree node.
+     * @return the tree item or null.
+     */
+    @FxThread
+    private @Nullable TreeItem<TreeNode<?>> revealItem(@NotNull final Object object) {
+
+        final TreeItem<TreeNode<?>> treeItem = findItem(object);
+        if (treeItem != null) return treeItem;
+
+        final Object element = getElement(object);
+        final Object parent = getParentObject(element);
+        if (parent == null || parent == element) return null;
+
+        final TreeItem<TreeNode<?>> parentItem = revealItem(parent);
+        if (parentItem == null || isLoaded(parentItem)) return null;
+
+        loadChildren(parentItem);
+
+        return findItem(element);
+    }
+
+    /**
+     * Get a parent object of the element in this tree. It's used to create items of collapsed parents of an
+     * element which should be selected.
+     *
+     * @param element the element.
+     * @return the parent object or null.
+     */
+    @FxThread
+    protected @Nullable Object getParentObject(@NotNull final Object element) {
+        return element instanceof Spatial ? ((Spatial) element).getParent() : null;
+    }
+
+    /**
+     * Check that the item is the parent item or a child of the parent item.
+     */
+    @FxThread
+    private static boolean isChild(@NotNull final TreeItem<TreeNode<?>> treeItem,
+                                   @NotNull final TreeItem<TreeNode<?>> parentItem) {
+
+        for (TreeItem<TreeNode<?>> item = treeItem; item != null; item = item.getParent()) {
+            if (item == parentItem) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Add the notification to apply with other notifications of the current batch of UI tasks.
+     */
+    @FxThread
+    private void addNotification(@NotNull final Runnable notification) {
+        pendingNotifications.add(notification);
+        scheduleFlush();
+    }
+
+    @FxThread
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        EXECUTOR_MANAGER.addFxTask(this::flushNotifications);
+    }
+
+    /**
+     * Apply all waited notifications.
+     */
+    @FxThread
+    protected void flushNotifications() {
+        flushScheduled = false;
+
+        if (!pendingNotifications.isEmpty()) {
+
+            final Runnable[] notifications = pendingNotifications.toArray(Runnable.class);
+            pendingNotifications.clear();
+
+            for (final Runnable notification : notifications) {
+                notification.run();
+            }
+        }
+
+        if (!pendingChanges.isEmpty()) {
+
+            final Map<Object, Object> changes = new IdentityHashMap<>(pendingChanges);
+            pendingChanges.clear();
+
+            changes.forEach((object, parent) -> applyChanged(parent, object));
+        }
     }
 
     /**
@@ -170,6 +530,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
      */
     @FxThread
     public void expandToLevel(final int level) {
+        flushNotifications();
         expandToLevel(getTreeView().getRoot(), 0, level);
     }
 
@@ -193,25 +554,35 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
      */
     @FxThread
     public void refresh(@NotNull final Object object) {
+        addNotification(() -> applyRefresh(object));
+    }
 
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(getTreeView(), object);
-        if (treeItem == null) return;
+    @FxThread
+    private void applyRefresh(@NotNull final Object object) {
+        findItems(object).forEach(this::refresh);
+    }
+
+    /**
+     * Recreate created children of the item.
+     */
+    @FxThread
+    private void refresh(@NotNull final TreeItem<TreeNode<?>> treeItem) {
 
         final TreeNode<?> treeNode = treeItem.getValue();
         final ObservableList<TreeItem<TreeNode<?>>> items = treeItem.getChildren();
+        items.forEach(this::unregisterItem);
         items.clear();
 
         final boolean expanded = treeItem.isExpanded();
         final TreeNode<?> selected = getSelected();
 
-        final TreeNode<?> element = treeItem.getValue();
-        if (!element.hasChildren(this)) return;
-
-        final Array<TreeNode<?>> children = element.getChildren(this);
-        children.forEach(child -> items.add(new TreeItem<>(child)));
+        if (treeItem instanceof LazyTreeItem) {
+            ((LazyTreeItem) treeItem).loaded = false;
+        }
 
-        items.forEach(modelNodeTreeItem -> fill(modelNodeTreeItem, false, -1));
-        treeItem.setExpanded(expanded);
+        if (expanded) {
+            loadChildren(treeItem);
+        }
 
         if (selected == treeNode) {
             select(treeNode);
@@ -226,13 +597,13 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @FxThread
     public void update(@NotNull final TreeNode<?> treeNode) {
 
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(getTreeView(), treeNode);
-        if (treeItem == null) {
-            return;
-        }
+        flushNotifications();
 
-        treeItem.setValue(null);
-        treeItem.setValue(treeNode);
+        for (final TreeItem<TreeNode<?>> treeItem : findItems(treeNode)) {
+            final TreeNode<?> value = treeItem.getValue();
+            treeItem.setValue(null);
+            treeItem.setValue(value);
+        }
     }
 
     /**
@@ -273,43 +644,61 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @FxThread
     public void notifyMoved(@NotNull final Object prevParent, @NotNull final Object newParent,
                             @NotNull final Object node, final int index) {
-        notifyMoved(FACTORY_REGISTRY.createFor(prevParent), FACTORY_REGISTRY.createFor(newParent),
-                FACTORY_REGISTRY.createFor(node), index);
+        addNotification(() -> applyMoved(prevParent, newParent, node, index));
     }
 
     /**
-     * Notify about moving the element.
+     * Move the element.
      */
     @FxThread
-    private void notifyMoved(@Nullable final TreeNode<?> prevParent, @Nullable final TreeNode<?> newParent,
-                             @Nullable final TreeNode<?> node, final int index) {
+    private void applyMoved(@NotNull final Object prevParent, @NotNull final Object newParent,
+                            @NotNull final Object node, final int index) {
 
-        final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> prevParentItem = findItemForValue(treeView, prevParent);
-        final TreeItem<TreeNode<?>> newParentItem = findItemForValue(treeView, newParent);
-        final TreeItem<TreeNode<?>> nodeItem = findItemForValue(treeView, node);
+        final TreeItem<TreeNode<?>> prevParentItem = findItem(prevParent);
+        final TreeItem<TreeNode<?>> newParentItem = findItem(newParent);
+        final TreeItem<TreeNode<?>> nodeItem = prevParentItem == null ? null : findChildItem(prevParentItem, node);
+
+        if (nodeItem == null) {
+
+            // the moved node wasn't created yet, so it will be created with other children of the new parent
+            if (newParentItem != null && isLoaded(newParentItem)) {
+                addChildItem(newParentItem, node, index);
+            }
 
-        if (prevParentItem == null || newParentItem == null || nodeItem == null) {
             return;
         }
 
+        final TreeNode<?> treeNode = notNull(nodeItem.getValue());
         final TreeNode<?> prevParenTreeNode = prevParentItem.getValue();
-        prevParenTreeNode.notifyChildPreRemove(node);
+        prevParenTreeNode.notifyChildPreRemove(treeNode);
         prevParentItem.getChildren().remove(nodeItem);
-        prevParenTreeNode.notifyChildRemoved(node);
+        prevParenTreeNode.notifyChildRemoved(treeNode);
+
+        if (newParentItem == null || !isLoaded(newParentItem)) {
+
+            unregisterItem(nodeItem);
 
-        final TreeNode<?> newParentTreeNode = newParentItem.getValue();
-        newParentTreeNode.notifyChildAdded(node);
+            if (newParentItem != null) {
+                newParentItem.setExpanded(true);
+            }
 
-        if (index >= 0) {
-            newParentItem.getChildren().add(index, nodeItem);
         } else {
-            newParentItem.getChildren().add(nodeItem);
-        }
 
-        newParentTreeNode.notifyChildAdded(node);
+            final TreeNode<?> newParentTreeNode = newParentItem.getValue();
+            newParentTreeNode.notifyChildPreAdd(treeNode);
+
+            final ObservableList<TreeItem<TreeNode<?>>> children = newParentItem.getChildren();
 
-        EXECUTOR_MANAGER.addFxTask(() -> select(node.getElement()));
+            if (index >= 0 && index <= children.size()) {
+                children.add(index, nodeItem);
+            } else {
+                children.add(nodeItem);
+            }
+
+            newParentTreeNode.notifyChildAdded(treeNode);
+        }
+
+        EXECUTOR_MANAGER.addFxTask(() -> select(treeNode.getElement()));
     }
 
     /**
@@ -320,9 +709,23 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
      */
     @FxThread
     public void notifyChanged(@Nullable Object parent, @NotNull final Object object) {
+        pendingChanges.put(object, parent);
+        scheduleFlush();
+    }
 
-        final TreeItem<TreeNode<?>> treeItem = tryToFindItem(parent, object);
-        if (treeItem == null) return;
+    /**
+     * Update the item of the changed object.
+     */
+    @FxThread
+    private void applyChanged(@Nullable Object parent, @NotNull final Object object) {
+        findItems(parent, object).forEach(this::updateChanged);
+    }
+
+    /**
+     * Update the item of the changed object.
+     */
+    @FxThread
+    private void updateChanged(@NotNull final TreeItem<TreeNode<?>> treeItem) {
 
         final TreeItem<TreeNode<?>> parentItem = treeItem.getParent();
 
@@ -356,13 +759,24 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @FxThread
     public void notifyReplace(@Nullable final Object parent, @Nullable final Object oldChild,
                               @Nullable final Object newChild, final boolean needExpand, final boolean needDeepExpand) {
+        addNotification(() -> applyReplace(parent, oldChild, newChild, needExpand, needDeepExpand));
+    }
+
+    /**
+     * Replace the element.
+     */
+    @FxThread
+    private void applyReplace(@Nullable final Object parent, @Nullable final Object oldChild,
+                              @Nullable final Object newChild, final boolean needExpand,
+                              final boolean needDeepExpand) {
 
         final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> parentItem = findItemForValue(treeView, parent);
+        final TreeItem<TreeNode<?>> parentItem = findItem(parent);
 
         if (parentItem == null) {
             if (newChild == null) return;
-            final TreeItem<TreeNode<?>> childItem = new TreeItem<>(FACTORY_REGISTRY.createFor(newChild));
+            itemIndex.clear();
+            final TreeItem<TreeNode<?>> childItem = createItem(notNull(FACTORY_REGISTRY.createFor(newChild)));
             fill(childItem, needDeepExpand, -1);
             childItem.setExpanded(needExpand);
             treeView.setRoot(childItem);
@@ -374,10 +788,10 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         final TreeNode<?> parentNode = parentItem.getValue();
         final MultipleSelectionModel<TreeItem<TreeNode<?>>> selectionModel = treeView.getSelectionModel();
         final ObservableList<TreeItem<TreeNode<?>>> children = parentItem.getChildren();
-        final TreeItem<TreeNode<?>> oldChildItem = oldChild == null ? null : findItemForValue(treeView, oldChild);
+        final TreeItem<TreeNode<?>> oldChildItem = oldChild == null ? null : findChildItem(parentItem, oldChild);
         final TreeItem<TreeNode<?>> selectedItem = selectionModel.getSelectedItem();
 
-        final boolean needSelect = selectedItem == oldChildItem;
+        final boolean needSelect = oldChildItem != null && selectedItem == oldChildItem;
 
         if (oldChildItem != null) {
             final TreeNode<?> oldChildNode = oldChildItem.getValue();
@@ -385,19 +799,22 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
             index = children.indexOf(oldChildItem);
             children.remove(oldChildItem);
             parentNode.notifyChildRemoved(oldChildNode);
+            unregisterItem(oldChildItem);
         }
 
-        if (newChild == null) return;
+        // the new child will be created with other children of the parent
+        if (newChild == null || !isLoaded(parentItem)) return;
 
-        final TreeItem<TreeNode<?>> childItem = new TreeItem<>(FACTORY_REGISTRY.createFor(newChild));
+        final TreeItem<TreeNode<?>> childItem = createItem(notNull(FACTORY_REGISTRY.createFor(newChild)));
         final TreeNode<?> newChildNode = childItem.getValue();
-        fill(childItem, needExpand, -1);
-        childItem.setExpanded(needExpand);
 
         parentNode.notifyChildPreAdd(newChildNode);
         children.add(index, childItem);
         parentNode.notifyChildAdded(newChildNode);
 
+        fill(childItem, needDeepExpand, -1);
+        childItem.setExpanded(needExpand);
+
         if (needSelect) selectionModel.select(childItem);
     }
 
@@ -411,10 +828,45 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @FxThread
     public void notifyAdded(@Nullable final Object parent, @Nullable final Object child, final int index) {
         if (child == null || parent == null) return;
+        addNotification(() -> applyAdded(parent, child, index));
+    }
 
-        final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> parentItem = findItemForValue(treeView, parent);
-        if (parentItem == null) return;
+    /**
+     * Add an item for the element.
+     */
+    @FxThread
+    private void applyAdded(@NotNull final Object parent, @NotNull final Object child, final int index) {
+        findItems(parent).forEach(parentItem -> addChild(parentItem, child, index));
+    }
+
+    /**
+     * Add an item for the element to the parent item.
+     */
+    @FxThread
+    private void addChild(@NotNull final TreeItem<TreeNode<?>> parentItem, @NotNull final Object child,
+                          final int index) {
+
+        // the parent will create the item of the child with other children on expanding
+        if (!isLoaded(parentItem)) {
+            parentItem.setExpanded(true);
+            return;
+        }
+
+        if (findChildItem(parentItem, child) != null) {
+            parentItem.setExpanded(true);
+            return;
+        }
+
+        addChildItem(parentItem, child, index);
+        parentItem.setExpanded(true);
+    }
+
+    /**
+     * Create and add an item of the child to the parent item.
+     */
+    @FxThread
+    private void addChildItem(@NotNull final TreeItem<TreeNode<?>> parentItem, @NotNull final Object child,
+                              final int index) {
 
         final TreeNode<?> childNode = FACTORY_REGISTRY.createFor(child);
         if (childNode == null) return;
@@ -422,16 +874,13 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         final TreeNode<?> parentNode = parentItem.getValue();
         parentNode.notifyChildPreAdd(childNode);
 
-        final TreeItem<TreeNode<?>> childItem = new TreeItem<>(childNode);
+        final TreeItem<TreeNode<?>> childItem = createItem(childNode);
 
         final ObservableList<TreeItem<TreeNode<?>>> children = parentItem.getChildren();
-        if (index == -1) children.add(childItem);
+        if (index < 0 || index > children.size()) children.add(childItem);
         else children.add(index, childItem);
 
-        parentItem.setExpanded(true);
         parentNode.notifyChildAdded(childNode);
-
-        fill(childItem, false, -1);
     }
 
     /**
@@ -442,11 +891,26 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
      */
     @FxThread
     public void notifyRemoved(@Nullable final Object parent, @NotNull final Object child) {
+        addNotification(() -> applyRemoved(parent, child));
+    }
 
-        final TreeItem<TreeNode<?>> treeItem = tryToFindItem(parent, child);
-        if (treeItem == null) return;
+    /**
+     * Remove the item of the element.
+     */
+    @FxThread
+    private void applyRemoved(@Nullable final Object parent, @NotNull final Object child) {
+        findItems(parent, child).forEach(this::removeItem);
+    }
+
+    /**
+     * Remove the item from its parent item.
+     */
+    @FxThread
+    private void removeItem(@NotNull final TreeItem<TreeNode<?>> treeItem) {
 
         final TreeItem<TreeNode<?>> parentItem = treeItem.getParent();
+        if (parentItem == null) return;
+
         final TreeNode<?> parentNode = parentItem.getValue();
         final TreeNode<?> node = treeItem.getValue();
 
@@ -455,32 +919,30 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         children.remove(treeItem);
         parentNode.notifyChildRemoved(node);
 
+        unregisterItem(treeItem);
+
         if (parentItem.isExpanded() && children.isEmpty()) {
             parentItem.setExpanded(false);
         }
     }
 
     /**
-     * Try to find tree item for the object.
-     *
-     * @param parent the parent object.
-     * @param child  the child object.
-     * @return the tree item or null.
+     * Find an item of the child object in direct children of the parent item.
      */
-    private @Nullable TreeItem<TreeNode<?>> tryToFindItem(@Nullable final Object parent, @NotNull final Object child) {
+    @FxThread
+    private static @Nullable TreeItem<TreeNode<?>> findChildItem(@NotNull final TreeItem<TreeNode<?>> parentItem,
+                                                                 @NotNull final Object child) {
 
-        final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> treeItem;
+        final Object element = getElement(child);
 
-        if (parent != null) {
-            final TreeItem<TreeNode<?>> parentItem = findItemForValue(treeView, parent);
-            if (parentItem == null) return null;
-            treeItem = findItemForValue(parentItem, child);
-        } else {
-            treeItem = findItemForValue(treeView, child);
+        for (final TreeItem<TreeNode<?>> treeItem : parentItem.getChildren()) {
+            final TreeNode<?> treeNode = treeItem.getValue();
+            if (treeNode != null && treeNode.getElement() == element) {
+                return treeItem;
+            }
         }
 
-        return treeItem;
+        return null;
     }
 
     /**
@@ -492,7 +954,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @FxThread
     public @Nullable TreeNode<?> findParent(@NotNull final TreeNode<?> treeNode) {
 
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(getTreeView(), treeNode);
+        final TreeItem<TreeNode<?>> treeItem = findItem(treeNode);
         if (treeItem == null) return null;
 
         final TreeItem<TreeNode<?>> parent = treeItem.getParent();
@@ -508,7 +970,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     public void startEdit(@NotNull final TreeNode<?> treeNode) {
 
         final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(treeView, treeNode);
+        final TreeItem<TreeNode<?>> treeItem = findItem(treeNode);
         if (treeItem == null) return;
 
         treeView.edit(treeItem);
@@ -526,19 +988,19 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         final MultipleSelectionModel<TreeItem<TreeNode<?>>> selectionModel = treeView.getSelectionModel();
 
         if (object == null) {
-            selectionModel.select(null);
+            selectionModel.clearSelection();
             return;
         }
 
-        final TreeNode<Object> treeNode = FACTORY_REGISTRY.createFor(object);
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(treeView, treeNode);
+        final TreeItem<TreeNode<?>> treeItem = revealItem(object);
 
         if (treeItem == null) {
-            selectionModel.select(null);
+            selectionModel.clearSelection();
             return;
         }
 
-        selectionModel.select(treeItem);
+        // other selected items are deselected when multiple selection is enabled
+        selectionModel.clearAndSelect(treeView.getRow(treeItem));
     }
 
     /**
@@ -560,6 +1022,34 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         return selectedItem.getValue();
     }
 
+    /**
+     * Get all selected tree nodes, the last selected node is the first.
+     *
+     * @param container the container to store the nodes.
+     * @return the container.
+     */
+    @FxThread
+    public @NotNull Array<TreeNode<?>> getSelectedNodes(@NotNull final Array<TreeNode<?>> container) {
+
+        final TreeView<TreeNode<?>> treeView = getTreeView();
+        final MultipleSelectionModel<TreeItem<TreeNode<?>>> selectionModel = treeView.getSelectionModel();
+        final TreeItem<TreeNode<?>> selectedItem = selectionModel.getSelectedItem();
+
+        if (selectedItem == null) {
+            return container;
+        }
+
+        container.add(selectedItem.getValue());
+
+        for (final TreeItem<TreeNode<?>> treeItem : selectionModel.getSelectedItems()) {
+            if (treeItem != null && treeItem != selectedItem) {
+                container.add(treeItem.getValue());
+            }
+        }
+
+        return container;
+    }
+
     /**
      * Gets selected object.
      *
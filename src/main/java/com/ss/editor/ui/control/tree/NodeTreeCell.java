@@ -1,7 +1,6 @@
 package com.ss.editor.ui.control.tree;
 
 import static com.ss.editor.ui.util.UiUtils.findItem;
-import static com.ss.editor.ui.util.UiUtils.findItemForValue;
 import static com.ss.rlib.util.ClassUtils.unsafeCast;
 import static com.ss.rlib.util.ObjectUtils.notNull;
 import com.ss.editor.manager.ExecutorManager;
@@ -368,7 +367,7 @@ public class NodeTreeCell<C extends ChangeConsumer, M extends NodeTree<C>> exten
         if (item == null) return;
 
         final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(treeView, item);
+        final TreeItem<TreeNode<?>> treeItem = getNodeTree().findItem(item);
         if (treeView.getRoot() == treeItem) return;
 
         TransferMode transferMode = item.canMove() ? TransferMode.MOVE : null;
@@ -411,7 +410,7 @@ public class NodeTreeCell<C extends ChangeConsumer, M extends NodeTree<C>> exten
             final TreeNode<?> dragItem = dragTreeItem == null ? null : dragTreeItem.getValue();
             if (dragItem == null || !item.canAccept(dragItem, isCopy)) return;
 
-            final TreeItem<TreeNode<?>> newParentItem = findItemForValue(treeView, item);
+            final TreeItem<TreeNode<?>> newParentItem = nodeTree.findItem(item);
             if (newParentItem == null) return;
 
             item.accept(changeConsumer, dragItem.getElement(), isCopy);
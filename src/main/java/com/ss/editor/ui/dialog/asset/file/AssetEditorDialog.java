@@ -1,7 +1,5 @@
 package com.ss.editor.ui.dialog.asset.file;
 
-import static com.ss.editor.ui.component.asset.tree.resource.ResourceElementFactory.createFor;
-import static com.ss.editor.ui.util.UiUtils.findItemForValue;
 import static com.ss.rlib.util.ObjectUtils.notNull;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.annotation.FromAnyThread;
@@ -203,8 +201,7 @@ public class AssetEditorDialog<C> extends BaseAssetEditorDialog<ResourceElement,
         final Path file = event.getFile();
 
         final ResourceTree resourceTree = getResourceTree();
-        final ResourceElement element = createFor(file);
-        final TreeItem<ResourceElement> treeItem = findItemForValue(resourceTree.getRoot(), element);
+        final TreeItem<ResourceElement> treeItem = resourceTree.findItem(file);
 
         if (treeItem == null) {
             getWaitedFilesToSelect().add(file);
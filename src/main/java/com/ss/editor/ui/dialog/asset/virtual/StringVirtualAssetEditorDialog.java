@@ -2,9 +2,18 @@ package com.ss.editor.ui.dialog.asset.virtual;
 
 import com.ss.editor.Messages;
 import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.file.index.ResourceList;
+import com.ss.editor.ui.css.CssClasses;
+import com.ss.rlib.ui.util.FXUtils;
 import com.ss.rlib.util.FileUtils;
 import com.ss.rlib.util.StringUtils;
 import com.ss.rlib.util.array.Array;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -30,6 +39,12 @@ public class StringVirtualAssetEditorDialog extends VirtualAssetEditorDialog<Str
         return null;
     };
 
+    /**
+     * The sorted list of all resources.
+     */
+    @NotNull
+    private final ResourceList resourceList;
+
     public StringVirtualAssetEditorDialog(@NotNull final Consumer<String> consumer,
                                           @NotNull final Array<String> resources) {
         this(consumer, DEFAULT_VALIDATOR, resources);
@@ -38,7 +53,51 @@ public class StringVirtualAssetEditorDialog extends VirtualAssetEditorDialog<Str
     public StringVirtualAssetEditorDialog(@NotNull final Consumer<String> consumer,
                                           @Nullable final Function<@NotNull String, @Nullable String> validator,
                                           @NotNull final Array<String> resources) {
-        super(consumer, validator, resources);
+        this(consumer, validator, ResourceList.of(resources));
+    }
+
+    public StringVirtualAssetEditorDialog(@NotNull final Consumer<String> consumer,
+                                          @Nullable final Function<@NotNull String, @Nullable String> validator,
+                                          @NotNull final ResourceList resources) {
+        super(consumer, validator, resources.toArray());
+        this.resourceList = resources;
+    }
+
+    @Override
+    @FxThread
+    protected @NotNull Region buildFirstPart(@NotNull final HBox container) {
+
+        final Region resourceTree = super.buildFirstPart(container);
+
+        final TextField filterField = new TextField();
+        filterField.setPromptText(Messages.ASSET_EDITOR_DIALOG_FILTER_PROMPT);
+        filterField.textProperty().addListener((observable, oldValue, newValue) -> filter(newValue));
+
+        final VBox result = new VBox();
+
+        FXUtils.addToPane(filterField, result);
+        FXUtils.addToPane(resourceTree, result);
+        FXUtils.addClassTo(result, CssClasses.DEF_VBOX);
+
+        VBox.setVgrow(resourceTree, Priority.ALWAYS);
+
+        return result;
+    }
+
+    /**
+     * Show only resources which match the filter, a text with a path separator is matched as a path prefix,
+     * other text is matched as a part of a path.
+     *
+     * @param text the filter text.
+     */
+    @FxThread
+    private void filter(@Nullable final String text) {
+
+        final String query = text == null ? StringUtils.EMPTY : text.trim();
+        final ResourceList found = query.indexOf('/') >= 0 ?
+                resourceList.findByPrefix(query) : resourceList.findContaining(query);
+
+        fill(found.toArray());
     }
 
     @Override
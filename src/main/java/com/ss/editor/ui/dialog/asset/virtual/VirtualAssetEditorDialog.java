@@ -96,14 +96,25 @@ public class VirtualAssetEditorDialog<C> extends BaseAssetEditorDialog<VirtualRe
     public void show(@NotNull final Window owner) {
         super.show(owner);
 
+        fill(resources);
+
+        EXECUTOR_MANAGER.addFxTask(getResourceTree()::requestFocus);
+    }
+
+    /**
+     * Fill the tree by the resources.
+     *
+     * @param resources the resources to show.
+     */
+    @FxThread
+    protected void fill(@NotNull final Array<C> resources) {
+
         final VirtualResourceTree<C> resourceTree = getResourceTree();
         final RootVirtualResourceElement newRoot =
                 VirtualResourceElementFactory.build(resources, resourceTree);
 
         resourceTree.fill(newRoot);
         resourceTree.expandAll();
-
-        EXECUTOR_MANAGER.addFxTask(resourceTree::requestFocus);
     }
 
     @Override
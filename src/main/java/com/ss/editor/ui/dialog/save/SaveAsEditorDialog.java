@@ -2,8 +2,6 @@ package com.ss.editor.ui.dialog.save;
 
 import static com.ss.editor.Messages.SAVE_AS_EDITOR_DIALOG_FIELD_FILENAME;
 import static com.ss.editor.Messages.SAVE_AS_EDITOR_DIALOG_TITLE;
-import static com.ss.editor.ui.component.asset.tree.resource.ResourceElementFactory.createFor;
-import static com.ss.editor.ui.util.UiUtils.findItemForValue;
 import static com.ss.rlib.util.ObjectUtils.notNull;
 import com.ss.editor.Messages;
 import com.ss.editor.annotation.FromAnyThread;
@@ -354,8 +352,7 @@ public class SaveAsEditorDialog extends AbstractSimpleEditorDialog {
         final Path file = event.getFile();
 
         final ResourceTree resourceTree = getResourceTree();
-        final ResourceElement element = createFor(file);
-        final TreeItem<ResourceElement> treeItem = findItemForValue(resourceTree.getRoot(), element);
+        final TreeItem<ResourceElement> treeItem = resourceTree.findItem(file);
 
         if (treeItem == null) {
             getWaitedFilesToSelect().add(file);
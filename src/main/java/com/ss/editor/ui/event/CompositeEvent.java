@@ -0,0 +1,21 @@
+package com.ss.editor.ui.event;
+
+import com.ss.rlib.util.array.Array;
+import javafx.event.Event;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement an event which contains a batch of other events, the {@link FxEventManager}
+ * notifies about the composite event itself and then about each contained event in the same FX task.
+ *
+ * @author JavaSaBr
+ */
+public interface CompositeEvent {
+
+    /**
+     * Get the contained events.
+     *
+     * @return the contained events.
+     */
+    @NotNull Array<? extends Event> getEvents();
+}
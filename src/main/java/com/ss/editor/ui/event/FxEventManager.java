@@ -108,6 +108,11 @@ public class FxEventManager {
             handlers.forEach(event, EventHandler::handle);
         }
 
+        if (event instanceof CompositeEvent) {
+            ((CompositeEvent) event).getEvents()
+                    .forEach(this::notifyImpl);
+        }
+
         if (event instanceof ConsumableEvent && !event.isConsumed()) {
             final ExecutorManager executorManager = ExecutorManager.getInstance();
             executorManager.addFxTask(() -> notifyImpl(event));
@@ -0,0 +1,64 @@
+package com.ss.editor.ui.event.impl;
+
+import com.ss.editor.ui.event.CompositeEvent;
+import com.ss.editor.ui.event.SceneEvent;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
+import javafx.event.Event;
+import javafx.event.EventType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The event about a batch of changes of files in the asset folder, it contains {@link CreatedFileEvent},
+ * {@link DeletedFileEvent} and {@link FileChangedEvent} events in the order of the changes.
+ *
+ * @author JavaSaBr
+ */
+public class ChangedFilesEvent extends SceneEvent implements CompositeEvent {
+
+    /**
+     * The constant EVENT_TYPE.
+     */
+    @NotNull
+    public static final EventType<SceneEvent> EVENT_TYPE;
+
+    static {
+        synchronized (Event.class) {
+            EVENT_TYPE = new EventType<>(SceneEvent.EVENT_TYPE, ChangedFilesEvent.class.getSimpleName());
+        }
+    }
+
+    /**
+     * The list of events about changed files.
+     */
+    @NotNull
+    private final Array<SceneEvent> events;
+
+    public ChangedFilesEvent() {
+        super(EVENT_TYPE);
+        this.events = ArrayFactory.newArray(SceneEvent.class);
+    }
+
+    /**
+     * Add the event about a changed file.
+     *
+     * @param event the event.
+     */
+    public void addEvent(@NotNull final SceneEvent event) {
+        events.add(event);
+    }
+
+    @Override
+    public @NotNull Array<SceneEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * Return true if this batch doesn't contain any events.
+     *
+     * @return true if this batch doesn't contain any events.
+     */
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+}
@@ -0,0 +1,53 @@
+package com.ss.editor.ui.event.impl;
+
+import static com.ss.rlib.util.ObjectUtils.notNull;
+import com.ss.editor.ui.event.SceneEvent;
+import javafx.event.Event;
+import javafx.event.EventType;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * The event about request to close an editor of a file.
+ *
+ * @author JavaSaBr
+ */
+public class RequestedCloseFileEvent extends SceneEvent {
+
+    /**
+     * The constant EVENT_TYPE.
+     */
+    public static final EventType<SceneEvent> EVENT_TYPE;
+
+    static {
+        synchronized (Event.class) {
+            EVENT_TYPE = new EventType<>(SceneEvent.EVENT_TYPE, RequestedCloseFileEvent.class.getSimpleName());
+        }
+    }
+
+    private static final String FILE = "file";
+
+    public RequestedCloseFileEvent(@NotNull final Path file) {
+        super(EVENT_TYPE);
+        setFile(file);
+    }
+
+    /**
+     * Get the file.
+     *
+     * @return the file to close.
+     */
+    public @NotNull Path getFile() {
+        return notNull(get(FILE));
+    }
+
+    /**
+     * Set the file.
+     *
+     * @param file the file to close.
+     */
+    public void setFile(@NotNull final Path file) {
+        set(FILE, file);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ss.editor.ui.event.impl;
+
+import static com.ss.rlib.util.ObjectUtils.notNull;
+import com.ss.editor.ui.event.SceneEvent;
+import javafx.event.EventType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The event about a resolved icon of a file extension, components which show file icons should update them.
+ *
+ * @author JavaSaBr
+ */
+public class ResolvedFileIconEvent extends SceneEvent {
+
+    /**
+     * The constant EVENT_TYPE.
+     */
+    @NotNull
+    public static final EventType<SceneEvent> EVENT_TYPE;
+
+    static {
+        synchronized (EventType.class) {
+            EVENT_TYPE = new EventType<>(SceneEvent.EVENT_TYPE, ResolvedFileIconEvent.class.getSimpleName());
+        }
+    }
+
+    @NotNull
+    private static final String EXTENSION = "extension";
+
+    public ResolvedFileIconEvent() {
+        super(EVENT_TYPE);
+    }
+
+    /**
+     * Get the file extension.
+     *
+     * @return the file extension, it's "folder" for folders.
+     */
+    public @NotNull String getExtension() {
+        return notNull(get(EXTENSION), "Can't find an extension");
+    }
+
+    /**
+     * Set the file extension.
+     *
+     * @param extension the file extension, it's "folder" for folders.
+     */
+    public void setExtension(@NotNull final String extension) {
+        set(EXTENSION, extension);
+    }
+}
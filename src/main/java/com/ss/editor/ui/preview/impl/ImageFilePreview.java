@@ -52,7 +52,7 @@ public class ImageFilePreview extends AbstractFilePreview<ImageView> {
         final int width = (int) imageView.getFitWidth();
         final int height = (int) imageView.getFitHeight();
 
-        imageView.setImage(JAVA_FX_IMAGE_MANAGER.getImagePreview(file, width, height));
+        JAVA_FX_IMAGE_MANAGER.showImagePreview(imageView, file, width, height);
     }
 
     @Override
@@ -64,7 +64,7 @@ public class ImageFilePreview extends AbstractFilePreview<ImageView> {
         final int width = (int) imageView.getFitWidth();
         final int height = (int) imageView.getFitHeight();
 
-        imageView.setImage(JAVA_FX_IMAGE_MANAGER.getImagePreview(resource, width, height));
+        JAVA_FX_IMAGE_MANAGER.showImagePreview(imageView, resource, width, height);
     }
 
     @Override
@@ -287,11 +287,15 @@ public class ImageChannelPreview extends CustomTooltip<GridPane> {
 
         if (isNeedToBuildFile()) {
             final Path file = getFile();
-            buildPreview(file == null ? null : IMAGE_MANAGER.getImagePreview(file, 120, 120));
+            buildPreview(file == null ? null : IMAGE_MANAGER.requestImagePreview(file, 120, 120, image -> {
+                if (file.equals(getFile())) buildPreview(image);
+            }));
             setNeedToBuildFile(false);
         } else if (isNeedToBuildResource()) {
             final String resourcePath = getResourcePath();
-            buildPreview(IMAGE_MANAGER.getImagePreview(resourcePath, 120, 120));
+            buildPreview(IMAGE_MANAGER.requestImagePreview(resourcePath, 120, 120, image -> {
+                if (resourcePath != null && resourcePath.equals(getResourcePath())) buildPreview(image);
+            }));
             setNeedToBuildResource(false);
         }
     }
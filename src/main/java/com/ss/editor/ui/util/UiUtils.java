@@ -7,6 +7,7 @@ import static java.lang.Math.min;
 import com.jme3.math.ColorRGBA;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
+import com.ss.editor.file.index.ResourceList;
 import com.ss.editor.model.UObject;
 import com.ss.editor.ui.component.ScreenComponent;
 import com.ss.editor.ui.dialog.asset.file.AssetEditorDialog;
@@ -627,6 +628,21 @@ public abstract class UiUtils {
         dialog.show();
     }
 
+    /**
+     * Open an resource asset dialog.
+     *
+     * @param handler   the result handler.
+     * @param validator the validator.
+     * @param resources the sorted list of resources.
+     */
+    @FxThread
+    public static void openResourceAssetDialog(@NotNull final Consumer<String> handler,
+                                               @Nullable final Function<String, String> validator,
+                                               @NotNull final ResourceList resources) {
+        final StringVirtualAssetEditorDialog dialog = new StringVirtualAssetEditorDialog(handler, validator, resources);
+        dialog.show();
+    }
+
     /**
      * Open an asset dialog.
      *
@@ -276,18 +276,17 @@ public class GeomUtils {
     }
 
     /**
-     * Get a collision on spatial from screen position.
+     * Get a ray from the camera through the screen position.
      *
-     * @param spatial the spatial.
      * @param camera  the camera.
      * @param screenX the screen X coord.
      * @param screenY the screen Y coord.
-     * @return the collision or null.
+     * @param store   the ray to store the result.
+     * @return the ray.
      */
     @FromAnyThread
-    public static @Nullable CollisionResult getCollisionFromScreenPos(@NotNull final Spatial spatial,
-                                                                      @NotNull final Camera camera, final float screenX,
-                                                                      final float screenY) {
+    public static @NotNull Ray getRayFromScreenPos(@NotNull final Camera camera, final float screenX,
+                                                   final float screenY, @NotNull final Ray store) {
 
         final LocalObjects local = LocalObjects.get();
 
@@ -297,10 +296,28 @@ public class GeomUtils {
                 .subtractLocal(click3d)
                 .normalizeLocal();
 
-        final Ray ray = local.nextRay();
-        ray.setOrigin(click3d);
-        ray.setDirection(dir);
+        store.setOrigin(click3d);
+        store.setDirection(dir);
 
+        return store;
+    }
+
+    /**
+     * Get a collision on spatial from screen position.
+     *
+     * @param spatial the spatial.
+     * @param camera  the camera.
+     * @param screenX the screen X coord.
+     * @param screenY the screen Y coord.
+     * @return the collision or null.
+     */
+    @FromAnyThread
+    public static @Nullable CollisionResult getCollisionFromScreenPos(@NotNull final Spatial spatial,
+                                                                      @NotNull final Camera camera, final float screenX,
+                                                                      final float screenY) {
+
+        final LocalObjects local = LocalObjects.get();
+        final Ray ray = getRayFromScreenPos(camera, screenX, screenY, local.nextRay());
         final CollisionResults results = local.nextCollisionResults();
 
         spatial.updateModelBound();
@@ -15,6 +15,7 @@ import com.jme3.shader.VarType;
 import com.jme3.texture.Image;
 import com.jme3.texture.Texture;
 import com.ss.editor.FileExtensions;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.rlib.util.FileUtils;
@@ -31,8 +32,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The class with utility methods for working with {@link Material}.
@@ -378,11 +382,31 @@ public class MaterialUtils {
     }
 
     /**
-     * Clean up a material.
+     * Clean up materials of a model in parallel, each shared material is cleaned up only once. The model must not be
+     * attached to a rendered scene.
+     *
+     * @param spatial the model.
+     */
+    @BackgroundThread
+    public static void cleanUpMaterialParamsInParallel(@NotNull final Spatial spatial) {
+
+        final Set<Material> materials = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        NodeUtils.visitGeometry(spatial, geometry -> {
+            final Material material = geometry.getMaterial();
+            if (material != null) materials.add(material);
+        });
+
+        materials.parallelStream().forEach(MaterialUtils::cleanUp);
+    }
+
+    /**
+     * Clean up a material. It changes only the parameters and the technique of the material, so different materials
+     * which aren't rendered can be cleaned up in different threads.
      *
      * @param material the material.
      */
-    @JmeThread
+    @FromAnyThread
     private static void cleanUp(@NotNull final Material material) {
         final Collection<MatParam> params = new ArrayList<>(material.getParams());
         params.stream().filter(param -> param.getValue() == null)
@@ -6,6 +6,8 @@ import com.jme3.audio.AudioNode;
 import com.jme3.light.Light;
 import com.jme3.light.LightList;
 import com.jme3.material.Material;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
@@ -294,6 +296,40 @@ public class NodeUtils {
         }
     }
 
+    /**
+     * Set the local transform of the spatial only if it's changed, so an unchanged spatial doesn't need to refresh
+     * its world transform and bounds.
+     *
+     * @param spatial     the spatial.
+     * @param translation the new translation.
+     * @param rotation    the new rotation.
+     * @param scale       the new scale.
+     * @return true if the transform was changed.
+     */
+    @FromAnyThread
+    public static boolean updateLocalTransform(@NotNull final Spatial spatial, @NotNull final Vector3f translation,
+                                               @NotNull final Quaternion rotation, @NotNull final Vector3f scale) {
+
+        boolean changed = false;
+
+        if (!spatial.getLocalTranslation().equals(translation)) {
+            spatial.setLocalTranslation(translation);
+            changed = true;
+        }
+
+        if (!spatial.getLocalRotation().equals(rotation)) {
+            spatial.setLocalRotation(rotation);
+            changed = true;
+        }
+
+        if (!spatial.getLocalScale().equals(scale)) {
+            spatial.setLocalScale(scale);
+            changed = true;
+        }
+
+        return changed;
+    }
+
     /**
      * Visit all geometries.
      *
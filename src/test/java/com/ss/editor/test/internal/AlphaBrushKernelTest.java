@@ -0,0 +1,205 @@
+package com.ss.editor.test.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.jme3.math.ColorRGBA;
+import com.jme3.texture.Image;
+import com.jme3.texture.image.ColorSpace;
+import com.jme3.util.BufferUtils;
+import com.ss.editor.control.painting.terrain.AlphaBrushKernel;
+import com.ss.editor.control.painting.terrain.BrushFalloff;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * The test of painting alpha maps by the brush kernel against painting by the per-pixel loop.
+ *
+ * @author JavaSaBr
+ */
+public class AlphaBrushKernelTest {
+
+    private static final int SIZE = 512;
+
+    @Test
+    public void paintSameAsPerPixelLoop() {
+
+        final Random random = new Random(1);
+        final AlphaBrushKernel kernel = new AlphaBrushKernel();
+
+        for (final Image.Format format : new Image.Format[]{Image.Format.RGBA8, Image.Format.ABGR8}) {
+            for (int i = 0; i < 50; i++) {
+
+                final Image expected = createImage(format, new Random(i));
+                final Image actual = createImage(format, new Random(i));
+                final Image original = createImage(format, new Random(i));
+
+                final int channel = random.nextInt(4);
+                final float u = random.nextFloat() * 1.2F - 0.1F;
+                final float v = random.nextFloat() * 1.2F - 0.1F;
+                // large brushes are painted by parallel tasks
+                final float radius = i % 5 == 0 ? 0.3F : random.nextFloat() * 0.1F + 0.001F;
+                final float power = (random.nextFloat() - 0.5F) * 2F;
+
+                paintPerPixel(expected, channel, u, v, radius, power);
+                paint(kernel, actual, channel, u, v, radius, power);
+
+                assertImages(expected, actual, original, AlphaBrushKernel.getChannelOffset(actual, channel));
+            }
+        }
+    }
+
+    @Test
+    public void paintBySeparableFalloff() {
+
+        final AlphaBrushKernel kernel = new AlphaBrushKernel();
+        kernel.setFalloff(BrushFalloff.SQUARE);
+
+        final Image image = createImage(Image.Format.RGBA8, new Random(1));
+        final Image original = createImage(Image.Format.RGBA8, new Random(1));
+
+        final float u = 0.4F, v = 0.6F, radius = 0.2F, power = 0.5F;
+
+        paint(kernel, image, 1, u, v, radius, power);
+
+        final ByteBuffer actual = image.getData(0);
+        final ByteBuffer source = original.getData(0);
+
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+
+                final float dx = Math.abs((float) x / SIZE - u) / radius;
+                final float dy = Math.abs((float) y / SIZE - v) / radius;
+                final float weight = dx >= 1F || dy >= 1F ? 0F : (1F - dx) * (1F - dy);
+                final int position = (y * SIZE + x) * 4 + 1;
+                final int sourceValue = source.get(position) & 0xFF;
+
+                final int expected = weight <= 0F ? sourceValue :
+                        (int) (Math.min(1F, sourceValue / 255F + weight * power) * 255F);
+
+                final int difference = Math.abs(expected - (actual.get(position) & 0xFF));
+                assertTrue(difference <= 1, "x = " + x + ", y = " + y);
+            }
+        }
+    }
+
+    /**
+     * Paint the brush step by the kernel as the terrain paint tool does it.
+     */
+    private static void paint(@NotNull final AlphaBrushKernel kernel, @NotNull final Image image, final int channel,
+                              final float u, final float v, final float radius, final float power) {
+
+        final int width = image.getWidth();
+        final float height = image.getHeight();
+
+        final int minX = (int) Math.max(0, (u * width - radius * width));
+        final int maxX = (int) Math.min(width, (u * width + radius * width));
+        final int minY = (int) Math.max(0, (v * height - radius * height));
+        final int maxY = (int) Math.min(height, (v * height + radius * height));
+
+        kernel.paint(image, channel, u, v, radius, power, minX, minY, maxX, maxY);
+    }
+
+    /**
+     * The previous implementation of the brush step which visits each pixel and reads and writes all channels.
+     */
+    private static void paintPerPixel(@NotNull final Image image, final int channel, final float u, final float v,
+                                      final float radius, final float power) {
+
+        final ByteBuffer buffer = image.getData(0);
+        final ColorRGBA color = new ColorRGBA();
+
+        final int width = image.getWidth();
+        final float height = image.getHeight();
+
+        final int minX = (int) Math.max(0, (u * width - radius * width));
+        final int maxX = (int) Math.min(width, (u * width + radius * width));
+        final int minY = (int) Math.max(0, (v * height - radius * height));
+        final int maxY = (int) Math.min(height, (v * height + radius * height));
+
+        final float radiusSquared = radius * radius;
+
+        for (int y = minY; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+
+                final float dx = (float) x / width - u;
+                final float dy = (float) y / height - v;
+                final float dist = dx * dx + dy * dy;
+
+                if (dist >= radiusSquared) {
+                    continue;
+                }
+
+                final int position = (y * width + x) * 4;
+                final boolean abgr = image.getFormat() == Image.Format.ABGR8;
+
+                final float first = (buffer.get(position) & 0xFF) / 255F;
+                final float second = (buffer.get(position + 1) & 0xFF) / 255F;
+                final float third = (buffer.get(position + 2) & 0xFF) / 255F;
+                final float fourth = (buffer.get(position + 3) & 0xFF) / 255F;
+
+                if (abgr) {
+                    color.set(fourth, third, second, first);
+                } else {
+                    color.set(first, second, third, fourth);
+                }
+
+                final float intensity = (1.0F - (dist / radiusSquared)) * power;
+
+                switch (channel) {
+                    case 0: color.r += intensity; break;
+                    case 1: color.g += intensity; break;
+                    case 2: color.b += intensity; break;
+                    default: color.a += intensity;
+                }
+
+                color.clamp();
+
+                if (abgr) {
+                    buffer.put(position, (byte) (color.a * 255F));
+                    buffer.put(position + 1, (byte) (color.b * 255F));
+                    buffer.put(position + 2, (byte) (color.g * 255F));
+                    buffer.put(position + 3, (byte) (color.r * 255F));
+                } else {
+                    buffer.put(position, (byte) (color.r * 255F));
+                    buffer.put(position + 1, (byte) (color.g * 255F));
+                    buffer.put(position + 2, (byte) (color.b * 255F));
+                    buffer.put(position + 3, (byte) (color.a * 255F));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check that the painted channel is the same within byte rounding and other channels aren't changed.
+     */
+    private static void assertImages(@NotNull final Image expected, @NotNull final Image actual,
+                                     @NotNull final Image original, final int channelOffset) {
+
+        final ByteBuffer expectedData = expected.getData(0);
+        final ByteBuffer actualData = actual.getData(0);
+        final ByteBuffer originalData = original.getData(0);
+
+        for (int i = 0, length = actualData.capacity(); i < length; i++) {
+            if (i % 4 == channelOffset) {
+                final int difference = Math.abs((expectedData.get(i) & 0xFF) - (actualData.get(i) & 0xFF));
+                assertTrue(difference <= 1, "position " + i);
+            } else {
+                assertEquals(originalData.get(i), actualData.get(i), "position " + i);
+            }
+        }
+    }
+
+    private static @NotNull Image createImage(@NotNull final Image.Format format, @NotNull final Random random) {
+
+        final byte[] content = new byte[SIZE * SIZE * 4];
+        random.nextBytes(content);
+
+        final ByteBuffer data = BufferUtils.createByteBuffer(content.length);
+        data.put(content).flip();
+
+        return new Image(format, SIZE, SIZE, data, ColorSpace.Linear);
+    }
+}
@@ -0,0 +1,219 @@
+package com.ss.editor.test.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.ss.editor.file.index.AssetIndex;
+import com.ss.editor.manager.WorkspaceManager;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * The test of the persistent index of the asset folder.
+ *
+ * @author JavaSaBr
+ */
+public class AssetIndexTest {
+
+    @Test
+    public void scanAssetFolder() throws IOException {
+
+        final Path assetFolder = createAssetFolder();
+        try {
+
+            final AssetIndex index = AssetIndex.load(assetFolder);
+            index.synchronize(true);
+
+            assertEquals(3, index.size());
+            assertEquals(setOf("a.j3o", "Models/b.j3o"), new HashSet<>(index.getFiles("j3o")));
+            assertEquals(setOf("Textures/c.png"), new HashSet<>(index.getFiles("png")));
+            assertEquals(setOf("j3o", "png"), index.getExtensions());
+            assertEquals(3, index.getFolders().size());
+
+            final AssetIndex.FileEntry entry = index.getFile("Textures/c.png");
+
+            assertNotNull(entry);
+            assertEquals("png", entry.getExtension());
+            assertEquals(Files.size(assetFolder.resolve("Textures/c.png")), entry.getSize());
+
+            // files of the editor folder aren't indexed
+            assertNull(index.getFile(WorkspaceManager.FOLDER_EDITOR + "/d.j3o"));
+
+        } finally {
+            delete(assetFolder);
+        }
+    }
+
+    @Test
+    public void saveAndLoadIndex() throws IOException {
+
+        final Path assetFolder = createAssetFolder();
+        try {
+
+            final AssetIndex index = AssetIndex.load(assetFolder);
+            index.synchronize(true);
+            index.save();
+
+            assertFalse(index.isChanged());
+
+            final AssetIndex loaded = AssetIndex.load(assetFolder);
+
+            assertFalse(loaded.isChanged());
+            assertEquals(index.size(), loaded.size());
+            assertEquals(new HashSet<>(index.getFiles("j3o")), new HashSet<>(loaded.getFiles("j3o")));
+            assertEquals(new HashSet<>(index.getFolders()), new HashSet<>(loaded.getFolders()));
+
+            // the index of another asset folder isn't used
+            Files.createDirectories(assetFolder.resolve("Other").resolve(WorkspaceManager.FOLDER_EDITOR));
+            Files.copy(index.getIndexFile(), AssetIndex.load(assetFolder.resolve("Other")).getIndexFile());
+
+            assertEquals(0, AssetIndex.load(assetFolder.resolve("Other")).size());
+
+        } finally {
+            delete(assetFolder);
+        }
+    }
+
+    @Test
+    public void synchronizeChangedFolders() throws IOException {
+
+        final Path assetFolder = createAssetFolder();
+        try {
+
+            final AssetIndex index = AssetIndex.load(assetFolder);
+            index.synchronize(true);
+            index.save();
+
+            final Set<String> added = new HashSet<>();
+            final Set<String> removed = new HashSet<>();
+
+            final AssetIndex loaded = AssetIndex.load(assetFolder);
+            loaded.setListener(new AssetIndex.Listener() {
+
+                @Override
+                public void notifyAdded(@NotNull final AssetIndex.FileEntry entry) {
+                    added.add(entry.getAssetPath());
+                }
+
+                @Override
+                public void notifyRemoved(@NotNull final AssetIndex.FileEntry entry) {
+                    removed.add(entry.getAssetPath());
+                }
+            });
+
+            write(assetFolder.resolve("Models/e.j3o"), 10);
+            write(assetFolder.resolve("Models/Parts/f.j3o"), 10);
+            Files.delete(assetFolder.resolve("Textures/c.png"));
+            touch(assetFolder.resolve("Models"));
+            touch(assetFolder.resolve("Textures"));
+
+            loaded.synchronize(false);
+
+            assertEquals(setOf("Models/e.j3o", "Models/Parts/f.j3o"), added);
+            assertEquals(setOf("Textures/c.png"), removed);
+            assertEquals(setOf("a.j3o", "Models/b.j3o", "Models/e.j3o", "Models/Parts/f.j3o"),
+                    new HashSet<>(loaded.getFiles("j3o")));
+            assertTrue(loaded.getFiles("png").isEmpty());
+            assertFalse(loaded.getExtensions().contains("png"));
+            assertTrue(loaded.isChanged());
+
+        } finally {
+            delete(assetFolder);
+        }
+    }
+
+    @Test
+    public void handleFileEvents() throws IOException {
+
+        final Path assetFolder = createAssetFolder();
+        try {
+
+            final AssetIndex index = AssetIndex.load(assetFolder);
+            index.synchronize(true);
+
+            final Path folder = assetFolder.resolve("Sounds");
+            write(folder.resolve("g.ogg"), 10);
+            write(folder.resolve("Music/h.ogg"), 10);
+
+            index.notifyCreated(folder);
+
+            assertEquals(setOf("Sounds/g.ogg", "Sounds/Music/h.ogg"), new HashSet<>(index.getFiles("ogg")));
+
+            write(folder.resolve("g.ogg"), 50);
+            index.notifyChanged(folder.resolve("g.ogg"));
+
+            assertEquals(50, notNullFile(index, "Sounds/g.ogg").getSize());
+
+            index.notifyDeleted(folder);
+
+            assertTrue(index.getFiles("ogg").isEmpty());
+            assertNull(index.getFile("Sounds/Music/h.ogg"));
+            assertEquals(3, index.size());
+
+            // events of the editor folder are ignored
+            final Path editorFile = assetFolder.resolve(WorkspaceManager.FOLDER_EDITOR).resolve("i.j3o");
+            write(editorFile, 10);
+            index.notifyCreated(editorFile);
+
+            assertEquals(3, index.size());
+
+        } finally {
+            delete(assetFolder);
+        }
+    }
+
+    private static @NotNull AssetIndex.FileEntry notNullFile(@NotNull final AssetIndex index,
+                                                             @NotNull final String assetPath) {
+        final AssetIndex.FileEntry entry = index.getFile(assetPath);
+        assertNotNull(entry);
+        return entry;
+    }
+
+    private static @NotNull Path createAssetFolder() throws IOException {
+
+        final Path assetFolder = Files.createTempDirectory("asset");
+
+        write(assetFolder.resolve("a.j3o"), 10);
+        write(assetFolder.resolve("Models/b.j3o"), 20);
+        write(assetFolder.resolve("Textures/c.png"), 30);
+        write(assetFolder.resolve(WorkspaceManager.FOLDER_EDITOR).resolve("d.j3o"), 40);
+
+        return assetFolder;
+    }
+
+    private static void write(@NotNull final Path file, final int length) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[length]);
+    }
+
+    /**
+     * Change the last modified time of the folder, file systems may keep it in seconds.
+     */
+    private static void touch(@NotNull final Path folder) throws IOException {
+        final FileTime time = Files.getLastModifiedTime(folder);
+        Files.setLastModifiedTime(folder, FileTime.fromMillis(time.toMillis() + 10000));
+    }
+
+    private static @NotNull Set<String> setOf(@NotNull final String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    private static void delete(@NotNull final Path folder) throws IOException {
+        try (final Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder())
+                    .forEach(file -> file.toFile().delete());
+        }
+    }
+}
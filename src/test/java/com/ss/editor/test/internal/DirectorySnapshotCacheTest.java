@@ -0,0 +1,231 @@
+package com.ss.editor.test.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.ss.editor.file.cache.DirectorySnapshotCache;
+import com.ss.editor.file.cache.DirectorySnapshotCache.Snapshot;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * The test of the cache of directory listings.
+ *
+ * @author JavaSaBr
+ */
+public class DirectorySnapshotCacheTest {
+
+    private static final Predicate<Path> ALL_WATCHED = folder -> true;
+
+    @Test
+    public void readDirectoryListing() throws IOException {
+
+        final Path root = createTree();
+        final DirectorySnapshotCache cache = DirectorySnapshotCache.getInstance();
+        try {
+
+            cache.setRoot(root, ALL_WATCHED);
+
+            final Snapshot snapshot = cache.get(root);
+
+            assertNotNull(snapshot);
+            assertEquals(setOf("Models", "Textures", "a.j3o", "b.png"), getNames(snapshot));
+
+            // directories are placed before files
+            assertTrue(snapshot.isDirectory(0));
+            assertTrue(snapshot.isDirectory(1));
+            assertFalse(snapshot.isDirectory(2));
+            assertFalse(snapshot.isDirectory(3));
+
+            final Array<String> filter = ArrayFactory.asArray("png");
+
+            for (int i = 0; i < snapshot.size(); i++) {
+
+                final String name = snapshot.getFile(i).getFileName().toString();
+
+                assertEquals(!name.equals("a.j3o"), snapshot.isAccepted(i, filter, false));
+                assertEquals(snapshot.isDirectory(i), snapshot.isAccepted(i, filter, true));
+                assertTrue(snapshot.isAccepted(i, ArrayFactory.newArray(String.class), false));
+            }
+
+            final Snapshot textures = cache.get(root.resolve("Textures"));
+
+            assertNotNull(textures);
+            assertTrue(textures.hasAccepted(filter, false));
+            assertFalse(textures.hasAccepted(filter, true));
+
+            assertNull(cache.get(root.resolve("a.j3o")));
+            assertNull(cache.get(root.resolve("missing")));
+
+        } finally {
+            cache.setRoot(null, ALL_WATCHED);
+            delete(root);
+        }
+    }
+
+    @Test
+    public void cacheUntilInvalidated() throws IOException {
+
+        final Path root = createTree();
+        final DirectorySnapshotCache cache = DirectorySnapshotCache.getInstance();
+        try {
+
+            cache.setRoot(root, ALL_WATCHED);
+
+            final Snapshot snapshot = cache.get(root);
+            final Snapshot models = cache.get(root.resolve("Models"));
+
+            final Path created = Files.createFile(root.resolve("c.j3o"));
+
+            assertSame(snapshot, cache.get(root));
+
+            cache.invalidate(created, false);
+
+            final Snapshot updated = cache.get(root);
+
+            assertNotSame(snapshot, updated);
+            assertTrue(getNames(notNull(updated)).contains("c.j3o"));
+            assertSame(models, cache.get(root.resolve("Models")));
+
+            // invalidation of a directory drops snapshots of its subtree
+            cache.invalidate(root.resolve("Models"), true);
+
+            assertNotSame(updated, cache.get(root));
+            assertNotSame(models, cache.get(root.resolve("Models")));
+
+            final Snapshot textures = cache.get(root.resolve("Textures"));
+            cache.invalidateAll();
+
+            assertNotSame(textures, cache.get(root.resolve("Textures")));
+
+        } finally {
+            cache.setRoot(null, ALL_WATCHED);
+            delete(root);
+        }
+    }
+
+    @Test
+    public void notCacheOutsideRoot() throws IOException {
+
+        final Path root = createTree();
+        final DirectorySnapshotCache cache = DirectorySnapshotCache.getInstance();
+        try {
+
+            cache.setRoot(root.resolve("Models"), ALL_WATCHED);
+
+            assertNotSame(cache.get(root), cache.get(root));
+            assertSame(cache.get(root.resolve("Models")), cache.get(root.resolve("Models")));
+
+            cache.setRoot(null, ALL_WATCHED);
+
+            assertNotSame(cache.get(root.resolve("Models")), cache.get(root.resolve("Models")));
+
+        } finally {
+            cache.setRoot(null, ALL_WATCHED);
+            delete(root);
+        }
+    }
+
+    @Test
+    public void notCacheUnwatchedFolders() throws IOException {
+
+        final Path root = createTree();
+        final DirectorySnapshotCache cache = DirectorySnapshotCache.getInstance();
+        try {
+
+            final Path models = root.resolve("Models");
+
+            cache.setRoot(root, folder -> !folder.equals(models));
+            cache.preload(root);
+
+            assertSame(cache.get(root), cache.get(root));
+            assertNotSame(cache.get(models), cache.get(models));
+            assertSame(cache.get(models.resolve("Parts")), cache.get(models.resolve("Parts")));
+
+        } finally {
+            cache.setRoot(null, ALL_WATCHED);
+            delete(root);
+        }
+    }
+
+    @Test
+    public void preloadSubtree() throws IOException {
+
+        final Path root = createTree();
+        final DirectorySnapshotCache cache = DirectorySnapshotCache.getInstance();
+        try {
+
+            cache.setRoot(root, ALL_WATCHED);
+            cache.preload(root);
+
+            // the preloaded listing isn't read again until invalidation
+            Files.createFile(root.resolve("Models/Parts/f.j3o"));
+
+            final Snapshot parts = cache.get(root.resolve("Models/Parts"));
+
+            assertNotNull(parts);
+            assertEquals(setOf("e.j3o"), getNames(parts));
+
+        } finally {
+            cache.setRoot(null, ALL_WATCHED);
+            delete(root);
+        }
+    }
+
+    private static @NotNull Snapshot notNull(final Snapshot snapshot) {
+        assertNotNull(snapshot);
+        return snapshot;
+    }
+
+    private static @NotNull Set<String> getNames(@NotNull final Snapshot snapshot) {
+
+        final Set<String> names = new HashSet<>();
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            names.add(snapshot.getFile(i).getFileName().toString());
+        }
+
+        return names;
+    }
+
+    private static @NotNull Path createTree() throws IOException {
+
+        final Path root = Files.createTempDirectory("snapshots");
+
+        Files.createDirectories(root.resolve("Models/Parts"));
+        Files.createDirectories(root.resolve("Textures"));
+        Files.createDirectories(root.resolve(".hidden"));
+        Files.createFile(root.resolve("a.j3o"));
+        Files.createFile(root.resolve("b.png"));
+        Files.createFile(root.resolve(".settings"));
+        Files.createFile(root.resolve("Models/d.j3o"));
+        Files.createFile(root.resolve("Models/Parts/e.j3o"));
+        Files.createFile(root.resolve("Textures/g.png"));
+
+        return root;
+    }
+
+    private static @NotNull Set<String> setOf(@NotNull final String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    private static void delete(@NotNull final Path folder) throws IOException {
+        try (final Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder())
+                    .forEach(file -> file.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.ss.editor.test.internal;
+
+import static com.ss.editor.config.DefaultSettingsProvider.Preferences.PREF_UNDO_MEMORY_BUDGET;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.impl.JmeThreadExecutor;
+import com.ss.editor.manager.ExecutorManager;
+import com.ss.editor.model.undo.EditorOperation;
+import com.ss.editor.model.undo.EditorOperationControl;
+import com.ss.editor.model.undo.UndoableEditor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The test of the memory budget of the undo history. Changes of operations are applied in the editor thread by
+ * executing waited editor tasks from the test thread.
+ *
+ * @author JavaSaBr
+ */
+public class EditorOperationControlTest {
+
+    /**
+     * The test editor which counts changes.
+     */
+    private static class TestEditor implements UndoableEditor {
+
+        /**
+         * The count of changes.
+         */
+        private volatile int changes;
+
+        @Override
+        public void incrementChange() {
+            changes++;
+        }
+
+        @Override
+        public void decrementChange() {
+            changes--;
+        }
+
+        @Override
+        public void redo() {
+        }
+
+        @Override
+        public void undo() {
+        }
+    }
+
+    /**
+     * The test operation with heavy data.
+     */
+    private static class TestOperation implements EditorOperation {
+
+        /**
+         * The original data.
+         */
+        @NotNull
+        private final byte[] original;
+
+        /**
+         * True if the data can be spilled.
+         */
+        private final boolean spillable;
+
+        /**
+         * True if next operations can be merged to this operation.
+         */
+        private final boolean mergeable;
+
+        /**
+         * The data or null if it was spilled.
+         */
+        @Nullable
+        private volatile byte[] data;
+
+        /**
+         * The count of spilling.
+         */
+        private volatile int spilled;
+
+        /**
+         * The count of merged operations.
+         */
+        private volatile int merged;
+
+        /**
+         * The count of redo.
+         */
+        private volatile int redone;
+
+        /**
+         * The count of undo.
+         */
+        private volatile int undone;
+
+        private TestOperation(final int length, final boolean spillable, final boolean mergeable) {
+            this.original = new byte[length];
+            this.spillable = spillable;
+            this.mergeable = mergeable;
+            new Random(length).nextBytes(original);
+            this.data = original.clone();
+        }
+
+        @Override
+        public void redo(@NotNull final UndoableEditor editor) {
+            assertNotNull(data);
+            redone++;
+        }
+
+        @Override
+        public void undo(@NotNull final UndoableEditor editor) {
+            assertNotNull(data);
+            undone++;
+        }
+
+        @Override
+        public long getEstimatedSize() {
+            final byte[] data = this.data;
+            return DEFAULT_SIZE + (data == null ? 0 : data.length);
+        }
+
+        @Override
+        public boolean merge(@NotNull final EditorOperation operation) {
+
+            if (!mergeable || !(operation instanceof TestOperation) || !((TestOperation) operation).mergeable) {
+                return false;
+            }
+
+            merged++;
+            return true;
+        }
+
+        @Override
+        public boolean isSpillable() {
+            return spillable && data != null;
+        }
+
+        @Override
+        public void spill(@NotNull final DataOutput out) throws IOException {
+            final byte[] data = this.data;
+            assertNotNull(data);
+            out.writeInt(data.length);
+            out.write(data);
+            this.data = null;
+            spilled++;
+        }
+
+        @Override
+        public void restore(@NotNull final DataInput in) throws IOException {
+            final byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            this.data = data;
+        }
+    }
+
+    private static final int KB = 1024;
+
+    @BeforeEach
+    public void setUp() {
+        final EditorConfig config = EditorConfig.getInstance();
+        config.set(PREF_UNDO_MEMORY_BUDGET, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        final EditorConfig config = EditorConfig.getInstance();
+        config.set(PREF_UNDO_MEMORY_BUDGET, null);
+    }
+
+    @Test
+    public void spillOldestAppliedOperations() {
+
+        final TestEditor editor = new TestEditor();
+        final EditorOperationControl control = new EditorOperationControl(editor);
+        final TestOperation[] operations = new TestOperation[5];
+
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = new TestOperation(300 * KB + i, true, false);
+            control.execute(operations[i]);
+        }
+
+        waitFxTasks();
+
+        // changes of the operations aren't applied in the editor thread yet
+        for (final TestOperation operation : operations) {
+            assertEquals(0, operation.spilled);
+        }
+
+        applyJmeTasks();
+
+        assertEquals(1, operations[0].spilled);
+        assertEquals(1, operations[1].spilled);
+        assertEquals(0, operations[2].spilled);
+        assertEquals(0, operations[3].spilled);
+        assertEquals(0, operations[4].spilled);
+        assertEquals(5, editor.changes);
+
+        for (int i = 0; i < operations.length; i++) {
+            control.undo();
+        }
+
+        waitFxTasks();
+
+        for (final TestOperation operation : operations) {
+            assertEquals(1, operation.undone);
+            assertArrayEquals(operation.original, operation.data);
+        }
+
+        assertEquals(0, editor.changes);
+
+        control.clear();
+        waitFxTasks();
+    }
+
+    @Test
+    public void discardHeavyNotSpillableOperations() {
+
+        final TestEditor editor = new TestEditor();
+        final EditorOperationControl control = new EditorOperationControl(editor);
+        final TestOperation[] operations = new TestOperation[3];
+
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = new TestOperation(600 * KB + i, false, false);
+            control.execute(operations[i]);
+        }
+
+        applyJmeTasks();
+
+        for (int i = 0; i < operations.length; i++) {
+            control.undo();
+        }
+
+        waitFxTasks();
+
+        // the last operation is kept even if it's over the budget
+        assertEquals(0, operations[0].undone);
+        assertEquals(0, operations[1].undone);
+        assertEquals(1, operations[2].undone);
+
+        for (final TestOperation operation : operations) {
+            assertEquals(0, operation.spilled);
+        }
+
+        control.clear();
+        waitFxTasks();
+    }
+
+    @Test
+    public void undoMergedOperationsByOneStep() {
+
+        final TestEditor editor = new TestEditor();
+        final EditorOperationControl control = new EditorOperationControl(editor);
+        final TestOperation first = new TestOperation(KB, false, true);
+        final TestOperation second = new TestOperation(KB + 1, false, true);
+        final TestOperation third = new TestOperation(KB + 2, false, true);
+        final TestOperation other = new TestOperation(KB + 3, false, false);
+
+        control.execute(first);
+        control.execute(second);
+        control.execute(third);
+        control.execute(other);
+
+        applyJmeTasks();
+
+        assertEquals(2, first.merged);
+        assertEquals(0, other.merged);
+        assertEquals(4, editor.changes);
+
+        control.undo();
+        control.undo();
+
+        waitFxTasks();
+
+        assertEquals(1, other.undone);
+        assertEquals(1, first.undone);
+        assertEquals(0, second.undone);
+        assertEquals(0, editor.changes);
+
+        control.redo();
+        waitFxTasks();
+
+        assertEquals(2, first.redone);
+        assertEquals(3, editor.changes);
+
+        // the redone operation doesn't take next operations
+        final TestOperation next = new TestOperation(KB + 4, false, true);
+        control.execute(next);
+        applyJmeTasks();
+
+        assertEquals(2, first.merged);
+        assertEquals(4, editor.changes);
+
+        control.undo();
+        waitFxTasks();
+
+        assertEquals(1, next.undone);
+        assertEquals(1, first.undone);
+        assertEquals(3, editor.changes);
+
+        control.clear();
+        waitFxTasks();
+    }
+
+    /**
+     * Execute all waited editor tasks and wait for the FX tasks which were added by them.
+     */
+    private static void applyJmeTasks() {
+
+        waitFxTasks();
+
+        final JmeThreadExecutor executor = JmeThreadExecutor.getInstance();
+
+        while (executor.getQueueDepth() > 0) {
+            executor.execute();
+        }
+
+        waitFxTasks();
+    }
+
+    /**
+     * Wait for all added FX tasks.
+     */
+    private static void waitFxTasks() {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+        executorManager.addFxTask(latch::countDown);
+
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                fail("FX tasks weren't executed.");
+            }
+        } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
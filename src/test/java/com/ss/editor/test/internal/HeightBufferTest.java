@@ -0,0 +1,162 @@
+package com.ss.editor.test.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.ss.editor.control.painting.terrain.HeightBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The test of the sparse buffer of terrain heights.
+ *
+ * @author JavaSaBr
+ */
+public class HeightBufferTest {
+
+    @Test
+    public void packPoints() {
+
+        final int index = HeightBuffer.pack(1025, 4096);
+
+        assertEquals(1025, HeightBuffer.unpackX(index));
+        assertEquals(4096, HeightBuffer.unpackZ(index));
+        assertEquals(0, HeightBuffer.unpackX(HeightBuffer.pack(0, 0)));
+        assertEquals(65535, HeightBuffer.unpackZ(HeightBuffer.pack(0, 65535)));
+    }
+
+    @Test
+    public void putAndGetHeights() {
+
+        final HeightBuffer buffer = new HeightBuffer(4);
+        final Map<Integer, Float> expected = new HashMap<>();
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 10000; i++) {
+
+            final int index = HeightBuffer.pack(random.nextInt(200), random.nextInt(200));
+            final float height = random.nextFloat();
+
+            buffer.put(index, height);
+            expected.put(index, height);
+        }
+
+        assertEquals(expected.size(), buffer.size());
+        expected.forEach((index, height) -> assertEquals(height, buffer.get(index), 0F));
+
+        assertFalse(buffer.contains(HeightBuffer.pack(300, 300)));
+        assertTrue(Float.isNaN(buffer.get(HeightBuffer.pack(300, 300))));
+
+        for (int i = 0; i < buffer.size(); i++) {
+            assertEquals(expected.get(buffer.indexAt(i)), buffer.heightAt(i), 0F);
+        }
+    }
+
+    @Test
+    public void keepFirstHeight() {
+
+        final HeightBuffer buffer = new HeightBuffer();
+        final int index = HeightBuffer.pack(5, 7);
+
+        assertTrue(buffer.putIfAbsent(index, 1F));
+        assertFalse(buffer.putIfAbsent(index, 2F));
+        assertEquals(1F, buffer.get(index), 0F);
+
+        buffer.put(index, 3F);
+        assertEquals(3F, buffer.get(index), 0F);
+        assertEquals(1, buffer.size());
+
+        buffer.clear();
+
+        assertTrue(buffer.isEmpty());
+        assertFalse(buffer.contains(index));
+        assertTrue(buffer.putIfAbsent(index, 4F));
+        assertEquals(4F, buffer.get(index), 0F);
+    }
+
+    @Test
+    public void copyBuffer() {
+
+        final HeightBuffer buffer = createBuffer(500);
+        final HeightBuffer copy = buffer.copy();
+
+        assertSameHeights(buffer, copy);
+
+        buffer.put(HeightBuffer.pack(1000, 1000), 1F);
+        assertFalse(copy.contains(HeightBuffer.pack(1000, 1000)));
+
+        copy.put(HeightBuffer.pack(2000, 2000), 2F);
+        assertEquals(2F, copy.get(HeightBuffer.pack(2000, 2000)), 0F);
+    }
+
+    @Test
+    public void spillAndRestore() throws IOException {
+
+        final HeightBuffer buffer = createBuffer(500);
+        final HeightBuffer expected = buffer.copy();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            buffer.spill(out);
+        }
+
+        assertTrue(buffer.getDataSize() < expected.getDataSize());
+
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            buffer.restore(in);
+        }
+
+        assertSameHeights(expected, buffer);
+
+        buffer.put(HeightBuffer.pack(1000, 1000), 1F);
+        assertEquals(1F, buffer.get(HeightBuffer.pack(1000, 1000)), 0F);
+    }
+
+    @Test
+    public void spillAndRestoreEmpty() throws IOException {
+
+        final HeightBuffer buffer = new HeightBuffer();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            buffer.spill(out);
+        }
+
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            buffer.restore(in);
+        }
+
+        assertTrue(buffer.isEmpty());
+
+        buffer.put(HeightBuffer.pack(1, 1), 1F);
+        assertEquals(1F, buffer.get(HeightBuffer.pack(1, 1)), 0F);
+    }
+
+    private static @NotNull HeightBuffer createBuffer(final int size) {
+
+        final HeightBuffer buffer = new HeightBuffer();
+
+        for (int i = 0; i < size; i++) {
+            buffer.put(HeightBuffer.pack(i % 37, i / 37), i * 0.5F);
+        }
+
+        return buffer;
+    }
+
+    private static void assertSameHeights(@NotNull final HeightBuffer expected, @NotNull final HeightBuffer actual) {
+
+        assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.indexAt(i), actual.indexAt(i));
+            assertEquals(expected.heightAt(i), actual.heightAt(i), 0F);
+            assertEquals(expected.heightAt(i), actual.get(expected.indexAt(i)), 0F);
+        }
+    }
+}
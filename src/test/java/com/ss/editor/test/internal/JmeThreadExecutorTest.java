@@ -0,0 +1,82 @@
+package com.ss.editor.test.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.executor.impl.JmeThreadExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The test of the executor of the editor thread. Waited tasks are executed from the test thread.
+ *
+ * @author JavaSaBr
+ */
+public class JmeThreadExecutorTest {
+
+    @Test
+    public void executeByPriorities() {
+
+        final JmeThreadExecutor executor = JmeThreadExecutor.getInstance();
+        final List<String> executed = new ArrayList<>();
+
+        executor.addToExecute(() -> executed.add("normal"), TaskPriority.NORMAL);
+        executor.addToExecute(() -> executed.add("interactive"), TaskPriority.INTERACTIVE);
+
+        executeAll(executor);
+
+        assertEquals(Arrays.asList("interactive", "normal"), executed);
+    }
+
+    @Test
+    public void keepOrderOfChangesAfterBulkTasks() {
+
+        final JmeThreadExecutor executor = JmeThreadExecutor.getInstance();
+        final List<String> executed = new ArrayList<>();
+
+        executor.addToExecute(() -> executed.add("bulk"), TaskPriority.BULK);
+        executor.addToExecute(() -> executed.add("normal"), TaskPriority.NORMAL);
+        executor.addToExecute(() -> executed.add("interactive"), TaskPriority.INTERACTIVE);
+
+        executeAll(executor);
+
+        // only interactive tasks overtake the waited bulk change
+        assertEquals(Arrays.asList("interactive", "bulk", "normal"), executed);
+
+        executed.clear();
+        executor.addToExecute(() -> executed.add("first"), TaskPriority.NORMAL);
+        executor.addToExecute(() -> executed.add("second"), TaskPriority.BULK);
+
+        executeAll(executor);
+
+        assertEquals(Arrays.asList("first", "second"), executed);
+    }
+
+    @Test
+    public void coalesceTasksWithSameKey() {
+
+        final JmeThreadExecutor executor = JmeThreadExecutor.getInstance();
+        final List<String> executed = new ArrayList<>();
+        final Object key = new Object();
+
+        executor.addToExecute(key, () -> executed.add("first"), TaskPriority.NORMAL);
+        executor.addToExecute(() -> executed.add("other"), TaskPriority.NORMAL);
+        executor.addToExecute(key, () -> executed.add("second"), TaskPriority.NORMAL);
+
+        assertEquals(2, executor.getQueueDepth());
+
+        executeAll(executor);
+
+        // the replaced task keeps its place in the queue
+        assertEquals(Arrays.asList("second", "other"), executed);
+    }
+
+    private static void executeAll(@NotNull final JmeThreadExecutor executor) {
+        while (executor.getQueueDepth() > 0) {
+            executor.execute();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.ss.editor.test.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import com.jme3.math.Vector3f;
+import com.ss.editor.executor.impl.JmeThreadExecutor;
+import com.ss.editor.manager.ExecutorManager;
+import com.ss.editor.model.undo.EditorOperation;
+import com.ss.editor.model.undo.UndoableEditor;
+import com.ss.editor.model.undo.editor.ChangeConsumer;
+import com.ss.editor.ui.control.property.operation.MultiPropertyOperation;
+import com.ss.rlib.util.array.Array;
+import com.ss.rlib.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The test of the operation to set a property of several objects.
+ *
+ * @author JavaSaBr
+ */
+public class MultiPropertyOperationTest {
+
+    private static final String PROPERTY_NAME = "value";
+
+    /**
+     * The edited object.
+     */
+    private static class Target {
+
+        /**
+         * The value of the property.
+         */
+        @NotNull
+        private volatile Object value;
+
+        private Target(@NotNull final Object value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * The test editor which collects notifications about changes.
+     */
+    private static class TestConsumer implements ChangeConsumer, UndoableEditor {
+
+        /**
+         * The objects which were changed in the editor thread.
+         */
+        @NotNull
+        private final List<Object> jmeChanged = Collections.synchronizedList(new ArrayList<>());
+
+        /**
+         * The count of notifications in the FX thread.
+         */
+        private volatile int fxNotifications;
+
+        /**
+         * The count of objects of the last notification in the FX thread.
+         */
+        private volatile int fxChanged;
+
+        @Override
+        public void notifyJmeChangeProperty(@NotNull final Object object, @NotNull final String propertyName) {
+            assertEquals(PROPERTY_NAME, propertyName);
+            jmeChanged.add(object);
+        }
+
+        @Override
+        public void notifyFxChangeProperties(@NotNull final Array<?> objects, @NotNull final String propertyName) {
+            assertEquals(PROPERTY_NAME, propertyName);
+            fxNotifications++;
+            fxChanged = objects.size();
+        }
+
+        @Override
+        public void execute(@NotNull final EditorOperation operation) {
+        }
+
+        @Override
+        public void incrementChange() {
+        }
+
+        @Override
+        public void decrementChange() {
+        }
+
+        @Override
+        public void redo() {
+        }
+
+        @Override
+        public void undo() {
+        }
+    }
+
+    @Test
+    public void changeAllTargetsByOneStep() {
+
+        final Array<Target> targets = newTargets(3);
+        final Vector3f newValue = new Vector3f(1, 2, 3);
+        final MultiPropertyOperation<ChangeConsumer, Target, Object> operation = newOperation(targets, newValue);
+        final TestConsumer consumer = new TestConsumer();
+
+        operation.redo(consumer);
+        applyJmeTasks();
+
+        // the first target takes the value, other targets take copies of the value
+        assertSame(newValue, targets.get(0).value);
+        assertEquals(newValue, targets.get(1).value);
+        assertEquals(newValue, targets.get(2).value);
+        assertNotSame(newValue, targets.get(1).value);
+        assertNotSame(targets.get(1).value, targets.get(2).value);
+
+        assertEquals(3, consumer.jmeChanged.size());
+        assertEquals(1, consumer.fxNotifications);
+        assertEquals(3, consumer.fxChanged);
+
+        operation.undo(consumer);
+        applyJmeTasks();
+
+        for (int i = 0; i < targets.size(); i++) {
+            assertEquals(new Vector3f(i, i, i), targets.get(i).value);
+        }
+
+        assertEquals(6, consumer.jmeChanged.size());
+        assertEquals(2, consumer.fxNotifications);
+    }
+
+    @Test
+    public void mergeChangesOfSameTargets() {
+
+        final Array<Target> targets = newTargets(2);
+        final MultiPropertyOperation<ChangeConsumer, Target, Object> first =
+                newOperation(targets, new Vector3f(1, 1, 1));
+        final MultiPropertyOperation<ChangeConsumer, Target, Object> second =
+                newOperation(targets, new Vector3f(2, 2, 2));
+
+        assertTrue(first.merge(second));
+
+        final Array<Target> reversed = ArrayFactory.newArray(Target.class);
+        reversed.add(targets.get(1));
+        reversed.add(targets.get(0));
+
+        // changes of other targets or heavy values aren't merged
+        assertFalse(first.merge(newOperation(reversed, new Vector3f(3, 3, 3))));
+        assertFalse(first.merge(newOperation(newTargets(2), new Vector3f(3, 3, 3))));
+        assertFalse(first.merge(newOperation(targets, new ArrayList<>())));
+
+        final TestConsumer consumer = new TestConsumer();
+
+        first.redo(consumer);
+        applyJmeTasks();
+
+        assertEquals(new Vector3f(2, 2, 2), targets.get(0).value);
+        assertEquals(new Vector3f(2, 2, 2), targets.get(1).value);
+
+        first.undo(consumer);
+        applyJmeTasks();
+
+        assertEquals(new Vector3f(0, 0, 0), targets.get(0).value);
+        assertEquals(new Vector3f(1, 1, 1), targets.get(1).value);
+    }
+
+    @Test
+    public void estimateSizeOfAllValues() {
+
+        final Array<Target> targets = ArrayFactory.newArray(Target.class);
+
+        for (int i = 0; i < 4; i++) {
+            targets.add(new Target(ByteBuffer.allocate(1000)));
+        }
+
+        final Array<Target> half = ArrayFactory.newArray(Target.class);
+        half.add(targets.get(0));
+        half.add(targets.get(1));
+
+        final long size = newOperation(targets, ByteBuffer.allocate(2000)).getEstimatedSize();
+
+        // the new value is copied for each target and the old value of each target is kept
+        assertTrue(size >= 4 * 2000 + 4 * 1000);
+        assertTrue(size > newOperation(half, ByteBuffer.allocate(2000)).getEstimatedSize());
+    }
+
+    private static @NotNull MultiPropertyOperation<ChangeConsumer, Target, Object> newOperation(
+            @NotNull final Array<Target> targets, @NotNull final Object newValue) {
+
+        final MultiPropertyOperation<ChangeConsumer, Target, Object> operation =
+                new MultiPropertyOperation<>(targets, PROPERTY_NAME, newValue, MultiPropertyOperationTest::copyValue);
+
+        operation.setApplyHandler((target, value) -> target.value = value);
+        operation.setCopyHandler(MultiPropertyOperationTest::copy);
+
+        return operation;
+    }
+
+    private static @NotNull Object copyValue(@NotNull final Target target) {
+        return copy(target.value);
+    }
+
+    private static @NotNull Object copy(@NotNull final Object value) {
+        return value instanceof Vector3f ? ((Vector3f) value).clone() : value;
+    }
+
+    private static @NotNull Array<Target> newTargets(final int count) {
+
+        final Array<Target> targets = ArrayFactory.newArray(Target.class);
+
+        for (int i = 0; i < count; i++) {
+            targets.add(new Target(new Vector3f(i, i, i)));
+        }
+
+        return targets;
+    }
+
+    /**
+     * Execute all waited editor tasks and wait for the FX tasks which were added by them.
+     */
+    private static void applyJmeTasks() {
+
+        final JmeThreadExecutor executor = JmeThreadExecutor.getInstance();
+
+        while (executor.getQueueDepth() > 0) {
+            executor.execute();
+        }
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+        executorManager.addFxTask(latch::countDown);
+
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                fail("FX tasks weren't executed.");
+            }
+        } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.ss.editor.test.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import com.ss.editor.file.cache.PreviewCache;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * The test of the cache of file previews.
+ *
+ * @author JavaSaBr
+ */
+public class PreviewCacheTest {
+
+    private static final long MAX_SIZE = 64 * 1024 * 1024;
+
+    @Test
+    public void getPendingPreview() throws IOException {
+
+        final Path folder = Files.createTempDirectory("previews");
+        try {
+
+            final PreviewCache cache = new PreviewCache(folder, MAX_SIZE);
+            final byte[] data = newData(1, 100);
+
+            cache.put("Textures/a.png", 10, 100, 40, 40, data);
+            assertNull(cache.get("Textures/a.png", 10, 100, 40, 40));
+
+            cache.open();
+            cache.put("Textures/a.png", 10, 100, 40, 40, data);
+
+            assertArrayEquals(data, cache.get("Textures/a.png", 10, 100, 40, 40));
+            assertNull(cache.get("Textures/a.png", 10, 100, 80, 80));
+            assertNull(cache.get("Textures/a.png", 11, 100, 40, 40));
+            assertNull(cache.get("Textures/a.png", 10, 101, 40, 40));
+
+            cache.close();
+
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    public void getStoredPreview() throws IOException {
+
+        final Path folder = Files.createTempDirectory("previews");
+        try {
+
+            final byte[] first = newData(1, 1000);
+            final byte[] second = newData(2, 3000);
+
+            final PreviewCache cache = new PreviewCache(folder, MAX_SIZE);
+            cache.open();
+            cache.put("Textures/a.png", 10, 100, 40, 40, first);
+            cache.put("Textures/b.png", 20, 200, 40, 40, second);
+            cache.flush();
+
+            assertArrayEquals(first, cache.get("Textures/a.png", 10, 100, 40, 40));
+            assertArrayEquals(second, cache.get("Textures/b.png", 20, 200, 40, 40));
+
+            cache.close();
+
+            final PreviewCache reopened = new PreviewCache(folder, MAX_SIZE);
+            reopened.open();
+
+            assertArrayEquals(first, reopened.get("Textures/a.png", 10, 100, 40, 40));
+            assertArrayEquals(second, reopened.get("Textures/b.png", 20, 200, 40, 40));
+
+            // the changed source file invalidates the stored preview
+            assertNull(reopened.get("Textures/b.png", 21, 200, 40, 40));
+            assertNull(reopened.get("Textures/b.png", 20, 200, 40, 40));
+
+            reopened.close();
+
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    public void removeOutdatedPreviewsOnOpen() throws IOException {
+
+        final Path folder = Files.createTempDirectory("previews");
+        final Path source = Files.createTempFile("preview-source", ".png");
+        try {
+
+            Files.write(source, newData(3, 100));
+
+            final String path = source.toString();
+            final String url = source.toUri().toURL().toExternalForm();
+            final byte[] data = newData(4, 500);
+
+            final PreviewCache cache = new PreviewCache(folder, MAX_SIZE);
+            cache.open();
+            cache.put(path, Files.getLastModifiedTime(source).toMillis(), Files.size(source), 40, 40, data);
+            cache.put(url, Files.getLastModifiedTime(source).toMillis(), Files.size(source), 40, 40, data);
+            cache.put(path, PreviewCache.UNCHECKED, PreviewCache.UNCHECKED, 80, 80, data);
+            cache.close();
+
+            PreviewCache reopened = new PreviewCache(folder, MAX_SIZE);
+            reopened.open();
+
+            assertArrayEquals(data, reopened.get(path, Files.getLastModifiedTime(source).toMillis(),
+                    Files.size(source), 40, 40));
+            assertArrayEquals(data, reopened.get(url, Files.getLastModifiedTime(source).toMillis(),
+                    Files.size(source), 40, 40));
+
+            reopened.close();
+
+            Files.write(source, newData(5, 200));
+
+            reopened = new PreviewCache(folder, MAX_SIZE);
+            reopened.open();
+
+            assertNull(reopened.get(path, Files.getLastModifiedTime(source).toMillis(), Files.size(source), 40, 40));
+            assertNull(reopened.get(url, Files.getLastModifiedTime(source).toMillis(), Files.size(source), 40, 40));
+
+            // previews of sources which aren't checked for modification are kept
+            assertArrayEquals(data, reopened.get(path, PreviewCache.UNCHECKED, PreviewCache.UNCHECKED, 80, 80));
+
+            reopened.close();
+
+        } finally {
+            Files.deleteIfExists(source);
+            delete(folder);
+        }
+    }
+
+    @Test
+    public void evictPreviewsOverLimit() throws IOException {
+
+        final Path folder = Files.createTempDirectory("previews");
+        try {
+
+            final PreviewCache cache = new PreviewCache(folder, 1000);
+            cache.open();
+
+            for (int i = 0; i < 10; i++) {
+                cache.put("Textures/" + i + ".png", 10, 100, 40, 40, newData(i, 200));
+            }
+
+            cache.flush();
+
+            int stored = 0;
+
+            for (int i = 0; i < 10; i++) {
+                if (cache.get("Textures/" + i + ".png", 10, 100, 40, 40) != null) {
+                    stored++;
+                }
+            }
+
+            assertEquals(3, stored);
+
+            cache.close();
+
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    public void compactDataFile() throws IOException {
+
+        final Path folder = Files.createTempDirectory("previews");
+        try {
+
+            final int length = 600 * 1024;
+            final PreviewCache cache = new PreviewCache(folder, MAX_SIZE);
+            cache.open();
+
+            byte[] data = null;
+
+            for (int i = 0; i < 3; i++) {
+                data = newData(i, length);
+                cache.put("Textures/a.png", 10, 100, 40, 40, data);
+                cache.flush();
+            }
+
+            assertEquals((long) length, Files.size(folder.resolve("previews.data")));
+            assertArrayEquals(data, cache.get("Textures/a.png", 10, 100, 40, 40));
+
+            cache.close();
+
+            final PreviewCache reopened = new PreviewCache(folder, MAX_SIZE);
+            reopened.open();
+
+            assertArrayEquals(data, reopened.get("Textures/a.png", 10, 100, 40, 40));
+
+            reopened.close();
+
+        } finally {
+            delete(folder);
+        }
+    }
+
+    private static @NotNull byte[] newData(final int seed, final int length) {
+        final byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static void delete(@NotNull final Path folder) throws IOException {
+        try (final Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder())
+                    .forEach(file -> file.toFile().delete());
+        }
+    }
+}
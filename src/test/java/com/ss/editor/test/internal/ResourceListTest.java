@@ -0,0 +1,184 @@
+package com.ss.editor.test.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.ss.editor.file.index.ResourceList;
+import com.ss.rlib.util.array.Array;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * The test of the immutable sorted list of resources.
+ *
+ * @author JavaSaBr
+ */
+public class ResourceListTest {
+
+    private static final String[] FOLDERS = {"Models/", "models/", "Textures/", "Textures/Sky/", "Sounds/", ""};
+
+    @Test
+    public void createSortedList() {
+
+        final ResourceList list = ResourceList.of(Arrays.asList("b.j3o", "A.j3o", "a.j3o", "b.j3o", "C.j3o"));
+
+        assertEquals(Arrays.asList("A.j3o", "a.j3o", "b.j3o", "C.j3o"), toList(list));
+        assertSame(ResourceList.EMPTY, ResourceList.of(Collections.emptyList()));
+    }
+
+    @Test
+    public void addAndRemoveResources() {
+
+        final Random random = new Random(1);
+        final TreeSet<String> expected = new TreeSet<>(ResourceList.COMPARATOR);
+
+        ResourceList list = ResourceList.EMPTY;
+
+        for (int i = 0; i < 5000; i++) {
+
+            final String resource = newResource(random);
+
+            if (random.nextInt(3) == 0) {
+                list = list.without(resource);
+                expected.remove(resource);
+            } else {
+                list = list.with(resource);
+                expected.add(resource);
+            }
+
+            assertEquals(expected.contains(resource), list.contains(resource));
+        }
+
+        assertEquals(new ArrayList<>(expected), toList(list));
+
+        final Set<String> toRemove = new HashSet<>();
+
+        for (int i = 0; i < 100; i++) {
+            toRemove.add(newResource(random));
+        }
+
+        expected.removeAll(toRemove);
+
+        assertEquals(new ArrayList<>(expected), toList(list.without(toRemove)));
+    }
+
+    @Test
+    public void keepSameListIfNotChanged() {
+
+        final ResourceList list = ResourceList.of(Arrays.asList("a.j3o", "b.j3o"));
+
+        assertSame(list, list.with("a.j3o"));
+        assertSame(list, list.without("c.j3o"));
+        assertSame(list, list.without(new HashSet<>(Arrays.asList("c.j3o", "d.j3o"))));
+        assertSame(list, list.merge(ResourceList.EMPTY));
+        assertSame(list, ResourceList.EMPTY.merge(list));
+        assertSame(ResourceList.EMPTY, list.without(new HashSet<>(Arrays.asList("a.j3o", "b.j3o"))));
+    }
+
+    @Test
+    public void mergeLists() {
+
+        final Random random = new Random(2);
+        final List<String> first = new ArrayList<>();
+        final List<String> second = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            first.add(newResource(random));
+            second.add(newResource(random));
+        }
+
+        final TreeSet<String> expected = new TreeSet<>(ResourceList.COMPARATOR);
+        expected.addAll(first);
+        expected.addAll(second);
+
+        final ResourceList merged = ResourceList.of(first).merge(ResourceList.of(second));
+
+        assertEquals(new ArrayList<>(expected), toList(merged));
+    }
+
+    @Test
+    public void mergeListToArray() {
+
+        final Random random = new Random(4);
+        final List<String> first = new ArrayList<>();
+        final List<String> second = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            first.add(newResource(random));
+            second.add(newResource(random));
+        }
+
+        final TreeSet<String> expected = new TreeSet<>(ResourceList.COMPARATOR);
+        expected.addAll(first);
+        expected.addAll(second);
+
+        final Array<String> container = ResourceList.of(first).toArray();
+        final ResourceList list = ResourceList.of(second);
+
+        assertSame(container, list.mergeTo(container));
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(container));
+        assertSame(container, ResourceList.EMPTY.mergeTo(container));
+        assertEquals(expected.size(), container.size());
+    }
+
+    @Test
+    public void findResources() {
+
+        final Random random = new Random(3);
+        final List<String> resources = new ArrayList<>();
+
+        for (int i = 0; i < 3000; i++) {
+            resources.add(newResource(random));
+        }
+
+        final ResourceList list = ResourceList.of(resources);
+
+        for (final String prefix : Arrays.asList("models/", "MODELS/1", "Textures/Sky/", "t", "x", "")) {
+
+            final List<String> expected = new ArrayList<>();
+
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i).regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    expected.add(list.get(i));
+                }
+            }
+
+            assertEquals(expected, toList(list.findByPrefix(prefix)));
+        }
+
+        for (final String text : Arrays.asList("SKY/", "1", ".j3o", "x", "")) {
+
+            final List<String> expected = new ArrayList<>();
+
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i).toLowerCase(Locale.ENGLISH).contains(text.toLowerCase(Locale.ENGLISH))) {
+                    expected.add(list.get(i));
+                }
+            }
+
+            assertEquals(expected, toList(list.findContaining(text)));
+        }
+
+        assertTrue(list.findByPrefix("x").isEmpty());
+        assertFalse(list.toArray().isEmpty());
+        assertEquals(list.size(), list.toArray().size());
+    }
+
+    private static @NotNull String newResource(@NotNull final Random random) {
+        return FOLDERS[random.nextInt(FOLDERS.length)] + random.nextInt(500) + (random.nextBoolean() ? ".j3o" : ".J3O");
+    }
+
+    private static @NotNull List<String> toList(@NotNull final ResourceList list) {
+
+        final List<String> result = new ArrayList<>(list.size());
+
+        for (int i = 0; i < list.size(); i++) {
+            result.add(list.get(i));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+package com.ss.editor.test.internal;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import com.jme3.collision.CollisionResult;
+import com.jme3.collision.CollisionResults;
+import com.jme3.math.Ray;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.shape.Box;
+import com.ss.editor.model.scene.SceneBoundsTree;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * The test of picking by the scene bounds tree.
+ *
+ * @author JavaSaBr
+ */
+public class SceneBoundsTreeTest {
+
+    private static final int GRID_SIZE = 50;
+    private static final int RAYS = 500;
+
+    @Test
+    public void pickSameAsCollidingWithScene() {
+
+        final Node scene = createScene();
+        final SceneBoundsTree tree = new SceneBoundsTree(scene);
+        final Random random = new Random(1);
+
+        for (int i = 0; i < RAYS; i++) {
+            final Ray ray = createRay(random);
+            assertSame(getGeometry(pickBruteForce(scene, ray)), getGeometry(tree.pick(ray, null)));
+        }
+    }
+
+    @Test
+    public void pickReinsertedGeometry() {
+
+        final Node scene = createScene();
+        final SceneBoundsTree tree = new SceneBoundsTree(scene);
+        final Ray ray = createDownRay(1000, 1000);
+
+        assertNull(tree.pick(ray, null));
+
+        final Spatial moved = scene.getChild(0);
+        moved.setLocalTranslation(1000, 0, 1000);
+        scene.updateGeometricState();
+
+        tree.invalidate();
+        assertSame(moved, getGeometry(tree.pick(ray, null)));
+
+        // the old place of the geometry is empty now
+        tree.invalidate();
+        assertNull(tree.pick(createDownRay(0, 0), null));
+    }
+
+    @Test
+    public void pickWithoutRemovedGeometry() {
+
+        final Node scene = createScene();
+        final SceneBoundsTree tree = new SceneBoundsTree(scene);
+        final Ray ray = createDownRay(0, 0);
+
+        final Spatial removed = scene.getChild(0);
+        assertSame(removed, getGeometry(tree.pick(ray, null)));
+
+        scene.detachChild(removed);
+        scene.updateGeometricState();
+
+        tree.invalidate();
+        assertNull(tree.pick(ray, null));
+
+        scene.attachChild(removed);
+        scene.updateGeometricState();
+
+        tree.invalidate();
+        assertSame(removed, getGeometry(tree.pick(ray, null)));
+    }
+
+    @Test
+    public void pickWithinSubtree() {
+
+        final Node scene = createScene();
+        final Node subtree = new Node("subtree");
+        final Geometry geometry = new Geometry("geometry", new Box(0.4F, 0.4F, 0.4F));
+        geometry.setLocalTranslation(1000, 0, 1000);
+        subtree.attachChild(geometry);
+        scene.attachChild(subtree);
+        scene.updateGeometricState();
+
+        final SceneBoundsTree tree = new SceneBoundsTree(scene);
+
+        assertSame(geometry, getGeometry(tree.pick(createDownRay(1000, 1000), subtree)));
+        assertNull(tree.pick(createDownRay(0, 0), subtree));
+
+        geometry.setLocalTranslation(2000, 0, 2000);
+        scene.updateGeometricState();
+
+        tree.invalidate();
+        assertSame(geometry, getGeometry(tree.pick(createDownRay(2000, 2000), subtree)));
+
+        subtree.detachChild(geometry);
+
+        tree.invalidate();
+        assertNull(tree.pick(createDownRay(2000, 2000), subtree));
+        assertNull(tree.pick(createDownRay(2000, 2000), null));
+    }
+
+    @Test
+    public void pickChangedMesh() {
+
+        final Node scene = createScene();
+        final SceneBoundsTree tree = new SceneBoundsTree(scene);
+        final Ray ray = createDownRay(0, 3);
+
+        final Geometry changed = (Geometry) scene.getChild(0);
+        assertSame(scene.getChild(3), getGeometry(tree.pick(ray, null)));
+
+        // the mesh is grown in place, so its model bound is stale
+        ((Box) changed.getMesh()).updateGeometry(Vector3f.ZERO, 0.4F, 0.4F, 4F);
+        scene.detachChild(scene.getChild(3));
+
+        tree.invalidateModelBound(changed);
+        assertSame(changed, getGeometry(tree.pick(ray, null)));
+    }
+
+    private static @NotNull Node createScene() {
+
+        final Node scene = new Node("scene");
+
+        for (int x = 0; x < GRID_SIZE; x++) {
+            for (int z = 0; z < GRID_SIZE; z++) {
+                final Geometry geometry = new Geometry("box_" + x + "_" + z, new Box(0.4F, 0.4F, 0.4F));
+                geometry.setLocalTranslation(x, (x * 31 + z * 17) % 5, z);
+                scene.attachChild(geometry);
+            }
+        }
+
+        scene.updateGeometricState();
+
+        return scene;
+    }
+
+    private static @NotNull Ray createRay(@NotNull final Random random) {
+        final Vector3f origin = new Vector3f(random.nextFloat() * GRID_SIZE, 30, random.nextFloat() * GRID_SIZE);
+        final Vector3f target = new Vector3f(random.nextFloat() * GRID_SIZE, 0, random.nextFloat() * GRID_SIZE);
+        return new Ray(origin, target.subtractLocal(origin).normalizeLocal());
+    }
+
+    private static @NotNull Ray createDownRay(final float x, final float z) {
+        return new Ray(new Vector3f(x, 30, z), new Vector3f(0, -1, 0));
+    }
+
+    private static @Nullable CollisionResult pickBruteForce(@NotNull final Spatial scene, @NotNull final Ray ray) {
+        final CollisionResults results = new CollisionResults();
+        scene.collideWith(ray, results);
+        return results.size() < 1 ? null : results.getClosestCollision();
+    }
+
+    private static @Nullable Geometry getGeometry(@Nullable final CollisionResult result) {
+        return result == null ? null : result.getGeometry();
+    }
+}
@@ -0,0 +1,171 @@
+package com.ss.editor.test.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.jme3.texture.Image;
+import com.jme3.texture.image.ColorSpace;
+import com.jme3.util.BufferUtils;
+import com.ss.editor.control.painting.terrain.ImageDelta;
+import com.ss.editor.control.painting.terrain.TiledImageChanges;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * The test of tracking changes of an image by tiles and applying and reverting the built delta.
+ *
+ * @author JavaSaBr
+ */
+public class TiledImageChangesTest {
+
+    // the size isn't multiple of the tile size to check tiles on the edges
+    private static final int WIDTH = 150;
+    private static final int HEIGHT = 100;
+
+    @Test
+    public void applyAndRevertDelta() {
+
+        final Image image = createImage();
+        final byte[] original = getBytes(image);
+
+        final TiledImageChanges changes = new TiledImageChanges();
+        changes.begin(image);
+
+        paint(changes, image, 10, 10, 40, 30, (byte) 1);
+        paint(changes, image, 120, 70, 200, 200, (byte) 2);
+        paint(changes, image, 60, 50, 70, 60, (byte) 3);
+
+        final byte[] painted = getBytes(image);
+        final ImageDelta delta = changes.commit();
+
+        assertFalse(delta.isEmpty());
+        assertTrue(delta.getCompressedSize() > 0);
+
+        delta.setApplied(image, false);
+        assertArrayEquals(original, getBytes(image));
+
+        // reverting twice doesn't change the image again
+        delta.setApplied(image, false);
+        assertArrayEquals(original, getBytes(image));
+
+        delta.setApplied(image, true);
+        assertArrayEquals(painted, getBytes(image));
+    }
+
+    @Test
+    public void skipUnchangedTiles() {
+
+        final Image image = createImage();
+        final TiledImageChanges changes = new TiledImageChanges();
+        changes.begin(image);
+        changes.touch(0, 0, WIDTH, HEIGHT);
+
+        assertTrue(changes.commit().isEmpty());
+    }
+
+    @Test
+    public void spillAndRestoreDelta() throws IOException {
+
+        final Image image = createImage();
+        final byte[] original = getBytes(image);
+
+        final TiledImageChanges changes = new TiledImageChanges();
+        changes.begin(image);
+
+        paint(changes, image, 0, 0, WIDTH, HEIGHT, (byte) 5);
+
+        final byte[] painted = getBytes(image);
+        final ImageDelta delta = changes.commit();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            delta.spill(out);
+        }
+
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            delta.restore(in);
+        }
+
+        delta.setApplied(image, false);
+        assertArrayEquals(original, getBytes(image));
+
+        delta.setApplied(image, true);
+        assertArrayEquals(painted, getBytes(image));
+    }
+
+    @Test
+    public void copyStepArea() {
+
+        final Image image = createImage();
+        final TiledImageChanges changes = new TiledImageChanges();
+        changes.begin(image);
+
+        assertFalse(changes.hasStepChanges());
+
+        changes.touch(20, 30, 50, 45);
+        changes.touch(-10, 40, 25, 60);
+
+        assertTrue(changes.hasStepChanges());
+        assertEquals(0, changes.getStepX());
+        assertEquals(30, changes.getStepY());
+
+        final Image stepImage = changes.getStepImage();
+        final ByteBuffer stepData = stepImage.getData(0);
+        final ByteBuffer data = image.getData(0);
+
+        assertEquals(50, stepImage.getWidth());
+        assertEquals(30, stepImage.getHeight());
+
+        for (int y = 0; y < stepImage.getHeight(); y++) {
+            for (int x = 0; x < stepImage.getWidth() * 4; x++) {
+                final int position = ((30 + y) * WIDTH) * 4 + x;
+                assertEquals(data.get(position), stepData.get(y * stepImage.getWidth() * 4 + x));
+            }
+        }
+
+        changes.resetStep();
+
+        assertFalse(changes.hasStepChanges());
+    }
+
+    /**
+     * Touch the area and change its pixels as a brush step does it.
+     */
+    private static void paint(@NotNull final TiledImageChanges changes, @NotNull final Image image, final int minX,
+                              final int minY, final int maxX, final int maxY, final byte value) {
+
+        changes.touch(minX, minY, maxX, maxY);
+
+        final ByteBuffer data = image.getData(0);
+
+        for (int y = minY; y < Math.min(maxY, HEIGHT); y++) {
+            for (int x = minX; x < Math.min(maxX, WIDTH); x++) {
+                data.put((y * WIDTH + x) * 4 + 1, value);
+            }
+        }
+    }
+
+    private static @NotNull Image createImage() {
+
+        final byte[] content = new byte[WIDTH * HEIGHT * 4];
+        new Random(1).nextBytes(content);
+
+        final ByteBuffer data = BufferUtils.createByteBuffer(content.length);
+        data.put(content).flip();
+
+        return new Image(Image.Format.RGBA8, WIDTH, HEIGHT, data, ColorSpace.Linear);
+    }
+
+    private static @NotNull byte[] getBytes(@NotNull final Image image) {
+        final ByteBuffer data = image.getData(0).duplicate();
+        data.clear();
+        final byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return bytes;
+    }
+}